@@ -1,10 +1,13 @@
 package com.lari.bloggerhub;
 
+import com.lari.bloggerhub.config.aot.BloggerHubRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SuppressWarnings("checkstyle:MissingJavadocType")
 @SpringBootApplication
+@ImportRuntimeHints(BloggerHubRuntimeHints.class)
 public class BloggerHubApplication {
 
   @SuppressWarnings("checkstyle:MissingJavadocMethod")
@@ -0,0 +1,82 @@
+package com.lari.bloggerhub.config.aot;
+
+import com.lari.bloggerhub.BloggerHubApplication;
+import com.lari.bloggerhub.repository.resilience.ResilientRepositoryDecorator;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * This class registers the reflection and proxy hints the Blogger Hub application needs when it is
+ * compiled to a GraalVM native image.
+ *
+ * <p>Spring AOT infers hints for beans, Mongo entities and the declared return types of
+ * controllers, but the payloads of the response envelopes are generic, and the repositories are
+ * wrapped in JDK proxies by the {@link ResilientRepositoryDecorator}. The documents, DTOs,
+ * responses and projections are therefore registered for data binding, which covers Jackson and
+ * the Mongo mapping, and every repository interface for proxying and reflective invocation. The
+ * packages are scanned at build time, so new classes are covered without listing them here.
+ */
+public class BloggerHubRuntimeHints implements RuntimeHintsRegistrar {
+
+  private static final String BASE_PACKAGE = BloggerHubApplication.class.getPackageName();
+
+  /** The packages of the classes that are bound from and to JSON or BSON. */
+  static final List<String> BINDING_PACKAGES =
+      List.of(
+          BASE_PACKAGE + ".document",
+          BASE_PACKAGE + ".dto",
+          BASE_PACKAGE + ".response",
+          BASE_PACKAGE + ".repository.projection");
+
+  /** The package of the repository interfaces. */
+  static final String REPOSITORY_PACKAGE = BASE_PACKAGE + ".repository";
+
+  private final BindingReflectionHintsRegistrar bindingRegistrar =
+      new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (String bindingPackage : BINDING_PACKAGES) {
+      for (Class<?> type : scan(bindingPackage, classLoader)) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+      }
+    }
+    for (Class<?> type : scan(REPOSITORY_PACKAGE, classLoader)) {
+      if (!type.isInterface() || !type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+        continue;
+      }
+      hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+      if (Repository.class.isAssignableFrom(type)) {
+        hints.proxies().registerJdkProxy(type);
+      }
+    }
+  }
+
+  /** Returns every class in a package and its subpackages, including interfaces and records. */
+  private static List<Class<?>> scan(String basePackage, ClassLoader classLoader) {
+    ClassPathScanningCandidateComponentProvider scanner =
+        new ClassPathScanningCandidateComponentProvider(false) {
+          @Override
+          protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+            return true;
+          }
+        };
+    scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+    scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+    List<Class<?>> types = new ArrayList<>();
+    for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+      types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+    }
+    return types;
+  }
+}
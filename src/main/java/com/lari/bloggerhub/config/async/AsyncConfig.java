@@ -0,0 +1,29 @@
+package com.lari.bloggerhub.config.async;
+
+import java.util.concurrent.Executor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This class enables asynchronous and scheduled execution for the Blogger Hub application.
+ *
+ * <p>In-memory indexes are rebuilt from MongoDB on background threads after startup, and
+ * write-behind components flush on a schedule. Asynchronous methods run on virtual threads: they
+ * mostly wait on the database, and as daemon threads a rebuild that is still waiting for an
+ * unreachable server never holds up shutdown.
+ */
+@Configuration
+@EnableAsync(proxyTargetClass = true)
+@EnableScheduling
+public class AsyncConfig implements AsyncConfigurer {
+
+  @Override
+  public Executor getAsyncExecutor() {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+    executor.setVirtualThreads(true);
+    return executor;
+  }
+}
@@ -0,0 +1,70 @@
+package com.lari.bloggerhub.config.invalidation;
+
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.service.invalidation.LocalInvalidationBus;
+import com.lari.bloggerhub.service.invalidation.MongoInvalidationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This class provides the cache invalidation bus of the Blogger Hub application.
+ *
+ * <p>In {@code mongo} mode, the default, invalidations are broadcast to every node through a capped
+ * collection. In {@code local} mode they only reach the caches of the running process, which is
+ * enough for tests and a single instance.
+ */
+@Configuration
+public class InvalidationBusConfig {
+
+  /**
+   * Creates the invalidation bus for the configured mode.
+   *
+   * @param mode {@code mongo} or {@code local}
+   * @param mongoTemplate the template used by the MongoDB bus
+   * @param meterRegistry the registry for the invalidation metrics
+   * @param collectionSize the size of the capped collection
+   * @param maxBatchSize the maximum number of keys written by one insert
+   * @param queueCapacity the number of keys that may wait to be published
+   * @param maxAwait how long the tailable cursor waits for new invalidations per request
+   * @param retryInterval how long to wait before retrying after the database failed
+   * @param overlap how far before the last invalidation seen tailing resumes
+   * @return the started bus
+   */
+  @Bean
+  public InvalidationBus invalidationBus(
+      @Value("${bloggerhub.invalidation.mode}") String mode,
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.invalidation.collection-size}") DataSize collectionSize,
+      @Value("${bloggerhub.invalidation.max-batch-size}") int maxBatchSize,
+      @Value("${bloggerhub.invalidation.queue-capacity}") int queueCapacity,
+      @Value("${bloggerhub.invalidation.max-await}") Duration maxAwait,
+      @Value("${bloggerhub.invalidation.retry-interval}") Duration retryInterval,
+      @Value("${bloggerhub.invalidation.overlap}") Duration overlap) {
+    switch (mode) {
+      case "local" -> {
+        return new LocalInvalidationBus();
+      }
+      case "mongo" -> {
+        MongoInvalidationBus bus =
+            new MongoInvalidationBus(
+                mongoTemplate,
+                meterRegistry,
+                collectionSize.toBytes(),
+                maxBatchSize,
+                queueCapacity,
+                maxAwait,
+                retryInterval,
+                overlap);
+        bus.start();
+        return bus;
+      }
+      default -> throw new IllegalArgumentException("Unknown invalidation bus mode: " + mode);
+    }
+  }
+}
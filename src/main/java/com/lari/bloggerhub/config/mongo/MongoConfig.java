@@ -0,0 +1,14 @@
+package com.lari.bloggerhub.config.mongo;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * This class provides the MongoDB configuration for the Blogger Hub application.
+ *
+ * <p>Auditing is enabled so that the {@code @CreatedDate} and {@code @LastModifiedDate} fields of
+ * the documents are maintained on every save.
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoConfig {}
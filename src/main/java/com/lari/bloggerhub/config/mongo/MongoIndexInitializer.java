@@ -0,0 +1,61 @@
+package com.lari.bloggerhub.config.mongo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class creates the indexes declared on the documents of the Blogger Hub application.
+ *
+ * <p>Automatic index creation of Spring Data is disabled because it runs while the repositories
+ * are created and blocks startup on the database. The indexes are created in the background after
+ * startup instead; creating an index that already exists is a no-op.
+ */
+@Component
+public class MongoIndexInitializer {
+
+  private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Constructs a new instance of the {@link MongoIndexInitializer} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to create the indexes
+   */
+  public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  /** Ensures the indexes of every mapped document. Runs in the background after startup. */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureIndexes() {
+    MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+        mongoTemplate.getConverter().getMappingContext();
+    IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+    for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+      if (!entity.isAnnotationPresent(Document.class)) {
+        continue;
+      }
+      IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+      try {
+        resolver.resolveIndexFor(entity.getTypeInformation()).forEach(indexOps::ensureIndex);
+      } catch (RuntimeException e) {
+        log.warn("Could not ensure the indexes of {}", entity.getCollection(), e);
+      }
+    }
+  }
+}
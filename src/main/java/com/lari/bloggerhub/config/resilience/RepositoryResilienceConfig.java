@@ -0,0 +1,335 @@
+package com.lari.bloggerhub.config.resilience;
+
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.repository.CommentRepository;
+import com.lari.bloggerhub.repository.DraftDeltaRepository;
+import com.lari.bloggerhub.repository.DraftSnapshotRepository;
+import com.lari.bloggerhub.repository.FollowEdgeRepository;
+import com.lari.bloggerhub.repository.NotificationCounterRepository;
+import com.lari.bloggerhub.repository.NotificationRepository;
+import com.lari.bloggerhub.repository.PostReadSketchRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.PostRevisionRepository;
+import com.lari.bloggerhub.repository.RefreshTokenRepository;
+import com.lari.bloggerhub.repository.SitemapShardRepository;
+import com.lari.bloggerhub.repository.SyndicationEntryRepository;
+import com.lari.bloggerhub.repository.resilience.ResilientRepositoryDecorator;
+import com.lari.bloggerhub.util.resilience.CircuitBreaker;
+import com.lari.bloggerhub.util.resilience.ResilienceGuard;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+/**
+ * This class provides the resilience configuration for the MongoDB repositories of the Blogger Hub
+ * application.
+ *
+ * <p>Repository operations are split into two lanes, each with its own bulkhead, deadline and
+ * circuit breaker:
+ *
+ * <ul>
+ *   <li><b>auth</b> - refresh token operations and the single user lookups used by login, signup
+ *       and access token validation;
+ *   <li><b>read</b> - listing, every other user read, and all post and follow operations.
+ * </ul>
+ *
+ * <p>A slow listing query can therefore exhaust only the read lane, while authentication keeps its
+ * own capacity. The guarded repositories are registered as {@link Primary} beans, so existing
+ * injection points pick them up unchanged.
+ */
+@Configuration
+public class RepositoryResilienceConfig {
+
+  /**
+   * The {@link BlogUserRepository} methods that belong to the auth lane. {@code findAllById} is
+   * included because principal lookups are batched through it by the user loader.
+   */
+  static final Set<String> AUTH_LANE_USER_METHODS =
+      Set.of(
+          "findById",
+          "findAllById",
+          "findByUsername",
+          "findByEmail",
+          "existsByUsername",
+          "existsByEmail",
+          "save");
+
+  /**
+   * Creates the executor that guarded repository calls run on.
+   *
+   * @return the executor for repository calls
+   */
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService repositoryCallExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  /**
+   * Creates the guard of the auth lane.
+   *
+   * @param environment the environment holding the lane settings
+   * @param repositoryCallExecutor the executor for repository calls
+   * @return the auth lane guard
+   */
+  @Bean
+  public ResilienceGuard authRepositoryGuard(
+      Environment environment, ExecutorService repositoryCallExecutor) {
+    return createGuard("auth", environment, repositoryCallExecutor);
+  }
+
+  /**
+   * Creates the guard of the read lane.
+   *
+   * @param environment the environment holding the lane settings
+   * @param repositoryCallExecutor the executor for repository calls
+   * @return the read lane guard
+   */
+  @Bean
+  public ResilienceGuard readRepositoryGuard(
+      Environment environment, ExecutorService repositoryCallExecutor) {
+    return createGuard("read", environment, repositoryCallExecutor);
+  }
+
+  /**
+   * Creates the guarded {@link BlogUserRepository}.
+   *
+   * @param blogUserRepository the repository created by Spring Data
+   * @param authRepositoryGuard the auth lane guard
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public BlogUserRepository resilientBlogUserRepository(
+      @Qualifier("blogUserRepository") BlogUserRepository blogUserRepository,
+      ResilienceGuard authRepositoryGuard,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        BlogUserRepository.class,
+        blogUserRepository,
+        method ->
+            AUTH_LANE_USER_METHODS.contains(method.getName())
+                ? authRepositoryGuard
+                : readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link RefreshTokenRepository}.
+   *
+   * @param refreshTokenRepository the repository created by Spring Data
+   * @param authRepositoryGuard the auth lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public RefreshTokenRepository resilientRefreshTokenRepository(
+      @Qualifier("refreshTokenRepository") RefreshTokenRepository refreshTokenRepository,
+      ResilienceGuard authRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        RefreshTokenRepository.class, refreshTokenRepository, method -> authRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link PostRepository}.
+   *
+   * @param postRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public PostRepository resilientPostRepository(
+      @Qualifier("postRepository") PostRepository postRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        PostRepository.class, postRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link FollowEdgeRepository}.
+   *
+   * @param followEdgeRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public FollowEdgeRepository resilientFollowEdgeRepository(
+      @Qualifier("followEdgeRepository") FollowEdgeRepository followEdgeRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        FollowEdgeRepository.class, followEdgeRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link PostReadSketchRepository}.
+   *
+   * @param postReadSketchRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public PostReadSketchRepository resilientPostReadSketchRepository(
+      @Qualifier("postReadSketchRepository") PostReadSketchRepository postReadSketchRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        PostReadSketchRepository.class, postReadSketchRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link CommentRepository}.
+   *
+   * @param commentRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public CommentRepository resilientCommentRepository(
+      @Qualifier("commentRepository") CommentRepository commentRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        CommentRepository.class, commentRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link DraftDeltaRepository}.
+   *
+   * @param draftDeltaRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public DraftDeltaRepository resilientDraftDeltaRepository(
+      @Qualifier("draftDeltaRepository") DraftDeltaRepository draftDeltaRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        DraftDeltaRepository.class, draftDeltaRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link DraftSnapshotRepository}.
+   *
+   * @param draftSnapshotRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public DraftSnapshotRepository resilientDraftSnapshotRepository(
+      @Qualifier("draftSnapshotRepository") DraftSnapshotRepository draftSnapshotRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        DraftSnapshotRepository.class, draftSnapshotRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link PostRevisionRepository}.
+   *
+   * @param postRevisionRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public PostRevisionRepository resilientPostRevisionRepository(
+      @Qualifier("postRevisionRepository") PostRevisionRepository postRevisionRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        PostRevisionRepository.class, postRevisionRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link SyndicationEntryRepository}.
+   *
+   * @param syndicationEntryRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public SyndicationEntryRepository resilientSyndicationEntryRepository(
+      @Qualifier("syndicationEntryRepository")
+          SyndicationEntryRepository syndicationEntryRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        SyndicationEntryRepository.class,
+        syndicationEntryRepository,
+        method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link SitemapShardRepository}.
+   *
+   * @param sitemapShardRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public SitemapShardRepository resilientSitemapShardRepository(
+      @Qualifier("sitemapShardRepository") SitemapShardRepository sitemapShardRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        SitemapShardRepository.class, sitemapShardRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link NotificationRepository}.
+   *
+   * @param notificationRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public NotificationRepository resilientNotificationRepository(
+      @Qualifier("notificationRepository") NotificationRepository notificationRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        NotificationRepository.class, notificationRepository, method -> readRepositoryGuard);
+  }
+
+  /**
+   * Creates the guarded {@link NotificationCounterRepository}.
+   *
+   * @param notificationCounterRepository the repository created by Spring Data
+   * @param readRepositoryGuard the read lane guard
+   * @return the guarded repository
+   */
+  @Bean
+  @Primary
+  public NotificationCounterRepository resilientNotificationCounterRepository(
+      @Qualifier("notificationCounterRepository")
+          NotificationCounterRepository notificationCounterRepository,
+      ResilienceGuard readRepositoryGuard) {
+    return ResilientRepositoryDecorator.decorate(
+        NotificationCounterRepository.class,
+        notificationCounterRepository,
+        method -> readRepositoryGuard);
+  }
+
+  private static ResilienceGuard createGuard(
+      String lane, Environment environment, ExecutorService executor) {
+    String prefix = "bloggerhub.resilience." + lane + ".";
+    CircuitBreaker circuitBreaker =
+        new CircuitBreaker(
+            environment.getRequiredProperty(prefix + "sliding-window-size", Integer.class),
+            environment.getRequiredProperty(prefix + "failure-rate-threshold", Double.class),
+            environment.getRequiredProperty(prefix + "open-duration", Duration.class));
+    return new ResilienceGuard(
+        lane,
+        environment.getRequiredProperty(prefix + "max-concurrent-calls", Integer.class),
+        environment.getRequiredProperty(prefix + "timeout", Duration.class),
+        circuitBreaker,
+        executor);
+  }
+}
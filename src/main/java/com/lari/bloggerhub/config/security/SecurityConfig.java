@@ -2,10 +2,12 @@ package com.lari.bloggerhub.config.security;
 
 import com.lari.bloggerhub.config.security.filter.AccessTokenEntryPoint;
 import com.lari.bloggerhub.config.security.filter.AccessTokenFilter;
+import com.lari.bloggerhub.config.security.filter.LoadSheddingFilter;
 import java.util.Arrays;
 import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -17,6 +19,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -42,6 +45,24 @@ public class SecurityConfig {
     "/api/auth/**"
   };
 
+  /** Read-only endpoints that anonymous clients and shared caches may call. */
+  private static final String[] PUBLIC_READS = {
+    "/api/users/*",
+    "/api/users/*/follow-stats",
+    "/api/users/*/mutuals",
+    "/api/users/*/rss",
+    "/api/users/*/atom",
+    "/api/posts",
+    "/api/posts/**",
+    "/api/search",
+    "/api/tags",
+    "/api/tags/posts",
+    "/api/comments/*/replies",
+    "/api/pictures/*",
+    "/sitemap.xml",
+    "/sitemaps/**"
+  };
+
   private final AccessTokenEntryPoint accessTokenEntryPoint;
 
   /**
@@ -84,12 +105,14 @@ public class SecurityConfig {
    *
    * @param http the HTTP security configuration
    * @param accessTokenFilter the filter for validating access tokens
+   * @param loadSheddingFilter the filter for rejecting requests above the concurrency limit
    * @return the security filter chain for the application
    * @throws Exception if an error occurs while configuring the security filter chain
    */
   @Bean
   public SecurityFilterChain securityFilterChain(
-      HttpSecurity http, AccessTokenFilter accessTokenFilter) throws Exception {
+      HttpSecurity http, AccessTokenFilter accessTokenFilter, LoadSheddingFilter loadSheddingFilter)
+      throws Exception {
     http.cors(corsConfigurer -> corsConfigurer.configurationSource(corsConfigurationSource()))
         .csrf(CsrfConfigurer::disable)
         .exceptionHandling(
@@ -105,8 +128,11 @@ public class SecurityConfig {
                     .permitAll()
                     .requestMatchers(AUTH_WHITELIST)
                     .permitAll()
+                    .requestMatchers(HttpMethod.GET, PUBLIC_READS)
+                    .permitAll()
                     .anyRequest()
                     .authenticated())
+        .addFilterBefore(loadSheddingFilter, DisableEncodeUrlFilter.class)
         .addFilterBefore(accessTokenFilter, UsernamePasswordAuthenticationFilter.class);
 
     return http.build();
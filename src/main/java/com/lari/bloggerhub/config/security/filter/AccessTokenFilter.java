@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
@@ -60,26 +61,12 @@ public class AccessTokenFilter extends OncePerRequestFilter {
       @NonNull FilterChain filterChain)
       throws ServletException, IOException {
     try {
-      Optional<String> accessToken = parseAccessToken(request);
-
-      if (accessToken.isEmpty()) {
-        log.warn("No access token found in Authorization header");
-      } else if (!jwtHelper.validateAccessToken(accessToken.get())) {
-        log.warn("Invalid access token: {}", accessToken.get());
-      } else {
-        String userId = jwtHelper.getUserIdFromAccessToken(accessToken.get());
-        BlogUser user = userService.findById(userId);
-
-        if (user == null) {
-          log.warn("User not found for ID: {}", userId);
-        } else {
-          UsernamePasswordAuthenticationToken authToken =
-              new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-          authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-          SecurityContextHolder.getContext().setAuthentication(authToken);
-          log.debug("User authenticated successfully: {}", userId);
-        }
-      }
+      authenticate(request.getHeader("Authorization"), userService::findById)
+          .ifPresent(
+              authToken -> {
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+              });
     } catch (Exception e) {
       log.error("Cannot authenticate user", e);
     }
@@ -87,9 +74,38 @@ public class AccessTokenFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private Optional<String> parseAccessToken(HttpServletRequest request) {
-    String authHeader = request.getHeader("Authorization");
-    log.warn("authHeader: {}", authHeader);
+  /**
+   * Authenticates the user an Authorization header was issued to. The access token is verified
+   * once, and the user is looked up with the given function, so the same path can be exercised
+   * without a request or a database.
+   *
+   * @param authorizationHeader the value of the Authorization header, may be null
+   * @param users the function that finds a user by ID, returning null if there is none
+   * @return the authentication of the user, or empty if the header holds no valid token of a known
+   *     user
+   */
+  public Optional<UsernamePasswordAuthenticationToken> authenticate(
+      String authorizationHeader, Function<String, BlogUser> users) {
+    Optional<String> accessToken = parseAccessToken(authorizationHeader);
+    if (accessToken.isEmpty()) {
+      log.debug("No access token found in Authorization header");
+      return Optional.empty();
+    }
+    Optional<String> userId = jwtHelper.verifyAccessToken(accessToken.get());
+    if (userId.isEmpty()) {
+      log.warn("Invalid access token");
+      return Optional.empty();
+    }
+    BlogUser user = users.apply(userId.get());
+    if (user == null) {
+      log.warn("User not found for ID: {}", userId.get());
+      return Optional.empty();
+    }
+    log.debug("User authenticated successfully: {}", userId.get());
+    return Optional.of(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+  }
+
+  private Optional<String> parseAccessToken(String authHeader) {
     if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
       return Optional.of(authHeader.replace("Bearer ", ""));
     }
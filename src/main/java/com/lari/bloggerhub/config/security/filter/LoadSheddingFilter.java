@@ -0,0 +1,156 @@
+package com.lari.bloggerhub.config.security.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.util.concurrency.AdaptiveConcurrencyLimiter;
+import com.lari.bloggerhub.util.concurrency.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * This class represents a filter that protects the Blogger Hub API from overload by applying an
+ * {@link AdaptiveConcurrencyLimiter} in front of the security filter chain.
+ *
+ * <p>Every request is classified into a {@link RequestPriority}. Requests that cannot get a permit
+ * are rejected immediately with HTTP 503 and a {@code Retry-After} header, so that the requests
+ * that are admitted keep a bounded latency.
+ *
+ * <p>The filter is registered first in the security filter chain, so shed requests never reach
+ * token parsing or the database.
+ */
+@Component
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final ObjectMapper objectMapper;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final String[] criticalPatterns;
+  private final String[] bulkPatterns;
+  private final Map<RequestPriority, Counter> shedCounters = new EnumMap<>(RequestPriority.class);
+
+  /**
+   * Constructs a new instance of the {@link LoadSheddingFilter} class with the specified
+   * dependencies.
+   *
+   * @param objectMapper the mapper used to write the 503 response body
+   * @param meterRegistry the registry for the limit and shed metrics
+   * @param initialLimit the initial concurrency limit
+   * @param minLimit the lower bound of the concurrency limit
+   * @param maxLimit the upper bound of the concurrency limit
+   * @param criticalPatterns the request patterns classified as {@link RequestPriority#CRITICAL}
+   * @param bulkPatterns the request patterns classified as {@link RequestPriority#BULK}
+   */
+  public LoadSheddingFilter(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.load-shedding.initial-limit}") int initialLimit,
+      @Value("${bloggerhub.load-shedding.min-limit}") int minLimit,
+      @Value("${bloggerhub.load-shedding.max-limit}") int maxLimit,
+      @Value("${bloggerhub.load-shedding.critical-paths}") String[] criticalPatterns,
+      @Value("${bloggerhub.load-shedding.bulk-paths}") String[] bulkPatterns) {
+    this.objectMapper = objectMapper;
+    this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    this.criticalPatterns = criticalPatterns;
+    this.bulkPatterns = bulkPatterns;
+
+    Gauge.builder("bloggerhub.load_shedding.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .register(meterRegistry);
+    Gauge.builder(
+            "bloggerhub.load_shedding.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+        .register(meterRegistry);
+    for (RequestPriority priority : RequestPriority.values()) {
+      shedCounters.put(
+          priority,
+          Counter.builder("bloggerhub.load_shedding.shed")
+              .tag("priority", priority.name())
+              .register(meterRegistry));
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestPriority priority = classify(request);
+    if (!limiter.tryAcquire(priority)) {
+      shedCounters.get(priority).increment();
+      log.debug("Shedding {} request {} {}", priority, request.getMethod(), request.getRequestURI());
+      reject(response);
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean dropped = true;
+    try {
+      filterChain.doFilter(request, response);
+      dropped = response.getStatus() >= HttpStatus.SERVICE_UNAVAILABLE.value();
+    } finally {
+      limiter.release(System.nanoTime() - start, dropped);
+    }
+  }
+
+  RequestPriority classify(HttpServletRequest request) {
+    if (matches(criticalPatterns, request)) {
+      return RequestPriority.CRITICAL;
+    }
+    if (matches(bulkPatterns, request)) {
+      return RequestPriority.BULK;
+    }
+    return RequestPriority.NORMAL;
+  }
+
+  /**
+   * Matches the request against patterns of the form {@code /path/**} or {@code GET /path/**}.
+   */
+  private boolean matches(String[] patterns, HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (String pattern : patterns) {
+      String trimmed = pattern.trim();
+      int space = trimmed.indexOf(' ');
+      if (space > 0) {
+        if (trimmed.regionMatches(true, 0, request.getMethod(), 0, space)
+            && pathMatcher.match(trimmed.substring(space + 1).trim(), path)) {
+          return true;
+        }
+      } else if (pathMatcher.match(trimmed, path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void reject(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        new ErrorResponse(
+            false,
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Server is overloaded, please retry later",
+            HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,59 @@
+package com.lari.bloggerhub.config.web;
+
+import com.lari.bloggerhub.response.PrecomputedResponse;
+import com.lari.bloggerhub.response.ResponseFormat;
+import java.io.IOException;
+import java.util.Arrays;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+/**
+ * This class writes a {@link PrecomputedResponse} by copying its pre-encoded body for the
+ * negotiated format. It never serializes anything on the request path.
+ */
+public class PrecomputedResponseHttpMessageConverter
+    extends AbstractHttpMessageConverter<PrecomputedResponse> {
+
+  /** Constructs a new converter supporting every {@link ResponseFormat}. */
+  public PrecomputedResponseHttpMessageConverter() {
+    super(
+        Arrays.stream(ResponseFormat.values())
+            .map(ResponseFormat::getMediaType)
+            .toArray(MediaType[]::new));
+  }
+
+  @Override
+  protected boolean supports(@NonNull Class<?> clazz) {
+    return PrecomputedResponse.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  @NonNull
+  protected PrecomputedResponse readInternal(
+      @NonNull Class<? extends PrecomputedResponse> clazz, @NonNull HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Precomputed responses are write-only", inputMessage);
+  }
+
+  @Override
+  protected Long getContentLength(@NonNull PrecomputedResponse response, MediaType contentType) {
+    return (long) response.getBody(ResponseFormat.of(contentType)).length;
+  }
+
+  @Override
+  protected void writeInternal(
+      @NonNull PrecomputedResponse response, @NonNull HttpOutputMessage outputMessage)
+      throws IOException {
+    ResponseFormat format = ResponseFormat.of(outputMessage.getHeaders().getContentType());
+    outputMessage.getBody().write(response.getBody(format));
+  }
+}
@@ -0,0 +1,54 @@
+package com.lari.bloggerhub.config.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This class provides the web configuration for the Blogger Hub application.
+ *
+ * <p>Besides JSON, responses can be negotiated as CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}). The binary converters are built from the same {@link
+ * Jackson2ObjectMapperBuilder} as the JSON mapper, so all formats share one Jackson configuration.
+ * The builder bean is a prototype, so setting the factory on the injected instance does not leak
+ * into other mappers.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  /**
+   * Creates the CBOR message converter.
+   *
+   * @param builder the Jackson builder configured by Spring Boot
+   * @return the CBOR message converter
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  /**
+   * Creates the Smile message converter.
+   *
+   * @param builder the Jackson builder configured by Spring Boot
+   * @return the Smile message converter
+   */
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new PrecomputedResponseHttpMessageConverter());
+  }
+}
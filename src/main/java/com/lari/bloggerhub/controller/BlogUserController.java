@@ -1,9 +1,22 @@
 package com.lari.bloggerhub.controller;
 
+import com.lari.bloggerhub.document.BlogUser;
 import com.lari.bloggerhub.dto.request.BlogUserRequestDto;
+import com.lari.bloggerhub.dto.response.AvailabilityResponseDto;
+import com.lari.bloggerhub.dto.response.UsernameSuggestionDto;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.Response;
 import com.lari.bloggerhub.service.BlogUserService;
+import com.lari.bloggerhub.service.autocomplete.UsernameAutocompleteService;
+import com.lari.bloggerhub.service.availability.AvailabilityService;
+import com.lari.bloggerhub.service.follow.FollowService;
+import com.lari.bloggerhub.service.profile.PublicProfileService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -19,15 +32,36 @@ import org.springframework.web.bind.annotation.*;
 public class BlogUserController {
 
   private final BlogUserService blogUserService;
+  private final PublicProfileService publicProfileService;
+  private final AvailabilityService availabilityService;
+  private final UsernameAutocompleteService autocompleteService;
+  private final FollowService followService;
+  private final int maxSuggestions;
 
   /**
-   * Constructs a new instance of the {@link BlogUserController} class with the specified {@link
-   * BlogUserService} dependency.
+   * Constructs a new instance of the {@link BlogUserController} class with the specified
+   * dependencies.
    *
    * @param blogUserService the service class for managing user-related operations
+   * @param publicProfileService the service class for reading public profiles
+   * @param availabilityService the service class for checking username and email availability
+   * @param autocompleteService the service class for username autocomplete
+   * @param followService the service class for following users
+   * @param maxSuggestions the maximum number of autocomplete suggestions per request
    */
-  public BlogUserController(BlogUserService blogUserService) {
+  public BlogUserController(
+      BlogUserService blogUserService,
+      PublicProfileService publicProfileService,
+      AvailabilityService availabilityService,
+      UsernameAutocompleteService autocompleteService,
+      FollowService followService,
+      @Value("${bloggerhub.autocomplete.max-limit}") int maxSuggestions) {
     this.blogUserService = blogUserService;
+    this.publicProfileService = publicProfileService;
+    this.availabilityService = availabilityService;
+    this.autocompleteService = autocompleteService;
+    this.followService = followService;
+    this.maxSuggestions = maxSuggestions;
   }
 
   /**
@@ -47,4 +81,117 @@ public class BlogUserController {
   public ResponseEntity<String> healthCheck() {
     return ResponseEntity.ok("Service is up and running");
   }
+
+  /**
+   * Checks whether a username and an email address are still available for signup. Either
+   * parameter may be omitted.
+   *
+   * @param username the username to check
+   * @param email the email address to check
+   * @return a response entity containing the availability of the given values
+   */
+  @GetMapping("/availability")
+  public ResponseEntity<DataResponse<AvailabilityResponseDto>> checkAvailability(
+      @RequestParam(required = false) String username,
+      @RequestParam(required = false) String email) {
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Availability checked.",
+            availabilityService.check(username, email)));
+  }
+
+  /**
+   * Suggests users whose username starts with the given prefix, most popular first.
+   *
+   * @param prefix the prefix typed by the user
+   * @param limit the maximum number of suggestions
+   * @return a response entity containing the suggestions
+   */
+  @GetMapping("/autocomplete")
+  public ResponseEntity<DataResponse<List<UsernameSuggestionDto>>> autocomplete(
+      @RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+    List<UsernameSuggestionDto> suggestions =
+        autocompleteService
+            .complete(prefix, Math.max(1, Math.min(limit, maxSuggestions)))
+            .stream()
+            .map(entry -> new UsernameSuggestionDto(entry.id(), entry.username()))
+            .toList();
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Suggestions found.", suggestions));
+  }
+
+  /**
+   * Returns the public profile of a user. Supports conditional requests through {@code
+   * If-None-Match} and may be cached by shared caches.
+   *
+   * @param idOrUsername the ID or the username of the user
+   * @param accept the media types accepted by the client
+   * @param ifNoneMatch the entity tags of the client's cached copy
+   * @return a response entity containing the profile, or 304 if the cached copy is current
+   */
+  @GetMapping("/{idOrUsername}")
+  public ResponseEntity<byte[]> getProfile(
+      @PathVariable String idOrUsername,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return publicProfileService.getProfile(idOrUsername, accept, ifNoneMatch);
+  }
+
+  /**
+   * Makes the authenticated user follow another user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the user to follow
+   * @return a response entity indicating the outcome
+   */
+  @PostMapping("/{id}/follow")
+  public ResponseEntity<Response> follow(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return followService.follow(user, id);
+  }
+
+  /**
+   * Makes the authenticated user stop following another user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the user to unfollow
+   * @return a response entity indicating the outcome
+   */
+  @DeleteMapping("/{id}/follow")
+  public ResponseEntity<Response> unfollow(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return followService.unfollow(user, id);
+  }
+
+  /**
+   * Returns the follower and following counts of a user. For authenticated requests it also tells
+   * whether the user and the requesting user follow each other.
+   *
+   * @param user the authenticated user, if any
+   * @param id the ID of the user
+   * @return a response entity containing the follow stats
+   */
+  @GetMapping("/{id}/follow-stats")
+  public ResponseEntity<Response> getFollowStats(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return followService.getFollowStats(id, user);
+  }
+
+  /**
+   * Returns a page of the users that follow a user and are followed back by them.
+   *
+   * @param id the ID of the user
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping("/{id}/mutuals")
+  public ResponseEntity<Response> getMutuals(
+      @PathVariable String id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return followService.getMutuals(id, cursor, limit);
+  }
 }
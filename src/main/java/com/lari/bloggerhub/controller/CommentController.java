@@ -0,0 +1,81 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.dto.request.CommentRequestDto;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.comment.CommentService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the REST API endpoints for the comment threads of posts in the Blogger Hub
+ * application.
+ *
+ * <p>Reading comments does not require authentication. Commenting requires an access token.
+ */
+@RestController
+@RequestMapping("/api")
+public class CommentController {
+
+  private final CommentService commentService;
+
+  /**
+   * Constructs a new instance of the {@link CommentController} class with the specified
+   * dependencies.
+   *
+   * @param commentService the service class for managing comments
+   */
+  public CommentController(CommentService commentService) {
+    this.commentService = commentService;
+  }
+
+  /**
+   * Adds a comment to a post, or a reply to one of its comments.
+   *
+   * @param user the authenticated user
+   * @param postId the ID of the post
+   * @param dto the comment details
+   * @return a response entity containing the created comment
+   */
+  @PostMapping("/posts/{postId}/comments")
+  public ResponseEntity<Response> addComment(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String postId,
+      @Valid @RequestBody CommentRequestDto dto) {
+    return commentService.addComment(user, postId, dto);
+  }
+
+  /**
+   * Returns a page of the comment thread of a post in depth-first order.
+   *
+   * @param postId the ID of the post
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping("/posts/{postId}/comments")
+  public ResponseEntity<Response> getThread(
+      @PathVariable String postId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return commentService.getThread(postId, cursor, limit);
+  }
+
+  /**
+   * Returns a page of the replies below a comment in depth-first order.
+   *
+   * @param id the ID of the comment
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping("/comments/{id}/replies")
+  public ResponseEntity<Response> getReplies(
+      @PathVariable String id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return commentService.getReplies(id, cursor, limit);
+  }
+}
@@ -0,0 +1,62 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.dto.request.DraftPatchRequestDto;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.draft.DraftService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the REST API endpoints for autosaving the drafts of posts in the Blogger Hub
+ * application.
+ *
+ * <p>Drafts are only visible to the author of the post. Saving a draft requires an access token.
+ */
+@RestController
+@RequestMapping("/api/posts/{id}/draft")
+public class DraftController {
+
+  private final DraftService draftService;
+
+  /**
+   * Constructs a new instance of the {@link DraftController} class with the specified
+   * dependencies.
+   *
+   * @param draftService the service class for managing drafts
+   */
+  public DraftController(DraftService draftService) {
+    this.draftService = draftService;
+  }
+
+  /**
+   * Returns the current draft of a post written by the authenticated user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @return a response entity containing the draft
+   */
+  @GetMapping
+  public ResponseEntity<Response> getDraft(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return draftService.getDraft(user, id);
+  }
+
+  /**
+   * Applies an autosave to the draft of a post written by the authenticated user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param dto the edits and the revision they apply to
+   * @return a response entity containing the new revision
+   */
+  @PatchMapping
+  public ResponseEntity<Response> saveDraft(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @Valid @RequestBody DraftPatchRequestDto dto) {
+    return draftService.saveDraft(user, id, dto);
+  }
+}
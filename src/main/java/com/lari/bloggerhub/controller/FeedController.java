@@ -0,0 +1,48 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.feed.HomeFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class defines the REST API endpoint for the home feed of the Blogger Hub application. The
+ * feed belongs to the user authenticated by the access token.
+ */
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+  private final HomeFeedService homeFeedService;
+
+  /**
+   * Constructs a new instance of the {@link FeedController} class with the specified
+   * dependencies.
+   *
+   * @param homeFeedService the service class for the home feed
+   */
+  public FeedController(HomeFeedService homeFeedService) {
+    this.homeFeedService = homeFeedService;
+  }
+
+  /**
+   * Returns a page of the home feed of the authenticated user, newest first.
+   *
+   * @param user the authenticated user
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping
+  public ResponseEntity<Response> getFeed(
+      @AuthenticationPrincipal BlogUser user,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return homeFeedService.getFeed(user, cursor, limit);
+  }
+}
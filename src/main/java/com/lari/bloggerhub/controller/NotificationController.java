@@ -0,0 +1,67 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.notification.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the REST API endpoints for the notifications of the Blogger Hub application.
+ * The notifications belong to the user authenticated by the access token.
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+  private final NotificationService notificationService;
+
+  /**
+   * Constructs a new instance of the {@link NotificationController} class with the specified
+   * dependencies.
+   *
+   * @param notificationService the service class for notifications
+   */
+  public NotificationController(NotificationService notificationService) {
+    this.notificationService = notificationService;
+  }
+
+  /**
+   * Returns a page of the notifications of the authenticated user, newest first.
+   *
+   * @param user the authenticated user
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping
+  public ResponseEntity<Response> getNotifications(
+      @AuthenticationPrincipal BlogUser user,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return notificationService.getNotifications(user, cursor, limit);
+  }
+
+  /**
+   * Returns the number of unread notifications of the authenticated user.
+   *
+   * @param user the authenticated user
+   * @return a response entity containing the count
+   */
+  @GetMapping("/unread-count")
+  public ResponseEntity<Response> getUnreadCount(@AuthenticationPrincipal BlogUser user) {
+    return notificationService.getUnreadCount(user);
+  }
+
+  /**
+   * Marks every notification of the authenticated user as read.
+   *
+   * @param user the authenticated user
+   * @return a response entity indicating the outcome
+   */
+  @PostMapping("/read")
+  public ResponseEntity<Response> markAllRead(@AuthenticationPrincipal BlogUser user) {
+    return notificationService.markAllRead(user);
+  }
+}
@@ -0,0 +1,225 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.dto.request.PostRequestDto;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.analytics.ReadAnalyticsService;
+import com.lari.bloggerhub.service.clap.ClapService;
+import com.lari.bloggerhub.service.post.PostService;
+import com.lari.bloggerhub.service.render.PostRenderService;
+import com.lari.bloggerhub.service.trending.TrendingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the REST API endpoints for writing and reading posts in the Blogger Hub
+ * application.
+ *
+ * <p>Reading published posts does not require authentication. Writing requires an access token,
+ * and drafts are only visible to their author.
+ */
+@RestController
+@RequestMapping("/api/posts")
+public class PostController {
+
+  private final PostService postService;
+  private final ClapService clapService;
+  private final ReadAnalyticsService readAnalyticsService;
+  private final TrendingService trendingService;
+  private final PostRenderService postRenderService;
+
+  /**
+   * Constructs a new instance of the {@link PostController} class with the specified
+   * dependencies.
+   *
+   * @param postService the service class for managing posts
+   * @param clapService the service class for clapping for posts
+   * @param readAnalyticsService the service class for counting the readers of posts
+   * @param trendingService the service class ranking posts by recent reads and claps
+   * @param postRenderService the service class rendering post bodies into HTML
+   */
+  public PostController(
+      PostService postService,
+      ClapService clapService,
+      ReadAnalyticsService readAnalyticsService,
+      TrendingService trendingService,
+      PostRenderService postRenderService) {
+    this.postService = postService;
+    this.clapService = clapService;
+    this.readAnalyticsService = readAnalyticsService;
+    this.trendingService = trendingService;
+    this.postRenderService = postRenderService;
+  }
+
+  /**
+   * Creates a new post written by the authenticated user.
+   *
+   * @param user the authenticated user
+   * @param dto the post details
+   * @return a response entity containing the created post
+   */
+  @PostMapping
+  public ResponseEntity<Response> createPost(
+      @AuthenticationPrincipal BlogUser user, @Valid @RequestBody PostRequestDto dto) {
+    return postService.createPost(user, dto);
+  }
+
+  /**
+   * Replaces the content of a post written by the authenticated user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param dto the new post details
+   * @return a response entity containing the updated post
+   */
+  @PutMapping("/{id}")
+  public ResponseEntity<Response> updatePost(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @Valid @RequestBody PostRequestDto dto) {
+    return postService.updatePost(user, id, dto);
+  }
+
+  /**
+   * Returns a page of published posts, newest first.
+   *
+   * @param author the ID of the author to restrict the page to
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping
+  public ResponseEntity<Response> getTimeline(
+      @RequestParam(required = false) String author,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return postService.getTimeline(author, cursor, limit);
+  }
+
+  /**
+   * Returns the posts with the most reads and claps over the last hour.
+   *
+   * @param limit the maximum number of posts
+   * @return a response entity containing the trending posts
+   */
+  @GetMapping("/trending")
+  public ResponseEntity<Response> getTrending(@RequestParam(required = false) Integer limit) {
+    return postService.getTrending(limit);
+  }
+
+  /**
+   * Returns the summary of a post without its body.
+   *
+   * @param user the authenticated user, if any
+   * @param id the ID of the post
+   * @return a response entity containing the post summary
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<Response> getPost(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return postService.getPost(id, user);
+  }
+
+  /**
+   * Returns the body of a post, and counts the request as a read of the post.
+   *
+   * @param user the authenticated user, if any
+   * @param id the ID of the post
+   * @param request the request, used to tell anonymous readers apart
+   * @return a response entity containing the post body
+   */
+  @GetMapping("/{id}/body")
+  public ResponseEntity<Response> getPostBody(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id, HttpServletRequest request) {
+    ResponseEntity<Response> response = postService.getPostBody(id, user);
+    if (response.getStatusCode().is2xxSuccessful()) {
+      readAnalyticsService.recordRead(id, user, request);
+      trendingService.recordRead(id);
+    }
+    return response;
+  }
+
+  /**
+   * Returns the body of a post rendered as HTML, gzip compressed if the client accepts it, and
+   * counts the request as a read of the post.
+   *
+   * @param user the authenticated user, if any
+   * @param id the ID of the post
+   * @param acceptEncoding the content codings accepted by the client
+   * @param ifNoneMatch the entity tag of the rendering the client already has
+   * @param request the request, used to tell anonymous readers apart
+   * @return a response entity containing the HTML
+   */
+  @GetMapping("/{id}/html")
+  public ResponseEntity<?> getPostHtml(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      HttpServletRequest request) {
+    ResponseEntity<?> response =
+        postRenderService.getPostHtml(id, user, acceptEncoding, ifNoneMatch);
+    if (response.getStatusCode().is2xxSuccessful()
+        || response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+      readAnalyticsService.recordRead(id, user, request);
+      trendingService.recordRead(id);
+    }
+    return response;
+  }
+
+  /**
+   * Returns the estimated unique readers of a post written by the authenticated user.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param from the first day of the range (UTC)
+   * @param to the last day of the range (UTC)
+   * @return a response entity containing the estimates
+   */
+  @GetMapping("/{id}/readers")
+  public ResponseEntity<Response> getUniqueReaders(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to) {
+    return readAnalyticsService.getUniqueReaders(id, user, from, to);
+  }
+
+  /**
+   * Adds claps of the authenticated user to a post.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param count the number of claps to add
+   * @return a response entity containing the new clap counts
+   */
+  @PostMapping("/{id}/claps")
+  public ResponseEntity<Response> clap(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @RequestParam(defaultValue = "1") int count) {
+    return clapService.clap(user, id, count);
+  }
+
+  /**
+   * Returns the clap count of a post, and the claps of the authenticated user if any.
+   *
+   * @param user the authenticated user, if any
+   * @param id the ID of the post
+   * @return a response entity containing the clap counts
+   */
+  @GetMapping("/{id}/claps")
+  public ResponseEntity<Response> getClaps(
+      @AuthenticationPrincipal BlogUser user, @PathVariable String id) {
+    return clapService.getClaps(id, user);
+  }
+}
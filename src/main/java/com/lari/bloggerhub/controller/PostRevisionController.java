@@ -0,0 +1,65 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.revision.PostRevisionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the REST API endpoints for the revision history of posts in the Blogger Hub
+ * application.
+ *
+ * <p>The history of a post is only visible to its author.
+ */
+@RestController
+@RequestMapping("/api/posts/{id}/revisions")
+public class PostRevisionController {
+
+  private final PostRevisionService postRevisionService;
+
+  /**
+   * Constructs a new instance of the {@link PostRevisionController} class with the specified
+   * dependencies.
+   *
+   * @param postRevisionService the service class for the revision history of posts
+   */
+  public PostRevisionController(PostRevisionService postRevisionService) {
+    this.postRevisionService = postRevisionService;
+  }
+
+  /**
+   * Returns a page of the revision history of a post, newest first, without the bodies.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping
+  public ResponseEntity<Response> getHistory(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return postRevisionService.getHistory(user, id, cursor, limit);
+  }
+
+  /**
+   * Returns a revision of a post.
+   *
+   * @param user the authenticated user
+   * @param id the ID of the post
+   * @param revision the number of the revision
+   * @return a response entity containing the revision
+   */
+  @GetMapping("/{revision}")
+  public ResponseEntity<Response> getRevision(
+      @AuthenticationPrincipal BlogUser user,
+      @PathVariable String id,
+      @PathVariable long revision) {
+    return postRevisionService.getRevision(user, id, revision);
+  }
+}
@@ -0,0 +1,64 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.picture.ProfilePictureService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * This class defines the REST API endpoints for uploading profile pictures and serving their
+ * thumbnails in the Blogger Hub application.
+ *
+ * <p>Thumbnails are public and immutable. Uploading requires an access token.
+ */
+@RestController
+@RequestMapping("/api")
+public class ProfilePictureController {
+
+  private final ProfilePictureService profilePictureService;
+
+  /**
+   * Constructs a new instance of the {@link ProfilePictureController} class with the specified
+   * dependencies.
+   *
+   * @param profilePictureService the service class for profile pictures
+   */
+  public ProfilePictureController(ProfilePictureService profilePictureService) {
+    this.profilePictureService = profilePictureService;
+  }
+
+  /**
+   * Replaces the profile picture of the authenticated user with an uploaded image.
+   *
+   * @param user the authenticated user
+   * @param file the image, sent as the {@code file} part of a multipart request
+   * @return a response entity containing the URL of the new profile picture
+   */
+  @PutMapping("/users/me/picture")
+  public ResponseEntity<Response> uploadPicture(
+      @AuthenticationPrincipal BlogUser user, @RequestParam("file") MultipartFile file) {
+    return profilePictureService.uploadPicture(user, file);
+  }
+
+  /**
+   * Returns a profile picture thumbnail. Supports range and conditional requests.
+   *
+   * @param name the file name of the thumbnail
+   * @param ifNoneMatch the entity tags of the client's cached copy
+   * @param request the request
+   * @return a response entity containing the thumbnail
+   */
+  @GetMapping("/pictures/{name}")
+  public ResponseEntity<Resource> getPicture(
+      @PathVariable String name,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      HttpServletRequest request) {
+    return profilePictureService.getPicture(name, ifNoneMatch, request);
+  }
+}
@@ -0,0 +1,46 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.search.SearchIndexService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class defines the REST API endpoint for the full-text search of posts and users in the
+ * Blogger Hub application.
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+  private final SearchIndexService searchIndexService;
+
+  /**
+   * Constructs a new instance of the {@link SearchController} class with the specified
+   * dependencies.
+   *
+   * @param searchIndexService the service class for the search index
+   */
+  public SearchController(SearchIndexService searchIndexService) {
+    this.searchIndexService = searchIndexService;
+  }
+
+  /**
+   * Searches the published posts and the users, best match first.
+   *
+   * @param q the query text
+   * @param type {@code post} or {@code user} to search one type only
+   * @param limit the maximum number of results
+   * @return a response entity containing the results
+   */
+  @GetMapping
+  public ResponseEntity<Response> search(
+      @RequestParam String q,
+      @RequestParam(required = false) String type,
+      @RequestParam(required = false) Integer limit) {
+    return searchIndexService.search(q, type, limit);
+  }
+}
@@ -0,0 +1,106 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.service.syndication.SyndicationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This class defines the endpoints for the RSS and Atom feeds of authors and the sitemaps of the
+ * Blogger Hub application.
+ *
+ * <p>All of them are public, and are served compressed to clients that accept gzip.
+ */
+@RestController
+public class SyndicationController {
+
+  private final SyndicationService syndicationService;
+
+  /**
+   * Constructs a new instance of the {@link SyndicationController} class with the specified
+   * dependencies.
+   *
+   * @param syndicationService the service class for feeds and sitemaps
+   */
+  public SyndicationController(SyndicationService syndicationService) {
+    this.syndicationService = syndicationService;
+  }
+
+  /**
+   * Returns the RSS feed of the latest posts of an author.
+   *
+   * @param id the ID of the author
+   * @param acceptEncoding the content codings accepted by the client
+   * @param ifNoneMatch the entity tags of the feed the client has cached
+   * @return a response entity streaming the feed
+   */
+  @GetMapping("/api/users/{id}/rss")
+  public ResponseEntity<?> getRssFeed(
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return syndicationService.getRssFeed(id, acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns the Atom feed of the latest posts of an author.
+   *
+   * @param id the ID of the author
+   * @param acceptEncoding the content codings accepted by the client
+   * @param ifNoneMatch the entity tags of the feed the client has cached
+   * @return a response entity streaming the feed
+   */
+  @GetMapping("/api/users/{id}/atom")
+  public ResponseEntity<?> getAtomFeed(
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return syndicationService.getAtomFeed(id, acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns the sitemap index, which lists the sitemaps of posts and user profiles.
+   *
+   * @param acceptEncoding the content codings accepted by the client
+   * @param ifNoneMatch the entity tags of the index the client has cached
+   * @return a response entity containing the sitemap index
+   */
+  @GetMapping("/sitemap.xml")
+  public ResponseEntity<?> getSitemapIndex(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return syndicationService.getSitemapIndex(acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns a page of the sitemap of the posts published in a month.
+   *
+   * @param shard the month, formatted as {@code yyyy-MM}
+   * @param start the key of the page, as listed in the sitemap index
+   * @param acceptEncoding the content codings accepted by the client
+   * @param ifNoneMatch the entity tags of the sitemap the client has cached
+   * @return a response entity streaming the sitemap
+   */
+  @GetMapping("/sitemaps/posts/{shard}/{start}.xml")
+  public ResponseEntity<?> getPostSitemap(
+      @PathVariable String shard,
+      @PathVariable String start,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return syndicationService.getPostSitemap(shard, start, acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns the sitemap of the profiles of the users who signed up in a month.
+   *
+   * @param month the month, formatted as {@code yyyy-MM}
+   * @param acceptEncoding the content codings accepted by the client
+   * @return a response entity streaming the sitemap
+   */
+  @GetMapping("/sitemaps/users/{month}.xml")
+  public ResponseEntity<?> getUserSitemap(
+      @PathVariable String month,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return syndicationService.getUserSitemap(month, acceptEncoding);
+  }
+}
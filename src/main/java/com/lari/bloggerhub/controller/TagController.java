@@ -0,0 +1,56 @@
+package com.lari.bloggerhub.controller;
+
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.tag.TagIndexService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class defines the REST API endpoints for the tags of the Blogger Hub application: the tag
+ * feeds and the statistics of the most used tags.
+ */
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+
+  private final TagIndexService tagIndexService;
+
+  /**
+   * Constructs a new instance of the {@link TagController} class with the specified dependencies.
+   *
+   * @param tagIndexService the service class for the tag index
+   */
+  public TagController(TagIndexService tagIndexService) {
+    this.tagIndexService = tagIndexService;
+  }
+
+  /**
+   * Returns the tags with the most posts and the memory used to index each of them.
+   *
+   * @param limit the maximum number of tags
+   * @return a response entity containing the tag statistics
+   */
+  @GetMapping
+  public ResponseEntity<Response> getTagStats(@RequestParam(required = false) Integer limit) {
+    return tagIndexService.getTagStats(limit);
+  }
+
+  /**
+   * Returns a page of the published posts matching a tag filter, newest first.
+   *
+   * @param q the tag filter, such as {@code java AND performance} or {@code NOT politics}
+   * @param cursor the cursor returned with the previous page
+   * @param limit the page size
+   * @return a response entity containing the page
+   */
+  @GetMapping("/posts")
+  public ResponseEntity<Response> getTaggedPosts(
+      @RequestParam String q,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return tagIndexService.getTaggedPosts(q, cursor, limit);
+  }
+}
@@ -0,0 +1,41 @@
+package com.lari.bloggerhub.controller.advice;
+
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.util.resilience.DependencyUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * This class translates failures of guarded dependencies into fast HTTP 503 responses, so that
+ * clients get an immediate answer instead of waiting for a slow or unavailable database.
+ */
+@RestControllerAdvice
+public class DependencyExceptionHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(DependencyExceptionHandler.class);
+
+  /**
+   * Handles a rejected or failed call to a guarded dependency.
+   *
+   * @param e the exception raised by the guard
+   * @return a response entity with status 503
+   */
+  @ExceptionHandler(DependencyUnavailableException.class)
+  public ResponseEntity<Response> handleDependencyUnavailable(DependencyUnavailableException e) {
+    log.warn("Dependency unavailable: {}", e.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(
+            new ErrorResponse(
+                false,
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service temporarily unavailable",
+                e.getDependency()));
+  }
+}
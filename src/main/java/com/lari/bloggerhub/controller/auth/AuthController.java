@@ -7,9 +7,12 @@ import com.lari.bloggerhub.document.BlogUser;
 import com.lari.bloggerhub.document.RefreshToken;
 import com.lari.bloggerhub.repository.BlogUserRepository;
 import com.lari.bloggerhub.repository.RefreshTokenRepository;
+import com.lari.bloggerhub.response.PrecomputedResponse;
 import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.response.ResponseWriters;
 import com.lari.bloggerhub.response.SuccessResponse;
 import com.lari.bloggerhub.service.BlogUserService;
+import com.lari.bloggerhub.service.picture.ProfilePictureService;
 import com.lari.bloggerhub.util.jwt.JwtHelper;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -44,6 +47,9 @@ public class AuthController {
   PasswordEncoder passwordEncoder;
   BlogUserService blogUserService;
 
+  private final PrecomputedResponse loggedOut;
+  private final PrecomputedResponse loggedOutFromAll;
+
   /**
    * Constructs a new instance of the {@link AuthController} class with the specified dependencies.
    *
@@ -53,6 +59,7 @@ public class AuthController {
    * @param jwtHelper the helper class for generating and validating JWT tokens
    * @param passwordEncoder the encoder for hashing user passwords
    * @param userService the service class for managing user-related operations
+   * @param responseWriters the writers used to pre-encode the constant logout responses
    */
   public AuthController(
       AuthenticationManager authenticationManager,
@@ -60,13 +67,19 @@ public class AuthController {
       BlogUserRepository userRepository,
       JwtHelper jwtHelper,
       PasswordEncoder passwordEncoder,
-      BlogUserService userService) {
+      BlogUserService userService,
+      ResponseWriters responseWriters) {
     this.authenticationManager = authenticationManager;
     this.refreshTokenRepository = refreshTokenRepository;
     this.blogUserRepository = userRepository;
     this.jwtHelper = jwtHelper;
     this.passwordEncoder = passwordEncoder;
     this.blogUserService = userService;
+    this.loggedOut =
+        responseWriters.precompute(new SuccessResponse(true, HttpStatus.OK.value(), "Logged out"));
+    this.loggedOutFromAll =
+        responseWriters.precompute(
+            new SuccessResponse(true, HttpStatus.OK.value(), "Logged out from all"));
   }
 
   /**
@@ -109,7 +122,9 @@ public class AuthController {
     user.setEmail(dto.getEmail());
     user.setPassword(passwordEncoder.encode(dto.getPassword()));
     user.setBio(dto.getBio());
-    user.setProfilePicture(dto.getProfilePicture());
+    if (ProfilePictureService.isPictureUrl(dto.getProfilePicture())) {
+      user.setProfilePicture(dto.getProfilePicture());
+    }
     blogUserRepository.save(user);
 
     RefreshToken refreshToken = new RefreshToken();
@@ -136,7 +151,7 @@ public class AuthController {
             jwtHelper.getTokenIdFromRefreshToken(refreshTokenString))) {
       // valid and exists in db
       refreshTokenRepository.deleteById(jwtHelper.getTokenIdFromRefreshToken(refreshTokenString));
-      return ResponseEntity.ok(new SuccessResponse(true, HttpStatus.OK.value(), "Logged out"));
+      return ResponseEntity.ok(loggedOut);
     }
 
     throw new BadCredentialsException(INVALID_TOKEN);
@@ -159,8 +174,7 @@ public class AuthController {
 
       refreshTokenRepository.deleteByOwner_Id(
           jwtHelper.getUserIdFromRefreshToken(refreshTokenString));
-      return ResponseEntity.ok(
-          new SuccessResponse(true, HttpStatus.OK.value(), "Logged out from all"));
+      return ResponseEntity.ok(loggedOutFromAll);
     }
 
     throw new BadCredentialsException(INVALID_TOKEN);
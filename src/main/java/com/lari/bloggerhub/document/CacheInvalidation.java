@@ -0,0 +1,84 @@
+package com.lari.bloggerhub.document;
+
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents a batch of cache invalidations broadcast between the nodes of the <b>Blogger Hub</b>
+ * application.
+ *
+ * <p>The collection is capped, so it keeps only the most recent invalidations and is read in
+ * insertion order with a tailable cursor. One document carries every key of one {@link
+ * CacheRegion} that its node invalidated since its previous batch; {@code all} evicts the whole
+ * region instead. {@code origin} identifies the publishing process, which has already applied the
+ * invalidation itself.
+ */
+@Document("cache_invalidation")
+public class CacheInvalidation {
+
+  @Id private String id;
+
+  private String origin;
+  private CacheRegion region;
+  private List<String> keys;
+  private boolean all;
+
+  /** Default constructor. */
+  public CacheInvalidation() {}
+
+  /**
+   * Initializes a new cache invalidation with the specified details.
+   *
+   * @param origin the ID of the publishing process
+   * @param region the cache the keys belong to
+   * @param keys the invalidated keys
+   * @param all whether the whole region is invalidated
+   */
+  public CacheInvalidation(String origin, CacheRegion region, List<String> keys, boolean all) {
+    this.origin = origin;
+    this.region = region;
+    this.keys = keys;
+    this.all = all;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getOrigin() {
+    return origin;
+  }
+
+  public void setOrigin(String origin) {
+    this.origin = origin;
+  }
+
+  public CacheRegion getRegion() {
+    return region;
+  }
+
+  public void setRegion(CacheRegion region) {
+    this.region = region;
+  }
+
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  public void setKeys(List<String> keys) {
+    this.keys = keys;
+  }
+
+  public boolean isAll() {
+    return all;
+  }
+
+  public void setAll(boolean all) {
+    this.all = all;
+  }
+}
@@ -0,0 +1,20 @@
+package com.lari.bloggerhub.document;
+
+/**
+ * Represents an in-process cache whose entries a {@link CacheInvalidation} can evict. For the
+ * in-memory indexes over users, evicting a user ID means indexing the stored user again.
+ */
+public enum CacheRegion {
+  /** The public profiles, keyed by user ID. */
+  PROFILE,
+  /** The username and email availability filters, keyed by user ID. */
+  AVAILABILITY,
+  /** The username autocomplete index, keyed by user ID. */
+  USERNAME_AUTOCOMPLETE,
+  /** The user search index, keyed by user ID. */
+  USER_SEARCH,
+  /** The follow graph, keyed by follower and followee ID joined with a colon. */
+  FOLLOW_GRAPH,
+  /** The home feed timelines, keyed by the published post, see {@code FeedEntry#toKey}. */
+  FEED
+}
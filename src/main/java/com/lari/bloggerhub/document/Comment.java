@@ -0,0 +1,142 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents a comment on a {@link Post} in the <b>Blogger Hub</b> application. Comments reply to
+ * the post or to another comment, forming a thread.
+ *
+ * <p>Every comment stores its materialized path: the IDs of its ancestors and its own ID, each
+ * followed by a dot. ObjectIds sort by creation time, so sorting by path lists a thread depth
+ * first with the replies of every comment oldest first, and the subtree of a comment is the range
+ * of paths starting with its own. The thread index leads with the depth, so a page showing the
+ * first few levels of a thread, or of a subtree, is one index scan per level merged in path
+ * order.
+ *
+ * <p>The reply counts are only ever changed with {@code $inc} when a reply is added.
+ */
+@Document("comment")
+@CompoundIndex(name = "thread", def = "{'postId': 1, 'depth': 1, 'path': 1}")
+public class Comment {
+
+  /** The character that ends every ID of a path. */
+  public static final char PATH_SEPARATOR = '.';
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String postId;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String authorId;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String parentId;
+
+  private String path;
+  private int depth;
+  private String body;
+  private long replies;
+  private long descendants;
+
+  @CreatedDate private Instant createdAt;
+
+  /** Default constructor. */
+  public Comment() {}
+
+  /**
+   * Returns the upper bound of the paths in the subtree of a comment, exclusive.
+   *
+   * @param path the path of the comment
+   * @return the first path after the subtree
+   */
+  public static String subtreeEnd(String path) {
+    return path.substring(0, path.length() - 1) + (char) (PATH_SEPARATOR + 1);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public String getAuthorId() {
+    return authorId;
+  }
+
+  public void setAuthorId(String authorId) {
+    this.authorId = authorId;
+  }
+
+  public String getParentId() {
+    return parentId;
+  }
+
+  public void setParentId(String parentId) {
+    this.parentId = parentId;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public void setDepth(int depth) {
+    this.depth = depth;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public long getReplies() {
+    return replies;
+  }
+
+  public void setReplies(long replies) {
+    this.replies = replies;
+  }
+
+  public long getDescendants() {
+    return descendants;
+  }
+
+  public void setDescendants(long descendants) {
+    this.descendants = descendants;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
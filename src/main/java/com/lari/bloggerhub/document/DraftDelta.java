@@ -0,0 +1,102 @@
+package com.lari.bloggerhub.document;
+
+import com.lari.bloggerhub.util.text.TextEdit;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents one autosave of the draft of a {@link Post} in the <b>Blogger Hub</b> application:
+ * the {@link TextEdit}s that turn the previous revision of the draft into this one.
+ *
+ * <p>The revisions of a draft are numbered consecutively, and the unique log index makes appending
+ * a revision an optimistic write: of two autosaves based on the same revision, only the first is
+ * stored. The length of the draft after the edits is stored with them, so the next autosave can
+ * be checked without rebuilding the text.
+ */
+@Document("draft_delta")
+@CompoundIndex(name = "log", def = "{'postId': 1, 'revision': 1}", unique = true)
+public class DraftDelta {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String postId;
+
+  private long revision;
+  private List<TextEdit> edits;
+  private int length;
+
+  @CreatedDate private Instant createdAt;
+
+  /** Default constructor. */
+  public DraftDelta() {}
+
+  /**
+   * Initializes a new delta.
+   *
+   * @param postId the ID of the post
+   * @param revision the revision the edits produce
+   * @param edits the edits
+   * @param length the length of the draft after the edits
+   */
+  public DraftDelta(String postId, long revision, List<TextEdit> edits, int length) {
+    this.postId = postId;
+    this.revision = revision;
+    this.edits = edits;
+    this.length = length;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public List<TextEdit> getEdits() {
+    return edits;
+  }
+
+  public void setEdits(List<TextEdit> edits) {
+    this.edits = edits;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public void setLength(int length) {
+    this.length = length;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
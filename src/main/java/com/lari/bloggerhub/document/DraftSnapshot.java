@@ -0,0 +1,60 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the text of the draft of a {@link Post} at one revision in the <b>Blogger Hub</b>
+ * application. The ID is the ID of the post.
+ *
+ * <p>The current draft is the snapshot with the {@link DraftDelta}s of the later revisions applied
+ * to it. Snapshots are written by the compactor, which folds the deltas into a new snapshot once
+ * enough of them have accumulated; a draft without a snapshot starts from the body of the post.
+ */
+@Document("draft_snapshot")
+public class DraftSnapshot {
+
+  @Id private String id;
+
+  private long revision;
+  private String body;
+
+  @LastModifiedDate private Instant updatedAt;
+
+  /** Default constructor. */
+  public DraftSnapshot() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
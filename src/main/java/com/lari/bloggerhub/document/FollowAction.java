@@ -0,0 +1,9 @@
+package com.lari.bloggerhub.document;
+
+/** Represents the change recorded by a {@link FollowEdge}. */
+public enum FollowAction {
+  /** The follower started following the followee. */
+  FOLLOW,
+  /** The follower stopped following the followee. */
+  UNFOLLOW
+}
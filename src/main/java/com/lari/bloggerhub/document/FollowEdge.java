@@ -0,0 +1,91 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents one change of a follow relationship between two {@link BlogUser}s in the <b>Blogger
+ * Hub</b> application.
+ *
+ * <p>Edges are append-only: following and unfollowing each insert a new edge, and the current
+ * relationships are the result of replaying all edges in ID order. The collection is read as a
+ * whole when the in-memory follow graph is rebuilt, and the latest edge of one relationship is
+ * read whenever it changes.
+ */
+@Document("follow_edge")
+@CompoundIndex(name = "relationship", def = "{'followerId': 1, 'followeeId': 1, '_id': -1}")
+public class FollowEdge {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String followerId;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String followeeId;
+
+  private FollowAction action;
+
+  @CreatedDate private Instant createdAt;
+
+  /** Default constructor. */
+  public FollowEdge() {}
+
+  /**
+   * Initializes a new follow edge.
+   *
+   * @param followerId the ID of the following user
+   * @param followeeId the ID of the followed user
+   * @param action the recorded change
+   */
+  public FollowEdge(String followerId, String followeeId, FollowAction action) {
+    this.followerId = followerId;
+    this.followeeId = followeeId;
+    this.action = action;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getFollowerId() {
+    return followerId;
+  }
+
+  public void setFollowerId(String followerId) {
+    this.followerId = followerId;
+  }
+
+  public String getFolloweeId() {
+    return followeeId;
+  }
+
+  public void setFolloweeId(String followeeId) {
+    this.followeeId = followeeId;
+  }
+
+  public FollowAction getAction() {
+    return action;
+  }
+
+  public void setAction(FollowAction action) {
+    this.action = action;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,114 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents a notification shown to a {@link BlogUser} in the <b>Blogger Hub</b> application.
+ *
+ * <p>One notification stands for all the events of one type on one subject that happened within a
+ * coalescing window, such as every clap on a post in the same minute. {@code actorIds} holds the
+ * most recent actors, newest first, and {@code actorCount} the number of distinct actors, so the
+ * notification reads "X and 57 others clapped" without a document per clap. The subject is the
+ * post for claps, comments and replies, and absent for follows.
+ */
+@Document("notification")
+@CompoundIndex(name = "inbox", def = "{'recipientId': 1, '_id': -1}")
+public class Notification {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String recipientId;
+
+  private NotificationType type;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String subjectId;
+
+  private List<String> actorIds;
+  private long actorCount;
+  private long eventCount;
+  private boolean read;
+  private Instant createdAt;
+
+  /** Default constructor. */
+  public Notification() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getRecipientId() {
+    return recipientId;
+  }
+
+  public void setRecipientId(String recipientId) {
+    this.recipientId = recipientId;
+  }
+
+  public NotificationType getType() {
+    return type;
+  }
+
+  public void setType(NotificationType type) {
+    this.type = type;
+  }
+
+  public String getSubjectId() {
+    return subjectId;
+  }
+
+  public void setSubjectId(String subjectId) {
+    this.subjectId = subjectId;
+  }
+
+  public List<String> getActorIds() {
+    return actorIds;
+  }
+
+  public void setActorIds(List<String> actorIds) {
+    this.actorIds = actorIds;
+  }
+
+  public long getActorCount() {
+    return actorCount;
+  }
+
+  public void setActorCount(long actorCount) {
+    this.actorCount = actorCount;
+  }
+
+  public long getEventCount() {
+    return eventCount;
+  }
+
+  public void setEventCount(long eventCount) {
+    this.eventCount = eventCount;
+  }
+
+  public boolean isRead() {
+    return read;
+  }
+
+  public void setRead(boolean read) {
+    this.read = read;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
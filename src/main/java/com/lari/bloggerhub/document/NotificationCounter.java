@@ -0,0 +1,50 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the persisted number of unread notifications of a {@link BlogUser} in the <b>Blogger
+ * Hub</b> application.
+ *
+ * <p>The ID is the user ID. Every node adds the notifications it delivered to the count with
+ * {@code $inc} periodically, so the count may lag the notifications by one flush, and may miss the
+ * notifications of one flush after a crash. Marking everything read sets the count to zero and
+ * records the time, so increments for notifications delivered before it are not added on top.
+ */
+@Document("notification_counter")
+public class NotificationCounter {
+
+  @Id private String id;
+
+  private long unread;
+  private Instant readAt;
+
+  /** Default constructor. */
+  public NotificationCounter() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public long getUnread() {
+    return unread;
+  }
+
+  public void setUnread(long unread) {
+    this.unread = unread;
+  }
+
+  public Instant getReadAt() {
+    return readAt;
+  }
+
+  public void setReadAt(Instant readAt) {
+    this.readAt = readAt;
+  }
+}
@@ -0,0 +1,13 @@
+package com.lari.bloggerhub.document;
+
+/** Represents what a {@link Notification} tells its recipient about. */
+public enum NotificationType {
+  /** Users started following the recipient. */
+  FOLLOW,
+  /** Users clapped for a post of the recipient. */
+  CLAP,
+  /** Users commented on a post of the recipient. */
+  COMMENT,
+  /** Users replied to a comment of the recipient. */
+  REPLY
+}
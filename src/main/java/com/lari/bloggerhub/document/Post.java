@@ -0,0 +1,193 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents a blog post in the <b>Blogger Hub</b> application.
+ *
+ * <p>The author is stored as the plain ObjectId of the {@link BlogUser} instead of a document
+ * reference, so listing posts never resolves users one by one; author details are loaded in
+ * batches by the callers that need them.
+ *
+ * <p>Timelines are served from two compound indexes that match their sort order exactly, with the
+ * ID as a tie breaker for posts published in the same millisecond. Together with keyset
+ * pagination, every page is a bounded index scan regardless of how deep the reader has scrolled.
+ *
+ * <p>The content hash identifies the body in the rendered HTML cache and changes with every edit
+ * of the body.
+ *
+ * <p>The clap and comment counts are only ever changed with {@code $inc}, by the clap counter
+ * flush and when a comment is added, never by saving the entity, so they are not part of the
+ * editable content.
+ */
+@Document("post")
+@CompoundIndex(
+    name = "author_timeline",
+    def = "{'authorId': 1, 'status': 1, 'publishedAt': -1, '_id': -1}")
+@CompoundIndex(name = "published_timeline", def = "{'status': 1, 'publishedAt': -1, '_id': -1}")
+public class Post {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String authorId;
+
+  private String title;
+  private String subtitle;
+  private String excerpt;
+  private String body;
+  private String contentHash;
+  private String coverImage;
+  private List<String> tags;
+  private int readingTimeMinutes;
+  private PostStatus status;
+  private Instant publishedAt;
+  private long claps;
+  private long comments;
+
+  @CreatedDate private Instant createdAt;
+  @LastModifiedDate private Instant updatedAt;
+
+  /** Default constructor initializing the post as a draft without tags. */
+  public Post() {
+    tags = new ArrayList<>();
+    status = PostStatus.DRAFT;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getAuthorId() {
+    return authorId;
+  }
+
+  public void setAuthorId(String authorId) {
+    this.authorId = authorId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getSubtitle() {
+    return subtitle;
+  }
+
+  public void setSubtitle(String subtitle) {
+    this.subtitle = subtitle;
+  }
+
+  public String getExcerpt() {
+    return excerpt;
+  }
+
+  public void setExcerpt(String excerpt) {
+    this.excerpt = excerpt;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public String getCoverImage() {
+    return coverImage;
+  }
+
+  public void setCoverImage(String coverImage) {
+    this.coverImage = coverImage;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public void setTags(List<String> tags) {
+    this.tags = tags;
+  }
+
+  public int getReadingTimeMinutes() {
+    return readingTimeMinutes;
+  }
+
+  public void setReadingTimeMinutes(int readingTimeMinutes) {
+    this.readingTimeMinutes = readingTimeMinutes;
+  }
+
+  public PostStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(PostStatus status) {
+    this.status = status;
+  }
+
+  public Instant getPublishedAt() {
+    return publishedAt;
+  }
+
+  public void setPublishedAt(Instant publishedAt) {
+    this.publishedAt = publishedAt;
+  }
+
+  public long getClaps() {
+    return claps;
+  }
+
+  public void setClaps(long claps) {
+    this.claps = claps;
+  }
+
+  public long getComments() {
+    return comments;
+  }
+
+  public void setComments(long comments) {
+    this.comments = comments;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
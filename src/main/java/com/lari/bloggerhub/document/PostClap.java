@@ -0,0 +1,73 @@
+package com.lari.bloggerhub.document;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents the claps one {@link BlogUser} has given one {@link Post} in the <b>Blogger Hub</b>
+ * application.
+ *
+ * <p>The ID is the post ID and the user ID joined by a colon, so the clap counter flush can upsert
+ * the document by ID without a secondary index.
+ */
+@Document("post_clap")
+public class PostClap {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String postId;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String userId;
+
+  private int claps;
+
+  /** Default constructor. */
+  public PostClap() {}
+
+  /**
+   * Returns the ID of the document holding the claps of a user on a post.
+   *
+   * @param postId the ID of the post
+   * @param userId the ID of the user
+   * @return the document ID
+   */
+  public static String id(String postId, String userId) {
+    return postId + ':' + userId;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
+  public int getClaps() {
+    return claps;
+  }
+
+  public void setClaps(int claps) {
+    this.claps = claps;
+  }
+}
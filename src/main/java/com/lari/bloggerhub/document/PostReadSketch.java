@@ -0,0 +1,95 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the readers of one {@link Post} on one day (UTC) in the <b>Blogger Hub</b>
+ * application, as a serialized {@link com.lari.bloggerhub.util.hll.HyperLogLog} sketch.
+ *
+ * <p>The ID is the post ID and the ISO day joined by a colon, so the sketches of a post over a
+ * date range are a range scan of the primary index. Sketches are merged into the stored one with
+ * optimistic locking, so concurrent writers never lose each other's readers.
+ */
+@Document("post_read_sketch")
+public class PostReadSketch {
+
+  @Id private String id;
+
+  private byte[] sketch;
+
+  @Version private Long version;
+
+  @LastModifiedDate private Instant updatedAt;
+
+  /** Default constructor. */
+  public PostReadSketch() {}
+
+  /**
+   * Initializes a new sketch document.
+   *
+   * @param id the ID of the document
+   * @param sketch the serialized sketch
+   */
+  public PostReadSketch(String id, byte[] sketch) {
+    this.id = id;
+    this.sketch = sketch;
+  }
+
+  /**
+   * Returns the ID of the document holding the readers of a post on a day.
+   *
+   * @param postId the ID of the post
+   * @param day the day
+   * @return the document ID
+   */
+  public static String id(String postId, LocalDate day) {
+    return postId + ':' + day;
+  }
+
+  /**
+   * Returns the day a document ID refers to.
+   *
+   * @param id the document ID
+   * @return the day
+   */
+  public static LocalDate day(String id) {
+    return LocalDate.parse(id.substring(id.indexOf(':') + 1));
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public byte[] getSketch() {
+    return sketch;
+  }
+
+  public void setSketch(byte[] sketch) {
+    this.sketch = sketch;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
@@ -0,0 +1,122 @@
+package com.lari.bloggerhub.document;
+
+import com.lari.bloggerhub.util.revision.RevisionCodec;
+import java.time.Instant;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents one saved revision of a {@link Post} in the <b>Blogger Hub</b> application.
+ *
+ * <p>The body is stored encoded by the {@link RevisionCodec}: either as a compressed keyframe or as
+ * a compressed delta from the previous revision. {@code keyframe} is the revision of the keyframe
+ * the body is rebuilt from, equal to {@code revision} for keyframes, so the documents to read for
+ * any revision are known up front. The remaining fields describe the revision without decoding it;
+ * the content hash lets the next save check that its delta is based on the text of this revision.
+ */
+@Document("post_revision")
+@CompoundIndex(name = "history", def = "{'postId': 1, 'revision': 1}", unique = true)
+public class PostRevision {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String postId;
+
+  private long revision;
+  private long keyframe;
+  private String title;
+  private int length;
+  private String contentHash;
+  private int size;
+  private byte[] data;
+
+  @CreatedDate private Instant createdAt;
+
+  /** Default constructor. */
+  public PostRevision() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public long getKeyframe() {
+    return keyframe;
+  }
+
+  public void setKeyframe(long keyframe) {
+    this.keyframe = keyframe;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public void setLength(int length) {
+    this.length = length;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  public void setData(byte[] data) {
+    this.data = data;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,9 @@
+package com.lari.bloggerhub.document;
+
+/** Represents the publication status of a {@link Post}. */
+public enum PostStatus {
+  /** Visible to the author only. */
+  DRAFT,
+  /** Visible to everyone and listed in timelines. */
+  PUBLISHED
+}
@@ -0,0 +1,58 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents one shard of the post sitemaps of the <b>Blogger Hub</b> application: the posts
+ * published in one month. The ID is the month, formatted as {@code yyyy-MM}.
+ *
+ * <p>The number of entries and the version are maintained with {@code $inc} whenever a post of
+ * the shard is published, edited or unpublished, so the sitemap index and the entity tags of the
+ * shards are known without reading the entries.
+ */
+@Document("sitemap_shard")
+public class SitemapShard {
+
+  @Id private String id;
+
+  private long entries;
+  private long version;
+  private Instant lastModified;
+
+  /** Default constructor. */
+  public SitemapShard() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public long getEntries() {
+    return entries;
+  }
+
+  public void setEntries(long entries) {
+    this.entries = entries;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  public void setLastModified(Instant lastModified) {
+    this.lastModified = lastModified;
+  }
+}
@@ -0,0 +1,50 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the completion of the backfill of the {@link SyndicationEntry}s of the <b>Blogger
+ * Hub</b> application, which renders the entries of the posts published before the feeds existed.
+ * The backfill runs on every start until this document has been written.
+ */
+@Document("syndication_backfill")
+public class SyndicationBackfill {
+
+  /** The ID of the only backfill. */
+  public static final String ID = "posts";
+
+  @Id private String id;
+
+  private Instant completedAt;
+
+  /** Default constructor. */
+  public SyndicationBackfill() {}
+
+  /**
+   * Initializes a new backfill marker.
+   *
+   * @param completedAt the time the backfill completed
+   */
+  public SyndicationBackfill(Instant completedAt) {
+    this.id = ID;
+    this.completedAt = completedAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+}
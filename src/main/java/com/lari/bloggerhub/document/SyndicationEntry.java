@@ -0,0 +1,104 @@
+package com.lari.bloggerhub.document;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Represents a published {@link Post} as it appears in the feeds and sitemaps of the <b>Blogger
+ * Hub</b> application. The ID is the ID of the post.
+ *
+ * <p>The RSS item, the Atom entry and the sitemap URL of the post are rendered when the post is
+ * saved and stored gzip compressed. Each one is a complete gzip member, and a sequence of gzip
+ * members is itself a valid gzip stream, so a feed or sitemap is served by writing the stored
+ * segments between a header and a footer, without decompressing or compressing anything.
+ *
+ * <p>The shard is the month of publication, which groups the posts of the post sitemaps.
+ */
+@Document("syndication_entry")
+@CompoundIndex(name = "author_feed", def = "{'authorId': 1, 'publishedAt': -1}")
+@CompoundIndex(name = "sitemap", def = "{'shard': 1, '_id': 1}")
+public class SyndicationEntry {
+
+  @Id private String id;
+
+  @Field(targetType = FieldType.OBJECT_ID)
+  private String authorId;
+
+  private String shard;
+  private Instant publishedAt;
+  private Instant updatedAt;
+  private byte[] rssItem;
+  private byte[] atomEntry;
+  private byte[] sitemapUrl;
+
+  /** Default constructor. */
+  public SyndicationEntry() {}
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getAuthorId() {
+    return authorId;
+  }
+
+  public void setAuthorId(String authorId) {
+    this.authorId = authorId;
+  }
+
+  public String getShard() {
+    return shard;
+  }
+
+  public void setShard(String shard) {
+    this.shard = shard;
+  }
+
+  public Instant getPublishedAt() {
+    return publishedAt;
+  }
+
+  public void setPublishedAt(Instant publishedAt) {
+    this.publishedAt = publishedAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public byte[] getRssItem() {
+    return rssItem;
+  }
+
+  public void setRssItem(byte[] rssItem) {
+    this.rssItem = rssItem;
+  }
+
+  public byte[] getAtomEntry() {
+    return atomEntry;
+  }
+
+  public void setAtomEntry(byte[] atomEntry) {
+    this.atomEntry = atomEntry;
+  }
+
+  public byte[] getSitemapUrl() {
+    return sitemapUrl;
+  }
+
+  public void setSitemapUrl(byte[] sitemapUrl) {
+    this.sitemapUrl = sitemapUrl;
+  }
+}
@@ -2,6 +2,7 @@ package com.lari.bloggerhub.dto.request;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 /**
@@ -29,7 +30,8 @@ public class BlogUserRequestDto {
   @Size(max = 300)
   private String bio;
 
-  @NotBlank private String profilePicture;
+  @Pattern(regexp = "/api/pictures/[0-9a-f]{64}-\\d{1,4}\\.jpg")
+  private String profilePicture;
 
   /** Default constructor. */
   public BlogUserRequestDto() {}
@@ -41,7 +43,7 @@ public class BlogUserRequestDto {
    * @param email the email address of the user
    * @param password the password of the user
    * @param bio the biography of the user
-   * @param profilePicture the URL of the user's profile picture
+   * @param profilePicture the URL of a picture uploaded to {@code /api/users/me/picture}, or null
    */
   public BlogUserRequestDto(
       String username, String email, String password, String bio, String profilePicture) {
@@ -0,0 +1,50 @@
+package com.lari.bloggerhub.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * This class represents the data transfer object (DTO) for adding a comment to a post in the
+ * Blogger Hub application.
+ *
+ * <p>The comment replies to the post itself unless {@code parentId} names another comment of the
+ * same post.
+ */
+public class CommentRequestDto {
+
+  @NotBlank
+  @Size(max = 10000)
+  private String body;
+
+  private String parentId;
+
+  /** Default constructor. */
+  public CommentRequestDto() {}
+
+  /**
+   * Initializes a new comment request DTO with the specified details.
+   *
+   * @param body the text of the comment
+   * @param parentId the ID of the comment replied to, or null
+   */
+  public CommentRequestDto(String body, String parentId) {
+    this.body = body;
+    this.parentId = parentId;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public String getParentId() {
+    return parentId;
+  }
+
+  public void setParentId(String parentId) {
+    this.parentId = parentId;
+  }
+}
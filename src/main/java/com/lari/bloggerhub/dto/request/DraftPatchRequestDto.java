@@ -0,0 +1,52 @@
+package com.lari.bloggerhub.dto.request;
+
+import com.lari.bloggerhub.util.text.TextEdit;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for autosaving the draft of a post in the
+ * Blogger Hub application.
+ *
+ * <p>The edits are applied to the revision the client last saw; if another save has happened since
+ * then, the patch is rejected and the client has to reload the draft.
+ */
+public class DraftPatchRequestDto {
+
+  private long baseRevision;
+
+  @NotNull
+  @Size(min = 1, max = 100)
+  private List<TextEdit> edits;
+
+  /** Default constructor. */
+  public DraftPatchRequestDto() {}
+
+  /**
+   * Initializes a new draft patch request DTO with the specified details.
+   *
+   * @param baseRevision the revision the edits apply to
+   * @param edits the edits, applied in order
+   */
+  public DraftPatchRequestDto(long baseRevision, List<TextEdit> edits) {
+    this.baseRevision = baseRevision;
+    this.edits = edits;
+  }
+
+  public long getBaseRevision() {
+    return baseRevision;
+  }
+
+  public void setBaseRevision(long baseRevision) {
+    this.baseRevision = baseRevision;
+  }
+
+  public List<TextEdit> getEdits() {
+    return edits;
+  }
+
+  public void setEdits(List<TextEdit> edits) {
+    this.edits = edits;
+  }
+}
@@ -0,0 +1,112 @@
+package com.lari.bloggerhub.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for creating or editing a post in the
+ * Blogger Hub application.
+ *
+ * <p>Posts are saved as drafts unless {@code publish} is set. A published post cannot be turned
+ * back into a draft.
+ */
+public class PostRequestDto {
+
+  /** The largest number of characters the body of a post may have. */
+  public static final int MAX_BODY_LENGTH = 100_000;
+
+  @NotBlank
+  @Size(max = 150)
+  private String title;
+
+  @Size(max = 300)
+  private String subtitle;
+
+  @NotBlank
+  @Size(max = MAX_BODY_LENGTH)
+  private String body;
+
+  private String coverImage;
+
+  @Size(max = 5)
+  private List<String> tags;
+
+  private boolean publish;
+
+  /** Default constructor. */
+  public PostRequestDto() {}
+
+  /**
+   * Initializes a new post request DTO with the specified details.
+   *
+   * @param title the title of the post
+   * @param subtitle the subtitle of the post
+   * @param body the Markdown body of the post
+   * @param coverImage the URL of the cover image
+   * @param tags the tags of the post
+   * @param publish whether to publish the post
+   */
+  public PostRequestDto(
+      String title,
+      String subtitle,
+      String body,
+      String coverImage,
+      List<String> tags,
+      boolean publish) {
+    this.title = title;
+    this.subtitle = subtitle;
+    this.body = body;
+    this.coverImage = coverImage;
+    this.tags = tags;
+    this.publish = publish;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getSubtitle() {
+    return subtitle;
+  }
+
+  public void setSubtitle(String subtitle) {
+    this.subtitle = subtitle;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public String getCoverImage() {
+    return coverImage;
+  }
+
+  public void setCoverImage(String coverImage) {
+    this.coverImage = coverImage;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public void setTags(List<String> tags) {
+    this.tags = tags;
+  }
+
+  public boolean isPublish() {
+    return publish;
+  }
+
+  public void setPublish(boolean publish) {
+    this.publish = publish;
+  }
+}
@@ -0,0 +1,63 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.document.BlogUser;
+
+/**
+ * This class represents the data transfer object (DTO) for the author details shown next to a
+ * post in listings of the Blogger Hub application.
+ */
+public class AuthorCardDto {
+  private String id;
+  private String username;
+  private String profilePicture;
+
+  /** Default constructor. */
+  public AuthorCardDto() {}
+
+  /**
+   * Initializes a new author card DTO with the specified details.
+   *
+   * @param id the ID of the author
+   * @param username the username of the author
+   * @param profilePicture the URL of the author's profile picture
+   */
+  public AuthorCardDto(String id, String username, String profilePicture) {
+    this.id = id;
+    this.username = username;
+    this.profilePicture = profilePicture;
+  }
+
+  /**
+   * Creates the author card of a user.
+   *
+   * @param user the user
+   * @return the author card
+   */
+  public static AuthorCardDto from(BlogUser user) {
+    return new AuthorCardDto(user.getId(), user.getUsername(), user.getProfilePicture());
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getProfilePicture() {
+    return profilePicture;
+  }
+
+  public void setProfilePicture(String profilePicture) {
+    this.profilePicture = profilePicture;
+  }
+}
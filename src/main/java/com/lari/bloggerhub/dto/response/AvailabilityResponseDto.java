@@ -0,0 +1,68 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the availability of a
+ * username and an email address in the Blogger Hub application.
+ *
+ * <p>Values that were not part of the request are omitted from the response.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponseDto {
+  private String username;
+  private Boolean usernameAvailable;
+  private String email;
+  private Boolean emailAvailable;
+
+  /** Default constructor. */
+  public AvailabilityResponseDto() {}
+
+  /**
+   * Initializes a new availability response DTO with the specified details.
+   *
+   * @param username the checked username
+   * @param usernameAvailable whether the username is available
+   * @param email the checked email address
+   * @param emailAvailable whether the email address is available
+   */
+  public AvailabilityResponseDto(
+      String username, Boolean usernameAvailable, String email, Boolean emailAvailable) {
+    this.username = username;
+    this.usernameAvailable = usernameAvailable;
+    this.email = email;
+    this.emailAvailable = emailAvailable;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public Boolean getUsernameAvailable() {
+    return usernameAvailable;
+  }
+
+  public void setUsernameAvailable(Boolean usernameAvailable) {
+    this.usernameAvailable = usernameAvailable;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  public Boolean getEmailAvailable() {
+    return emailAvailable;
+  }
+
+  public void setEmailAvailable(Boolean emailAvailable) {
+    this.emailAvailable = emailAvailable;
+  }
+}
@@ -0,0 +1,56 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the clap count of a post and
+ * the claps given by the requesting user in the Blogger Hub application.
+ *
+ * <p>The claps of the requesting user are omitted for anonymous requests.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClapCountsDto {
+  private String postId;
+  private long claps;
+  private Integer yourClaps;
+
+  /** Default constructor. */
+  public ClapCountsDto() {}
+
+  /**
+   * Initializes a new clap counts DTO with the specified details.
+   *
+   * @param postId the ID of the post
+   * @param claps the total number of claps
+   * @param yourClaps the claps given by the requesting user
+   */
+  public ClapCountsDto(String postId, long claps, Integer yourClaps) {
+    this.postId = postId;
+    this.claps = claps;
+    this.yourClaps = yourClaps;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public long getClaps() {
+    return claps;
+  }
+
+  public void setClaps(long claps) {
+    this.claps = claps;
+  }
+
+  public Integer getYourClaps() {
+    return yourClaps;
+  }
+
+  public void setYourClaps(Integer yourClaps) {
+    this.yourClaps = yourClaps;
+  }
+}
@@ -0,0 +1,119 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.time.Instant;
+
+/**
+ * This class represents the data transfer object (DTO) for returning a comment of a thread in the
+ * Blogger Hub application.
+ *
+ * <p>Comments below the levels shown on a page have {@code descendants} greater than zero and are
+ * loaded with the replies endpoint of the comment.
+ */
+public class CommentDto {
+  private String id;
+  private String parentId;
+  private int depth;
+  private String body;
+  private long replies;
+  private long descendants;
+  private Instant createdAt;
+  private BlogUserResponseDto author;
+
+  /** Default constructor. */
+  public CommentDto() {}
+
+  /**
+   * Initializes a new comment DTO with the specified details.
+   *
+   * @param id the ID of the comment
+   * @param parentId the ID of the parent comment, or null for top-level comments
+   * @param depth the nesting level, 0 for top-level comments
+   * @param body the text of the comment
+   * @param replies the number of direct replies
+   * @param descendants the number of replies at any level below
+   * @param createdAt the time the comment was added
+   * @param author the public details of the author
+   */
+  public CommentDto(
+      String id,
+      String parentId,
+      int depth,
+      String body,
+      long replies,
+      long descendants,
+      Instant createdAt,
+      BlogUserResponseDto author) {
+    this.id = id;
+    this.parentId = parentId;
+    this.depth = depth;
+    this.body = body;
+    this.replies = replies;
+    this.descendants = descendants;
+    this.createdAt = createdAt;
+    this.author = author;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getParentId() {
+    return parentId;
+  }
+
+  public void setParentId(String parentId) {
+    this.parentId = parentId;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public void setDepth(int depth) {
+    this.depth = depth;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public long getReplies() {
+    return replies;
+  }
+
+  public void setReplies(long replies) {
+    this.replies = replies;
+  }
+
+  public long getDescendants() {
+    return descendants;
+  }
+
+  public void setDescendants(long descendants) {
+    this.descendants = descendants;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public BlogUserResponseDto getAuthor() {
+    return author;
+  }
+
+  public void setAuthor(BlogUserResponseDto author) {
+    this.author = author;
+  }
+}
@@ -0,0 +1,42 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of a comment thread
+ * in the Blogger Hub application.
+ */
+public class CommentPageDto {
+  private List<CommentDto> comments;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public CommentPageDto() {}
+
+  /**
+   * Initializes a new comment page DTO with the specified details.
+   *
+   * @param comments the comments of the page, in thread order
+   * @param nextCursor the cursor of the next page, or null if this is the last page
+   */
+  public CommentPageDto(List<CommentDto> comments, String nextCursor) {
+    this.comments = comments;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<CommentDto> getComments() {
+    return comments;
+  }
+
+  public void setComments(List<CommentDto> comments) {
+    this.comments = comments;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,42 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * This class represents the data transfer object (DTO) for the estimated number of unique readers
+ * of a post on one day in the Blogger Hub application.
+ */
+public class DailyReadersDto {
+  private LocalDate day;
+  private long uniqueReaders;
+
+  /** Default constructor. */
+  public DailyReadersDto() {}
+
+  /**
+   * Initializes a new daily readers DTO with the specified details.
+   *
+   * @param day the day (UTC)
+   * @param uniqueReaders the estimated number of unique readers
+   */
+  public DailyReadersDto(LocalDate day, long uniqueReaders) {
+    this.day = day;
+    this.uniqueReaders = uniqueReaders;
+  }
+
+  public LocalDate getDay() {
+    return day;
+  }
+
+  public void setDay(LocalDate day) {
+    this.day = day;
+  }
+
+  public long getUniqueReaders() {
+    return uniqueReaders;
+  }
+
+  public void setUniqueReaders(long uniqueReaders) {
+    this.uniqueReaders = uniqueReaders;
+  }
+}
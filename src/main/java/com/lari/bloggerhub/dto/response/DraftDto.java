@@ -0,0 +1,40 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the draft of a post in the
+ * Blogger Hub application.
+ */
+public class DraftDto {
+  private long revision;
+  private String body;
+
+  /** Default constructor. */
+  public DraftDto() {}
+
+  /**
+   * Initializes a new draft DTO with the specified details.
+   *
+   * @param revision the revision of the draft, the base of the next autosave
+   * @param body the text of the draft
+   */
+  public DraftDto(long revision, String body) {
+    this.revision = revision;
+    this.body = body;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+}
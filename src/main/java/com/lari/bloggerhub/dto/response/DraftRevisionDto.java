@@ -0,0 +1,40 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for acknowledging an autosave of a draft in
+ * the Blogger Hub application.
+ */
+public class DraftRevisionDto {
+  private long revision;
+  private int length;
+
+  /** Default constructor. */
+  public DraftRevisionDto() {}
+
+  /**
+   * Initializes a new draft revision DTO with the specified details.
+   *
+   * @param revision the revision created by the autosave
+   * @param length the length of the draft at that revision
+   */
+  public DraftRevisionDto(long revision, int length) {
+    this.revision = revision;
+    this.length = length;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public void setLength(int length) {
+    this.length = length;
+  }
+}
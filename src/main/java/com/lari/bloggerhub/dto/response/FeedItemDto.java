@@ -0,0 +1,42 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.repository.projection.PostSummary;
+
+/**
+ * This class represents the data transfer object (DTO) for a single post in the home feed of the
+ * Blogger Hub application.
+ */
+public class FeedItemDto {
+  private PostSummary post;
+  private AuthorCardDto author;
+
+  /** Default constructor. */
+  public FeedItemDto() {}
+
+  /**
+   * Initializes a new feed item DTO with the specified details.
+   *
+   * @param post the post, without its body
+   * @param author the author of the post
+   */
+  public FeedItemDto(PostSummary post, AuthorCardDto author) {
+    this.post = post;
+    this.author = author;
+  }
+
+  public PostSummary getPost() {
+    return post;
+  }
+
+  public void setPost(PostSummary post) {
+    this.post = post;
+  }
+
+  public AuthorCardDto getAuthor() {
+    return author;
+  }
+
+  public void setAuthor(AuthorCardDto author) {
+    this.author = author;
+  }
+}
@@ -0,0 +1,45 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of the home feed
+ * in the Blogger Hub application.
+ *
+ * <p>The next page is requested by passing {@code nextCursor} back as the {@code cursor}
+ * parameter. It is null on the last page.
+ */
+public class FeedPageDto {
+  private List<FeedItemDto> items;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public FeedPageDto() {}
+
+  /**
+   * Initializes a new feed page DTO with the specified details.
+   *
+   * @param items the posts of the page, newest first
+   * @param nextCursor the cursor of the next page, or null on the last page
+   */
+  public FeedPageDto(List<FeedItemDto> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<FeedItemDto> getItems() {
+    return items;
+  }
+
+  public void setItems(List<FeedItemDto> items) {
+    this.items = items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,67 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the follow counts of a user
+ * and their relationship to the requesting user in the Blogger Hub application.
+ *
+ * <p>The relationship fields are omitted for anonymous requests.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FollowStatsDto {
+  private long followers;
+  private long following;
+  private Boolean followedByYou;
+  private Boolean followsYou;
+
+  /** Default constructor. */
+  public FollowStatsDto() {}
+
+  /**
+   * Initializes a new follow stats DTO with the specified details.
+   *
+   * @param followers the number of followers
+   * @param following the number of followed users
+   * @param followedByYou whether the requesting user follows the user
+   * @param followsYou whether the user follows the requesting user
+   */
+  public FollowStatsDto(long followers, long following, Boolean followedByYou, Boolean followsYou) {
+    this.followers = followers;
+    this.following = following;
+    this.followedByYou = followedByYou;
+    this.followsYou = followsYou;
+  }
+
+  public long getFollowers() {
+    return followers;
+  }
+
+  public void setFollowers(long followers) {
+    this.followers = followers;
+  }
+
+  public long getFollowing() {
+    return following;
+  }
+
+  public void setFollowing(long following) {
+    this.following = following;
+  }
+
+  public Boolean getFollowedByYou() {
+    return followedByYou;
+  }
+
+  public void setFollowedByYou(Boolean followedByYou) {
+    this.followedByYou = followedByYou;
+  }
+
+  public Boolean getFollowsYou() {
+    return followsYou;
+  }
+
+  public void setFollowsYou(Boolean followsYou) {
+    this.followsYou = followsYou;
+  }
+}
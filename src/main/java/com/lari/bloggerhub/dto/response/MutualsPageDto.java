@@ -0,0 +1,42 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of the mutual
+ * followers of a user in the Blogger Hub application.
+ */
+public class MutualsPageDto {
+  private List<AuthorCardDto> users;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public MutualsPageDto() {}
+
+  /**
+   * Initializes a new mutuals page DTO with the specified details.
+   *
+   * @param users the mutual followers of the page, in ID order
+   * @param nextCursor the cursor of the next page, or null if this is the last page
+   */
+  public MutualsPageDto(List<AuthorCardDto> users, String nextCursor) {
+    this.users = users;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<AuthorCardDto> getUsers() {
+    return users;
+  }
+
+  public void setUsers(List<AuthorCardDto> users) {
+    this.users = users;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,118 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.document.NotificationType;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning a notification in the
+ * Blogger Hub application.
+ */
+public class NotificationDto {
+  private String id;
+  private NotificationType type;
+  private String subjectId;
+  private List<AuthorCardDto> actors;
+  private long actorCount;
+  private long eventCount;
+  private boolean read;
+  private Instant createdAt;
+
+  /** Default constructor. */
+  public NotificationDto() {}
+
+  /**
+   * Initializes a new notification DTO with the specified details.
+   *
+   * @param id the ID of the notification
+   * @param type what the notification is about
+   * @param subjectId the ID of the post it is about, or null for follows
+   * @param actors the most recent users who caused it, newest first
+   * @param actorCount the number of distinct users who caused it
+   * @param eventCount the number of events it stands for, such as the number of claps
+   * @param read whether the recipient has read it
+   * @param createdAt the time it was delivered
+   */
+  public NotificationDto(
+      String id,
+      NotificationType type,
+      String subjectId,
+      List<AuthorCardDto> actors,
+      long actorCount,
+      long eventCount,
+      boolean read,
+      Instant createdAt) {
+    this.id = id;
+    this.type = type;
+    this.subjectId = subjectId;
+    this.actors = actors;
+    this.actorCount = actorCount;
+    this.eventCount = eventCount;
+    this.read = read;
+    this.createdAt = createdAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public NotificationType getType() {
+    return type;
+  }
+
+  public void setType(NotificationType type) {
+    this.type = type;
+  }
+
+  public String getSubjectId() {
+    return subjectId;
+  }
+
+  public void setSubjectId(String subjectId) {
+    this.subjectId = subjectId;
+  }
+
+  public List<AuthorCardDto> getActors() {
+    return actors;
+  }
+
+  public void setActors(List<AuthorCardDto> actors) {
+    this.actors = actors;
+  }
+
+  public long getActorCount() {
+    return actorCount;
+  }
+
+  public void setActorCount(long actorCount) {
+    this.actorCount = actorCount;
+  }
+
+  public long getEventCount() {
+    return eventCount;
+  }
+
+  public void setEventCount(long eventCount) {
+    this.eventCount = eventCount;
+  }
+
+  public boolean isRead() {
+    return read;
+  }
+
+  public void setRead(boolean read) {
+    this.read = read;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,42 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of the notifications
+ * of a user in the Blogger Hub application.
+ */
+public class NotificationPageDto {
+  private List<NotificationDto> notifications;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public NotificationPageDto() {}
+
+  /**
+   * Initializes a new notification page DTO with the specified details.
+   *
+   * @param notifications the notifications of the page, newest first
+   * @param nextCursor the cursor of the next page, or null if this is the last page
+   */
+  public NotificationPageDto(List<NotificationDto> notifications, String nextCursor) {
+    this.notifications = notifications;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<NotificationDto> getNotifications() {
+    return notifications;
+  }
+
+  public void setNotifications(List<NotificationDto> notifications) {
+    this.notifications = notifications;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,46 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of a post timeline
+ * in the Blogger Hub application.
+ *
+ * <p>The next page is requested by passing {@code nextCursor} back as the {@code cursor}
+ * parameter. It is null on the last page.
+ */
+public class PostPageDto {
+  private List<PostSummary> posts;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public PostPageDto() {}
+
+  /**
+   * Initializes a new post page DTO with the specified details.
+   *
+   * @param posts the posts of the page, newest first
+   * @param nextCursor the cursor of the next page, or null on the last page
+   */
+  public PostPageDto(List<PostSummary> posts, String nextCursor) {
+    this.posts = posts;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<PostSummary> getPosts() {
+    return posts;
+  }
+
+  public void setPosts(List<PostSummary> posts) {
+    this.posts = posts;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,154 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.document.PostStatus;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning a complete post, including
+ * its body, in the Blogger Hub application.
+ */
+public class PostResponseDto {
+  private String id;
+  private String authorId;
+  private String title;
+  private String subtitle;
+  private String body;
+  private String coverImage;
+  private List<String> tags;
+  private int readingTimeMinutes;
+  private PostStatus status;
+  private Instant publishedAt;
+  private Instant updatedAt;
+
+  /** Default constructor. */
+  public PostResponseDto() {}
+
+  /**
+   * Initializes a new post response DTO with the specified details.
+   *
+   * @param id the ID of the post
+   * @param authorId the ID of the author
+   * @param title the title of the post
+   * @param subtitle the subtitle of the post
+   * @param body the Markdown body of the post
+   * @param coverImage the URL of the cover image
+   * @param tags the tags of the post
+   * @param readingTimeMinutes the estimated reading time
+   * @param status the publication status
+   * @param publishedAt the time the post was first published
+   * @param updatedAt the time the post was last edited
+   */
+  public PostResponseDto(
+      String id,
+      String authorId,
+      String title,
+      String subtitle,
+      String body,
+      String coverImage,
+      List<String> tags,
+      int readingTimeMinutes,
+      PostStatus status,
+      Instant publishedAt,
+      Instant updatedAt) {
+    this.id = id;
+    this.authorId = authorId;
+    this.title = title;
+    this.subtitle = subtitle;
+    this.body = body;
+    this.coverImage = coverImage;
+    this.tags = tags;
+    this.readingTimeMinutes = readingTimeMinutes;
+    this.status = status;
+    this.publishedAt = publishedAt;
+    this.updatedAt = updatedAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getAuthorId() {
+    return authorId;
+  }
+
+  public void setAuthorId(String authorId) {
+    this.authorId = authorId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getSubtitle() {
+    return subtitle;
+  }
+
+  public void setSubtitle(String subtitle) {
+    this.subtitle = subtitle;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public String getCoverImage() {
+    return coverImage;
+  }
+
+  public void setCoverImage(String coverImage) {
+    this.coverImage = coverImage;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public void setTags(List<String> tags) {
+    this.tags = tags;
+  }
+
+  public int getReadingTimeMinutes() {
+    return readingTimeMinutes;
+  }
+
+  public void setReadingTimeMinutes(int readingTimeMinutes) {
+    this.readingTimeMinutes = readingTimeMinutes;
+  }
+
+  public PostStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(PostStatus status) {
+    this.status = status;
+  }
+
+  public Instant getPublishedAt() {
+    return publishedAt;
+  }
+
+  public void setPublishedAt(Instant publishedAt) {
+    this.publishedAt = publishedAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
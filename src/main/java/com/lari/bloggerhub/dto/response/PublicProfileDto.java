@@ -0,0 +1,66 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the public profile of a user
+ * in the Blogger Hub application.
+ *
+ * <p>Public profiles are served to anonymous clients and cached by CDNs, so the class contains only
+ * the user's ID, username, biography and profile picture. The email address and roles are never
+ * part of it.
+ */
+public class PublicProfileDto {
+  private String id;
+  private String username;
+  private String bio;
+  private String profilePicture;
+
+  /** Default constructor. */
+  public PublicProfileDto() {}
+
+  /**
+   * Initializes a new public profile DTO with the specified details.
+   *
+   * @param id the ID of the user
+   * @param username the username of the user
+   * @param bio the biography of the user
+   * @param profilePicture the URL of the user's profile picture
+   */
+  public PublicProfileDto(String id, String username, String bio, String profilePicture) {
+    this.id = id;
+    this.username = username;
+    this.bio = bio;
+    this.profilePicture = profilePicture;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getBio() {
+    return bio;
+  }
+
+  public void setBio(String bio) {
+    this.bio = bio;
+  }
+
+  public String getProfilePicture() {
+    return profilePicture;
+  }
+
+  public void setProfilePicture(String profilePicture) {
+    this.profilePicture = profilePicture;
+  }
+}
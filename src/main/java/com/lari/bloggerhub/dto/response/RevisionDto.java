@@ -0,0 +1,64 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.time.Instant;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one revision of a post in the
+ * Blogger Hub application.
+ */
+public class RevisionDto {
+  private long revision;
+  private String title;
+  private String body;
+  private Instant createdAt;
+
+  /** Default constructor. */
+  public RevisionDto() {}
+
+  /**
+   * Initializes a new revision DTO with the specified details.
+   *
+   * @param revision the number of the revision
+   * @param title the title of the post at the revision
+   * @param body the body of the post at the revision
+   * @param createdAt the time the revision was saved
+   */
+  public RevisionDto(long revision, String title, String body, Instant createdAt) {
+    this.revision = revision;
+    this.title = title;
+    this.body = body;
+    this.createdAt = createdAt;
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(long revision) {
+    this.revision = revision;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,43 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.lari.bloggerhub.repository.projection.PostRevisionInfo;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for returning one page of the revision
+ * history of a post in the Blogger Hub application.
+ */
+public class RevisionPageDto {
+  private List<PostRevisionInfo> revisions;
+  private String nextCursor;
+
+  /** Default constructor. */
+  public RevisionPageDto() {}
+
+  /**
+   * Initializes a new revision page DTO with the specified details.
+   *
+   * @param revisions the metadata of the revisions of the page, newest first
+   * @param nextCursor the cursor of the next page, or null if this is the last page
+   */
+  public RevisionPageDto(List<PostRevisionInfo> revisions, String nextCursor) {
+    this.revisions = revisions;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<PostRevisionInfo> getRevisions() {
+    return revisions;
+  }
+
+  public void setRevisions(List<PostRevisionInfo> revisions) {
+    this.revisions = revisions;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,68 @@
+package com.lari.bloggerhub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+
+/**
+ * This class represents the data transfer object (DTO) for one result of a full-text search in the
+ * Blogger Hub application.
+ *
+ * <p>A result is either a post or a user; the other one is omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResultDto {
+  private String type;
+  private double score;
+  private PostSummary post;
+  private AuthorCardDto user;
+
+  /** Default constructor. */
+  public SearchResultDto() {}
+
+  /**
+   * Initializes a new search result DTO with the specified details.
+   *
+   * @param type the type of the result, {@code post} or {@code user}
+   * @param score the relevance score of the result
+   * @param post the post, for post results
+   * @param user the user, for user results
+   */
+  public SearchResultDto(String type, double score, PostSummary post, AuthorCardDto user) {
+    this.type = type;
+    this.score = score;
+    this.post = post;
+    this.user = user;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+
+  public PostSummary getPost() {
+    return post;
+  }
+
+  public void setPost(PostSummary post) {
+    this.post = post;
+  }
+
+  public AuthorCardDto getUser() {
+    return user;
+  }
+
+  public void setUser(AuthorCardDto user) {
+    this.user = user;
+  }
+}
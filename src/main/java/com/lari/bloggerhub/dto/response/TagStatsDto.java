@@ -0,0 +1,51 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the number of posts with a
+ * tag and the memory used to index them in the Blogger Hub application.
+ */
+public class TagStatsDto {
+  private String tag;
+  private long posts;
+  private long bytes;
+
+  /** Default constructor. */
+  public TagStatsDto() {}
+
+  /**
+   * Initializes a new tag statistics DTO with the specified details.
+   *
+   * @param tag the normalized tag
+   * @param posts the number of published posts with the tag
+   * @param bytes the memory used by the bitmap of the tag
+   */
+  public TagStatsDto(String tag, long posts, long bytes) {
+    this.tag = tag;
+    this.posts = posts;
+    this.bytes = bytes;
+  }
+
+  public String getTag() {
+    return tag;
+  }
+
+  public void setTag(String tag) {
+    this.tag = tag;
+  }
+
+  public long getPosts() {
+    return posts;
+  }
+
+  public void setPosts(long posts) {
+    this.posts = posts;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  public void setBytes(long bytes) {
+    this.bytes = bytes;
+  }
+}
@@ -0,0 +1,84 @@
+package com.lari.bloggerhub.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * This class represents the data transfer object (DTO) for the estimated number of unique readers
+ * of a post over a date range in the Blogger Hub application.
+ *
+ * <p>The total counts each reader once over the whole range, so it is usually smaller than the sum
+ * of the daily counts.
+ */
+public class UniqueReadersDto {
+  private String postId;
+  private LocalDate from;
+  private LocalDate to;
+  private long uniqueReaders;
+  private List<DailyReadersDto> days;
+
+  /** Default constructor. */
+  public UniqueReadersDto() {}
+
+  /**
+   * Initializes a new unique readers DTO with the specified details.
+   *
+   * @param postId the ID of the post
+   * @param from the first day of the range
+   * @param to the last day of the range
+   * @param uniqueReaders the estimated number of unique readers over the range
+   * @param days the estimated number of unique readers per day
+   */
+  public UniqueReadersDto(
+      String postId,
+      LocalDate from,
+      LocalDate to,
+      long uniqueReaders,
+      List<DailyReadersDto> days) {
+    this.postId = postId;
+    this.from = from;
+    this.to = to;
+    this.uniqueReaders = uniqueReaders;
+    this.days = days;
+  }
+
+  public String getPostId() {
+    return postId;
+  }
+
+  public void setPostId(String postId) {
+    this.postId = postId;
+  }
+
+  public LocalDate getFrom() {
+    return from;
+  }
+
+  public void setFrom(LocalDate from) {
+    this.from = from;
+  }
+
+  public LocalDate getTo() {
+    return to;
+  }
+
+  public void setTo(LocalDate to) {
+    this.to = to;
+  }
+
+  public long getUniqueReaders() {
+    return uniqueReaders;
+  }
+
+  public void setUniqueReaders(long uniqueReaders) {
+    this.uniqueReaders = uniqueReaders;
+  }
+
+  public List<DailyReadersDto> getDays() {
+    return days;
+  }
+
+  public void setDays(List<DailyReadersDto> days) {
+    this.days = days;
+  }
+}
@@ -0,0 +1,29 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for returning the number of unread
+ * notifications of a user in the Blogger Hub application.
+ */
+public class UnreadCountDto {
+  private long unread;
+
+  /** Default constructor. */
+  public UnreadCountDto() {}
+
+  /**
+   * Initializes a new unread count DTO with the specified details.
+   *
+   * @param unread the number of unread notifications
+   */
+  public UnreadCountDto(long unread) {
+    this.unread = unread;
+  }
+
+  public long getUnread() {
+    return unread;
+  }
+
+  public void setUnread(long unread) {
+    this.unread = unread;
+  }
+}
@@ -0,0 +1,40 @@
+package com.lari.bloggerhub.dto.response;
+
+/**
+ * This class represents the data transfer object (DTO) for a single username autocomplete
+ * suggestion in the Blogger Hub application.
+ */
+public class UsernameSuggestionDto {
+  private String id;
+  private String username;
+
+  /** Default constructor. */
+  public UsernameSuggestionDto() {}
+
+  /**
+   * Initializes a new username suggestion DTO with the specified details.
+   *
+   * @param id the ID of the user
+   * @param username the username of the user
+   */
+  public UsernameSuggestionDto(String id, String username) {
+    this.id = id;
+    this.username = username;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+}
@@ -1,8 +1,15 @@
 package com.lari.bloggerhub.repository;
 
 import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.dto.response.BlogUserResponseDto;
+import com.lari.bloggerhub.repository.projection.UserSitemapEntry;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -47,4 +54,56 @@ public interface BlogUserRepository extends MongoRepository<BlogUser, String> {
    * @return true if a BlogUser with the email address exists, false otherwise
    */
   boolean existsByEmail(String email);
+
+  /**
+   * Finds a BlogUser by ID for rendering their public profile. Behaves like {@code findById}, but
+   * runs in the read lane instead of the auth lane of the repository guards.
+   *
+   * @param id the ID of the BlogUser
+   * @return an Optional containing the BlogUser if found, or empty if not found
+   */
+  Optional<BlogUser> findProfileById(String id);
+
+  /**
+   * Finds a BlogUser by username for rendering their public profile. Behaves like {@code
+   * findByUsername}, but runs in the read lane instead of the auth lane of the repository guards.
+   *
+   * @param username the username of the BlogUser
+   * @return an Optional containing the BlogUser if found, or empty if not found
+   */
+  Optional<BlogUser> findProfileByUsername(String username);
+
+  /**
+   * Finds the public details of several users with one {@code $in} lookup, for rendering lists
+   * such as comment threads. Only the ID, username, biography and profile picture are read; the
+   * email address and roles of the DTOs are left empty.
+   *
+   * @param ids the IDs of the users, as ObjectIds because the query is not mapped
+   * @return the details of the users found, in no particular order
+   */
+  @Query(
+      value = "{ '_id': { '$in': ?0 } }",
+      fields = "{ 'username': 1, 'bio': 1, 'profilePicture': 1 }")
+  List<BlogUserResponseDto> findResponsesByIdIn(Collection<ObjectId> ids);
+
+  /**
+   * Finds the user who signed up first, which is where the user sitemaps start.
+   *
+   * @return an Optional containing the sitemap entry of the user, or empty if there are no users
+   */
+  Optional<UserSitemapEntry> findFirstByOrderByIdAsc();
+
+  /**
+   * Streams the sitemap entries of the users with IDs in a range, in ID order, from one cursor.
+   * ObjectIds start with their creation time, so a range of IDs is a range of sign-up times.
+   *
+   * @param from the lowest ID, inclusive
+   * @param to the highest ID, exclusive
+   * @return the stream of entries, which must be closed to release the cursor
+   */
+  @Query(
+      value = "{ '_id': { '$gte': ?0, '$lt': ?1 } }",
+      fields = "{ 'username': 1, 'updatedAt': 1 }",
+      sort = "{ '_id': 1 }")
+  Stream<UserSitemapEntry> streamSitemapEntries(ObjectId from, ObjectId to);
 }
@@ -0,0 +1,14 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Comment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link Comment} documents in the database, together with the thread queries of the
+ * {@link CommentThreadRepository} fragment.
+ */
+@Repository
+public interface CommentRepository
+    extends MongoRepository<Comment, String>, CommentThreadRepository {}
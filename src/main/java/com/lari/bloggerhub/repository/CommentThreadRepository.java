@@ -0,0 +1,36 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Comment;
+import java.util.List;
+
+/**
+ * This interface declares the thread queries and the reply count updates of the {@link
+ * CommentRepository}. Pages of a thread are ranges of materialized paths over the thread index of
+ * the comment collection.
+ */
+public interface CommentThreadRepository {
+
+  /**
+   * Finds a page of the comments of a post in thread order, between two paths and within a range
+   * of depths.
+   *
+   * @param postId the ID of the post
+   * @param afterPath the path after which the page starts, exclusive
+   * @param beforePath the path before which the page ends, exclusive
+   * @param minDepth the smallest depth to include
+   * @param maxDepth the largest depth to include
+   * @param limit the maximum number of comments
+   * @return the comments of the page, in path order
+   */
+  List<Comment> findThreadPage(
+      String postId, String afterPath, String beforePath, int minDepth, int maxDepth, int limit);
+
+  /**
+   * Counts a new comment: in the comment count of its post, the reply count of its parent and the
+   * descendant counts of all its ancestors.
+   *
+   * @param comment the new comment
+   * @param ancestorIds the IDs of the ancestors of the comment, root first
+   */
+  void countNewComment(Comment comment, List<String> ancestorIds);
+}
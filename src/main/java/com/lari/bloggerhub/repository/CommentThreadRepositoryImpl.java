@@ -0,0 +1,71 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Comment;
+import com.lari.bloggerhub.document.Post;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * This class implements the {@link CommentThreadRepository} fragment with {@link MongoTemplate}
+ * queries.
+ *
+ * <p>The depths of a page are listed with {@code $in} rather than as a range, so MongoDB scans
+ * the thread index once per depth and merges the scans in path order instead of sorting.
+ */
+public class CommentThreadRepositoryImpl implements CommentThreadRepository {
+
+  private static final Sort THREAD_ORDER = Sort.by(Sort.Order.asc("path"));
+
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Constructs a new instance of the {@link CommentThreadRepositoryImpl} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to run the queries
+   */
+  public CommentThreadRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public List<Comment> findThreadPage(
+      String postId, String afterPath, String beforePath, int minDepth, int maxDepth, int limit) {
+    Criteria criteria =
+        Criteria.where("postId")
+            .is(postId)
+            .and("depth")
+            .in(IntStream.rangeClosed(minDepth, maxDepth).boxed().toList())
+            .and("path")
+            .gt(afterPath)
+            .lt(beforePath);
+    Query query = Query.query(criteria).with(THREAD_ORDER).limit(limit);
+    return mongoTemplate.find(query, Comment.class);
+  }
+
+  @Override
+  public void countNewComment(Comment comment, List<String> ancestorIds) {
+    if (!ancestorIds.isEmpty()) {
+      BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+      bulk.updateMulti(
+          Query.query(
+              Criteria.where("_id").in(ancestorIds.stream().map(ObjectId::new).toList())),
+          new Update().inc("descendants", 1));
+      bulk.updateOne(
+          Query.query(Criteria.where("_id").is(new ObjectId(comment.getParentId()))),
+          new Update().inc("replies", 1));
+      bulk.execute();
+    }
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("id").is(comment.getPostId())),
+        new Update().inc("comments", 1),
+        Post.class);
+  }
+}
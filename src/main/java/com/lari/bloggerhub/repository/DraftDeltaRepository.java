@@ -0,0 +1,48 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.DraftDelta;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link DraftDelta} documents in the database. Every query is a scan of the log index.
+ */
+@Repository
+public interface DraftDeltaRepository extends MongoRepository<DraftDelta, String> {
+
+  /**
+   * Finds the latest delta of a draft.
+   *
+   * @param postId the ID of the post
+   * @return an Optional containing the latest delta, or empty if the draft has none
+   */
+  Optional<DraftDelta> findFirstByPostIdOrderByRevisionDesc(String postId);
+
+  /**
+   * Finds the deltas of a draft after a revision, oldest first.
+   *
+   * @param postId the ID of the post
+   * @param revision the revision
+   * @return the later deltas
+   */
+  List<DraftDelta> findByPostIdAndRevisionGreaterThanOrderByRevisionAsc(
+      String postId, long revision);
+
+  /**
+   * Deletes the deltas of a draft before a revision.
+   *
+   * @param postId the ID of the post
+   * @param revision the revision
+   */
+  void deleteByPostIdAndRevisionLessThan(String postId, long revision);
+
+  /**
+   * Deletes all deltas of a draft.
+   *
+   * @param postId the ID of the post
+   */
+  void deleteByPostId(String postId);
+}
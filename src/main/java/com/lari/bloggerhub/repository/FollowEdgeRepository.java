@@ -0,0 +1,24 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.FollowEdge;
+import java.util.Optional;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * append {@link FollowEdge}s to the follow log in the database.
+ */
+@Repository
+public interface FollowEdgeRepository extends MongoRepository<FollowEdge, String> {
+
+  /**
+   * Finds the latest edge of a relationship, which records its current state.
+   *
+   * @param followerId the ID of the following user
+   * @param followeeId the ID of the followed user
+   * @return the latest edge, or empty if the users were never related
+   */
+  Optional<FollowEdge> findFirstByFollowerIdAndFolloweeIdOrderByIdDesc(
+      String followerId, String followeeId);
+}
@@ -0,0 +1,13 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.NotificationCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link NotificationCounter} documents in the database.
+ */
+@Repository
+public interface NotificationCounterRepository
+    extends MongoRepository<NotificationCounter, String> {}
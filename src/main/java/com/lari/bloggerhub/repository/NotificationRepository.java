@@ -0,0 +1,45 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Notification;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link Notification} documents in the database. The pages of a user's notifications are
+ * scans of the inbox index.
+ */
+@Repository
+public interface NotificationRepository extends MongoRepository<Notification, String> {
+
+  /**
+   * Finds the newest notifications of a user.
+   *
+   * @param recipientId the ID of the user
+   * @param limit the maximum number of notifications to return
+   * @return the notifications, newest first
+   */
+  List<Notification> findByRecipientIdOrderByIdDesc(String recipientId, Limit limit);
+
+  /**
+   * Finds the notifications of a user older than a given one.
+   *
+   * @param recipientId the ID of the user
+   * @param before the ID of the last notification of the previous page
+   * @param limit the maximum number of notifications to return
+   * @return the notifications, newest first
+   */
+  List<Notification> findByRecipientIdAndIdLessThanOrderByIdDesc(
+      String recipientId, ObjectId before, Limit limit);
+
+  /**
+   * Counts the unread notifications of a user, for users without a persisted counter.
+   *
+   * @param recipientId the ID of the user
+   * @return the number of unread notifications
+   */
+  long countByRecipientIdAndReadFalse(String recipientId);
+}
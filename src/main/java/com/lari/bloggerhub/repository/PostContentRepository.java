@@ -0,0 +1,19 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Post;
+
+/**
+ * This interface declares the targeted writes of the {@link PostRepository}. Counters of a post,
+ * such as its claps, are changed concurrently with {@code $inc}; editing a post must therefore set
+ * only the content fields instead of replacing the whole document.
+ */
+public interface PostContentRepository {
+
+  /**
+   * Writes the editable content and publication state of a post, leaving its counters untouched.
+   *
+   * @param post the post with the new content
+   * @return the post as stored after the update
+   */
+  Post updateContent(Post post);
+}
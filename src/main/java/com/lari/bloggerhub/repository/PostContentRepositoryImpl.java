@@ -0,0 +1,69 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Post;
+import java.time.Instant;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * This class implements the {@link PostContentRepository} fragment with {@link MongoTemplate}
+ * updates.
+ *
+ * <p>{@code findAndModify} does not raise the mapping events of a save, so an {@link
+ * AfterSaveEvent} is published for the updated post; listeners that react to saved posts see
+ * edits the same way whichever way a post was written.
+ */
+public class PostContentRepositoryImpl implements PostContentRepository {
+
+  private final MongoTemplate mongoTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructs a new instance of the {@link PostContentRepositoryImpl} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to run the updates
+   * @param eventPublisher the publisher of the after save events
+   */
+  public PostContentRepositoryImpl(
+      MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+    this.mongoTemplate = mongoTemplate;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public Post updateContent(Post post) {
+    Update update =
+        new Update()
+            .set("title", post.getTitle())
+            .set("subtitle", post.getSubtitle())
+            .set("excerpt", post.getExcerpt())
+            .set("body", post.getBody())
+            .set("contentHash", post.getContentHash())
+            .set("coverImage", post.getCoverImage())
+            .set("tags", post.getTags())
+            .set("readingTimeMinutes", post.getReadingTimeMinutes())
+            .set("status", post.getStatus())
+            .set("publishedAt", post.getPublishedAt())
+            .set("updatedAt", Instant.now());
+    Post updated =
+        mongoTemplate.findAndModify(
+            Query.query(Criteria.where("id").is(post.getId())),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Post.class);
+    if (updated != null) {
+      Document document = new Document();
+      mongoTemplate.getConverter().write(updated, document);
+      eventPublisher.publishEvent(
+          new AfterSaveEvent<>(updated, document, mongoTemplate.getCollectionName(Post.class)));
+    }
+    return updated;
+  }
+}
@@ -0,0 +1,25 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.PostReadSketch;
+import java.util.List;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link PostReadSketch} documents in the database.
+ */
+@Repository
+public interface PostReadSketchRepository extends MongoRepository<PostReadSketch, String> {
+
+  /**
+   * Finds the sketches whose IDs lie in an inclusive range.
+   *
+   * @param fromId the ID of the first day
+   * @param toId the ID of the last day
+   * @return the sketches in the range
+   */
+  @Query("{ '_id': { '$gte': ?0, '$lte': ?1 } }")
+  List<PostReadSketch> findByIdRange(String fromId, String toId);
+}
@@ -0,0 +1,17 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Post;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link Post} entities in the database.
+ *
+ * <p>The derived methods load whole posts and are meant for the write path. Timelines and post
+ * cards use the projections of the {@link PostTimelineRepository} fragment instead, and edits go
+ * through the {@link PostContentRepository} fragment so they never overwrite counters.
+ */
+@Repository
+public interface PostRepository
+    extends MongoRepository<Post, String>, PostTimelineRepository, PostContentRepository {}
@@ -0,0 +1,59 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.PostRevision;
+import com.lari.bloggerhub.repository.projection.PostRevisionInfo;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link PostRevision} documents in the database. Every query is a scan of the history
+ * index; the metadata queries return {@link PostRevisionInfo} projections, which leave out the
+ * encoded bodies.
+ */
+@Repository
+public interface PostRevisionRepository extends MongoRepository<PostRevision, String> {
+
+  /**
+   * Finds the metadata of the latest revision of a post.
+   *
+   * @param postId the ID of the post
+   * @return an Optional containing the metadata, or empty if the post has no revisions
+   */
+  Optional<PostRevisionInfo> findFirstByPostIdOrderByRevisionDesc(String postId);
+
+  /**
+   * Finds the metadata of a revision of a post.
+   *
+   * @param postId the ID of the post
+   * @param revision the number of the revision
+   * @return an Optional containing the metadata if found, or empty if not found
+   */
+  Optional<PostRevisionInfo> findByPostIdAndRevision(String postId, long revision);
+
+  /**
+   * Finds a page of the metadata of the revisions of a post before a revision, newest first.
+   *
+   * @param postId the ID of the post
+   * @param before the revision after the page
+   * @param limit the maximum number of revisions
+   * @return the metadata of the page
+   */
+  List<PostRevisionInfo> findByPostIdAndRevisionLessThanOrderByRevisionDesc(
+      String postId, long before, Limit limit);
+
+  /**
+   * Finds the revisions of a post in a range, oldest first, such as a keyframe and the deltas
+   * after it.
+   *
+   * @param postId the ID of the post
+   * @param revisions the range of revisions
+   * @return the revisions
+   */
+  List<PostRevision> findByPostIdAndRevisionBetweenOrderByRevisionAsc(
+      String postId, Range<Long> revisions);
+}
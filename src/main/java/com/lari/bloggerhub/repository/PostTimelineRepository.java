@@ -0,0 +1,80 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.repository.projection.PostContent;
+import com.lari.bloggerhub.repository.projection.PostContentKey;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This interface declares the read-optimized queries of the {@link PostRepository}. They return
+ * slim projections and page with {@link KeysetCursor}s over the timeline indexes of the post
+ * collection.
+ */
+public interface PostTimelineRepository {
+
+  /**
+   * Finds a page of the published posts of an author, newest first.
+   *
+   * @param authorId the ID of the author
+   * @param after the position after the previous page, or null for the first page
+   * @param limit the maximum number of posts
+   * @return the posts of the page
+   */
+  List<PostSummary> findAuthorTimeline(String authorId, KeysetCursor after, int limit);
+
+  /**
+   * Finds a page of the published posts of several authors, newest first. MongoDB answers this
+   * with one scan of the author timeline index per author, merged in sort order.
+   *
+   * @param authorIds the IDs of the authors
+   * @param after the position after the previous page, or null for the first page
+   * @param limit the maximum number of posts
+   * @return the posts of the page
+   */
+  List<PostSummary> findAuthorsTimeline(
+      Collection<String> authorIds, KeysetCursor after, int limit);
+
+  /**
+   * Finds a page of all published posts, newest first.
+   *
+   * @param after the position after the previous page, or null for the first page
+   * @param limit the maximum number of posts
+   * @return the posts of the page
+   */
+  List<PostSummary> findPublishedTimeline(KeysetCursor after, int limit);
+
+  /**
+   * Finds the summary of a post without its body.
+   *
+   * @param id the ID of the post
+   * @return an Optional containing the summary if found, or empty if not found
+   */
+  Optional<PostSummary> findSummaryById(String id);
+
+  /**
+   * Finds the summaries of several posts without their bodies.
+   *
+   * @param ids the IDs of the posts
+   * @return the summaries found, in no particular order
+   */
+  List<PostSummary> findSummariesById(Collection<String> ids);
+
+  /**
+   * Finds the body of a post.
+   *
+   * @param id the ID of the post
+   * @return an Optional containing the body if found, or empty if not found
+   */
+  Optional<PostContent> findContentById(String id);
+
+  /**
+   * Finds the content hash of a post without its body.
+   *
+   * @param id the ID of the post
+   * @return an Optional containing the content key if found, or empty if not found
+   */
+  Optional<PostContentKey> findContentKeyById(String id);
+}
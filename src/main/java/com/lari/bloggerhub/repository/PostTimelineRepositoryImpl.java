@@ -0,0 +1,108 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.repository.projection.PostContent;
+import com.lari.bloggerhub.repository.projection.PostContentKey;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * This class implements the {@link PostTimelineRepository} fragment with {@link MongoTemplate}
+ * queries.
+ *
+ * <p>The keyset condition is written as {@code publishedAt <= t} plus a tie breaker on the ID, so
+ * that MongoDB can bound the index scan by the cursor instead of filtering from the start of the
+ * timeline.
+ */
+public class PostTimelineRepositoryImpl implements PostTimelineRepository {
+
+  private static final Sort TIMELINE_ORDER =
+      Sort.by(Sort.Order.desc("publishedAt"), Sort.Order.desc("id"));
+
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Constructs a new instance of the {@link PostTimelineRepositoryImpl} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to run the queries
+   */
+  public PostTimelineRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public List<PostSummary> findAuthorTimeline(String authorId, KeysetCursor after, int limit) {
+    return findTimeline(Criteria.where("authorId").is(authorId), after, limit);
+  }
+
+  @Override
+  public List<PostSummary> findAuthorsTimeline(
+      Collection<String> authorIds, KeysetCursor after, int limit) {
+    return findTimeline(Criteria.where("authorId").in(authorIds), after, limit);
+  }
+
+  @Override
+  public List<PostSummary> findPublishedTimeline(KeysetCursor after, int limit) {
+    return findTimeline(new Criteria(), after, limit);
+  }
+
+  @Override
+  public Optional<PostSummary> findSummaryById(String id) {
+    return mongoTemplate
+        .query(Post.class)
+        .as(PostSummary.class)
+        .matching(Query.query(Criteria.where("id").is(id)))
+        .first();
+  }
+
+  @Override
+  public List<PostSummary> findSummariesById(Collection<String> ids) {
+    return mongoTemplate
+        .query(Post.class)
+        .as(PostSummary.class)
+        .matching(Query.query(Criteria.where("id").in(ids)))
+        .all();
+  }
+
+  @Override
+  public Optional<PostContent> findContentById(String id) {
+    return mongoTemplate
+        .query(Post.class)
+        .as(PostContent.class)
+        .matching(Query.query(Criteria.where("id").is(id)))
+        .first();
+  }
+
+  @Override
+  public Optional<PostContentKey> findContentKeyById(String id) {
+    return mongoTemplate
+        .query(Post.class)
+        .as(PostContentKey.class)
+        .matching(Query.query(Criteria.where("id").is(id)))
+        .first();
+  }
+
+  private List<PostSummary> findTimeline(Criteria criteria, KeysetCursor after, int limit) {
+    criteria.and("status").is(PostStatus.PUBLISHED);
+    if (after != null) {
+      criteria
+          .and("publishedAt")
+          .lte(after.publishedAt())
+          .orOperator(
+              Criteria.where("publishedAt").lt(after.publishedAt()),
+              Criteria.where("id").lt(new ObjectId(after.id())));
+    }
+    Query query = Query.query(criteria).with(TIMELINE_ORDER).limit(limit);
+    return mongoTemplate.query(Post.class).as(PostSummary.class).matching(query).all();
+  }
+}
@@ -0,0 +1,12 @@
+package com.lari.bloggerhub.repository;
+
+import com.lari.bloggerhub.document.SyndicationEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This interface extends the {@link MongoRepository} interface provided by Spring Data MongoDB to
+ * manage {@link SyndicationEntry} documents in the database.
+ */
+@Repository
+public interface SyndicationEntryRepository extends MongoRepository<SyndicationEntry, String> {}
@@ -0,0 +1,15 @@
+package com.lari.bloggerhub.repository.projection;
+
+import com.lari.bloggerhub.document.PostStatus;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Represents the body of a {@link com.lari.bloggerhub.document.Post} together with the fields
+ * needed to decide who may read it.
+ *
+ * @param id the ID of the post
+ * @param authorId the ID of the author
+ * @param status the publication status
+ * @param body the body
+ */
+public record PostContent(@Id String id, String authorId, PostStatus status, String body) {}
@@ -0,0 +1,17 @@
+package com.lari.bloggerhub.repository.projection;
+
+import com.lari.bloggerhub.document.PostStatus;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Represents the hash of the body of a {@link com.lari.bloggerhub.document.Post} together with the
+ * fields needed to decide who may read it, so a cached rendering can be served without loading
+ * the body.
+ *
+ * @param id the ID of the post
+ * @param authorId the ID of the author
+ * @param status the publication status
+ * @param contentHash the hash of the body, or null for posts not edited since hashes were added
+ */
+public record PostContentKey(
+    @Id String id, String authorId, PostStatus status, String contentHash) {}
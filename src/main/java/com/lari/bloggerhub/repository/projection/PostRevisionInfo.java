@@ -0,0 +1,24 @@
+package com.lari.bloggerhub.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Represents the metadata of a {@link com.lari.bloggerhub.document.PostRevision}, used to list the
+ * history of a post without reading the encoded bodies.
+ *
+ * @param revision the number of the revision
+ * @param keyframe the revision of the keyframe it is rebuilt from
+ * @param title the title of the post at the revision
+ * @param length the length of the body at the revision, in characters
+ * @param contentHash the content hash of the body at the revision
+ * @param size the encoded size of the revision, in bytes
+ * @param createdAt the time the revision was saved
+ */
+public record PostRevisionInfo(
+    long revision,
+    long keyframe,
+    String title,
+    int length,
+    String contentHash,
+    int size,
+    Instant createdAt) {}
@@ -0,0 +1,62 @@
+package com.lari.bloggerhub.repository.projection;
+
+import com.lari.bloggerhub.document.PostStatus;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Represents the slim projection of a {@link com.lari.bloggerhub.document.Post} used by timelines
+ * and post cards. It leaves out the body, which is usually the bulk of the document.
+ *
+ * @param id the ID of the post
+ * @param authorId the ID of the author
+ * @param title the title
+ * @param subtitle the subtitle
+ * @param excerpt the plain text excerpt of the body
+ * @param coverImage the URL of the cover image
+ * @param tags the tags
+ * @param readingTimeMinutes the estimated reading time
+ * @param status the publication status
+ * @param publishedAt the time the post was first published
+ * @param claps the number of claps
+ * @param comments the number of comments
+ */
+public record PostSummary(
+    @Id String id,
+    String authorId,
+    String title,
+    String subtitle,
+    String excerpt,
+    String coverImage,
+    List<String> tags,
+    int readingTimeMinutes,
+    PostStatus status,
+    Instant publishedAt,
+    long claps,
+    long comments) {
+
+  /**
+   * Returns a copy of the summary with a different clap count.
+   *
+   * @param claps the clap count
+   * @return the copy
+   */
+  public PostSummary withClaps(long claps) {
+    return claps == this.claps
+        ? this
+        : new PostSummary(
+            id,
+            authorId,
+            title,
+            subtitle,
+            excerpt,
+            coverImage,
+            tags,
+            readingTimeMinutes,
+            status,
+            publishedAt,
+            claps,
+            comments);
+  }
+}
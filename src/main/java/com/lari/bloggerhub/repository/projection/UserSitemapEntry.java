@@ -0,0 +1,14 @@
+package com.lari.bloggerhub.repository.projection;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Represents the fields of a {@link com.lari.bloggerhub.document.BlogUser} listed in the user
+ * sitemaps.
+ *
+ * @param id the ID of the user
+ * @param username the username
+ * @param updatedAt the time the user was last modified
+ */
+public record UserSitemapEntry(@Id String id, String username, Instant updatedAt) {}
@@ -0,0 +1,77 @@
+package com.lari.bloggerhub.repository.resilience;
+
+import com.lari.bloggerhub.util.resilience.ResilienceGuard;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class decorates a Spring Data repository so that every repository operation runs under a
+ * {@link ResilienceGuard}.
+ *
+ * <p>The decorator is a JDK proxy of the repository interface, so callers keep injecting the plain
+ * repository type. The guard is chosen per repository method, which lets operations of the same
+ * collection use separate bulkheads, for example the auth path and listing reads.
+ */
+public final class ResilientRepositoryDecorator implements InvocationHandler {
+
+  private final Object delegate;
+  private final Function<Method, ResilienceGuard> guardSelector;
+  private final Map<Method, ResilienceGuard> guards = new ConcurrentHashMap<>();
+
+  private ResilientRepositoryDecorator(
+      Object delegate, Function<Method, ResilienceGuard> guardSelector) {
+    this.delegate = delegate;
+    this.guardSelector = guardSelector;
+  }
+
+  /**
+   * Creates a guarded view of the given repository.
+   *
+   * @param repositoryType the repository interface
+   * @param delegate the repository to delegate to
+   * @param guardSelector selects the guard for a repository method
+   * @param <R> the repository type
+   * @return a proxy implementing the repository interface
+   */
+  public static <R> R decorate(
+      Class<R> repositoryType, R delegate, Function<Method, ResilienceGuard> guardSelector) {
+    return repositoryType.cast(
+        Proxy.newProxyInstance(
+            repositoryType.getClassLoader(),
+            new Class<?>[] {repositoryType},
+            new ResilientRepositoryDecorator(delegate, guardSelector)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return invokeDelegate(method, args);
+    }
+    ResilienceGuard guard = guards.computeIfAbsent(method, guardSelector);
+    return guard.execute(
+        () -> {
+          try {
+            return invokeDelegate(method, args);
+          } catch (RuntimeException | Error e) {
+            throw e;
+          } catch (Throwable e) {
+            // Repository methods do not declare checked exceptions.
+            throw new UndeclaredThrowableException(e);
+          }
+        });
+  }
+
+  private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(delegate, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
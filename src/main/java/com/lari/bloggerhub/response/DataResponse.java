@@ -1,12 +1,19 @@
 package com.lari.bloggerhub.response;
 
-/** This class represents the data response schema for the Blogger Hub application. */
-public class DataResponse implements Response {
+/**
+ * This class represents the data response schema for the Blogger Hub application.
+ *
+ * <p>The envelope is typed by its payload, so that a fully typed envelope can be serialized with a
+ * precompiled writer from {@link ResponseWriters}.
+ *
+ * @param <T> the type of the data returned in the response
+ */
+public class DataResponse<T> implements Response {
 
   private boolean success;
   private int statusCode;
   private String message;
-  private Object data;
+  private T data;
 
   /** Default constructor. */
   public DataResponse() {}
@@ -19,7 +26,7 @@ public class DataResponse implements Response {
    * @param message the message associated with the response
    * @param data the data to be returned in the response
    */
-  public DataResponse(boolean success, int statusCode, String message, Object data) {
+  public DataResponse(boolean success, int statusCode, String message, T data) {
     this.success = success;
     this.statusCode = statusCode;
     this.message = message;
@@ -52,11 +59,11 @@ public class DataResponse implements Response {
     this.message = message;
   }
 
-  public Object getData() {
+  public T getData() {
     return data;
   }
 
-  public void setData(Object data) {
+  public void setData(T data) {
     this.data = data;
   }
 }
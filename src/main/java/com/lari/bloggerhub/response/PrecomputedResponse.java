@@ -0,0 +1,43 @@
+package com.lari.bloggerhub.response;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class represents a constant response whose body has been encoded ahead of time in every
+ * {@link ResponseFormat}.
+ *
+ * <p>Controllers return it like any other {@link Response}; the HTTP layer copies the stored bytes
+ * for the negotiated format instead of serializing the response again.
+ */
+public final class PrecomputedResponse implements Response {
+
+  private final Response response;
+  private final Map<ResponseFormat, byte[]> bodies;
+
+  PrecomputedResponse(Response response, Map<ResponseFormat, byte[]> bodies) {
+    this.response = response;
+    this.bodies = new EnumMap<>(bodies);
+  }
+
+  @Override
+  public int getStatusCode() {
+    return response.getStatusCode();
+  }
+
+  @Override
+  public String getMessage() {
+    return response.getMessage();
+  }
+
+  /**
+   * Returns the encoded body for the given format. The returned array is shared and must not be
+   * modified.
+   *
+   * @param format the wire format
+   * @return the encoded body
+   */
+  public byte[] getBody(ResponseFormat format) {
+    return bodies.get(format);
+  }
+}
@@ -0,0 +1,74 @@
+package com.lari.bloggerhub.response;
+
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Represents the wire formats the Blogger Hub API can encode responses in.
+ *
+ * <p>JSON is the default. Internal callers can ask for the binary CBOR or Smile encodings through
+ * the {@code Accept} header, which produce smaller bodies and are cheaper to parse.
+ */
+public enum ResponseFormat {
+  JSON(MediaType.APPLICATION_JSON),
+  CBOR(MediaType.APPLICATION_CBOR),
+  SMILE(new MediaType("application", "x-jackson-smile"));
+
+  private final MediaType mediaType;
+
+  ResponseFormat(MediaType mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Returns the format that produces the given media type, falling back to JSON for wildcards and
+   * unknown types.
+   *
+   * @param mediaType the negotiated media type, may be null
+   * @return the matching format
+   */
+  public static ResponseFormat of(MediaType mediaType) {
+    if (mediaType != null) {
+      for (ResponseFormat format : values()) {
+        if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+          return format;
+        }
+      }
+    }
+    return JSON;
+  }
+
+  /**
+   * Selects the preferred format from an {@code Accept} header, falling back to JSON when the
+   * header is missing, malformed or names no supported format.
+   *
+   * @param acceptHeader the value of the {@code Accept} header, may be null
+   * @return the preferred format
+   */
+  public static ResponseFormat negotiate(String acceptHeader) {
+    if (!StringUtils.hasText(acceptHeader)) {
+      return JSON;
+    }
+    try {
+      List<MediaType> accepted = MediaType.parseMediaTypes(acceptHeader);
+      MimeTypeUtils.sortBySpecificity(accepted);
+      for (MediaType mediaType : accepted) {
+        for (ResponseFormat format : values()) {
+          if (mediaType.includes(format.mediaType)) {
+            return format;
+          }
+        }
+      }
+    } catch (InvalidMediaTypeException e) {
+      return JSON;
+    }
+    return JSON;
+  }
+}
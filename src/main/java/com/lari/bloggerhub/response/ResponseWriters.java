@@ -0,0 +1,125 @@
+package com.lari.bloggerhub.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class provides precompiled Jackson writers for the response envelopes of the Blogger Hub
+ * application.
+ *
+ * <p>An {@link ObjectWriter} created for a fully typed envelope, such as {@code
+ * DataResponse<BlogUserResponseDto>}, resolves its serializer chain once. The writers are cached
+ * per format and type, so hot paths that encode the same envelope type repeatedly skip serializer
+ * lookup entirely. The class also pre-encodes constant responses into a {@link
+ * PrecomputedResponse}.
+ */
+@Component
+public class ResponseWriters {
+
+  private final Map<ResponseFormat, ObjectMapper> mappers = new EnumMap<>(ResponseFormat.class);
+  private final Map<ResponseFormat, Map<JavaType, ObjectWriter>> writers =
+      new EnumMap<>(ResponseFormat.class);
+
+  /**
+   * Constructs a new instance of the {@link ResponseWriters} class with the mappers used by the
+   * HTTP message converters, so that both produce identical bodies.
+   *
+   * @param objectMapper the JSON object mapper
+   * @param cborConverter the CBOR message converter
+   * @param smileConverter the Smile message converter
+   */
+  public ResponseWriters(
+      ObjectMapper objectMapper,
+      MappingJackson2CborHttpMessageConverter cborConverter,
+      MappingJackson2SmileHttpMessageConverter smileConverter) {
+    mappers.put(ResponseFormat.JSON, objectMapper);
+    mappers.put(ResponseFormat.CBOR, cborConverter.getObjectMapper());
+    mappers.put(ResponseFormat.SMILE, smileConverter.getObjectMapper());
+    for (ResponseFormat format : ResponseFormat.values()) {
+      writers.put(format, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Returns the Jackson type for an envelope of the given raw type and type arguments.
+   *
+   * @param rawType the envelope class
+   * @param parameterTypes the type arguments of the envelope
+   * @return the resolved type
+   */
+  public JavaType type(Class<?> rawType, Class<?>... parameterTypes) {
+    return mappers
+        .get(ResponseFormat.JSON)
+        .getTypeFactory()
+        .constructParametricType(rawType, parameterTypes);
+  }
+
+  /**
+   * Returns the cached writer for the given format and type.
+   *
+   * @param format the wire format
+   * @param type the type of the values to write
+   * @return the writer
+   */
+  public ObjectWriter writer(ResponseFormat format, JavaType type) {
+    return writers.get(format).computeIfAbsent(type, t -> mappers.get(format).writerFor(t));
+  }
+
+  /**
+   * Encodes a value with the cached writer for its type.
+   *
+   * @param format the wire format
+   * @param type the type of the value
+   * @param value the value to encode
+   * @return the encoded body
+   */
+  public byte[] write(ResponseFormat format, JavaType type, Object value) {
+    try {
+      return writer(format, type).writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Encodes a value with the cached writer for its type directly to a stream.
+   *
+   * @param format the wire format
+   * @param type the type of the value
+   * @param value the value to encode
+   * @param out the stream to write to
+   */
+  public void write(ResponseFormat format, JavaType type, Object value, OutputStream out) {
+    try {
+      writer(format, type).writeValue(out, value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Pre-encodes a constant response in every supported format.
+   *
+   * @param response the response to encode
+   * @return the response together with its encoded bodies
+   */
+  public PrecomputedResponse precompute(Response response) {
+    JavaType type = mappers.get(ResponseFormat.JSON).constructType(response.getClass());
+    Map<ResponseFormat, byte[]> bodies = new EnumMap<>(ResponseFormat.class);
+    for (ResponseFormat format : ResponseFormat.values()) {
+      bodies.put(format, write(format, type, response));
+    }
+    return new PrecomputedResponse(response, bodies);
+  }
+}
@@ -7,6 +7,8 @@ import com.lari.bloggerhub.repository.BlogUserRepository;
 import com.lari.bloggerhub.response.DataResponse;
 import com.lari.bloggerhub.response.Response;
 import com.lari.bloggerhub.response.SuccessResponse;
+import com.lari.bloggerhub.service.loader.BlogUserLoader;
+import com.lari.bloggerhub.service.picture.ProfilePictureService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,7 +16,9 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class provides service methods for managing user-related operations in the Blogger Hub
@@ -27,14 +31,17 @@ import java.util.List;
 public class BlogUserService implements UserDetailsService {
 
   private final BlogUserRepository blogUserRepository;
+  private final BlogUserLoader blogUserLoader;
 
   /**
    * Constructs a new instance of the {@link BlogUserService} class with the specified dependencies.
    *
    * @param blogUserRepository the repository class for managing user data
+   * @param blogUserLoader the batching loader for user lookups by ID
    */
-  public BlogUserService(BlogUserRepository blogUserRepository) {
+  public BlogUserService(BlogUserRepository blogUserRepository, BlogUserLoader blogUserLoader) {
     this.blogUserRepository = blogUserRepository;
+    this.blogUserLoader = blogUserLoader;
   }
 
   /**
@@ -57,7 +64,10 @@ public class BlogUserService implements UserDetailsService {
     blogUser.setEmail(userDto.getEmail());
     blogUser.setPassword(userDto.getPassword());
     blogUser.setBio(userDto.getBio());
-    blogUser.setProfilePicture(userDto.getProfilePicture());
+    // Only thumbnails served by this application are accepted, never links to external images.
+    if (ProfilePictureService.isPictureUrl(userDto.getProfilePicture())) {
+      blogUser.setProfilePicture(userDto.getProfilePicture());
+    }
 
     // Save user
     blogUserRepository.save(blogUser);
@@ -74,29 +84,58 @@ public class BlogUserService implements UserDetailsService {
   public ResponseEntity<Response> getBlogUsers() {
     // Fetch all users from the repository
     List<BlogUserResponseDto> responseDtoList =
-        blogUserRepository.findAll().stream()
-            .map(
-                user ->
-                    new BlogUserResponseDto(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getBio(),
-                        user.getProfilePicture(),
-                        user.getRoles()))
-            .toList();
+        blogUserRepository.findAll().stream().map(BlogUserService::toResponseDto).toList();
     if (responseDtoList.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NO_CONTENT)
           .body(new SuccessResponse(true, HttpStatus.NO_CONTENT.value(), "No users found."));
     }
 
-    return ResponseEntity.ok(new DataResponse(true, HttpStatus.OK.value(), "Records found.", responseDtoList));
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Records found.", responseDtoList));
+  }
+
+  /**
+   * Converts a user entity into the DTO returned by the API.
+   *
+   * @param user the user entity
+   * @return the user response DTO
+   */
+  public static BlogUserResponseDto toResponseDto(BlogUser user) {
+    return new BlogUserResponseDto(
+        user.getId(),
+        user.getUsername(),
+        user.getEmail(),
+        user.getBio(),
+        user.getProfilePicture(),
+        user.getRoles());
   }
 
+  /**
+   * Finds a user by ID. Concurrent lookups are coalesced and batched by the {@link
+   * BlogUserLoader}.
+   *
+   * @param id the ID of the user
+   * @return the user
+   * @throws UsernameNotFoundException if no user with the ID exists
+   */
   public BlogUser findById(String id) {
-    return blogUserRepository
-        .findById(id)
-        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    BlogUser user = blogUserLoader.join(blogUserLoader.load(id));
+    if (user == null) {
+      throw new UsernameNotFoundException("User not found");
+    }
+    return user;
+  }
+
+  /**
+   * Finds several users by ID with a single batched lookup. Use this when rendering lists that
+   * reference many users, such as feeds or comment threads, instead of calling {@link
+   * #findById(String)} per item.
+   *
+   * @param ids the IDs of the users
+   * @return the users found, keyed by ID
+   */
+  public Map<String, BlogUser> findAllById(Collection<String> ids) {
+    return blogUserLoader.loadMany(ids);
   }
 
   @Override
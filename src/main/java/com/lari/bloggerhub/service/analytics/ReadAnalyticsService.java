@@ -0,0 +1,263 @@
+package com.lari.bloggerhub.service.analytics;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.PostReadSketch;
+import com.lari.bloggerhub.dto.response.DailyReadersDto;
+import com.lari.bloggerhub.dto.response.UniqueReadersDto;
+import com.lari.bloggerhub.repository.PostReadSketchRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.util.hash.MurmurHash3;
+import com.lari.bloggerhub.util.hll.HyperLogLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides service methods for counting the unique readers of posts in the Blogger Hub
+ * application.
+ *
+ * <p>Every read of a post body is offered to a {@link HyperLogLog} sketch of the post and the
+ * current day (UTC). Authenticated readers are identified by their user ID; anonymous readers by a
+ * fingerprint of their address, user agent and language. The address is the client's as reported
+ * by a trusted proxy, not the proxy's own. Only 64 bit hashes reach the sketches, so no reader
+ * identifier is kept in memory or stored.
+ *
+ * <p>A sketch takes the same memory however many readers a post has. Sketches changed since the
+ * previous flush are merged into the stored sketch of their day on a schedule; merging is
+ * idempotent, so a sketch is simply merged again after a failed or repeated flush. Sketches of
+ * past days are dropped from memory once they have been flushed.
+ *
+ * <p>The unique readers over a date range are estimated by merging the sketches of its days.
+ */
+@Service
+public class ReadAnalyticsService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReadAnalyticsService.class);
+
+  private static final int MAX_FLUSH_ATTEMPTS = 3;
+  private static final int DEFAULT_RANGE_DAYS = 30;
+
+  private final PostReadSketchRepository sketchRepository;
+  private final PostRepository postRepository;
+  private final int precision;
+  private final int maxRangeDays;
+  private final Map<String, DailySketch> sketches = new ConcurrentHashMap<>();
+
+  /** The in-memory sketch of one post on one day. */
+  private static final class DailySketch {
+    final LocalDate day;
+    final HyperLogLog sketch;
+    volatile boolean dirty;
+
+    DailySketch(LocalDate day, int precision) {
+      this.day = day;
+      this.sketch = new HyperLogLog(precision);
+    }
+  }
+
+  /**
+   * Constructs a new instance of the {@link ReadAnalyticsService} class with the specified
+   * dependencies.
+   *
+   * @param sketchRepository the repository class for managing the stored sketches
+   * @param postRepository the repository class used to check the author of a post
+   * @param meterRegistry the registry for the sketch metrics
+   * @param precision the precision of the sketches
+   * @param maxRangeDays the longest date range a query may span
+   */
+  public ReadAnalyticsService(
+      PostReadSketchRepository sketchRepository,
+      PostRepository postRepository,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.analytics.reads.precision}") int precision,
+      @Value("${bloggerhub.analytics.reads.max-range-days}") int maxRangeDays) {
+    this.sketchRepository = sketchRepository;
+    this.postRepository = postRepository;
+    this.precision = precision;
+    this.maxRangeDays = maxRangeDays;
+
+    Gauge.builder("bloggerhub.analytics.reads.sketches", sketches, Map::size)
+        .register(meterRegistry);
+    Gauge.builder(
+            "bloggerhub.analytics.reads.memory",
+            sketches,
+            map -> (double) map.size() * (1 << precision))
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records a read of a post.
+   *
+   * @param postId the ID of the post
+   * @param reader the authenticated reader, or null for anonymous requests
+   * @param request the request, used to fingerprint anonymous readers
+   */
+  public void recordRead(String postId, BlogUser reader, HttpServletRequest request) {
+    long hash =
+        reader != null
+            ? MurmurHash3.hash64("user:" + reader.getId())
+            : MurmurHash3.hash64(
+                "anonymous:"
+                    + request.getRemoteAddr()
+                    + '\n'
+                    + request.getHeader(HttpHeaders.USER_AGENT)
+                    + '\n'
+                    + request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+    recordRead(postId, LocalDate.now(ZoneOffset.UTC), hash);
+  }
+
+  private void recordRead(String postId, LocalDate day, long readerHash) {
+    DailySketch daily =
+        sketches.computeIfAbsent(
+            PostReadSketch.id(postId, day), id -> new DailySketch(day, precision));
+    if (daily.sketch.offer(readerHash)) {
+      daily.dirty = true;
+    }
+  }
+
+  /**
+   * Returns the estimated unique readers of a post over a date range. Only the author of a post
+   * may see its readers.
+   *
+   * @param postId the ID of the post
+   * @param viewer the authenticated user
+   * @param from the first day of the range, or null for 30 days before the last one
+   * @param to the last day of the range, or null for today
+   * @return a response entity containing the estimates
+   */
+  public ResponseEntity<Response> getUniqueReaders(
+      String postId, BlogUser viewer, LocalDate from, LocalDate to) {
+    if (viewer == null) {
+      return error(HttpStatus.UNAUTHORIZED, "Authentication is required.");
+    }
+    Optional<PostSummary> post =
+        ObjectId.isValid(postId) ? postRepository.findSummaryById(postId) : Optional.empty();
+    if (post.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    if (!post.get().authorId().equals(viewer.getId())) {
+      return error(HttpStatus.FORBIDDEN, "Only the author can see the readers of this post.");
+    }
+    LocalDate last = to == null ? LocalDate.now(ZoneOffset.UTC) : to;
+    LocalDate first = from == null ? last.minusDays(DEFAULT_RANGE_DAYS - 1) : from;
+    if (first.isAfter(last) || ChronoUnit.DAYS.between(first, last) >= maxRangeDays) {
+      return error(
+          HttpStatus.BAD_REQUEST, "The date range must span 1 to " + maxRangeDays + " days.");
+    }
+
+    Map<LocalDate, HyperLogLog> daily = new HashMap<>();
+    for (PostReadSketch stored :
+        sketchRepository.findByIdRange(
+            PostReadSketch.id(postId, first), PostReadSketch.id(postId, last))) {
+      daily.put(PostReadSketch.day(stored.getId()), HyperLogLog.fromBytes(stored.getSketch()));
+    }
+    HyperLogLog total = new HyperLogLog(precision);
+    List<DailyReadersDto> days = new ArrayList<>();
+    for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+      HyperLogLog sketch = daily.get(day);
+      DailySketch inMemory = sketches.get(PostReadSketch.id(postId, day));
+      if (inMemory != null) {
+        if (sketch == null) {
+          sketch = new HyperLogLog(precision);
+        }
+        sketch.merge(inMemory.sketch);
+      }
+      if (sketch != null) {
+        total.merge(sketch);
+      }
+      days.add(new DailyReadersDto(day, sketch == null ? 0 : sketch.estimate()));
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Readers found.",
+            new UniqueReadersDto(postId, first, last, total.estimate(), days)));
+  }
+
+  /**
+   * Merges the sketches changed since the previous flush into the stored sketches, and drops
+   * flushed sketches of past days from memory.
+   */
+  @Scheduled(fixedDelayString = "${bloggerhub.analytics.reads.flush-interval}")
+  public void flush() {
+    LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+    int failed = 0;
+    for (Map.Entry<String, DailySketch> entry : sketches.entrySet()) {
+      DailySketch daily = entry.getValue();
+      if (daily.dirty) {
+        daily.dirty = false;
+        try {
+          persist(entry.getKey(), daily.sketch);
+        } catch (RuntimeException e) {
+          daily.dirty = true;
+          failed++;
+          log.debug("Could not flush read sketch {}", entry.getKey(), e);
+        }
+      }
+      // Reads only go to today's sketches, so sketches of past days no longer change.
+      if (!daily.dirty && daily.day.isBefore(yesterday)) {
+        sketches.remove(entry.getKey(), daily);
+      }
+    }
+    if (failed > 0) {
+      log.warn("Could not flush {} read sketches, retrying on the next flush", failed);
+    }
+  }
+
+  private void persist(String id, HyperLogLog sketch) {
+    for (int attempt = 1; ; attempt++) {
+      Optional<PostReadSketch> stored = sketchRepository.findById(id);
+      PostReadSketch document;
+      if (stored.isPresent()) {
+        HyperLogLog merged = HyperLogLog.fromBytes(stored.get().getSketch());
+        if (!merged.merge(sketch)) {
+          return;
+        }
+        document = stored.get();
+        document.setSketch(merged.toBytes());
+      } else {
+        document = new PostReadSketch(id, sketch.toBytes());
+      }
+      try {
+        sketchRepository.save(document);
+        return;
+      } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+        // Another instance stored the sketch first; merge into its version.
+        if (attempt == MAX_FLUSH_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
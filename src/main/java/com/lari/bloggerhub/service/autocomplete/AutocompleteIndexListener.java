@@ -0,0 +1,33 @@
+package com.lari.bloggerhub.service.autocomplete;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class adds every saved {@link BlogUser} to the username autocomplete index of every node,
+ * so new users can be mentioned right after signup.
+ */
+@Component
+public class AutocompleteIndexListener extends AbstractMongoEventListener<BlogUser> {
+
+  private final InvalidationBus invalidationBus;
+
+  /**
+   * Constructs a new instance of the {@link AutocompleteIndexListener} class.
+   *
+   * @param invalidationBus the bus the autocomplete indexes of all nodes subscribe to
+   */
+  public AutocompleteIndexListener(InvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<BlogUser> event) {
+    invalidationBus.publish(CacheRegion.USERNAME_AUTOCOMPLETE, event.getSource().getId());
+  }
+}
@@ -0,0 +1,272 @@
+package com.lari.bloggerhub.service.autocomplete;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.prefix.CompactPrefixIndex;
+import com.lari.bloggerhub.util.prefix.CompactPrefixIndex.Entry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides username prefix autocomplete for mentions and the author search box of the
+ * Blogger Hub application.
+ *
+ * <p>Queries are answered from an immutable snapshot consisting of a {@link CompactPrefixIndex}
+ * over all users plus a small delta of users saved since the index was built. Readers only read a
+ * volatile reference and never lock. Writers copy the delta and swap in a new snapshot; once the
+ * delta grows past its limit, or when popularity scores are refreshed on schedule, the delta is
+ * folded into a freshly built index in the background. Users saved on any node reach the delta
+ * through the {@link InvalidationBus}; when invalidations may have been missed, the index is
+ * rebuilt.
+ */
+@Service
+public class UsernameAutocompleteService {
+
+  private static final Logger log = LoggerFactory.getLogger(UsernameAutocompleteService.class);
+
+  private static final Comparator<Entry> RANKING =
+      Comparator.comparingInt(Entry::score).reversed().thenComparing(CompactPrefixIndex.ORDER);
+
+  private final MongoTemplate mongoTemplate;
+  private final UsernamePopularity popularity;
+  private final int maxDeltaSize;
+  private final Object writeLock = new Object();
+  // Held while streaming from MongoDB on a virtual thread, which a monitor would pin to its carrier.
+  private final ReentrantLock compactionLock = new ReentrantLock();
+
+  private volatile Snapshot snapshot = new Snapshot(CompactPrefixIndex.build(List.of()), List.of());
+  private volatile boolean compacting;
+
+  /**
+   * The index and the users saved since it was built. The delta is in insertion order so that a
+   * compaction can drop exactly the entries it folded in.
+   */
+  private record Snapshot(CompactPrefixIndex index, List<Entry> delta, Set<String> deltaIds) {
+
+    Snapshot(CompactPrefixIndex index, List<Entry> delta) {
+      this(index, delta, idsOf(delta));
+    }
+
+    private static Set<String> idsOf(List<Entry> delta) {
+      Set<String> ids = new HashSet<>();
+      for (Entry entry : delta) {
+        ids.add(entry.id());
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * Constructs a new instance of the {@link UsernameAutocompleteService} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to stream the username projection
+   * @param popularity the popularity ranking, if one is available
+   * @param meterRegistry the registry for the index footprint metrics
+   * @param invalidationBus the bus that announces users saved on any node
+   * @param maxDeltaSize the number of new users that triggers folding them into the index
+   */
+  public UsernameAutocompleteService(
+      MongoTemplate mongoTemplate,
+      ObjectProvider<UsernamePopularity> popularity,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.autocomplete.max-delta-size}") int maxDeltaSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.popularity = popularity.getIfAvailable(() -> userId -> 0);
+    this.maxDeltaSize = maxDeltaSize;
+    Gauge.builder("bloggerhub.autocomplete.index.bytes", this, s -> s.snapshot.index().sizeInBytes())
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder(
+            "bloggerhub.autocomplete.index.bytes_per_username",
+            this,
+            UsernameAutocompleteService::bytesPerUsername)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.autocomplete.index.usernames", this, s -> s.snapshot.index().size())
+        .register(meterRegistry);
+    invalidationBus.subscribe(
+        CacheRegion.USERNAME_AUTOCOMPLETE,
+        this::reload,
+        () -> Thread.ofVirtual().name("autocomplete-rebuild").start(this::rebuild));
+  }
+
+  /**
+   * Builds the index from the user collection. Runs in the background after startup.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    compactionLock.lock();
+    try {
+      rebuildIndex();
+    } finally {
+      compactionLock.unlock();
+    }
+  }
+
+  private void rebuildIndex() {
+    int consumed = snapshot.delta().size();
+    Query query = new Query();
+    query.fields().include("username");
+    List<Entry> entries = new ArrayList<>();
+    long start = System.nanoTime();
+    try (Stream<Document> users = mongoTemplate.stream(query, Document.class, "blog_user")) {
+      users.forEach(
+          user -> {
+            Object id = user.get("_id");
+            String username = user.getString("username");
+            if (id instanceof ObjectId objectId && username != null) {
+              String hex = objectId.toHexString();
+              entries.add(new Entry(hex, username, popularity.popularity(hex)));
+            }
+          });
+    } catch (RuntimeException e) {
+      log.warn("Could not build the username autocomplete index", e);
+      return;
+    }
+    swapIndex(CompactPrefixIndex.build(entries), consumed);
+    log.info(
+        "Built username autocomplete index of {} users in {} ms, {} bytes per username",
+        entries.size(),
+        (System.nanoTime() - start) / 1_000_000,
+        String.format("%.1f", bytesPerUsername()));
+  }
+
+  /**
+   * Folds the delta into a new index and refreshes popularity scores. Runs on schedule and when
+   * the delta grows past its limit.
+   */
+  @Async
+  @Scheduled(
+      fixedDelayString = "${bloggerhub.autocomplete.refresh-interval}",
+      initialDelayString = "${bloggerhub.autocomplete.refresh-interval}")
+  public void compact() {
+    compactionLock.lock();
+    try {
+      compactIndex();
+      compacting = false;
+    } finally {
+      compactionLock.unlock();
+    }
+  }
+
+  private void compactIndex() {
+    Snapshot current = snapshot;
+    int consumed = current.delta().size();
+    List<Entry> entries = new ArrayList<>(current.index().size() + consumed);
+    for (Entry entry : current.index().entries()) {
+      if (!current.deltaIds().contains(entry.id())) {
+        entries.add(rescore(entry));
+      }
+    }
+    for (Entry entry : current.delta()) {
+      entries.add(rescore(entry));
+    }
+    swapIndex(CompactPrefixIndex.build(entries), consumed);
+  }
+
+  /**
+   * Adds a saved user to the index. A changed username replaces the previous one.
+   *
+   * @param user the saved user
+   */
+  public void onUserSaved(BlogUser user) {
+    if (user.getId() == null || user.getUsername() == null) {
+      return;
+    }
+    Entry entry = new Entry(user.getId(), user.getUsername(), popularity.popularity(user.getId()));
+    boolean compactNow;
+    synchronized (writeLock) {
+      Snapshot current = snapshot;
+      List<Entry> delta = new ArrayList<>(current.delta().size() + 1);
+      delta.addAll(current.delta());
+      delta.add(entry);
+      snapshot = new Snapshot(current.index(), List.copyOf(delta));
+      compactNow = delta.size() >= maxDeltaSize && !compacting;
+      if (compactNow) {
+        compacting = true;
+      }
+    }
+    if (compactNow) {
+      Thread.ofVirtual().name("autocomplete-compaction").start(this::compact);
+    }
+  }
+
+  /** Adds the stored state of a user saved on any node to the index. */
+  private void reload(String userId) {
+    BlogUser user = mongoTemplate.findById(userId, BlogUser.class);
+    if (user != null) {
+      onUserSaved(user);
+    }
+  }
+
+  /**
+   * Returns the most popular users whose username starts with the prefix.
+   *
+   * @param prefix the prefix, matched ASCII case-insensitively
+   * @param limit the maximum number of users to return
+   * @return the matching users, most popular first
+   */
+  public List<Entry> complete(String prefix, int limit) {
+    Snapshot current = snapshot;
+    List<Entry> result = new ArrayList<>(limit * 2);
+    for (Entry entry : current.index().topK(prefix, limit + current.deltaIds().size())) {
+      if (!current.deltaIds().contains(entry.id())) {
+        result.add(entry);
+        if (result.size() == limit) {
+          break;
+        }
+      }
+    }
+    // The latest delta entry of a user wins over earlier ones.
+    Set<String> seen = new HashSet<>();
+    List<Entry> delta = current.delta();
+    for (int i = delta.size() - 1; i >= 0; i--) {
+      Entry entry = delta.get(i);
+      if (seen.add(entry.id()) && CompactPrefixIndex.hasPrefix(entry.username(), prefix)) {
+        result.add(entry);
+      }
+    }
+    result.sort(RANKING);
+    return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+  }
+
+  private void swapIndex(CompactPrefixIndex index, int consumedDeltaEntries) {
+    synchronized (writeLock) {
+      List<Entry> delta = snapshot.delta();
+      snapshot =
+          new Snapshot(index, List.copyOf(delta.subList(consumedDeltaEntries, delta.size())));
+    }
+  }
+
+  private Entry rescore(Entry entry) {
+    return new Entry(entry.id(), entry.username(), popularity.popularity(entry.id()));
+  }
+
+  private double bytesPerUsername() {
+    CompactPrefixIndex index = snapshot.index();
+    return index.size() == 0 ? 0 : (double) index.sizeInBytes() / index.size();
+  }
+}
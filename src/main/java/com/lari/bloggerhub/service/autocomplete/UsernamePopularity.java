@@ -0,0 +1,17 @@
+package com.lari.bloggerhub.service.autocomplete;
+
+/**
+ * Provides the popularity score used to rank usernames in autocomplete results. Higher scores rank
+ * first.
+ */
+@FunctionalInterface
+public interface UsernamePopularity {
+
+  /**
+   * Returns the popularity of a user.
+   *
+   * @param userId the ID of the user
+   * @return the popularity score, zero if unknown
+   */
+  int popularity(String userId);
+}
@@ -0,0 +1,33 @@
+package com.lari.bloggerhub.service.availability;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class adds every saved {@link BlogUser} to the availability filters of every node, so new
+ * usernames and email addresses are reported as taken right after signup.
+ */
+@Component
+public class AvailabilityIndexListener extends AbstractMongoEventListener<BlogUser> {
+
+  private final InvalidationBus invalidationBus;
+
+  /**
+   * Constructs a new instance of the {@link AvailabilityIndexListener} class.
+   *
+   * @param invalidationBus the bus the availability filters of all nodes subscribe to
+   */
+  public AvailabilityIndexListener(InvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<BlogUser> event) {
+    invalidationBus.publish(CacheRegion.AVAILABILITY, event.getSource().getId());
+  }
+}
@@ -0,0 +1,218 @@
+package com.lari.bloggerhub.service.availability;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.dto.response.AvailabilityResponseDto;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.bloom.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * This class provides username and email availability checks for the signup form of the Blogger
+ * Hub application.
+ *
+ * <p>The service keeps one {@link BloomFilter} of normalized usernames and one of normalized email
+ * addresses. A value the filter has never seen is reported as available without a database round
+ * trip; only values that may be taken are confirmed against the unique index in MongoDB. The
+ * filters are built after startup by streaming the username and email projection of the user
+ * collection, and new users are added incrementally as they are saved on any node, through the
+ * {@link InvalidationBus}. When invalidations may have been missed, the filters are rebuilt. Until
+ * the first build completes every check goes to MongoDB.
+ */
+@Service
+public class AvailabilityService {
+
+  private static final Logger log = LoggerFactory.getLogger(AvailabilityService.class);
+
+  private final BlogUserRepository blogUserRepository;
+  private final MongoTemplate mongoTemplate;
+  private final long expectedInsertions;
+  private final double falsePositiveProbability;
+  private final Counter filterAnswers;
+  private final Counter databaseAnswers;
+
+  private volatile Filters filters;
+  private volatile Filters building;
+
+  private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+    void add(String username, String email) {
+      if (username != null) {
+        usernames.put(normalize(username));
+      }
+      if (email != null) {
+        emails.put(normalize(email));
+      }
+    }
+  }
+
+  /**
+   * Constructs a new instance of the {@link AvailabilityService} class with the specified
+   * dependencies.
+   *
+   * @param blogUserRepository the repository class for managing user data
+   * @param mongoTemplate the template used to stream the user projection
+   * @param meterRegistry the registry for the filter metrics
+   * @param invalidationBus the bus that announces users saved on any node
+   * @param expectedInsertions the number of users each filter is sized for
+   * @param falsePositiveProbability the target false positive probability of the filters
+   */
+  public AvailabilityService(
+      BlogUserRepository blogUserRepository,
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.availability.expected-insertions}") long expectedInsertions,
+      @Value("${bloggerhub.availability.false-positive-probability}")
+          double falsePositiveProbability) {
+    this.blogUserRepository = blogUserRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveProbability = falsePositiveProbability;
+    this.filterAnswers =
+        Counter.builder("bloggerhub.availability.checks")
+            .tag("answer", "filter")
+            .register(meterRegistry);
+    this.databaseAnswers =
+        Counter.builder("bloggerhub.availability.checks")
+            .tag("answer", "database")
+            .register(meterRegistry);
+    Gauge.builder("bloggerhub.availability.filter.bytes", this, AvailabilityService::filterBytes)
+        .register(meterRegistry);
+    invalidationBus.subscribe(
+        CacheRegion.AVAILABILITY,
+        this::reload,
+        () -> Thread.ofVirtual().name("availability-rebuild").start(this::rebuild));
+  }
+
+  /**
+   * Rebuilds the filters from the user collection. Runs in the background after startup; checks
+   * fall back to MongoDB until it completes.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Filters next =
+        new Filters(
+            BloomFilter.create(expectedInsertions, falsePositiveProbability),
+            BloomFilter.create(expectedInsertions, falsePositiveProbability));
+    building = next;
+    Query query = new Query();
+    query.fields().include("username", "email");
+    long start = System.nanoTime();
+    try (Stream<Document> users = mongoTemplate.stream(query, Document.class, "blog_user")) {
+      users.forEach(user -> next.add(user.getString("username"), user.getString("email")));
+    } catch (RuntimeException e) {
+      building = null;
+      log.warn("Could not build the availability filters, checks will use the database", e);
+      return;
+    }
+    filters = next;
+    building = null;
+
+    long count = next.usernames().getInsertions();
+    log.info(
+        "Built availability filters for {} users in {} ms ({} bytes each)",
+        count,
+        (System.nanoTime() - start) / 1_000_000,
+        next.usernames().sizeInBytes());
+    if (count > expectedInsertions) {
+      log.warn(
+          "Availability filters hold {} users but are sized for {}, false positive rate is {}",
+          count,
+          expectedInsertions,
+          next.usernames().expectedFalsePositiveProbability());
+    }
+  }
+
+  /**
+   * Records a new or updated user in the filters.
+   *
+   * @param user the saved user
+   */
+  public void onUserSaved(BlogUser user) {
+    Filters current = filters;
+    if (current != null) {
+      current.add(user.getUsername(), user.getEmail());
+    }
+    Filters next = building;
+    if (next != null) {
+      next.add(user.getUsername(), user.getEmail());
+    }
+  }
+
+  /** Records the stored state of a user saved on any node in the filters. */
+  private void reload(String userId) {
+    blogUserRepository.findById(userId).ifPresent(this::onUserSaved);
+  }
+
+  /**
+   * Checks whether a username and an email address are available. Either may be omitted.
+   *
+   * @param username the username to check, may be null
+   * @param email the email address to check, may be null
+   * @return the availability of the given values
+   */
+  public AvailabilityResponseDto check(String username, String email) {
+    Boolean usernameAvailable = null;
+    Boolean emailAvailable = null;
+    if (StringUtils.hasText(username)) {
+      usernameAvailable = isUsernameAvailable(username.trim());
+    }
+    if (StringUtils.hasText(email)) {
+      emailAvailable = isEmailAvailable(email.trim());
+    }
+    return new AvailabilityResponseDto(username, usernameAvailable, email, emailAvailable);
+  }
+
+  private boolean isUsernameAvailable(String username) {
+    Filters current = filters;
+    if (current != null && !current.usernames().mightContain(normalize(username))) {
+      filterAnswers.increment();
+      return true;
+    }
+    databaseAnswers.increment();
+    return !blogUserRepository.existsByUsername(username);
+  }
+
+  private boolean isEmailAvailable(String email) {
+    Filters current = filters;
+    if (current != null && !current.emails().mightContain(normalize(email))) {
+      filterAnswers.increment();
+      return true;
+    }
+    databaseAnswers.increment();
+    return !blogUserRepository.existsByEmail(email);
+  }
+
+  private double filterBytes() {
+    Filters current = filters;
+    return current == null ? 0 : current.usernames().sizeInBytes() + current.emails().sizeInBytes();
+  }
+
+  /**
+   * Normalizes a username or email so that visually identical inputs share one filter entry. The
+   * normalization only ever merges values, so it can add false positives but never hide a taken
+   * value.
+   */
+  static String normalize(String value) {
+    return Normalizer.normalize(value.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+  }
+}
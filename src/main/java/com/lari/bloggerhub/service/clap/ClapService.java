@@ -0,0 +1,690 @@
+package com.lari.bloggerhub.service.clap;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostClap;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.response.ClapCountsDto;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.notification.NotificationService;
+import com.lari.bloggerhub.service.trending.TrendingService;
+import com.lari.bloggerhub.util.file.StorageDirectories;
+import com.lari.bloggerhub.util.journal.StripedJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides service methods for clapping for posts in the Blogger Hub application.
+ *
+ * <p>Claps are absorbed in memory: every post that is being clapped for has a {@link LongAdder}
+ * of claps not yet written to the database, so concurrent claps on a popular post update striped
+ * cells instead of one contended counter. A scheduled flush drains the cells and writes the
+ * aggregated deltas with one {@code findAndModify} per post and per user, so a post clapped a
+ * thousand times between two flushes costs a single {@code $inc}.
+ *
+ * <p>Each reader sees the persisted count plus the claps still held in memory, so a user sees
+ * their clap immediately. The persisted count is the one the last flush of this node got back
+ * from the database, so it includes the claps written by other nodes. The claps of each user on
+ * each post are tracked the same way and capped at a configured maximum before a clap is
+ * accepted. Other nodes may accept claps of the same user, so the flush enforces the cap again in
+ * its update, and leaves the claps it rejects out of the post count.
+ *
+ * <p>Accepted claps are appended to a {@link StripedJournal} on local disk before they are applied
+ * in memory. Journal segments are deleted once a flush has written everything they describe, and
+ * replayed into memory on startup, so claps survive a restart between two flushes. With syncing
+ * enabled, a clap is acknowledged only once its record is on the device, so claps also survive a
+ * crash of the host; without it they survive a crash of the process only. The journal directory
+ * must be on persistent storage and is rejected if it lies in the temporary directory. A crash
+ * after a bulk write but before its segments are deleted replays those claps once more; flushes
+ * are frequent, so the window is small.
+ */
+@Service
+public class ClapService {
+
+  private static final Logger log = LoggerFactory.getLogger(ClapService.class);
+
+  private static final int ID_BYTES = 12;
+  private static final int RECORD_BYTES = 2 * ID_BYTES + Integer.BYTES;
+  private static final long NOT_LOADED = -1;
+
+  private final MongoTemplate mongoTemplate;
+  private final TrendingService trendingService;
+  private final NotificationService notificationService;
+  private final int maxClapsPerUser;
+  private final long idleTimeoutMillis;
+  private final StripedJournal journal;
+  private final Map<String, PostClaps> posts = new ConcurrentHashMap<>();
+  private final Map<String, UserClaps> userClaps = new ConcurrentHashMap<>();
+
+  /** Serializes flushes with the loading of persisted counts. */
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  /** The journal segments whose claps may not have been written yet. Guarded by flushLock. */
+  private final List<Path> unflushedSegments = new ArrayList<>();
+
+  /** Counts the starts and ends of flush writes, so it is odd while a flush is writing. */
+  private final AtomicLong flushWrites = new AtomicLong();
+
+  /** Orders the start of a flush write with publishing a count loaded without the flush lock. */
+  private final ReentrantLock publishLock = new ReentrantLock();
+
+  private final Counter acceptedClaps;
+  private final Counter cappedClaps;
+  private final Counter flushFailures;
+
+  /** The in-memory claps of a post. */
+  private static final class PostClaps {
+    /** Claps not yet taken by a flush. */
+    final LongAdder pending = new LongAdder();
+
+    /** Claps not yet confirmed by the database, including those of a running flush. */
+    final LongAdder unpersisted = new LongAdder();
+
+    volatile long persisted = NOT_LOADED;
+    volatile String authorId;
+    volatile long lastClapMillis = System.currentTimeMillis();
+    volatile boolean retired;
+
+    long total() {
+      return persisted + unpersisted.sum();
+    }
+  }
+
+  /** The in-memory claps of a user on a post. Claps of one user are serialized on the object. */
+  private static final class UserClaps {
+    final AtomicInteger pending = new AtomicInteger();
+    final AtomicInteger unpersisted = new AtomicInteger();
+
+    volatile int persisted = (int) NOT_LOADED;
+    volatile long lastClapMillis = System.currentTimeMillis();
+    volatile boolean retired;
+
+    int total() {
+      return persisted + unpersisted.get();
+    }
+  }
+
+  private record Delta(String key, long claps) {}
+
+  /** The claps a flush added to the count of a user on a post, and the stored count after. */
+  private record UserWrite(int accepted, int stored) {}
+
+  /**
+   * Constructs a new instance of the {@link ClapService} class with the specified dependencies,
+   * and replays the claps left in the journal by a previous run.
+   *
+   * @param mongoTemplate the template used to load and flush the counts
+   * @param trendingService the service ranking posts by recent claps and reads
+   * @param notificationService the service notifying authors of claps
+   * @param meterRegistry the registry for the clap metrics
+   * @param maxClapsPerUser the maximum number of claps a user may give one post
+   * @param idleTimeout how long the counts of a post stay in memory after its last clap
+   * @param journalDirectory the directory of the journal segments, outside the temporary directory
+   * @param journalStripes the number of journal stripes
+   * @param journalSync whether a clap waits until its journal record is forced to the device
+   */
+  public ClapService(
+      MongoTemplate mongoTemplate,
+      TrendingService trendingService,
+      NotificationService notificationService,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.claps.max-per-user}") int maxClapsPerUser,
+      @Value("${bloggerhub.claps.idle-timeout}") Duration idleTimeout,
+      @Value("${bloggerhub.claps.journal.directory}") Path journalDirectory,
+      @Value("${bloggerhub.claps.journal.stripes}") int journalStripes,
+      @Value("${bloggerhub.claps.journal.sync}") boolean journalSync) {
+    this.mongoTemplate = mongoTemplate;
+    this.trendingService = trendingService;
+    this.notificationService = notificationService;
+    this.maxClapsPerUser = maxClapsPerUser;
+    this.idleTimeoutMillis = idleTimeout.toMillis();
+    // Temporary directories are cleared on reboot, taking the unflushed claps with them.
+    StorageDirectories.requireOutsideTemporary(journalDirectory, "clap journal");
+    try {
+      this.journal =
+          StripedJournal.open(journalDirectory, "claps", journalStripes, journalSync);
+      List<Path> recovered = journal.recoveredSegments();
+      long records = StripedJournal.replay(recovered, this::replay);
+      unflushedSegments.addAll(recovered);
+      if (records > 0) {
+        log.info("Replayed {} unflushed clap records from {}", records, journalDirectory);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open the clap journal", e);
+    }
+
+    acceptedClaps = Counter.builder("bloggerhub.claps.accepted").register(meterRegistry);
+    cappedClaps = Counter.builder("bloggerhub.claps.capped").register(meterRegistry);
+    flushFailures = Counter.builder("bloggerhub.claps.flush_failures").register(meterRegistry);
+    Gauge.builder("bloggerhub.claps.active_posts", posts, Map::size).register(meterRegistry);
+    Gauge.builder("bloggerhub.claps.active_users", userClaps, Map::size).register(meterRegistry);
+    Gauge.builder("bloggerhub.claps.unflushed", this, ClapService::unflushedClaps)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Adds claps of the authenticated user to a post, up to the per-user maximum.
+   *
+   * @param user the authenticated user
+   * @param postId the ID of the post
+   * @param count the number of claps to add
+   * @return a response entity containing the new counts
+   */
+  public ResponseEntity<Response> clap(BlogUser user, String postId, int count) {
+    if (count < 1 || count > maxClapsPerUser) {
+      return error(
+          HttpStatus.BAD_REQUEST, "Claps must be between 1 and " + maxClapsPerUser + ".");
+    }
+    if (!ObjectId.isValid(postId)) {
+      return notFound();
+    }
+    PostClaps post = loadedPost(postId);
+    if (post == null) {
+      return notFound();
+    }
+    if (user.getId().equals(post.authorId)) {
+      return error(HttpStatus.BAD_REQUEST, "You cannot clap for your own post.");
+    }
+
+    String key = PostClap.id(postId, user.getId());
+    UserClaps mine;
+    int accepted;
+    while (true) {
+      mine = loadedUser(key);
+      synchronized (mine) {
+        // Rare: the entry went idle and was replaced since it was looked up.
+        if (mine.retired) {
+          continue;
+        }
+        accepted = Math.min(count, maxClapsPerUser - mine.total());
+        if (accepted > 0) {
+          UserClaps target = mine;
+          int claps = accepted;
+          journal.append(
+              record(postId, user.getId(), claps), () -> apply(postId, post, key, target, claps));
+        }
+        break;
+      }
+    }
+
+    if (accepted <= 0) {
+      cappedClaps.increment(count);
+      return ResponseEntity.ok(
+          new DataResponse<>(
+              true,
+              HttpStatus.OK.value(),
+              "Clap limit reached.",
+              new ClapCountsDto(postId, currentClaps(postId, 0), maxClapsPerUser)));
+    }
+    acceptedClaps.increment(accepted);
+    trendingService.recordClaps(postId, accepted);
+    notificationService.notifyClaps(user.getId(), post.authorId, postId, accepted);
+    if (accepted < count) {
+      cappedClaps.increment(count - accepted);
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Clapped.",
+            new ClapCountsDto(postId, currentClaps(postId, 0), mine.total())));
+  }
+
+  /**
+   * Returns the clap count of a post, and the claps of the requesting user if authenticated.
+   *
+   * @param postId the ID of the post
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @return a response entity containing the counts
+   */
+  public ResponseEntity<Response> getClaps(String postId, BlogUser viewer) {
+    if (!ObjectId.isValid(postId)) {
+      return notFound();
+    }
+    long claps;
+    PostClaps post = posts.get(postId);
+    if (post != null && post.persisted != NOT_LOADED) {
+      claps = post.total();
+    } else {
+      Document stored = findPost(postId);
+      if (stored == null || !PostStatus.PUBLISHED.name().equals(stored.getString("status"))) {
+        return notFound();
+      }
+      claps = currentClaps(postId, storedClaps(stored));
+    }
+
+    Integer yourClaps = null;
+    if (viewer != null) {
+      String key = PostClap.id(postId, viewer.getId());
+      UserClaps mine = userClaps.get(key);
+      yourClaps =
+          mine != null && mine.persisted != NOT_LOADED
+              ? mine.total()
+              : findUserClaps(key) + (mine == null ? 0 : mine.unpersisted.get());
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Claps found.",
+            new ClapCountsDto(postId, claps, yourClaps)));
+  }
+
+  /**
+   * Returns the clap count of a post including the claps held in memory.
+   *
+   * @param postId the ID of the post
+   * @param storedClaps the count read from the database together with the post
+   * @return the current count
+   */
+  public long currentClaps(String postId, long storedClaps) {
+    PostClaps post = posts.get(postId);
+    if (post == null) {
+      return storedClaps;
+    }
+    long persisted = post.persisted;
+    return (persisted == NOT_LOADED ? storedClaps : persisted) + post.unpersisted.sum();
+  }
+
+  /**
+   * Returns a post summary with its clap count brought up to date with the claps held in memory.
+   *
+   * @param summary the summary read from the database
+   * @return the summary with the current count
+   */
+  public PostSummary withCurrentClaps(PostSummary summary) {
+    return summary.withClaps(currentClaps(summary.id(), summary.claps()));
+  }
+
+  /**
+   * Returns post summaries with their clap counts brought up to date.
+   *
+   * @param summaries the summaries read from the database
+   * @return the summaries with the current counts
+   */
+  public List<PostSummary> withCurrentClaps(List<PostSummary> summaries) {
+    return summaries.stream().map(this::withCurrentClaps).toList();
+  }
+
+  /**
+   * Writes the claps absorbed since the previous flush to the database. Claps that could not be
+   * written are kept in memory, and their journal segments on disk, for the next flush.
+   */
+  @Scheduled(fixedDelayString = "${bloggerhub.claps.flush-interval}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<Delta> postDeltas = new ArrayList<>();
+      List<Delta> userDeltas = new ArrayList<>();
+      long idleBefore = System.currentTimeMillis() - idleTimeoutMillis;
+      unflushedSegments.addAll(
+          journal.checkpoint(() -> drain(postDeltas, userDeltas, idleBefore)));
+
+      boolean written;
+      publishLock.lock();
+      try {
+        flushWrites.incrementAndGet();
+      } finally {
+        publishLock.unlock();
+      }
+      try {
+        Map<String, Long> rejected = new HashMap<>();
+        Map<String, Long> retried = new HashMap<>();
+        boolean usersWritten = writeUsers(userDeltas, rejected, retried);
+        written = writePosts(postDeltas, rejected, retried) && usersWritten;
+      } finally {
+        flushWrites.incrementAndGet();
+      }
+      if (written) {
+        journal.delete(unflushedSegments);
+        unflushedSegments.clear();
+      } else {
+        flushFailures.increment();
+      }
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("Could not flush the clap journal: {}", e.getMessage());
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** Flushes the remaining claps and closes the journal on shutdown. */
+  @PreDestroy
+  public void close() throws IOException {
+    flush();
+    journal.close();
+  }
+
+  /** Runs while every journal stripe is locked, so no clap is applied concurrently. */
+  private void drain(List<Delta> postDeltas, List<Delta> userDeltas, long idleBefore) {
+    posts.forEach(
+        (postId, post) -> {
+          long claps = post.pending.sumThenReset();
+          if (claps != 0) {
+            postDeltas.add(new Delta(postId, claps));
+          } else if (post.lastClapMillis < idleBefore && post.unpersisted.sum() == 0) {
+            post.retired = true;
+            posts.remove(postId, post);
+          }
+        });
+    userClaps.forEach(
+        (key, user) -> {
+          int claps = user.pending.getAndSet(0);
+          if (claps != 0) {
+            userDeltas.add(new Delta(key, claps));
+          } else if (user.lastClapMillis < idleBefore && user.unpersisted.get() == 0) {
+            user.retired = true;
+            userClaps.remove(key, user);
+          }
+        });
+  }
+
+  /**
+   * Writes the claps of each user on each post, capped at the per-user maximum by the database.
+   * Claps the cap rejected and claps that could not be written are recorded per post, so that the
+   * post counts leave them out.
+   */
+  private boolean writeUsers(
+      List<Delta> deltas, Map<String, Long> rejected, Map<String, Long> retried) {
+    int failures = 0;
+    for (Delta delta : deltas) {
+      String postId = delta.key().substring(0, delta.key().indexOf(':'));
+      int claps = (int) delta.claps();
+      UserClaps user = userClaps.get(delta.key());
+      UserWrite write;
+      try {
+        write = writeUser(delta.key(), claps);
+      } catch (DataAccessException e) {
+        failures++;
+        retried.merge(postId, delta.claps(), Long::sum);
+        if (user != null) {
+          user.pending.addAndGet(claps);
+        }
+        continue;
+      }
+      if (write.accepted() < claps) {
+        rejected.merge(postId, (long) (claps - write.accepted()), Long::sum);
+        cappedClaps.increment(claps - write.accepted());
+      }
+      if (user != null) {
+        // Take the total other nodes have written too, before dropping the claps it includes.
+        if (user.persisted != NOT_LOADED) {
+          user.persisted = write.stored();
+        }
+        user.unpersisted.addAndGet(-claps);
+      }
+    }
+    if (failures > 0) {
+      log.warn("Clap flush failed for {} of {} user counts", failures, deltas.size());
+    }
+    return failures == 0;
+  }
+
+  /**
+   * Adds claps of a user on a post unless that takes the stored count past the per-user maximum,
+   * in which case only the claps that still fit are added. Other nodes may have added claps since
+   * this node last read the count.
+   */
+  private UserWrite writeUser(String key, int claps) {
+    String[] ids = key.split(":");
+    int accepted = claps;
+    while (true) {
+      Query query =
+          Query.query(
+              Criteria.where("id").is(key).and("claps").lt(maxClapsPerUser - accepted + 1));
+      Update update =
+          new Update()
+              .inc("claps", accepted)
+              .setOnInsert("postId", new ObjectId(ids[0]))
+              .setOnInsert("userId", new ObjectId(ids[1]));
+      try {
+        PostClap stored =
+            mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                PostClap.class);
+        return new UserWrite(accepted, stored.getClaps());
+      } catch (DuplicateKeyException e) {
+        // The document exists but the claps do not fit under the cap any more.
+        int stored = findUserClaps(key);
+        accepted = Math.min(claps, maxClapsPerUser - stored);
+        if (accepted <= 0) {
+          return new UserWrite(0, stored);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the claps of each post, leaving out the claps the per-user cap rejected, and holding
+   * back the claps of users whose counts could not be written until those are written.
+   */
+  private boolean writePosts(
+      List<Delta> deltas, Map<String, Long> rejected, Map<String, Long> retried) {
+    int failures = 0;
+    for (Delta delta : deltas) {
+      PostClaps post = posts.get(delta.key());
+      long dropped = rejected.getOrDefault(delta.key(), 0L);
+      long held = retried.getOrDefault(delta.key(), 0L);
+      long claps = delta.claps() - dropped - held;
+      long stored = NOT_LOADED;
+      if (claps != 0) {
+        try {
+          stored = writePost(delta.key(), claps);
+        } catch (DataAccessException e) {
+          failures++;
+          held += claps;
+          claps = 0;
+        }
+      }
+      if (post == null) {
+        continue;
+      }
+      post.pending.add(held);
+      // Raise the persisted count first, so concurrent readers never see a smaller total.
+      if (stored != NOT_LOADED && post.persisted != NOT_LOADED) {
+        post.persisted = stored;
+      }
+      post.unpersisted.add(-claps - dropped);
+    }
+    if (failures > 0) {
+      log.warn("Clap flush failed for {} of {} post counts", failures, deltas.size());
+    }
+    return failures == 0;
+  }
+
+  /** Adds claps to a post and returns its stored count, or NOT_LOADED if it was deleted. */
+  private long writePost(String postId, long claps) {
+    Query query = Query.query(Criteria.where("_id").is(new ObjectId(postId)));
+    query.fields().include("claps");
+    Document stored =
+        mongoTemplate.findAndModify(
+            query,
+            new Update().inc("claps", claps),
+            FindAndModifyOptions.options().returnNew(true),
+            Document.class,
+            mongoTemplate.getCollectionName(Post.class));
+    return stored == null ? NOT_LOADED : storedClaps(stored);
+  }
+
+  /** Runs under the lock of a journal stripe. */
+  private void apply(String postId, PostClaps post, String key, UserClaps user, int claps) {
+    long now = System.currentTimeMillis();
+    PostClaps postTarget =
+        post.retired ? posts.computeIfAbsent(postId, id -> new PostClaps()) : post;
+    postTarget.pending.add(claps);
+    postTarget.unpersisted.add(claps);
+    postTarget.lastClapMillis = now;
+    UserClaps userTarget =
+        user.retired ? userClaps.computeIfAbsent(key, id -> new UserClaps()) : user;
+    userTarget.pending.addAndGet(claps);
+    userTarget.unpersisted.addAndGet(claps);
+    userTarget.lastClapMillis = now;
+  }
+
+  private void replay(ByteBuffer record) {
+    String postId = readId(record);
+    String userId = readId(record);
+    int claps = record.getInt();
+    String key = PostClap.id(postId, userId);
+    PostClaps post = posts.computeIfAbsent(postId, id -> new PostClaps());
+    post.pending.add(claps);
+    post.unpersisted.add(claps);
+    UserClaps user = userClaps.computeIfAbsent(key, id -> new UserClaps());
+    user.pending.addAndGet(claps);
+    user.unpersisted.addAndGet(claps);
+  }
+
+  /**
+   * Returns the in-memory claps of a published post with the persisted count loaded, or null if
+   * there is no such post. Loading holds the flush lock, so that no flush is half applied.
+   */
+  private PostClaps loadedPost(String postId) {
+    PostClaps post = posts.computeIfAbsent(postId, id -> new PostClaps());
+    if (post.persisted != NOT_LOADED) {
+      return post;
+    }
+    flushLock.lock();
+    try {
+      if (post.persisted == NOT_LOADED) {
+        Document stored = findPost(postId);
+        if (stored == null || !PostStatus.PUBLISHED.name().equals(stored.getString("status"))) {
+          if (post.unpersisted.sum() == 0) {
+            posts.remove(postId, post);
+          }
+          return null;
+        }
+        post.authorId = stored.getObjectId("authorId").toHexString();
+        post.persisted = storedClaps(stored);
+      }
+      return post;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the in-memory claps of a user on a post with the persisted count loaded. The count is
+   * read without the flush lock, and only kept if no flush wrote while it was read; otherwise the
+   * read might predate a flushed delta and replace the larger count the flush took from the
+   * database. Only then is the count read again under the flush lock.
+   */
+  private UserClaps loadedUser(String key) {
+    UserClaps user = userClaps.computeIfAbsent(key, id -> new UserClaps());
+    if (user.persisted != NOT_LOADED) {
+      return user;
+    }
+    long writes = flushWrites.get();
+    if (writes % 2 == 0) {
+      int stored = findUserClaps(key);
+      publishLock.lock();
+      try {
+        if (flushWrites.get() == writes) {
+          if (user.persisted == NOT_LOADED) {
+            user.persisted = stored;
+          }
+          return user;
+        }
+      } finally {
+        publishLock.unlock();
+      }
+    }
+    flushLock.lock();
+    try {
+      if (user.persisted == NOT_LOADED) {
+        user.persisted = findUserClaps(key);
+      }
+      return user;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private Document findPost(String postId) {
+    Query query = Query.query(Criteria.where("_id").is(new ObjectId(postId)));
+    query.fields().include("authorId", "status", "claps");
+    return mongoTemplate.findOne(
+        query, Document.class, mongoTemplate.getCollectionName(Post.class));
+  }
+
+  private int findUserClaps(String key) {
+    PostClap stored = mongoTemplate.findById(key, PostClap.class);
+    return stored == null ? 0 : stored.getClaps();
+  }
+
+  private static long storedClaps(Document stored) {
+    Number claps = stored.get("claps", Number.class);
+    return claps == null ? 0 : claps.longValue();
+  }
+
+  private long unflushedClaps() {
+    long claps = 0;
+    for (PostClaps post : posts.values()) {
+      claps += post.unpersisted.sum();
+    }
+    return claps;
+  }
+
+  private static Query byId(String id) {
+    return Query.query(Criteria.where("id").is(id));
+  }
+
+  private static byte[] record(String postId, String userId, int claps) {
+    return ByteBuffer.allocate(RECORD_BYTES)
+        .put(new ObjectId(postId).toByteArray())
+        .put(new ObjectId(userId).toByteArray())
+        .putInt(claps)
+        .array();
+  }
+
+  private static String readId(ByteBuffer record) {
+    byte[] id = new byte[ID_BYTES];
+    record.get(id);
+    return new ObjectId(id).toHexString();
+  }
+
+  private static ResponseEntity<Response> notFound() {
+    return error(HttpStatus.NOT_FOUND, "Post not found.");
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
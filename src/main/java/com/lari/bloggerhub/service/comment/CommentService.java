@@ -0,0 +1,285 @@
+package com.lari.bloggerhub.service.comment;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Comment;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.request.CommentRequestDto;
+import com.lari.bloggerhub.dto.response.BlogUserResponseDto;
+import com.lari.bloggerhub.dto.response.CommentDto;
+import com.lari.bloggerhub.dto.response.CommentPageDto;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.repository.CommentRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.notification.NotificationService;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides service methods for the comment threads of posts in the Blogger Hub
+ * application.
+ *
+ * <p>A page of a thread shows the first few levels of comments in depth-first order and is read
+ * with one range query over the materialized paths of the comments; the path of the last comment
+ * is the cursor of the next page. Replies nested deeper than a page shows are collapsed, and are
+ * loaded the same way from the subtree of their ancestor when the reader expands them. The authors
+ * of a page are resolved with one batched lookup of their public details.
+ *
+ * <p>The comment count of a post and the reply counts of the comments are incremented when a
+ * comment is added, so they are never counted from the thread.
+ */
+@Service
+public class CommentService {
+
+  private static final Pattern PATH = Pattern.compile("([0-9a-f]{24}\\.)+");
+  private static final String THREAD_END = "\uffff";
+
+  private final CommentRepository commentRepository;
+  private final PostRepository postRepository;
+  private final BlogUserRepository blogUserRepository;
+  private final NotificationService notificationService;
+  private final int maxDepth;
+  private final int pageDepth;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+
+  /**
+   * Constructs a new instance of the {@link CommentService} class with the specified dependencies.
+   *
+   * @param commentRepository the repository class for managing comment data
+   * @param postRepository the repository class used to check the commented post
+   * @param blogUserRepository the repository class used to resolve the authors of a page
+   * @param notificationService the service notifying authors of new comments and replies
+   * @param maxDepth the deepest level a reply may be nested at
+   * @param pageDepth the number of levels a page shows
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public CommentService(
+      CommentRepository commentRepository,
+      PostRepository postRepository,
+      BlogUserRepository blogUserRepository,
+      NotificationService notificationService,
+      @Value("${bloggerhub.comments.max-depth}") int maxDepth,
+      @Value("${bloggerhub.comments.page-depth}") int pageDepth,
+      @Value("${bloggerhub.comments.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.comments.max-page-size}") int maxPageSize) {
+    this.commentRepository = commentRepository;
+    this.postRepository = postRepository;
+    this.blogUserRepository = blogUserRepository;
+    this.notificationService = notificationService;
+    this.maxDepth = maxDepth;
+    this.pageDepth = pageDepth;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+  }
+
+  /**
+   * Adds a comment to a published post, or a reply to one of its comments.
+   *
+   * @param author the authenticated author
+   * @param postId the ID of the post
+   * @param dto the comment details
+   * @return a response entity containing the created comment
+   */
+  public ResponseEntity<Response> addComment(
+      BlogUser author, String postId, CommentRequestDto dto) {
+    if (dto.getBody() == null || dto.getBody().isBlank()) {
+      return error(HttpStatus.BAD_REQUEST, "The comment must not be empty.");
+    }
+    Optional<PostSummary> post = findPublishedPost(postId);
+    if (post.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    ObjectId id = new ObjectId();
+    Comment comment = new Comment();
+    comment.setId(id.toHexString());
+    comment.setPostId(postId);
+    comment.setAuthorId(author.getId());
+    comment.setBody(dto.getBody());
+    List<String> ancestorIds = new ArrayList<>();
+    String parentAuthorId = null;
+    if (dto.getParentId() == null) {
+      comment.setPath(id.toHexString() + Comment.PATH_SEPARATOR);
+    } else {
+      Optional<Comment> parent =
+          ObjectId.isValid(dto.getParentId())
+              ? commentRepository.findById(dto.getParentId())
+              : Optional.empty();
+      if (parent.isEmpty() || !parent.get().getPostId().equals(postId)) {
+        return error(HttpStatus.BAD_REQUEST, "The parent comment does not belong to this post.");
+      }
+      if (parent.get().getDepth() >= maxDepth) {
+        return error(
+            HttpStatus.BAD_REQUEST,
+            "Replies cannot be nested deeper than " + maxDepth + " levels.");
+      }
+      comment.setParentId(parent.get().getId());
+      comment.setDepth(parent.get().getDepth() + 1);
+      comment.setPath(parent.get().getPath() + id.toHexString() + Comment.PATH_SEPARATOR);
+      ancestorIds = pathIds(parent.get().getPath());
+      parentAuthorId = parent.get().getAuthorId();
+    }
+    Comment saved = commentRepository.insert(comment);
+    commentRepository.countNewComment(saved, ancestorIds);
+    notificationService.notifyComment(
+        author.getId(), post.get().authorId(), postId, parentAuthorId);
+    CommentDto created =
+        toDto(
+            saved,
+            new BlogUserResponseDto(
+                author.getId(),
+                author.getUsername(),
+                null,
+                author.getBio(),
+                author.getProfilePicture(),
+                null));
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(
+            new DataResponse<>(true, HttpStatus.CREATED.value(), "Comment added.", created));
+  }
+
+  /**
+   * Returns a page of the comment thread of a published post.
+   *
+   * @param postId the ID of the post
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getThread(String postId, String cursor, Integer limit) {
+    Optional<PostSummary> post = findPublishedPost(postId);
+    if (post.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    String after = decodeCursor(cursor, "");
+    if (after == null) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    return page(postId, after, THREAD_END, 0, pageDepth - 1, limit);
+  }
+
+  /**
+   * Returns a page of the replies below a comment, such as replies collapsed on a thread page.
+   *
+   * @param commentId the ID of the comment
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getReplies(String commentId, String cursor, Integer limit) {
+    Optional<Comment> comment =
+        ObjectId.isValid(commentId) ? commentRepository.findById(commentId) : Optional.empty();
+    if (comment.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Comment not found.");
+    }
+    String path = comment.get().getPath();
+    String after = decodeCursor(cursor, path);
+    if (after == null || !after.startsWith(path)) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    int depth = comment.get().getDepth();
+    return page(
+        comment.get().getPostId(),
+        after,
+        Comment.subtreeEnd(path),
+        depth + 1,
+        depth + pageDepth,
+        limit);
+  }
+
+  private ResponseEntity<Response> page(
+      String postId, String after, String before, int minDepth, int maxDepth, Integer limit) {
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    // Fetch one extra comment to learn whether there is a next page without a count query.
+    List<Comment> comments =
+        commentRepository.findThreadPage(postId, after, before, minDepth, maxDepth, pageSize + 1);
+    String nextCursor = null;
+    if (comments.size() > pageSize) {
+      comments = comments.subList(0, pageSize);
+      nextCursor = encodeCursor(comments.get(pageSize - 1).getPath());
+    }
+
+    Set<ObjectId> authorIds = new LinkedHashSet<>();
+    comments.forEach(comment -> authorIds.add(new ObjectId(comment.getAuthorId())));
+    Map<String, BlogUserResponseDto> authors = new HashMap<>();
+    if (!authorIds.isEmpty()) {
+      for (BlogUserResponseDto author : blogUserRepository.findResponsesByIdIn(authorIds)) {
+        authors.put(author.getId(), author);
+      }
+    }
+    List<CommentDto> items = new ArrayList<>(comments.size());
+    for (Comment comment : comments) {
+      items.add(toDto(comment, authors.get(comment.getAuthorId())));
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true, HttpStatus.OK.value(), "Records found.", new CommentPageDto(items, nextCursor)));
+  }
+
+  private Optional<PostSummary> findPublishedPost(String postId) {
+    if (!ObjectId.isValid(postId)) {
+      return Optional.empty();
+    }
+    return postRepository
+        .findSummaryById(postId)
+        .filter(post -> post.status() == PostStatus.PUBLISHED);
+  }
+
+  private static CommentDto toDto(Comment comment, BlogUserResponseDto author) {
+    return new CommentDto(
+        comment.getId(),
+        comment.getParentId(),
+        comment.getDepth(),
+        comment.getBody(),
+        comment.getReplies(),
+        comment.getDescendants(),
+        comment.getCreatedAt(),
+        author);
+  }
+
+  /** Returns the IDs of the comments on a path, root first. */
+  private static List<String> pathIds(String path) {
+    return List.of(path.split(Pattern.quote(String.valueOf(Comment.PATH_SEPARATOR))));
+  }
+
+  static String encodeCursor(String path) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(path.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /** Decodes a cursor into the path it stands for, or returns null if it is malformed. */
+  static String decodeCursor(String cursor, String first) {
+    if (cursor == null || cursor.isEmpty()) {
+      return first;
+    }
+    try {
+      String path = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+      return PATH.matcher(path).matches() ? path : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
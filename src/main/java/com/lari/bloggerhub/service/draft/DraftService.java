@@ -0,0 +1,351 @@
+package com.lari.bloggerhub.service.draft;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.DraftDelta;
+import com.lari.bloggerhub.document.DraftSnapshot;
+import com.lari.bloggerhub.dto.request.DraftPatchRequestDto;
+import com.lari.bloggerhub.dto.request.PostRequestDto;
+import com.lari.bloggerhub.dto.response.DraftDto;
+import com.lari.bloggerhub.dto.response.DraftRevisionDto;
+import com.lari.bloggerhub.repository.DraftDeltaRepository;
+import com.lari.bloggerhub.repository.DraftSnapshotRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostContent;
+import com.lari.bloggerhub.repository.projection.PostContentKey;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.util.text.TextEdit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the autosaving of post drafts in the Blogger Hub application.
+ *
+ * <p>An autosave sends only the {@link TextEdit}s made since the revision the editor last saw, and
+ * they are appended to the log of the draft as a {@link DraftDelta}, so the write does not grow
+ * with the length of the post. The log is checked against the revision the edits are based on, so
+ * a save from a stale editor is rejected instead of overwriting newer text.
+ *
+ * <p>Reading a draft replays the deltas after the latest {@link DraftSnapshot} onto it. To keep
+ * that replay short, every draft that gains {@code compactionThreshold} revisions is queued for the
+ * compactor, which folds its deltas into a new snapshot and deletes them in the background.
+ *
+ * <p>Saving a post through the regular update discards its draft, which then starts again from the
+ * saved body. The save timer and written characters counter are tagged with the mode of the write,
+ * so autosaves can be compared with full rewrites of the body.
+ */
+@Service
+public class DraftService {
+
+  private static final Logger log = LoggerFactory.getLogger(DraftService.class);
+
+  /** The characters counted for the position and length of an edit, next to the inserted text. */
+  static final int EDIT_OVERHEAD = 8;
+
+  private static final int MAX_READ_ATTEMPTS = 3;
+
+  /**
+   * Represents the text of a draft at a revision, with the ID of the delta that produced it, or
+   * null if the revision is the base of the draft.
+   */
+  private record Draft(long revision, String body, String headId) {}
+
+  private final PostRepository postRepository;
+  private final DraftDeltaRepository draftDeltaRepository;
+  private final DraftSnapshotRepository draftSnapshotRepository;
+  private final MongoTemplate mongoTemplate;
+  private final int compactionThreshold;
+  private final Set<String> pendingCompactions = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean compacting = new AtomicBoolean();
+  private final Timer saveTimer;
+  private final Counter writtenCharacters;
+  private final Counter fullEquivalentCharacters;
+  private final Counter compactions;
+
+  /**
+   * Constructs a new instance of the {@link DraftService} class with the specified dependencies.
+   *
+   * @param postRepository the repository class used to check the author and load post bodies
+   * @param draftDeltaRepository the repository class for the delta logs of drafts
+   * @param draftSnapshotRepository the repository class for the snapshots of drafts
+   * @param mongoTemplate the template used to replace snapshots conditionally
+   * @param meterRegistry the registry for the autosave metrics
+   * @param compactionThreshold the number of revisions after which a draft is compacted
+   */
+  public DraftService(
+      PostRepository postRepository,
+      DraftDeltaRepository draftDeltaRepository,
+      DraftSnapshotRepository draftSnapshotRepository,
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.drafts.compaction-threshold}") int compactionThreshold) {
+    this.postRepository = postRepository;
+    this.draftDeltaRepository = draftDeltaRepository;
+    this.draftSnapshotRepository = draftSnapshotRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.compactionThreshold = compactionThreshold;
+
+    saveTimer =
+        Timer.builder("bloggerhub.drafts.save").tag("mode", "delta").register(meterRegistry);
+    writtenCharacters =
+        Counter.builder("bloggerhub.drafts.written")
+            .tag("mode", "delta")
+            .baseUnit("characters")
+            .register(meterRegistry);
+    fullEquivalentCharacters =
+        Counter.builder("bloggerhub.drafts.written")
+            .tag("mode", "full_equivalent")
+            .baseUnit("characters")
+            .register(meterRegistry);
+    compactions = Counter.builder("bloggerhub.drafts.compactions").register(meterRegistry);
+  }
+
+  /**
+   * Appends an autosave to the draft of a post. Only the author may save a draft.
+   *
+   * @param author the authenticated author
+   * @param postId the ID of the post
+   * @param dto the edits and the revision they apply to
+   * @return a response entity containing the new revision
+   */
+  public ResponseEntity<Response> saveDraft(
+      BlogUser author, String postId, DraftPatchRequestDto dto) {
+    Optional<PostContentKey> key =
+        ObjectId.isValid(postId) ? postRepository.findContentKeyById(postId) : Optional.empty();
+    if (key.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    if (!key.get().authorId().equals(author.getId())) {
+      return error(HttpStatus.FORBIDDEN, "Only the author can edit this post.");
+    }
+    long start = System.nanoTime();
+    try {
+      long headRevision;
+      int headLength;
+      Optional<DraftDelta> head = draftDeltaRepository.findFirstByPostIdOrderByRevisionDesc(postId);
+      if (head.isPresent()) {
+        headRevision = head.get().getRevision();
+        headLength = head.get().getLength();
+      } else {
+        Draft base = loadBase(postId);
+        if (base == null) {
+          return error(HttpStatus.NOT_FOUND, "Post not found.");
+        }
+        headRevision = base.revision();
+        headLength = base.body().length();
+      }
+      if (dto.getBaseRevision() != headRevision) {
+        return staleRevision(headRevision);
+      }
+
+      int length;
+      try {
+        length = TextEdit.apply(headLength, dto.getEdits());
+      } catch (IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+      }
+      // A body saved before the limit existed may still be shortened.
+      if (length > PostRequestDto.MAX_BODY_LENGTH && length > headLength) {
+        return error(
+            HttpStatus.BAD_REQUEST,
+            "The draft must not be longer than " + PostRequestDto.MAX_BODY_LENGTH + " characters.");
+      }
+      long revision = headRevision + 1;
+      try {
+        draftDeltaRepository.insert(
+            new DraftDelta(postId, revision, List.copyOf(dto.getEdits()), length));
+      } catch (DuplicateKeyException e) {
+        // Another save based on the same revision won the race.
+        return staleRevision(headRevision + 1);
+      }
+
+      writtenCharacters.increment(
+          dto.getEdits().stream().mapToLong(edit -> edit.insertLength() + EDIT_OVERHEAD).sum());
+      fullEquivalentCharacters.increment(length);
+      if (revision % compactionThreshold == 0) {
+        pendingCompactions.add(postId);
+      }
+      return ResponseEntity.ok(
+          new DataResponse<>(
+              true,
+              HttpStatus.OK.value(),
+              "Draft saved.",
+              new DraftRevisionDto(revision, length)));
+    } finally {
+      saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Returns the current draft of a post. Drafts are only visible to the author.
+   *
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @param postId the ID of the post
+   * @return a response entity containing the draft
+   */
+  public ResponseEntity<Response> getDraft(BlogUser viewer, String postId) {
+    Optional<PostContentKey> key =
+        ObjectId.isValid(postId) ? postRepository.findContentKeyById(postId) : Optional.empty();
+    if (key.isEmpty() || viewer == null || !key.get().authorId().equals(viewer.getId())) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+      Draft draft = load(postId);
+      if (draft != null) {
+        return ResponseEntity.ok(
+            new DataResponse<>(
+                true,
+                HttpStatus.OK.value(),
+                "Draft found.",
+                new DraftDto(draft.revision(), draft.body())));
+      }
+    }
+    return error(HttpStatus.SERVICE_UNAVAILABLE, "The draft is being compacted, try again.");
+  }
+
+  /**
+   * Discards the draft of a post, after its body has been replaced by a regular update.
+   *
+   * @param postId the ID of the post
+   */
+  public void discard(String postId) {
+    pendingCompactions.remove(postId);
+    // The deltas go first: a compaction that finds its head delta gone drops its snapshot.
+    draftDeltaRepository.deleteByPostId(postId);
+    draftSnapshotRepository.deleteById(postId);
+  }
+
+  /** Starts compacting the drafts queued since the previous run, unless a run is in progress. */
+  @Scheduled(fixedDelayString = "${bloggerhub.drafts.compaction-interval}")
+  public void compact() {
+    if (!pendingCompactions.isEmpty() && compacting.compareAndSet(false, true)) {
+      Thread.ofVirtual().name("draft-compaction").start(this::compactPending);
+    }
+  }
+
+  private void compactPending() {
+    try {
+      for (String postId : List.copyOf(pendingCompactions)) {
+        pendingCompactions.remove(postId);
+        try {
+          compact(postId);
+        } catch (RuntimeException e) {
+          log.warn("Could not compact the draft of post {}: {}", postId, e.getMessage());
+        }
+      }
+    } finally {
+      compacting.set(false);
+    }
+  }
+
+  /**
+   * Folds the deltas of a draft into a new snapshot, then deletes them. The newest delta is kept,
+   * as the head of the log that the next autosave is checked against.
+   *
+   * <p>If the draft is discarded while it is compacted, the snapshot may be written after the
+   * discard deleted the old one. The head delta is checked once the snapshot is written; if it is
+   * gone, the draft was discarded and the snapshot is deleted again.
+   */
+  private void compact(String postId) {
+    Draft draft = load(postId);
+    if (draft == null || draft.headId() == null) {
+      return;
+    }
+    // Only ever move a snapshot forward, should another instance compact the same draft.
+    Query older =
+        Query.query(Criteria.where("id").is(postId).and("revision").lt(draft.revision()));
+    Update update =
+        new Update()
+            .set("revision", draft.revision())
+            .set("body", draft.body())
+            .set("updatedAt", Instant.now());
+    try {
+      mongoTemplate.upsert(older, update, DraftSnapshot.class);
+    } catch (DuplicateKeyException e) {
+      // The snapshot is already at this revision or later, so the deltas are covered anyway.
+    }
+    if (!draftDeltaRepository.existsById(draft.headId())) {
+      mongoTemplate.remove(
+          Query.query(Criteria.where("id").is(postId).and("revision").is(draft.revision())),
+          DraftSnapshot.class);
+      return;
+    }
+    draftDeltaRepository.deleteByPostIdAndRevisionLessThan(postId, draft.revision());
+    compactions.increment();
+  }
+
+  /**
+   * Rebuilds a draft from its snapshot and the deltas after it.
+   *
+   * @return the draft, or null if a concurrent compaction deleted deltas between the two reads
+   */
+  private Draft load(String postId) {
+    Draft base = loadBase(postId);
+    if (base == null) {
+      return null;
+    }
+    List<DraftDelta> deltas =
+        draftDeltaRepository.findByPostIdAndRevisionGreaterThanOrderByRevisionAsc(
+            postId, base.revision());
+    long revision = base.revision();
+    String headId = null;
+    StringBuilder body = new StringBuilder(base.body());
+    for (DraftDelta delta : deltas) {
+      if (delta.getRevision() != revision + 1) {
+        return null;
+      }
+      TextEdit.apply(body, delta.getEdits());
+      revision = delta.getRevision();
+      headId = delta.getId();
+    }
+    return new Draft(revision, body.toString(), headId);
+  }
+
+  /** Loads the snapshot of a draft, or the body of the post as revision 0 if there is none. */
+  private Draft loadBase(String postId) {
+    Optional<DraftSnapshot> snapshot = draftSnapshotRepository.findById(postId);
+    if (snapshot.isPresent()) {
+      return new Draft(snapshot.get().getRevision(), snapshot.get().getBody(), null);
+    }
+    Optional<PostContent> content = postRepository.findContentById(postId);
+    if (content.isEmpty()) {
+      return null;
+    }
+    return new Draft(0, content.get().body() == null ? "" : content.get().body(), null);
+  }
+
+  private static ResponseEntity<Response> staleRevision(long revision) {
+    return error(
+        HttpStatus.CONFLICT,
+        "The draft has changed since the base revision; the current revision is "
+            + revision
+            + ".");
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,66 @@
+package com.lari.bloggerhub.service.feed;
+
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Represents a post in a home feed timeline: just enough to order the feed and to load the post
+ * card later.
+ *
+ * @param postId the ID of the post
+ * @param authorId the ID of the author
+ * @param publishedAt the publication time of the post in epoch milliseconds
+ */
+public record FeedEntry(String postId, String authorId, long publishedAt) {
+
+  /** Newest first, ties broken by descending post ID like the timeline indexes. */
+  public static final Comparator<FeedEntry> ORDER =
+      Comparator.comparingLong(FeedEntry::publishedAt)
+          .reversed()
+          .thenComparing(FeedEntry::postId, Comparator.reverseOrder());
+
+  /**
+   * Checks whether the entry comes after the cursor in feed order.
+   *
+   * @param cursor the cursor, or null for the start of the feed
+   * @return true if the entry belongs to a page after the cursor
+   */
+  public boolean isAfter(KeysetCursor cursor) {
+    if (cursor == null) {
+      return true;
+    }
+    long cursorMillis = cursor.publishedAt().toEpochMilli();
+    return publishedAt < cursorMillis
+        || (publishedAt == cursorMillis && postId.compareTo(cursor.id()) < 0);
+  }
+
+  /**
+   * Returns the cursor pointing after this entry.
+   *
+   * @return the cursor
+   */
+  public KeysetCursor toCursor() {
+    return new KeysetCursor(Instant.ofEpochMilli(publishedAt), postId);
+  }
+
+  /**
+   * Encodes the entry as the key of a feed invalidation.
+   *
+   * @return the post ID, author ID and publication time joined with colons
+   */
+  public String toKey() {
+    return postId + ":" + authorId + ":" + publishedAt;
+  }
+
+  /**
+   * Decodes a key created by {@link #toKey()}.
+   *
+   * @param key the key
+   * @return the entry
+   */
+  public static FeedEntry fromKey(String key) {
+    String[] parts = key.split(":", 3);
+    return new FeedEntry(parts[0], parts[1], Long.parseLong(parts[2]));
+  }
+}
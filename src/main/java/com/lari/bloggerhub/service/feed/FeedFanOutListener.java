@@ -0,0 +1,40 @@
+package com.lari.bloggerhub.service.feed;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class publishes every saved published {@link Post} on the {@link InvalidationBus}, whose
+ * subscribed {@link FeedFanOutWorker} on every node delivers it to the local timelines. Posts that
+ * are already in a timeline, such as edited ones, are ignored by the timelines.
+ */
+@Component
+public class FeedFanOutListener extends AbstractMongoEventListener<Post> {
+
+  private final InvalidationBus invalidationBus;
+
+  /**
+   * Constructs a new instance of the {@link FeedFanOutListener} class.
+   *
+   * @param invalidationBus the bus the fan-out workers of all nodes subscribe to
+   */
+  public FeedFanOutListener(InvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<Post> event) {
+    Post post = event.getSource();
+    if (post.getStatus() == PostStatus.PUBLISHED && post.getPublishedAt() != null) {
+      FeedEntry entry =
+          new FeedEntry(post.getId(), post.getAuthorId(), post.getPublishedAt().toEpochMilli());
+      invalidationBus.publish(CacheRegion.FEED, entry.toKey());
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.lari.bloggerhub.service.feed;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class pushes newly published posts into the in-memory home feed timelines in the
+ * background, so publishing never waits for the fan-out.
+ *
+ * <p>Published posts are queued and drained in batches: the worker waits up to the batch window
+ * for more posts after the first one, groups the batch by author and resolves the followers of
+ * each author once per batch, however many posts they published in it.
+ *
+ * <p>Posts reach the worker through the {@link InvalidationBus}, so a post published on any node is
+ * delivered to the timelines of every node. When invalidations may have been missed, every
+ * in-memory timeline is dropped and reloaded on its next read.
+ */
+@Component
+public class FeedFanOutWorker {
+
+  private static final Logger log = LoggerFactory.getLogger(FeedFanOutWorker.class);
+
+  private final HomeFeedService homeFeedService;
+  private final BlockingQueue<FeedEntry> queue = new LinkedBlockingQueue<>();
+  private final int maxBatchSize;
+  private final long batchWindowNanos;
+  private final Counter deliveries;
+  private Thread worker;
+
+  /**
+   * Constructs a new instance of the {@link FeedFanOutWorker} class with the specified
+   * dependencies.
+   *
+   * @param homeFeedService the service holding the in-memory timelines
+   * @param meterRegistry the registry for the fan-out metrics
+   * @param invalidationBus the bus that announces posts published on any node
+   * @param maxBatchSize the maximum number of posts delivered in one batch
+   * @param batchWindow how long to wait for more posts before delivering a batch
+   */
+  public FeedFanOutWorker(
+      HomeFeedService homeFeedService,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.feed.fan-out.max-batch-size}") int maxBatchSize,
+      @Value("${bloggerhub.feed.fan-out.batch-window}") Duration batchWindow) {
+    this.homeFeedService = homeFeedService;
+    this.maxBatchSize = maxBatchSize;
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.deliveries = Counter.builder("bloggerhub.feed.fan_out.deliveries").register(meterRegistry);
+    Gauge.builder("bloggerhub.feed.fan_out.queue", queue, BlockingQueue::size)
+        .register(meterRegistry);
+    invalidationBus.subscribe(
+        CacheRegion.FEED, key -> submit(FeedEntry.fromKey(key)), homeFeedService::evictAll);
+  }
+
+  /**
+   * Queues a published post for delivery.
+   *
+   * @param entry the post
+   */
+  public void submit(FeedEntry entry) {
+    queue.add(entry);
+  }
+
+  @PostConstruct
+  void start() {
+    worker = Thread.ofVirtual().name("feed-fan-out").start(this::run);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    worker.interrupt();
+  }
+
+  private void run() {
+    List<FeedEntry> batch = new ArrayList<>(maxBatchSize);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + batchWindowNanos;
+        while (batch.size() < maxBatchSize) {
+          FeedEntry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      deliver(batch);
+      batch.clear();
+    }
+  }
+
+  private void deliver(List<FeedEntry> batch) {
+    Map<String, List<FeedEntry>> byAuthor = new LinkedHashMap<>();
+    for (FeedEntry entry : batch) {
+      byAuthor.computeIfAbsent(entry.authorId(), authorId -> new ArrayList<>()).add(entry);
+    }
+    for (Map.Entry<String, List<FeedEntry>> author : byAuthor.entrySet()) {
+      try {
+        deliveries.increment(homeFeedService.deliver(author.getKey(), author.getValue()));
+      } catch (RuntimeException e) {
+        // Followers whose timelines missed the post see it once their timeline is reloaded.
+        log.warn("Could not fan out {} posts of {}", author.getValue().size(), author.getKey(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,324 @@
+package com.lari.bloggerhub.service.feed;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.dto.response.AuthorCardDto;
+import com.lari.bloggerhub.dto.response.FeedItemDto;
+import com.lari.bloggerhub.dto.response.FeedPageDto;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.BlogUserService;
+import com.lari.bloggerhub.service.clap.ClapService;
+import com.lari.bloggerhub.service.follow.FollowGraph;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.cache.BoundedLruCache;
+import com.lari.bloggerhub.util.merge.KWayMerge;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the home feed of the Blogger Hub application: the posts of the authors a
+ * user follows, newest first.
+ *
+ * <p>The feed uses hybrid fan-out. Posts of ordinary authors are pushed on publish into the hot
+ * timeline of every follower that has one in memory (fan-out on write, see {@link
+ * FeedFanOutWorker}). Posts of celebrity authors, whose follower count is above a threshold, are
+ * not pushed; each celebrity has a single in-memory timeline that is merged into the feed of their
+ * followers when it is read (fan-out on read). A page is the k-way merge of the user's hot timeline
+ * and the timelines of the celebrities they follow.
+ *
+ * <p>Hot timelines are kept for a bounded number of recently active users. A cold user's timeline
+ * is loaded from the author timeline index on the first read, and pages that reach past what the
+ * in-memory timelines hold are read from MongoDB with the same keyset cursor. When a user follows
+ * or unfollows an author on any node, their hot timeline is dropped on every node.
+ */
+@Service
+public class HomeFeedService {
+
+  private final FollowGraph followGraph;
+  private final PostRepository postRepository;
+  private final BlogUserService blogUserService;
+  private final ClapService clapService;
+  private final long celebrityFollowerThreshold;
+  private final int timelineCapacity;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+  private final BoundedLruCache<String, TimelineBuffer> hotTimelines;
+  private final BoundedLruCache<String, TimelineBuffer> celebrityTimelines;
+  private final Counter memoryPages;
+  private final Counter databasePages;
+
+  /**
+   * Constructs a new instance of the {@link HomeFeedService} class with the specified
+   * dependencies.
+   *
+   * @param followGraph the follow relationships
+   * @param postRepository the repository class for managing post data
+   * @param blogUserService the service class used to resolve authors in batches
+   * @param clapService the service holding the clap counts not yet written to the database
+   * @param meterRegistry the registry for the feed metrics
+   * @param invalidationBus the bus that announces relationships changed on any node
+   * @param celebrityFollowerThreshold the follower count above which posts are merged on read
+   * @param timelineCapacity the number of entries kept per in-memory timeline
+   * @param hotTimelineCount the number of users whose timelines are kept in memory
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public HomeFeedService(
+      FollowGraph followGraph,
+      PostRepository postRepository,
+      BlogUserService blogUserService,
+      ClapService clapService,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.feed.celebrity-follower-threshold}") long celebrityFollowerThreshold,
+      @Value("${bloggerhub.feed.timeline-capacity}") int timelineCapacity,
+      @Value("${bloggerhub.feed.hot-timelines}") int hotTimelineCount,
+      @Value("${bloggerhub.post.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.post.max-page-size}") int maxPageSize) {
+    this.followGraph = followGraph;
+    this.postRepository = postRepository;
+    this.blogUserService = blogUserService;
+    this.clapService = clapService;
+    this.celebrityFollowerThreshold = celebrityFollowerThreshold;
+    this.timelineCapacity = timelineCapacity;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+    this.hotTimelines = new BoundedLruCache<>(hotTimelineCount);
+    this.celebrityTimelines = new BoundedLruCache<>(Math.max(16, hotTimelineCount / 100));
+    this.memoryPages =
+        Counter.builder("bloggerhub.feed.pages").tag("source", "memory").register(meterRegistry);
+    this.databasePages =
+        Counter.builder("bloggerhub.feed.pages").tag("source", "database").register(meterRegistry);
+    Gauge.builder("bloggerhub.feed.hot_timelines", hotTimelines, BoundedLruCache::size)
+        .register(meterRegistry);
+    // Subscribed after the follow graph, which this service depends on, so timelines reload with
+    // the changed relationship.
+    invalidationBus.subscribe(
+        CacheRegion.FOLLOW_GRAPH,
+        pair -> evict(pair.substring(0, pair.indexOf(':'))),
+        hotTimelines::clear);
+  }
+
+  /**
+   * Returns a page of the home feed of a user.
+   *
+   * @param user the authenticated user
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getFeed(BlogUser user, String cursor, Integer limit) {
+    KeysetCursor after;
+    try {
+      after = KeysetCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest()
+          .body(
+              new ErrorResponse(
+                  false,
+                  HttpStatus.BAD_REQUEST.value(),
+                  "Invalid cursor.",
+                  HttpStatus.BAD_REQUEST.getReasonPhrase()));
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    List<FeedEntry> entries = page(user.getId(), after, pageSize);
+    String nextCursor =
+        entries.size() == pageSize ? entries.get(pageSize - 1).toCursor().encode() : null;
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Records found.",
+            new FeedPageDto(toItems(entries), nextCursor)));
+  }
+
+  /**
+   * Delivers newly published posts to the in-memory timelines. Called by the {@link
+   * FeedFanOutWorker} with a batch of posts of one author.
+   *
+   * @param authorId the ID of the author
+   * @param entries the posts of the author
+   * @return the number of timelines the posts were added to
+   */
+  int deliver(String authorId, List<FeedEntry> entries) {
+    TimelineBuffer celebrityTimeline = celebrityTimelines.get(authorId);
+    if (celebrityTimeline != null) {
+      entries.forEach(celebrityTimeline::add);
+    }
+    if (isCelebrity(authorId)) {
+      return celebrityTimeline == null ? 0 : 1;
+    }
+    int delivered = 0;
+    for (String followerId : followGraph.followers(authorId)) {
+      TimelineBuffer timeline = hotTimelines.get(followerId);
+      if (timeline != null) {
+        entries.forEach(timeline::add);
+        delivered++;
+      }
+    }
+    return delivered;
+  }
+
+  /**
+   * Drops the in-memory timeline of a user, for example after they followed or unfollowed an
+   * author. It is reloaded on the next read.
+   *
+   * @param userId the ID of the user
+   */
+  public void evict(String userId) {
+    hotTimelines.remove(userId);
+  }
+
+  /** Drops every in-memory timeline, after posts may have been published without reaching them. */
+  public void evictAll() {
+    hotTimelines.clear();
+    celebrityTimelines.clear();
+  }
+
+  private List<FeedEntry> page(String userId, KeysetCursor after, int limit) {
+    List<String> following = followGraph.following(userId);
+    if (following.isEmpty()) {
+      return List.of();
+    }
+    List<String> ordinary = new ArrayList<>(following.size());
+    List<String> celebrities = new ArrayList<>();
+    for (String authorId : following) {
+      (isCelebrity(authorId) ? celebrities : ordinary).add(authorId);
+    }
+
+    List<TimelineBuffer> sources = new ArrayList<>(celebrities.size() + 1);
+    if (!ordinary.isEmpty()) {
+      sources.add(hotTimeline(userId, ordinary));
+    }
+    for (String celebrityId : celebrities) {
+      sources.add(celebrityTimeline(celebrityId));
+    }
+
+    // A timeline another request is still loading is not usable yet.
+    if (sources.stream().anyMatch(TimelineBuffer::isLoading)) {
+      databasePages.increment();
+      return toEntries(postRepository.findAuthorsTimeline(following, after, limit));
+    }
+
+    List<List<FeedEntry>> pages = new ArrayList<>(sources.size());
+    FeedEntry floor = null;
+    for (TimelineBuffer source : sources) {
+      TimelineBuffer.Page page = source.page(after, limit);
+      pages.add(page.entries());
+      if (page.floor() != null
+          && (floor == null || FeedEntry.ORDER.compare(page.floor(), floor) < 0)) {
+        floor = page.floor();
+      }
+    }
+    List<FeedEntry> merged = KWayMerge.merge(pages, FeedEntry.ORDER, limit);
+
+    // Entries older than the newest floor may be missing posts of the source that ran out, so
+    // such a page is read from the database instead.
+    if (floor != null
+        && (merged.size() < limit
+            || FeedEntry.ORDER.compare(merged.get(merged.size() - 1), floor) > 0)) {
+      databasePages.increment();
+      return toEntries(postRepository.findAuthorsTimeline(following, after, limit));
+    }
+    memoryPages.increment();
+    return merged;
+  }
+
+  private boolean isCelebrity(String authorId) {
+    return followGraph.followerCount(authorId) >= celebrityFollowerThreshold;
+  }
+
+  private TimelineBuffer hotTimeline(String userId, List<String> ordinaryAuthors) {
+    TimelineBuffer timeline = hotTimelines.get(userId);
+    if (timeline == null) {
+      timeline =
+          load(
+              hotTimelines,
+              userId,
+              () -> postRepository.findAuthorsTimeline(ordinaryAuthors, null, timelineCapacity));
+    }
+    return timeline;
+  }
+
+  private TimelineBuffer celebrityTimeline(String authorId) {
+    TimelineBuffer timeline = celebrityTimelines.get(authorId);
+    if (timeline == null) {
+      timeline =
+          load(
+              celebrityTimelines,
+              authorId,
+              () -> postRepository.findAuthorTimeline(authorId, null, timelineCapacity));
+    }
+    return timeline;
+  }
+
+  /**
+   * Loads a timeline into the cache. The empty buffer is cached before the query runs, so posts
+   * delivered while it runs land in the buffer instead of being dropped.
+   */
+  private TimelineBuffer load(
+      BoundedLruCache<String, TimelineBuffer> cache,
+      String key,
+      Supplier<List<PostSummary>> query) {
+    TimelineBuffer timeline = new TimelineBuffer(timelineCapacity);
+    cache.put(key, timeline);
+    List<PostSummary> posts;
+    try {
+      posts = query.get();
+    } catch (RuntimeException e) {
+      cache.remove(key);
+      throw e;
+    }
+    timeline.load(toEntries(posts), posts.size() < timelineCapacity);
+    return timeline;
+  }
+
+  private static List<FeedEntry> toEntries(List<PostSummary> posts) {
+    return posts.stream()
+        .map(post -> new FeedEntry(post.id(), post.authorId(), post.publishedAt().toEpochMilli()))
+        .toList();
+  }
+
+  /** Loads the post cards and their authors with one batched query each. */
+  private List<FeedItemDto> toItems(List<FeedEntry> entries) {
+    if (entries.isEmpty()) {
+      return List.of();
+    }
+    Map<String, PostSummary> posts = new HashMap<>();
+    for (PostSummary post :
+        postRepository.findSummariesById(entries.stream().map(FeedEntry::postId).toList())) {
+      posts.put(post.id(), post);
+    }
+    Set<String> authorIds = new LinkedHashSet<>();
+    entries.forEach(entry -> authorIds.add(entry.authorId()));
+    Map<String, BlogUser> authors = blogUserService.findAllById(authorIds);
+
+    List<FeedItemDto> items = new ArrayList<>(entries.size());
+    for (FeedEntry entry : entries) {
+      PostSummary post = posts.get(entry.postId());
+      BlogUser author = authors.get(entry.authorId());
+      if (post != null && author != null) {
+        items.add(new FeedItemDto(clapService.withCurrentClaps(post), AuthorCardDto.from(author)));
+      }
+    }
+    return items;
+  }
+}
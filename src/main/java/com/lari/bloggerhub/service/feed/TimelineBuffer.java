@@ -0,0 +1,230 @@
+package com.lari.bloggerhub.service.feed;
+
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.bson.types.ObjectId;
+
+/**
+ * This class holds the newest entries of a timeline in memory, capped at a fixed capacity.
+ *
+ * <p>Entries are kept sorted in feed order in parallel primitive arrays, with post and author IDs
+ * as their 12 ObjectId bytes, so an entry costs 32 bytes instead of three objects and two strings.
+ * The arrays grow on demand up to the capacity; once full, adding an entry drops the oldest one.
+ *
+ * <p>A buffer is <em>complete</em> while it holds every entry of its source. After the first entry
+ * was dropped, or when it was loaded from a truncated query, pages that run past its oldest entry
+ * report that entry as their floor: anything older has to be read from the database.
+ *
+ * <p>A buffer can be shared before its source has been read, so that entries added while the source
+ * is queried are not lost. Such a buffer is <em>loading</em> until {@link #load} merges the rows
+ * of the source into it; its pages must not be used meanwhile.
+ */
+public final class TimelineBuffer {
+
+  private static final int ID_BYTES = 12;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int capacity;
+  private long[] publishedAt;
+  private byte[] postIds;
+  private byte[] authorIds;
+  private int size;
+  private boolean complete;
+  private boolean loading;
+
+  /**
+   * Represents a page read from a buffer.
+   *
+   * @param entries the entries of the page in feed order
+   * @param floor the oldest entry the buffer knows about if the page ran past it and older entries
+   *     may exist, or null
+   */
+  public record Page(List<FeedEntry> entries, FeedEntry floor) {}
+
+  /**
+   * Constructs a new buffer.
+   *
+   * @param capacity the maximum number of entries
+   * @param initial the initial entries, in any order
+   * @param complete whether the initial entries are all entries of the source
+   */
+  public TimelineBuffer(int capacity, List<FeedEntry> initial, boolean complete) {
+    this.capacity = capacity;
+    int length = Math.min(capacity, Math.max(INITIAL_CAPACITY, initial.size()));
+    this.publishedAt = new long[length];
+    this.postIds = new byte[length * ID_BYTES];
+    this.authorIds = new byte[length * ID_BYTES];
+    this.complete = complete;
+    for (FeedEntry entry : initial) {
+      add(entry);
+    }
+  }
+
+  /**
+   * Constructs a new loading buffer, which collects added entries until {@link #load} is called.
+   *
+   * @param capacity the maximum number of entries
+   */
+  public TimelineBuffer(int capacity) {
+    this(capacity, List.of(), true);
+    this.loading = true;
+  }
+
+  /**
+   * Merges the entries read from the source into a loading buffer, after the entries added
+   * meanwhile.
+   *
+   * @param entries the entries of the source, in any order
+   * @param complete whether the entries are all entries of the source
+   */
+  public synchronized void load(List<FeedEntry> entries, boolean complete) {
+    for (FeedEntry entry : entries) {
+      add(entry);
+    }
+    this.complete &= complete;
+    loading = false;
+  }
+
+  /**
+   * Returns whether the source of the buffer is still being read.
+   *
+   * @return true until {@link #load} has been called on a loading buffer
+   */
+  public synchronized boolean isLoading() {
+    return loading;
+  }
+
+  /**
+   * Adds an entry at its position in feed order. Adding an entry that is already present has no
+   * effect.
+   *
+   * @param entry the entry
+   * @return true if the entry was added
+   */
+  public synchronized boolean add(FeedEntry entry) {
+    byte[] postId = new ObjectId(entry.postId()).toByteArray();
+    int position = search(entry.publishedAt(), postId);
+    if (position >= 0) {
+      return false;
+    }
+    position = -position - 1;
+    if (position == capacity) {
+      complete = false;
+      return false;
+    }
+    if (size == capacity) {
+      size--;
+      complete = false;
+    } else if (size == publishedAt.length) {
+      grow();
+    }
+    System.arraycopy(publishedAt, position, publishedAt, position + 1, size - position);
+    System.arraycopy(
+        postIds,
+        position * ID_BYTES,
+        postIds,
+        (position + 1) * ID_BYTES,
+        (size - position) * ID_BYTES);
+    System.arraycopy(
+        authorIds,
+        position * ID_BYTES,
+        authorIds,
+        (position + 1) * ID_BYTES,
+        (size - position) * ID_BYTES);
+    publishedAt[position] = entry.publishedAt();
+    System.arraycopy(postId, 0, postIds, position * ID_BYTES, ID_BYTES);
+    System.arraycopy(
+        new ObjectId(entry.authorId()).toByteArray(), 0, authorIds, position * ID_BYTES, ID_BYTES);
+    size++;
+    return true;
+  }
+
+  /**
+   * Reads the entries after a cursor.
+   *
+   * @param after the cursor, or null for the newest entries
+   * @param limit the maximum number of entries
+   * @return the page
+   */
+  public synchronized Page page(KeysetCursor after, int limit) {
+    int start = 0;
+    if (after != null) {
+      int position =
+          search(after.publishedAt().toEpochMilli(), new ObjectId(after.id()).toByteArray());
+      start = position >= 0 ? position + 1 : -position - 1;
+    }
+    int end = Math.min(size, start + limit);
+    List<FeedEntry> entries = new ArrayList<>(end - start);
+    for (int i = start; i < end; i++) {
+      entries.add(entryAt(i));
+    }
+    boolean exhausted = end - start < limit;
+    return new Page(entries, exhausted && !complete && size > 0 ? entryAt(size - 1) : null);
+  }
+
+  /**
+   * Returns the number of entries in the buffer.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes allocated for the entries.
+   *
+   * @return the size of the arrays in bytes
+   */
+  public synchronized long sizeInBytes() {
+    return (long) publishedAt.length * (Long.BYTES + 2 * ID_BYTES);
+  }
+
+  private FeedEntry entryAt(int index) {
+    return new FeedEntry(
+        new ObjectId(ByteBuffer.wrap(postIds, index * ID_BYTES, ID_BYTES)).toHexString(),
+        new ObjectId(ByteBuffer.wrap(authorIds, index * ID_BYTES, ID_BYTES)).toHexString(),
+        publishedAt[index]);
+  }
+
+  /**
+   * Binary search in feed order: newest first, then descending post ID.
+   *
+   * @return the index of the entry, or {@code -(insertion point) - 1} if absent
+   */
+  private int search(long time, byte[] postId) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareAt(mid, time, postId);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /** Compares the entry at the index with the key in feed order. */
+  private int compareAt(int index, long time, byte[] postId) {
+    if (publishedAt[index] != time) {
+      return publishedAt[index] > time ? -1 : 1;
+    }
+    return -Arrays.compareUnsigned(
+        postIds, index * ID_BYTES, (index + 1) * ID_BYTES, postId, 0, ID_BYTES);
+  }
+
+  private void grow() {
+    int length = Math.min(capacity, publishedAt.length * 2);
+    publishedAt = Arrays.copyOf(publishedAt, length);
+    postIds = Arrays.copyOf(postIds, length * ID_BYTES);
+    authorIds = Arrays.copyOf(authorIds, length * ID_BYTES);
+  }
+}
@@ -0,0 +1,80 @@
+package com.lari.bloggerhub.service.follow;
+
+import java.util.List;
+
+/**
+ * This interface provides the follow relationships between users of the Blogger Hub application.
+ *
+ * <p>Lookups of unknown or malformed user IDs behave like lookups of users without relationships.
+ */
+public interface FollowGraph {
+
+  /**
+   * Makes a user follow another user.
+   *
+   * @param followerId the ID of the following user
+   * @param followeeId the ID of the followed user
+   * @return true if the relationship was created, false if it already existed
+   */
+  boolean follow(String followerId, String followeeId);
+
+  /**
+   * Removes the relationship between two users.
+   *
+   * @param followerId the ID of the following user
+   * @param followeeId the ID of the followed user
+   * @return true if the relationship was removed, false if it did not exist
+   */
+  boolean unfollow(String followerId, String followeeId);
+
+  /**
+   * Returns the users that follow a user.
+   *
+   * @param userId the ID of the user
+   * @return the IDs of the followers
+   */
+  List<String> followers(String userId);
+
+  /**
+   * Returns the users a user follows.
+   *
+   * @param userId the ID of the user
+   * @return the IDs of the followed users
+   */
+  List<String> following(String userId);
+
+  /**
+   * Returns the number of users that follow a user.
+   *
+   * @param userId the ID of the user
+   * @return the number of followers
+   */
+  long followerCount(String userId);
+
+  /**
+   * Returns the number of users a user follows.
+   *
+   * @param userId the ID of the user
+   * @return the number of followed users
+   */
+  long followingCount(String userId);
+
+  /**
+   * Checks whether a user follows another user.
+   *
+   * @param followerId the ID of the possibly following user
+   * @param followeeId the ID of the possibly followed user
+   * @return true if the relationship exists
+   */
+  boolean isFollowing(String followerId, String followeeId);
+
+  /**
+   * Returns a page of the users that follow a user and are followed back by them, in ID order.
+   *
+   * @param userId the ID of the user
+   * @param after the ID of the last mutual follower of the previous page, or null
+   * @param limit the maximum number of IDs
+   * @return the IDs of the mutual followers after the given one
+   */
+  List<String> mutuals(String userId, String after, int limit);
+}
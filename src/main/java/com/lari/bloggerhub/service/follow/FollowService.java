@@ -0,0 +1,157 @@
+package com.lari.bloggerhub.service.follow;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.dto.response.AuthorCardDto;
+import com.lari.bloggerhub.dto.response.FollowStatsDto;
+import com.lari.bloggerhub.dto.response.MutualsPageDto;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.response.SuccessResponse;
+import com.lari.bloggerhub.service.BlogUserService;
+import com.lari.bloggerhub.service.feed.HomeFeedService;
+import com.lari.bloggerhub.service.notification.NotificationService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides service methods for following and unfollowing users in the Blogger Hub
+ * application.
+ */
+@Service
+public class FollowService {
+
+  private final FollowGraph followGraph;
+  private final BlogUserService blogUserService;
+  private final HomeFeedService homeFeedService;
+  private final NotificationService notificationService;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+
+  /**
+   * Constructs a new instance of the {@link FollowService} class with the specified dependencies.
+   *
+   * @param followGraph the follow relationships
+   * @param blogUserService the service class for managing user-related operations
+   * @param homeFeedService the service whose timelines depend on the relationships
+   * @param notificationService the service notifying users of new followers
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public FollowService(
+      FollowGraph followGraph,
+      BlogUserService blogUserService,
+      HomeFeedService homeFeedService,
+      NotificationService notificationService,
+      @Value("${bloggerhub.follow.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.follow.max-page-size}") int maxPageSize) {
+    this.followGraph = followGraph;
+    this.blogUserService = blogUserService;
+    this.homeFeedService = homeFeedService;
+    this.notificationService = notificationService;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+  }
+
+  /**
+   * Makes the authenticated user follow another user.
+   *
+   * @param user the authenticated user
+   * @param followeeId the ID of the user to follow
+   * @return a response entity indicating the outcome
+   */
+  public ResponseEntity<Response> follow(BlogUser user, String followeeId) {
+    if (user.getId().equals(followeeId)) {
+      return error(HttpStatus.BAD_REQUEST, "You cannot follow yourself.");
+    }
+    if (!ObjectId.isValid(followeeId)
+        || !blogUserService.findAllById(List.of(followeeId)).containsKey(followeeId)) {
+      return error(HttpStatus.NOT_FOUND, "User not found.");
+    }
+    if (followGraph.follow(user.getId(), followeeId)) {
+      homeFeedService.evict(user.getId());
+      notificationService.notifyFollow(user.getId(), followeeId);
+    }
+    return ResponseEntity.ok(new SuccessResponse(true, HttpStatus.OK.value(), "Followed."));
+  }
+
+  /**
+   * Makes the authenticated user stop following another user.
+   *
+   * @param user the authenticated user
+   * @param followeeId the ID of the user to unfollow
+   * @return a response entity indicating the outcome
+   */
+  public ResponseEntity<Response> unfollow(BlogUser user, String followeeId) {
+    if (ObjectId.isValid(followeeId) && followGraph.unfollow(user.getId(), followeeId)) {
+      homeFeedService.evict(user.getId());
+    }
+    return ResponseEntity.ok(new SuccessResponse(true, HttpStatus.OK.value(), "Unfollowed."));
+  }
+
+  /**
+   * Returns the follower and following counts of a user, and how they relate to the requesting
+   * user.
+   *
+   * @param userId the ID of the user
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @return a response entity containing the follow stats
+   */
+  public ResponseEntity<Response> getFollowStats(String userId, BlogUser viewer) {
+    FollowStatsDto stats =
+        new FollowStatsDto(
+            followGraph.followerCount(userId), followGraph.followingCount(userId), null, null);
+    if (viewer != null && !viewer.getId().equals(userId)) {
+      stats.setFollowedByYou(followGraph.isFollowing(viewer.getId(), userId));
+      stats.setFollowsYou(followGraph.isFollowing(userId, viewer.getId()));
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Follow stats found.", stats));
+  }
+
+  /**
+   * Returns a page of the users that follow a user and are followed back by them, in ID order.
+   *
+   * @param userId the ID of the user
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getMutuals(String userId, String cursor, Integer limit) {
+    if (cursor != null && !ObjectId.isValid(cursor)) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    // Fetch one extra ID to learn whether there is a next page.
+    List<String> mutuals =
+        followGraph.mutuals(userId, cursor == null ? null : cursor.toLowerCase(), pageSize + 1);
+    String nextCursor = null;
+    if (mutuals.size() > pageSize) {
+      mutuals = mutuals.subList(0, pageSize);
+      nextCursor = mutuals.get(pageSize - 1);
+    }
+    Map<String, BlogUser> users = blogUserService.findAllById(mutuals);
+    List<AuthorCardDto> cards = new ArrayList<>(mutuals.size());
+    for (String id : mutuals) {
+      BlogUser mutual = users.get(id);
+      if (mutual != null) {
+        cards.add(AuthorCardDto.from(mutual));
+      }
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true, HttpStatus.OK.value(), "Records found.", new MutualsPageDto(cards, nextCursor)));
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,25 @@
+package com.lari.bloggerhub.service.follow;
+
+import com.lari.bloggerhub.service.autocomplete.UsernamePopularity;
+import org.springframework.stereotype.Component;
+
+/** This class ranks usernames in autocomplete results by the follower count of the user. */
+@Component
+public class FollowerCountPopularity implements UsernamePopularity {
+
+  private final FollowGraph followGraph;
+
+  /**
+   * Constructs a new instance of the {@link FollowerCountPopularity} class.
+   *
+   * @param followGraph the follow relationships
+   */
+  public FollowerCountPopularity(FollowGraph followGraph) {
+    this.followGraph = followGraph;
+  }
+
+  @Override
+  public int popularity(String userId) {
+    return (int) Math.min(Integer.MAX_VALUE, followGraph.followerCount(userId));
+  }
+}
@@ -0,0 +1,385 @@
+package com.lari.bloggerhub.service.follow;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.document.FollowAction;
+import com.lari.bloggerhub.document.FollowEdge;
+import com.lari.bloggerhub.repository.FollowEdgeRepository;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.graph.ObjectIdIndex;
+import com.lari.bloggerhub.util.graph.SortedIntAdjacency;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class implements the {@link FollowGraph} in memory, backed by the append-only log of {@link
+ * FollowEdge}s in MongoDB.
+ *
+ * <p>User IDs are mapped to dense ints by an {@link ObjectIdIndex}, and the relationships are kept
+ * twice, as sorted {@code int[]} adjacency lists of followed users and of followers. "Does A follow
+ * B" is a binary search, counts are array lengths, and mutual followers are a merge of two sorted
+ * lists; none of these allocate.
+ *
+ * <p>The state of a relationship is its latest edge in ID order. A change first reads that edge;
+ * if it already records the requested state nothing is appended, otherwise the new edge is. Both
+ * steps run under a lock striped by relationship, so the changes of one relationship made on this
+ * node are logged in the order they were made. The changed relationship is then published on the
+ * {@link InvalidationBus}, and every node, this one included, reads its latest edge again and sets
+ * it in memory. Reloading is idempotent and independent of the order invalidations arrive in, so
+ * the graphs of all nodes converge on the log.
+ *
+ * <p>After startup the graph is rebuilt in the background by replaying the log in ID order;
+ * relationships changed during the replay are reloaded on top once it completes. A failed rebuild
+ * is retried on schedule, and the graph is rebuilt whenever invalidations may have been missed.
+ */
+@Service
+public class InMemoryFollowGraph implements FollowGraph {
+
+  private static final Logger log = LoggerFactory.getLogger(InMemoryFollowGraph.class);
+  private static final int PAIR_LOCKS = 64;
+
+  private final FollowEdgeRepository followEdgeRepository;
+  private final MongoTemplate mongoTemplate;
+  private final int expectedUsers;
+  private final InvalidationBus invalidationBus;
+  private final StampedLock lock = new StampedLock();
+  // Held while reading and appending edges, which a monitor would pin to a virtual thread carrier.
+  private final ReentrantLock[] pairLocks = new ReentrantLock[PAIR_LOCKS];
+
+  private Graph graph;
+  private Set<String> changedDuringRebuild;
+  private boolean rebuildRequested;
+  private volatile boolean ready;
+
+  private record Graph(
+      ObjectIdIndex ids, SortedIntAdjacency following, SortedIntAdjacency followers) {
+
+    static Graph create(int expectedUsers) {
+      return new Graph(
+          new ObjectIdIndex(expectedUsers),
+          new SortedIntAdjacency(expectedUsers),
+          new SortedIntAdjacency(expectedUsers));
+    }
+
+    boolean apply(String followerId, String followeeId, FollowAction action) {
+      int follower = ids.getOrAdd(followerId);
+      int followee = ids.getOrAdd(followeeId);
+      if (action == FollowAction.FOLLOW) {
+        followers.add(followee, follower);
+        return following.add(follower, followee);
+      }
+      followers.remove(followee, follower);
+      return following.remove(follower, followee);
+    }
+
+    List<String> toObjectIds(int[] nodes, int count) {
+      List<String> objectIds = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        objectIds.add(ids.objectId(nodes[i]));
+      }
+      return objectIds;
+    }
+
+    long sizeInBytes() {
+      return ids.sizeInBytes() + following.sizeInBytes() + followers.sizeInBytes();
+    }
+  }
+
+  /**
+   * Constructs a new instance of the {@link InMemoryFollowGraph} class with the specified
+   * dependencies.
+   *
+   * @param followEdgeRepository the repository the edges are appended to
+   * @param mongoTemplate the template used to stream the edge log
+   * @param meterRegistry the registry for the graph metrics
+   * @param invalidationBus the bus that announces relationships changed on any node
+   * @param expectedUsers the number of users to size the graph for
+   */
+  public InMemoryFollowGraph(
+      FollowEdgeRepository followEdgeRepository,
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.follow-graph.expected-users}") int expectedUsers) {
+    this.followEdgeRepository = followEdgeRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.invalidationBus = invalidationBus;
+    this.expectedUsers = expectedUsers;
+    this.graph = Graph.create(16);
+    for (int i = 0; i < PAIR_LOCKS; i++) {
+      pairLocks[i] = new ReentrantLock();
+    }
+    Gauge.builder("bloggerhub.follow_graph.users", this, g -> g.read(Graph::ids).size())
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.follow_graph.edges", this, g -> g.read(Graph::following).edgeCount())
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.follow_graph.bytes", this, g -> g.read(Graph::sizeInBytes))
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    invalidationBus.subscribe(
+        CacheRegion.FOLLOW_GRAPH,
+        this::reload,
+        () -> Thread.ofVirtual().name("follow-graph-rebuild").start(this::rebuild));
+  }
+
+  /** Rebuilds the graph from the edge log. Runs in the background after startup. */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Graph next = Graph.create(expectedUsers);
+    long stamp = lock.writeLock();
+    try {
+      if (changedDuringRebuild != null) {
+        // Another rebuild is running, it starts over once it completes.
+        rebuildRequested = true;
+        return;
+      }
+      changedDuringRebuild = new LinkedHashSet<>();
+      rebuildRequested = false;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+
+    Query query = new Query().with(Sort.by("id"));
+    query.fields().include("followerId", "followeeId", "action");
+    long start = System.nanoTime();
+    boolean again;
+    try {
+      try (Stream<Document> edges = mongoTemplate.stream(query, Document.class, "follow_edge")) {
+        edges.forEach(
+            edge ->
+                next.apply(
+                    edge.getObjectId("followerId").toHexString(),
+                    edge.getObjectId("followeeId").toHexString(),
+                    FollowAction.valueOf(edge.getString("action"))));
+      }
+      while (true) {
+        List<String> changed;
+        stamp = lock.writeLock();
+        try {
+          if (changedDuringRebuild.isEmpty()) {
+            changedDuringRebuild = null;
+            graph = next;
+            ready = true;
+            again = rebuildRequested;
+            break;
+          }
+          changed = List.copyOf(changedDuringRebuild);
+          changedDuringRebuild.clear();
+        } finally {
+          lock.unlockWrite(stamp);
+        }
+        for (String pair : changed) {
+          FollowEdge latest = latestEdge(followerOf(pair), followeeOf(pair));
+          next.apply(followerOf(pair), followeeOf(pair), stateOf(latest));
+        }
+      }
+    } catch (RuntimeException e) {
+      stamp = lock.writeLock();
+      changedDuringRebuild = null;
+      lock.unlockWrite(stamp);
+      log.warn("Could not rebuild the follow graph, retrying", e);
+      return;
+    }
+    log.info(
+        "Rebuilt follow graph of {} users and {} relationships in {} ms ({} bytes)",
+        next.ids().size(),
+        next.following().edgeCount(),
+        (System.nanoTime() - start) / 1_000_000,
+        next.sizeInBytes());
+    if (again) {
+      rebuild();
+    }
+  }
+
+  /** Restarts the rebuild while none has succeeded yet, without blocking the scheduler. */
+  @Scheduled(
+      fixedDelayString = "${bloggerhub.follow-graph.retry-interval}",
+      initialDelayString = "${bloggerhub.follow-graph.retry-interval}")
+  public void retryRebuild() {
+    if (!ready) {
+      Thread.ofVirtual().name("follow-graph-rebuild").start(this::rebuild);
+    }
+  }
+
+  @Override
+  public boolean follow(String followerId, String followeeId) {
+    return change(followerId, followeeId, FollowAction.FOLLOW);
+  }
+
+  @Override
+  public boolean unfollow(String followerId, String followeeId) {
+    return change(followerId, followeeId, FollowAction.UNFOLLOW);
+  }
+
+  @Override
+  public List<String> followers(String userId) {
+    return neighbours(userId, false);
+  }
+
+  @Override
+  public List<String> following(String userId) {
+    return neighbours(userId, true);
+  }
+
+  @Override
+  public long followerCount(String userId) {
+    long stamp = lock.readLock();
+    try {
+      int node = graph.ids().get(userId);
+      return node < 0 ? 0 : graph.followers().degree(node);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public long followingCount(String userId) {
+    long stamp = lock.readLock();
+    try {
+      int node = graph.ids().get(userId);
+      return node < 0 ? 0 : graph.following().degree(node);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public boolean isFollowing(String followerId, String followeeId) {
+    long stamp = lock.readLock();
+    try {
+      int follower = graph.ids().get(followerId);
+      int followee = graph.ids().get(followeeId);
+      return follower >= 0 && followee >= 0 && graph.following().contains(follower, followee);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public List<String> mutuals(String userId, String after, int limit) {
+    List<String> mutuals;
+    long stamp = lock.readLock();
+    try {
+      int node = graph.ids().get(userId);
+      if (node < 0) {
+        return List.of();
+      }
+      int[] out =
+          new int[Math.min(graph.following().degree(node), graph.followers().degree(node))];
+      int count = graph.following().intersect(node, graph.followers(), node, out);
+      mutuals = graph.toObjectIds(out, count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    // Dense ints are assigned per node, so pages follow the ObjectId order every node agrees on.
+    return mutuals.stream()
+        .filter(id -> after == null || id.compareTo(after) > 0)
+        .sorted()
+        .limit(limit)
+        .toList();
+  }
+
+  private boolean change(String followerId, String followeeId, FollowAction action) {
+    if (!ObjectId.isValid(followerId) || !ObjectId.isValid(followeeId)) {
+      return false;
+    }
+    String pair = pair(followerId, followeeId);
+    ReentrantLock pairLock = pairLocks[Math.floorMod(pair.hashCode(), PAIR_LOCKS)];
+    pairLock.lock();
+    try {
+      if (stateOf(latestEdge(followerId, followeeId)) == action) {
+        return false;
+      }
+      followEdgeRepository.save(new FollowEdge(followerId, followeeId, action));
+    } finally {
+      pairLock.unlock();
+    }
+    invalidationBus.publish(CacheRegion.FOLLOW_GRAPH, pair);
+    return true;
+  }
+
+  /** Sets a relationship changed on any node to the state of its latest edge. */
+  private void reload(String pair) {
+    String followerId = followerOf(pair);
+    String followeeId = followeeOf(pair);
+    FollowAction state = stateOf(latestEdge(followerId, followeeId));
+    long stamp = lock.writeLock();
+    try {
+      if (changedDuringRebuild != null) {
+        changedDuringRebuild.add(pair);
+      }
+      graph.apply(followerId, followeeId, state);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private FollowEdge latestEdge(String followerId, String followeeId) {
+    return followEdgeRepository
+        .findFirstByFollowerIdAndFolloweeIdOrderByIdDesc(followerId, followeeId)
+        .orElse(null);
+  }
+
+  private static FollowAction stateOf(FollowEdge latest) {
+    return latest == null ? FollowAction.UNFOLLOW : latest.getAction();
+  }
+
+  /** Returns the invalidation key of a relationship. */
+  private static String pair(String followerId, String followeeId) {
+    return followerId + ":" + followeeId;
+  }
+
+  private static String followerOf(String pair) {
+    return pair.substring(0, pair.indexOf(':'));
+  }
+
+  private static String followeeOf(String pair) {
+    return pair.substring(pair.indexOf(':') + 1);
+  }
+
+  private List<String> neighbours(String userId, boolean following) {
+    long stamp = lock.readLock();
+    try {
+      int node = graph.ids().get(userId);
+      if (node < 0) {
+        return List.of();
+      }
+      SortedIntAdjacency adjacency = following ? graph.following() : graph.followers();
+      int[] out = new int[adjacency.degree(node)];
+      int count = adjacency.neighbours(node, out);
+      return graph.toObjectIds(out, count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private <T> T read(Function<Graph, T> reader) {
+    long stamp = lock.readLock();
+    try {
+      return reader.apply(graph);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import java.util.function.Consumer;
+
+/**
+ * This interface provides the broadcast of cache invalidations between the nodes of the Blogger
+ * Hub application.
+ *
+ * <p>Services that keep an in-process cache subscribe to its {@link CacheRegion}, and code that
+ * changes the cached data publishes the affected keys instead of evicting them directly. A
+ * published key is evicted on the publishing node before {@link #publish} returns, and on every
+ * other node shortly after.
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+  /**
+   * Invalidates a key of a cache on every node.
+   *
+   * @param region the cache the key belongs to
+   * @param key the invalidated key
+   */
+  void publish(CacheRegion region, String key);
+
+  /**
+   * Registers the eviction callbacks of a cache.
+   *
+   * @param region the cache
+   * @param invalidate evicts one key
+   * @param invalidateAll evicts every key, used when invalidations may have been missed
+   */
+  void subscribe(CacheRegion region, Consumer<String> invalidate, Runnable invalidateAll);
+
+  /** Stops the bus. Invalidations published afterwards are only applied locally. */
+  @Override
+  default void close() {}
+}
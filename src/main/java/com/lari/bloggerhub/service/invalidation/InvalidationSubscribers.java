@@ -0,0 +1,74 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class holds the eviction callbacks subscribed to an {@link InvalidationBus}.
+ *
+ * <p>Some callbacks reload the invalidated entry from MongoDB. A failing callback is logged and
+ * does not keep the others from running, nor fail the save that published the invalidation.
+ */
+final class InvalidationSubscribers {
+
+  private static final Logger log = LoggerFactory.getLogger(InvalidationSubscribers.class);
+
+  private record Subscriber(Consumer<String> invalidate, Runnable invalidateAll) {}
+
+  private final Map<CacheRegion, List<Subscriber>> subscribers = new EnumMap<>(CacheRegion.class);
+
+  InvalidationSubscribers() {
+    for (CacheRegion region : CacheRegion.values()) {
+      subscribers.put(region, new CopyOnWriteArrayList<>());
+    }
+  }
+
+  void add(CacheRegion region, Consumer<String> invalidate, Runnable invalidateAll) {
+    subscribers.get(region).add(new Subscriber(invalidate, invalidateAll));
+  }
+
+  void invalidate(CacheRegion region, String key) {
+    for (Subscriber subscriber : subscribers.get(region)) {
+      invalidate(region, subscriber, key);
+    }
+  }
+
+  void invalidate(CacheRegion region, Collection<String> keys) {
+    for (Subscriber subscriber : subscribers.get(region)) {
+      for (String key : keys) {
+        invalidate(region, subscriber, key);
+      }
+    }
+  }
+
+  void invalidateAll(CacheRegion region) {
+    for (Subscriber subscriber : subscribers.get(region)) {
+      try {
+        subscriber.invalidateAll().run();
+      } catch (RuntimeException e) {
+        log.warn("Could not invalidate the {} cache", region, e);
+      }
+    }
+  }
+
+  void invalidateAll() {
+    for (CacheRegion region : CacheRegion.values()) {
+      invalidateAll(region);
+    }
+  }
+
+  private static void invalidate(CacheRegion region, Subscriber subscriber, String key) {
+    try {
+      subscriber.invalidate().accept(key);
+    } catch (RuntimeException e) {
+      log.warn("Could not invalidate {} in the {} cache", key, region, e);
+    }
+  }
+}
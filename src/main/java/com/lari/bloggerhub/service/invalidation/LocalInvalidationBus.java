@@ -0,0 +1,24 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the {@link InvalidationBus} for a single node: published keys are evicted
+ * from the local caches and nowhere else. It stands in for the {@link MongoInvalidationBus} in
+ * tests and single-instance deployments.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+  private final InvalidationSubscribers subscribers = new InvalidationSubscribers();
+
+  @Override
+  public void publish(CacheRegion region, String key) {
+    subscribers.invalidate(region, key);
+  }
+
+  @Override
+  public void subscribe(CacheRegion region, Consumer<String> invalidate, Runnable invalidateAll) {
+    subscribers.add(region, invalidate, invalidateAll);
+  }
+}
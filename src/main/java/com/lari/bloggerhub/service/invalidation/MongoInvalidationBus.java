@@ -0,0 +1,333 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import com.lari.bloggerhub.document.CacheInvalidation;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * This class implements the {@link InvalidationBus} over a capped MongoDB collection, so the nodes
+ * of the Blogger Hub application need no broker besides the database they already share.
+ *
+ * <p>Published keys are evicted locally right away and queued. A publisher thread drains the queue
+ * and writes one {@link CacheInvalidation} per cache region and batch, so a burst of invalidations
+ * costs one insert. A tailer thread follows the collection with a tailable await cursor, which the
+ * server wakes up as soon as a document is appended, and applies the invalidations of the other
+ * nodes to the local caches.
+ *
+ * <p>When the cursor is lost, tailing resumes from the last invalidation seen, with a small overlap
+ * to cover writes that were in flight; invalidations are idempotent, so applying one twice is
+ * harmless. A restarted node starts with empty caches and resumes from its start time minus the
+ * same overlap. If the last invalidation seen has been overwritten since, the capped collection
+ * wrapped around while the node was not tailing, and every local cache is cleared. If the queue
+ * overflows, the next batch invalidates every region on the other nodes instead of dropping keys.
+ */
+public class MongoInvalidationBus implements InvalidationBus {
+
+  private static final Logger log = LoggerFactory.getLogger(MongoInvalidationBus.class);
+
+  private final MongoTemplate mongoTemplate;
+  private final InvalidationSubscribers subscribers = new InvalidationSubscribers();
+  private final String origin = new ObjectId().toHexString();
+  private final Instant startedAt = Instant.now();
+  private final long collectionSize;
+  private final int maxBatchSize;
+  private final Duration maxAwait;
+  private final Duration retryInterval;
+  private final Duration overlap;
+  private final BlockingQueue<Invalidation> queue;
+  private final AtomicBoolean overflowed = new AtomicBoolean();
+  private final Thread publisher;
+  private final Thread tailer;
+  private final Counter published;
+  private final Counter batches;
+  private final Counter received;
+  private final Counter overflows;
+  private final Counter resets;
+
+  private volatile boolean running = true;
+  private boolean collectionReady;
+  private String lastSeenId;
+
+  /** A key queued for publishing. */
+  record Invalidation(CacheRegion region, String key) {}
+
+  /**
+   * Constructs a new instance of the {@link MongoInvalidationBus} class with the specified
+   * dependencies. The bus starts working once {@link #start()} is called.
+   *
+   * @param mongoTemplate the template used to read and write the invalidations
+   * @param meterRegistry the registry for the invalidation metrics
+   * @param collectionSize the size of the capped collection, in bytes
+   * @param maxBatchSize the maximum number of keys written by one insert
+   * @param queueCapacity the number of keys that may wait for the publisher
+   * @param maxAwait how long the tailable cursor waits for new invalidations per request
+   * @param retryInterval how long to wait before retrying after the database failed
+   * @param overlap how far before the last invalidation seen tailing resumes
+   */
+  public MongoInvalidationBus(
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      long collectionSize,
+      int maxBatchSize,
+      int queueCapacity,
+      Duration maxAwait,
+      Duration retryInterval,
+      Duration overlap) {
+    this.mongoTemplate = mongoTemplate;
+    this.collectionSize = collectionSize;
+    this.maxBatchSize = maxBatchSize;
+    this.maxAwait = maxAwait;
+    this.retryInterval = retryInterval;
+    this.overlap = overlap;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.publisher =
+        Thread.ofPlatform().name("invalidation-publisher").daemon().unstarted(this::publishLoop);
+    this.tailer =
+        Thread.ofPlatform().name("invalidation-tailer").daemon().unstarted(this::tailLoop);
+
+    published = Counter.builder("bloggerhub.invalidation.published").register(meterRegistry);
+    batches = Counter.builder("bloggerhub.invalidation.batches").register(meterRegistry);
+    received = Counter.builder("bloggerhub.invalidation.received").register(meterRegistry);
+    overflows = Counter.builder("bloggerhub.invalidation.overflows").register(meterRegistry);
+    resets = Counter.builder("bloggerhub.invalidation.resets").register(meterRegistry);
+    Gauge.builder("bloggerhub.invalidation.pending", queue, BlockingQueue::size)
+        .register(meterRegistry);
+  }
+
+  /** Starts the publisher and the tailer. Neither blocks startup on the database. */
+  public void start() {
+    publisher.start();
+    tailer.start();
+  }
+
+  @Override
+  public void publish(CacheRegion region, String key) {
+    subscribers.invalidate(region, key);
+    published.increment();
+    if (!queue.offer(new Invalidation(region, key))) {
+      overflows.increment();
+      if (overflowed.compareAndSet(false, true)) {
+        log.warn("The invalidation queue is full, the other nodes will clear their caches");
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(CacheRegion region, Consumer<String> invalidate, Runnable invalidateAll) {
+    subscribers.add(region, invalidate, invalidateAll);
+  }
+
+  /** Stops tailing and writes the invalidations still queued, waiting for the publisher briefly. */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      publisher.join(maxAwait.plus(retryInterval).toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Groups queued invalidations into one document per cache region, without duplicate keys.
+   *
+   * @param origin the ID of the publishing process
+   * @param invalidations the invalidations in publishing order
+   * @return the documents to write
+   */
+  static List<CacheInvalidation> batch(String origin, List<Invalidation> invalidations) {
+    Map<CacheRegion, Set<String>> keys = new LinkedHashMap<>();
+    for (Invalidation invalidation : invalidations) {
+      keys.computeIfAbsent(invalidation.region(), r -> new LinkedHashSet<>())
+          .add(invalidation.key());
+    }
+    List<CacheInvalidation> batch = new ArrayList<>(keys.size());
+    keys.forEach(
+        (region, regionKeys) ->
+            batch.add(new CacheInvalidation(origin, region, List.copyOf(regionKeys), false)));
+    return batch;
+  }
+
+  private void publishLoop() {
+    List<Invalidation> drained = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        // Once stopped, only the invalidations still queued are written.
+        Invalidation first =
+            running ? queue.poll(maxAwait.toMillis(), TimeUnit.MILLISECONDS) : queue.poll();
+        if (first != null) {
+          drained.add(first);
+          queue.drainTo(drained, maxBatchSize - 1);
+        }
+        List<CacheInvalidation> batch;
+        if (overflowed.getAndSet(false)) {
+          batch = new ArrayList<>();
+          for (CacheRegion region : CacheRegion.values()) {
+            batch.add(new CacheInvalidation(origin, region, List.of(), true));
+          }
+        } else {
+          batch = batch(origin, drained);
+        }
+        drained.clear();
+        while (!batch.isEmpty() && !write(batch)) {
+          if (!running) {
+            return;
+          }
+          Thread.sleep(retryInterval.toMillis());
+        }
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private boolean write(List<CacheInvalidation> batch) {
+    try {
+      ensureCollection();
+      mongoTemplate.insert(batch, CacheInvalidation.class);
+      batches.increment();
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("Could not publish {} cache invalidations", batch.size(), e);
+      return false;
+    }
+  }
+
+  private void tailLoop() {
+    boolean failing = false;
+    while (running) {
+      try {
+        ensureCollection();
+        if (failing) {
+          log.info("Resumed tailing the cache invalidations");
+          failing = false;
+        }
+        tail();
+      } catch (RuntimeException e) {
+        if (!failing) {
+          log.warn("Cannot tail the cache invalidations, retrying every {}", retryInterval, e);
+          failing = true;
+        }
+      }
+      try {
+        Thread.sleep(retryInterval.toMillis());
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Follows the collection until the cursor is closed or the bus is stopped.
+   *
+   * <p>The cursor is opened without a query: a tailable cursor whose query matches no document
+   * yet is closed by the server right away, which would turn tailing into polling. It reads the
+   * collection in natural order from its oldest document instead and skips the invalidations up
+   * to the first one written after the resume point; the collection is capped, so that costs at
+   * most one pass over it whenever the cursor is reopened. From there on every invalidation is
+   * applied in natural order, whatever the clock of its publisher said when it chose the ID.
+   */
+  void tail() {
+    MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName());
+    if (lastSeenId != null
+        && collection.find(Filters.eq("_id", new ObjectId(lastSeenId))).first() == null) {
+      // The collection wrapped around while the cursor was lost, invalidations may be missing.
+      resets.increment();
+      log.warn("Cache invalidations were missed while not tailing, clearing the local caches");
+      subscribers.invalidateAll();
+    }
+    ObjectId from =
+        minimumId(
+            (lastSeenId == null ? startedAt : new ObjectId(lastSeenId).getDate().toInstant())
+                .minus(overlap));
+    boolean resumed = false;
+    try (MongoCursor<Document> cursor =
+        collection
+            .find()
+            .cursorType(CursorType.TailableAwait)
+            .maxAwaitTime(maxAwait.toMillis(), TimeUnit.MILLISECONDS)
+            .iterator()) {
+      while (running) {
+        Document next = cursor.tryNext();
+        if (next != null) {
+          resumed |= !(next.get("_id") instanceof ObjectId id) || id.compareTo(from) >= 0;
+          if (resumed) {
+            apply(mongoTemplate.getConverter().read(CacheInvalidation.class, next));
+          }
+        } else if (cursor.getServerCursor() == null) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void apply(CacheInvalidation invalidation) {
+    lastSeenId = invalidation.getId();
+    if (origin.equals(invalidation.getOrigin()) || invalidation.getRegion() == null) {
+      return;
+    }
+    received.increment();
+    if (invalidation.isAll()) {
+      subscribers.invalidateAll(invalidation.getRegion());
+    } else if (invalidation.getKeys() != null) {
+      subscribers.invalidate(invalidation.getRegion(), invalidation.getKeys());
+    }
+  }
+
+  /**
+   * Creates the capped collection if it does not exist yet. A tailable cursor on an empty capped
+   * collection is closed immediately, so the collection starts with an empty invalidation.
+   */
+  private synchronized void ensureCollection() {
+    if (collectionReady) {
+      return;
+    }
+    if (!mongoTemplate.collectionExists(CacheInvalidation.class)) {
+      try {
+        mongoTemplate.createCollection(
+            CacheInvalidation.class, CollectionOptions.empty().capped().size(collectionSize));
+        mongoTemplate.insert(new CacheInvalidation(origin, null, List.of(), false));
+      } catch (RuntimeException e) {
+        // Another node created it concurrently.
+        if (!mongoTemplate.collectionExists(CacheInvalidation.class)) {
+          throw e;
+        }
+      }
+    }
+    collectionReady = true;
+  }
+
+  private String collectionName() {
+    return mongoTemplate.getCollectionName(CacheInvalidation.class);
+  }
+
+  /** Returns the smallest object ID created at the given time. */
+  private static ObjectId minimumId(Instant time) {
+    return new ObjectId(String.format("%08x%016x", Math.max(0, time.getEpochSecond()), 0));
+  }
+}
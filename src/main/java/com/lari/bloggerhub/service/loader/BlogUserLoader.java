@@ -0,0 +1,214 @@
+package com.lari.bloggerhub.service.loader;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.util.resilience.DependencyUnavailableException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class loads {@link BlogUser} documents by ID with request coalescing and micro-batching, in
+ * the style of a DataLoader.
+ *
+ * <p>Concurrent loads of the same ID share a single pending lookup (single-flight). Distinct IDs
+ * requested within the batch window are merged into one {@code findAllById} query, which MongoDB
+ * executes as a single {@code $in} lookup. A batch is dispatched early once it reaches the maximum
+ * batch size.
+ *
+ * <p>The loader does not cache results: a lookup only lives until its batch completes, so callers
+ * never observe data older than the batch window. Callers wait for a batch for at most the
+ * configured timeout, so a hanging query cannot hold request threads indefinitely.
+ */
+@Component
+public class BlogUserLoader {
+
+  private static final Logger log = LoggerFactory.getLogger(BlogUserLoader.class);
+
+  private final BlogUserRepository blogUserRepository;
+  private final long batchWindowNanos;
+  private final int maxBatchSize;
+  private final long timeoutNanos;
+  private final Map<String, CompletableFuture<BlogUser>> inFlight = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final Object batchLock = new Object();
+  private List<String> pending = new ArrayList<>();
+
+  /**
+   * Constructs a new instance of the {@link BlogUserLoader} class with the specified dependencies.
+   *
+   * @param blogUserRepository the repository class for managing user data
+   * @param batchWindow how long to wait for more IDs before dispatching a batch
+   * @param maxBatchSize the number of IDs that dispatches a batch immediately
+   * @param timeout how long a caller waits for the batch holding its IDs
+   */
+  public BlogUserLoader(
+      BlogUserRepository blogUserRepository,
+      @Value("${bloggerhub.loader.user.batch-window}") Duration batchWindow,
+      @Value("${bloggerhub.loader.user.max-batch-size}") int maxBatchSize,
+      @Value("${bloggerhub.loader.user.timeout}") Duration timeout) {
+    this.blogUserRepository = blogUserRepository;
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.maxBatchSize = maxBatchSize;
+    this.timeoutNanos = timeout.toNanos();
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "user-loader-batcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Loads a user by ID.
+   *
+   * @param id the ID of the user
+   * @return a future completed with the user, or with null if no such user exists
+   */
+  public CompletableFuture<BlogUser> load(String id) {
+    CompletableFuture<BlogUser> existing = inFlight.get(id);
+    if (existing != null) {
+      return existing;
+    }
+    CompletableFuture<BlogUser> future = new CompletableFuture<>();
+    existing = inFlight.putIfAbsent(id, future);
+    if (existing != null) {
+      return existing;
+    }
+    enqueue(id);
+    return future;
+  }
+
+  /**
+   * Loads several users by ID, coalescing with concurrent loads, and waits for the result.
+   *
+   * @param ids the IDs of the users
+   * @return the users found, keyed by ID, in the iteration order of the given IDs
+   */
+  public Map<String, BlogUser> loadMany(Collection<String> ids) {
+    Map<String, CompletableFuture<BlogUser>> futures = new LinkedHashMap<>();
+    for (String id : ids) {
+      futures.computeIfAbsent(id, this::load);
+    }
+    long deadline = System.nanoTime() + timeoutNanos;
+    Map<String, BlogUser> users = new LinkedHashMap<>();
+    for (Map.Entry<String, CompletableFuture<BlogUser>> entry : futures.entrySet()) {
+      BlogUser user = await(entry.getValue(), deadline);
+      if (user != null) {
+        users.put(entry.getKey(), user);
+      }
+    }
+    return users;
+  }
+
+  /**
+   * Waits for a future returned by {@link #load(String)} for at most the configured timeout,
+   * rethrowing the original exception of a failed batch.
+   *
+   * @param future the future to wait for
+   * @return the loaded user, or null if not found
+   * @throws DependencyUnavailableException if the batch did not complete in time
+   */
+  public BlogUser join(CompletableFuture<BlogUser> future) {
+    return await(future, System.nanoTime() + timeoutNanos);
+  }
+
+  private BlogUser await(CompletableFuture<BlogUser> future, long deadline) {
+    try {
+      // The future is shared with concurrent callers, so it is not cancelled on timeout.
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      throw new DependencyUnavailableException("users", "batched lookup timed out", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DependencyUnavailableException("users", "interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new DependencyUnavailableException("users", "batched lookup failed", e.getCause());
+    }
+  }
+
+  private void enqueue(String id) {
+    List<String> batch = null;
+    synchronized (batchLock) {
+      pending.add(id);
+      if (pending.size() >= maxBatchSize || batchWindowNanos == 0) {
+        batch = swapPending();
+      } else if (pending.size() == 1) {
+        scheduler.schedule(this::dispatchPending, batchWindowNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    if (batch != null) {
+      List<String> ready = batch;
+      dispatcher.execute(() -> dispatch(ready));
+    }
+  }
+
+  private void dispatchPending() {
+    List<String> batch;
+    synchronized (batchLock) {
+      batch = swapPending();
+    }
+    if (!batch.isEmpty()) {
+      dispatcher.execute(() -> dispatch(batch));
+    }
+  }
+
+  private List<String> swapPending() {
+    List<String> batch = pending;
+    pending = new ArrayList<>();
+    return batch;
+  }
+
+  private void dispatch(List<String> ids) {
+    Map<String, BlogUser> found = new HashMap<>();
+    try {
+      for (BlogUser user : blogUserRepository.findAllById(ids)) {
+        found.put(user.getId(), user);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Batched lookup of {} users failed", ids.size(), e);
+      for (String id : ids) {
+        CompletableFuture<BlogUser> future = inFlight.remove(id);
+        if (future != null) {
+          future.completeExceptionally(e);
+        }
+      }
+      return;
+    }
+    for (String id : ids) {
+      CompletableFuture<BlogUser> future = inFlight.remove(id);
+      if (future != null) {
+        future.complete(found.get(id));
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+    dispatcher.shutdownNow();
+  }
+}
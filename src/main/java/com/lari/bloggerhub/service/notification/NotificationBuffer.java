@@ -0,0 +1,146 @@
+package com.lari.bloggerhub.service.notification;
+
+import com.lari.bloggerhub.document.NotificationType;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class buffers notification events in memory and coalesces the events of each recipient
+ * that share a type and a subject into one pending notification.
+ *
+ * <p>A pending notification opens with its first event and is handed out by {@link #drain} once it
+ * has been open for the coalescing window; events arriving until then only update its actors and
+ * counts. The number of open notifications is capped, so a flood of events for distinct subjects
+ * cannot grow the buffer without bound: events that would open one more are refused.
+ */
+final class NotificationBuffer {
+
+  private final int maxPending;
+  private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+  private record Key(String recipientId, NotificationType type, String subjectId) {}
+
+  /** The events coalesced into one notification. Guarded by its own monitor. */
+  static final class Pending {
+    private final Key key;
+    private final long openedMillis;
+    private final LinkedHashSet<String> actors = new LinkedHashSet<>();
+    private long events;
+    private boolean drained;
+
+    private Pending(Key key, long openedMillis) {
+      this.key = key;
+      this.openedMillis = openedMillis;
+    }
+
+    String recipientId() {
+      return key.recipientId();
+    }
+
+    NotificationType type() {
+      return key.type();
+    }
+
+    String subjectId() {
+      return key.subjectId();
+    }
+
+    synchronized long events() {
+      return events;
+    }
+
+    synchronized int actorCount() {
+      return actors.size();
+    }
+
+    /** Returns the most recent distinct actors, newest first. */
+    synchronized List<String> latestActors(int limit) {
+      List<String> latest = new ArrayList<>(actors);
+      List<String> newestFirst = new ArrayList<>(Math.min(limit, latest.size()));
+      for (int i = latest.size() - 1; i >= 0 && newestFirst.size() < limit; i--) {
+        newestFirst.add(latest.get(i));
+      }
+      return newestFirst;
+    }
+  }
+
+  /**
+   * Creates a buffer holding at most {@code maxPending} open notifications.
+   *
+   * @param maxPending the maximum number of open notifications
+   */
+  NotificationBuffer(int maxPending) {
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Adds an event to the open notification of its recipient, type and subject, opening one if
+   * there is none.
+   *
+   * @param recipientId the ID of the user to notify
+   * @param type the type of the event
+   * @param subjectId the ID of the subject of the event, or null if it has none
+   * @param actorId the ID of the user who caused the event
+   * @param count the number of events, such as the number of claps
+   * @param nowMillis the current time
+   * @return false if the event was refused because the buffer is full
+   */
+  boolean add(
+      String recipientId,
+      NotificationType type,
+      String subjectId,
+      String actorId,
+      long count,
+      long nowMillis) {
+    Key key = new Key(recipientId, type, subjectId);
+    while (true) {
+      Pending open = pending.get(key);
+      if (open == null) {
+        if (pending.size() >= maxPending) {
+          return false;
+        }
+        open = pending.computeIfAbsent(key, k -> new Pending(k, nowMillis));
+      }
+      synchronized (open) {
+        // Rare: the notification was drained since it was looked up.
+        if (open.drained) {
+          continue;
+        }
+        // Re-adding moves a returning actor to the end, so the latest actors stay last.
+        open.actors.remove(actorId);
+        open.actors.add(actorId);
+        open.events += count;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes and returns the notifications opened at or before a time.
+   *
+   * @param openedBeforeMillis the time the coalescing window of the returned notifications began
+   *     at the latest; {@link Long#MAX_VALUE} drains the whole buffer
+   * @return the drained notifications
+   */
+  List<Pending> drain(long openedBeforeMillis) {
+    List<Pending> due = new ArrayList<>();
+    for (Pending open : pending.values()) {
+      if (open.openedMillis <= openedBeforeMillis) {
+        synchronized (open) {
+          open.drained = true;
+        }
+        pending.remove(open.key, open);
+        due.add(open);
+      }
+    }
+    return due;
+  }
+
+  /** Returns the number of open notifications. */
+  int size() {
+    return pending.size();
+  }
+}
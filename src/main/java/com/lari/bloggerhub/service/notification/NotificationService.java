@@ -0,0 +1,539 @@
+package com.lari.bloggerhub.service.notification;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Notification;
+import com.lari.bloggerhub.document.NotificationCounter;
+import com.lari.bloggerhub.document.NotificationType;
+import com.lari.bloggerhub.dto.response.AuthorCardDto;
+import com.lari.bloggerhub.dto.response.NotificationDto;
+import com.lari.bloggerhub.dto.response.NotificationPageDto;
+import com.lari.bloggerhub.dto.response.UnreadCountDto;
+import com.lari.bloggerhub.repository.NotificationCounterRepository;
+import com.lari.bloggerhub.repository.NotificationRepository;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.response.SuccessResponse;
+import com.lari.bloggerhub.service.BlogUserService;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the notifications of users in the Blogger Hub application.
+ *
+ * <p>Follows, claps and comments are not written as they happen. Their events are buffered per
+ * recipient in a {@link NotificationBuffer}, which coalesces the events of one type on one subject
+ * within the coalescing window into a single notification, so a thousand claps on a popular post
+ * in a minute become one "X and 999 others clapped" document. A scheduled sweep hands the due
+ * notifications in batches to a small, bounded pool of delivery workers, which write each batch
+ * with one unordered bulk insert. When the pool and its queue are full, the batch is retried by
+ * the next sweep rather than blocking the request that caused the event.
+ *
+ * <p>Unread counts are stored per user. Delivering a batch only adds to the {@link UnreadDeltas}
+ * of this node, which are added to the stored counts with {@code $inc} periodically, so the nodes
+ * never overwrite each other's counts. Reading the count reads the stored count and adds the
+ * deliveries of this node not flushed yet. Marking everything read sets the stored count to zero;
+ * a delta that started before that is replaced by a count of the unread notifications instead of
+ * being added. After a crash a count may miss one flush; marking everything read resets it.
+ *
+ * <p>Notifications are best effort: events refused by a full buffer, batches refused by a full
+ * retry queue, and events still buffered when the application stops abruptly, are lost.
+ */
+@Service
+public class NotificationService {
+
+  private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+  /** The number of actors stored with a notification for display. */
+  static final int LATEST_ACTORS = 3;
+
+  private final MongoTemplate mongoTemplate;
+  private final NotificationRepository notificationRepository;
+  private final NotificationCounterRepository notificationCounterRepository;
+  private final BlogUserService blogUserService;
+  private final NotificationBuffer buffer;
+  private final long windowMillis;
+  private final int maxBatchSize;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+  private final ThreadPoolExecutor workers;
+  private final UnreadDeltas unreadDeltas = new UnreadDeltas();
+
+  /** Notifications whose insert failed, retried with the same IDs by the next sweep. */
+  private final BlockingQueue<List<Notification>> retries;
+
+  private final AtomicBoolean flushing = new AtomicBoolean();
+  private final Counter events;
+  private final Counter refused;
+  private final Counter written;
+  private final Counter deliveryFailures;
+
+  /**
+   * Constructs a new instance of the {@link NotificationService} class with the specified
+   * dependencies, and starts the delivery workers.
+   *
+   * @param mongoTemplate the template used for the bulk writes
+   * @param notificationRepository the repository class for notifications
+   * @param notificationCounterRepository the repository class for the persisted unread counts
+   * @param blogUserService the service class used to load the actors of notifications
+   * @param meterRegistry the registry for the notification metrics
+   * @param window how long the events of one notification are coalesced
+   * @param maxPending the maximum number of notifications being coalesced at once
+   * @param maxBatchSize the maximum number of notifications written by one bulk insert
+   * @param workers the number of threads writing notifications
+   * @param queueCapacity the number of batches that may wait for a worker
+   * @param retryCapacity the number of failed batches that may wait for the next sweep
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public NotificationService(
+      MongoTemplate mongoTemplate,
+      NotificationRepository notificationRepository,
+      NotificationCounterRepository notificationCounterRepository,
+      BlogUserService blogUserService,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.notifications.window}") Duration window,
+      @Value("${bloggerhub.notifications.max-pending}") int maxPending,
+      @Value("${bloggerhub.notifications.max-batch-size}") int maxBatchSize,
+      @Value("${bloggerhub.notifications.workers}") int workers,
+      @Value("${bloggerhub.notifications.queue-capacity}") int queueCapacity,
+      @Value("${bloggerhub.notifications.retry-capacity}") int retryCapacity,
+      @Value("${bloggerhub.notifications.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.notifications.max-page-size}") int maxPageSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.notificationRepository = notificationRepository;
+    this.notificationCounterRepository = notificationCounterRepository;
+    this.blogUserService = blogUserService;
+    this.buffer = new NotificationBuffer(maxPending);
+    this.windowMillis = window.toMillis();
+    this.maxBatchSize = maxBatchSize;
+    this.retries = new ArrayBlockingQueue<>(retryCapacity);
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+    this.workers =
+        new ThreadPoolExecutor(
+            workers,
+            workers,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("notification-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    events = Counter.builder("bloggerhub.notifications.events").register(meterRegistry);
+    refused = Counter.builder("bloggerhub.notifications.refused").register(meterRegistry);
+    written = Counter.builder("bloggerhub.notifications.written").register(meterRegistry);
+    deliveryFailures =
+        Counter.builder("bloggerhub.notifications.delivery_failures").register(meterRegistry);
+    Gauge.builder("bloggerhub.notifications.pending", buffer, NotificationBuffer::size)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.notifications.queued", this.workers, w -> w.getQueue().size())
+        .register(meterRegistry);
+    Gauge.builder(
+            "bloggerhub.notifications.coalescing_ratio",
+            this,
+            NotificationService::coalescingRatio)
+        .description("Events per notification written")
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.notifications.retries", retries, BlockingQueue::size)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.notifications.unread_deltas", unreadDeltas, UnreadDeltas::size)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Notifies a user that another user started following them.
+   *
+   * @param followerId the ID of the new follower
+   * @param followeeId the ID of the followed user
+   */
+  public void notifyFollow(String followerId, String followeeId) {
+    submit(followeeId, NotificationType.FOLLOW, null, followerId, 1);
+  }
+
+  /**
+   * Notifies an author that a user clapped for their post.
+   *
+   * @param clapperId the ID of the user who clapped
+   * @param authorId the ID of the author of the post
+   * @param postId the ID of the post
+   * @param claps the number of claps accepted
+   */
+  public void notifyClaps(String clapperId, String authorId, String postId, int claps) {
+    submit(authorId, NotificationType.CLAP, postId, clapperId, claps);
+  }
+
+  /**
+   * Notifies an author that a user commented on their post, and the author of the parent comment
+   * that a user replied to it.
+   *
+   * @param commenterId the ID of the author of the comment
+   * @param postAuthorId the ID of the author of the post
+   * @param postId the ID of the post
+   * @param parentAuthorId the ID of the author of the parent comment, or null for top-level
+   *     comments
+   */
+  public void notifyComment(
+      String commenterId, String postAuthorId, String postId, String parentAuthorId) {
+    if (parentAuthorId != null) {
+      submit(parentAuthorId, NotificationType.REPLY, postId, commenterId, 1);
+    }
+    if (!postAuthorId.equals(parentAuthorId)) {
+      submit(postAuthorId, NotificationType.COMMENT, postId, commenterId, 1);
+    }
+  }
+
+  /**
+   * Returns a page of the notifications of the authenticated user, newest first. Notifications
+   * appear once their coalescing window has closed.
+   *
+   * @param user the authenticated user
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getNotifications(BlogUser user, String cursor, Integer limit) {
+    if (cursor != null && !ObjectId.isValid(cursor)) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    // Fetch one extra notification to learn whether there is a next page without a count query.
+    List<Notification> notifications =
+        cursor == null
+            ? notificationRepository.findByRecipientIdOrderByIdDesc(
+                user.getId(), Limit.of(pageSize + 1))
+            : notificationRepository.findByRecipientIdAndIdLessThanOrderByIdDesc(
+                user.getId(), new ObjectId(cursor), Limit.of(pageSize + 1));
+    String nextCursor = null;
+    if (notifications.size() > pageSize) {
+      notifications = notifications.subList(0, pageSize);
+      nextCursor = notifications.get(pageSize - 1).getId();
+    }
+
+    Set<String> actorIds = new LinkedHashSet<>();
+    notifications.forEach(notification -> actorIds.addAll(notification.getActorIds()));
+    Map<String, BlogUser> actors = blogUserService.findAllById(actorIds);
+    List<NotificationDto> page =
+        notifications.stream().map(notification -> toDto(notification, actors)).toList();
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Records found.",
+            new NotificationPageDto(page, nextCursor)));
+  }
+
+  /**
+   * Returns the number of unread notifications of the authenticated user: the stored count and the
+   * notifications this node delivered since its last flush.
+   *
+   * @param user the authenticated user
+   * @return a response entity containing the count
+   */
+  public ResponseEntity<Response> getUnreadCount(BlogUser user) {
+    long unread = unreadCount(user.getId());
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true, HttpStatus.OK.value(), "Unread count found.", new UnreadCountDto(unread)));
+  }
+
+  /**
+   * Marks every notification of the authenticated user as read.
+   *
+   * @param user the authenticated user
+   * @return a response entity indicating the outcome
+   */
+  public ResponseEntity<Response> markAllRead(BlogUser user) {
+    mongoTemplate.updateMulti(
+        Query.query(Criteria.where("recipientId").is(user.getId()).and("read").is(false)),
+        new Update().set("read", true),
+        Notification.class);
+    unreadDeltas.discard(user.getId());
+    mongoTemplate.upsert(
+        byId(user.getId()),
+        new Update().set("unread", 0).set("readAt", Instant.now()),
+        NotificationCounter.class);
+    return ResponseEntity.ok(
+        new SuccessResponse(true, HttpStatus.OK.value(), "Notifications marked as read."));
+  }
+
+  /**
+   * Hands the notifications whose coalescing window has closed to the delivery workers, with the
+   * batches whose insert failed before.
+   */
+  @Scheduled(fixedDelayString = "${bloggerhub.notifications.sweep-interval}")
+  public void sweep() {
+    List<List<Notification>> batches = new ArrayList<>();
+    for (List<Notification> retry; (retry = retries.poll()) != null; ) {
+      batches.add(retry);
+    }
+    List<Notification> batch = new ArrayList<>();
+    for (NotificationBuffer.Pending pending :
+        buffer.drain(System.currentTimeMillis() - windowMillis)) {
+      batch.add(toNotification(pending));
+      if (batch.size() == maxBatchSize) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    for (List<Notification> next : batches) {
+      try {
+        workers.execute(() -> deliver(next));
+      } catch (RejectedExecutionException e) {
+        retry(next);
+      }
+    }
+  }
+
+  /**
+   * Adds the notifications delivered since the previous flush to the stored unread counts, with
+   * one unordered bulk write of {@code $inc} upserts.
+   *
+   * <p>An increment only applies if the count has not been marked read since its first
+   * notification was delivered. Otherwise the upsert collides with the existing count, and the
+   * count is replaced by the number of unread notifications, which the increment cannot tell.
+   */
+  @Scheduled(fixedDelayString = "${bloggerhub.notifications.counter-flush-interval}")
+  public void flushCounters() {
+    if (!flushing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Map<String, UnreadDeltas.Delta> drained = unreadDeltas.drain();
+      if (drained.isEmpty()) {
+        return;
+      }
+      List<String> userIds = new ArrayList<>(drained.keySet());
+      BulkOperations bulk =
+          mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+      for (String userId : userIds) {
+        UnreadDeltas.Delta delta = drained.get(userId);
+        Instant since = Instant.ofEpochMilli(delta.sinceMillis());
+        bulk.upsert(
+            Query.query(
+                Criteria.where("id")
+                    .is(userId)
+                    .orOperator(
+                        Criteria.where("readAt").exists(false),
+                        Criteria.where("readAt").lt(since))),
+            new Update().inc("unread", delta.count()));
+      }
+      Set<String> failed = new HashSet<>();
+      Set<String> stale = new HashSet<>();
+      try {
+        bulk.execute();
+      } catch (BulkOperationException e) {
+        for (BulkWriteError error : e.getErrors()) {
+          String userId = userIds.get(error.getIndex());
+          if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+            stale.add(userId);
+          } else {
+            failed.add(userId);
+          }
+        }
+      } catch (DataAccessException e) {
+        failed.addAll(userIds);
+      }
+      if (!failed.isEmpty()) {
+        log.warn("Could not flush {} unread counts", failed.size());
+        failed.forEach(userId -> unreadDeltas.restore(userId, drained.get(userId)));
+      }
+      for (String userId : stale) {
+        try {
+          recount(userId);
+        } catch (RuntimeException e) {
+          log.warn("Could not recount notifications of {}: {}", userId, e.getMessage());
+        }
+      }
+    } finally {
+      flushing.set(false);
+    }
+  }
+
+  /** Delivers the buffered notifications and flushes the counts on shutdown. */
+  @PreDestroy
+  public void close() throws InterruptedException {
+    List<Notification> remaining = new ArrayList<>();
+    buffer.drain(Long.MAX_VALUE).forEach(pending -> remaining.add(toNotification(pending)));
+    workers.shutdown();
+    workers.awaitTermination(10, TimeUnit.SECONDS);
+    for (List<Notification> retry; (retry = retries.poll()) != null; ) {
+      remaining.addAll(retry);
+    }
+    for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+      deliver(remaining.subList(from, Math.min(from + maxBatchSize, remaining.size())));
+    }
+    retries.clear();
+    flushCounters();
+  }
+
+  private void submit(
+      String recipientId, NotificationType type, String subjectId, String actorId, long count) {
+    if (recipientId == null || recipientId.equals(actorId)) {
+      return;
+    }
+    events.increment(count);
+    if (!buffer.add(recipientId, type, subjectId, actorId, count, System.currentTimeMillis())) {
+      refused.increment(count);
+    }
+  }
+
+  /** Runs on a delivery worker. Batches that could not be written are retried by a later sweep. */
+  private void deliver(List<Notification> batch) {
+    BulkOperations bulk =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+    bulk.insert(batch);
+    Set<Integer> failed = new HashSet<>();
+    try {
+      bulk.execute();
+    } catch (BulkOperationException e) {
+      for (BulkWriteError error : e.getErrors()) {
+        // A duplicate ID means an earlier attempt wrote the notification after all.
+        if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+          failed.add(error.getIndex());
+        }
+      }
+    } catch (DataAccessException e) {
+      log.warn("Could not deliver {} notifications: {}", batch.size(), e.getMessage());
+      for (int i = 0; i < batch.size(); i++) {
+        failed.add(i);
+      }
+    }
+
+    List<Notification> retry = new ArrayList<>(failed.size());
+    Map<String, Integer> delivered = new HashMap<>();
+    for (int i = 0; i < batch.size(); i++) {
+      if (failed.contains(i)) {
+        retry.add(batch.get(i));
+      } else {
+        delivered.merge(batch.get(i).getRecipientId(), 1, Integer::sum);
+      }
+    }
+    if (!retry.isEmpty()) {
+      deliveryFailures.increment();
+      retry(retry);
+    }
+    written.increment(batch.size() - retry.size());
+    long now = System.currentTimeMillis();
+    delivered.forEach((recipientId, count) -> unreadDeltas.add(recipientId, count, now));
+  }
+
+  /** Queues a batch for the next sweep, or drops it if the retry queue is full. */
+  private void retry(List<Notification> batch) {
+    if (!retries.offer(batch)) {
+      refused.increment(batch.size());
+      log.warn("The notification retry queue is full, dropping {} notifications", batch.size());
+    }
+  }
+
+  /**
+   * Returns the stored unread count of a user with the deliveries of this node not flushed yet. A
+   * user without a stored count, such as one whose notifications predate the counts, is counted
+   * from the notifications, which already include those deliveries.
+   */
+  private long unreadCount(String userId) {
+    Optional<NotificationCounter> stored = notificationCounterRepository.findById(userId);
+    if (stored.isPresent()) {
+      return Math.max(0, stored.get().getUnread() + unreadDeltas.pending(userId));
+    }
+    unreadDeltas.discard(userId);
+    long unread = notificationRepository.countByRecipientIdAndReadFalse(userId);
+    mongoTemplate.upsert(
+        byId(userId), new Update().setOnInsert("unread", unread), NotificationCounter.class);
+    return unread;
+  }
+
+  /** Replaces the stored unread count of a user by the number of unread notifications. */
+  private void recount(String userId) {
+    long unread = notificationRepository.countByRecipientIdAndReadFalse(userId);
+    mongoTemplate.updateFirst(
+        byId(userId), new Update().set("unread", unread), NotificationCounter.class);
+  }
+
+  private static Query byId(String id) {
+    return Query.query(Criteria.where("id").is(id));
+  }
+
+  private double coalescingRatio() {
+    double notifications = written.count();
+    return notifications == 0 ? 0 : events.count() / notifications;
+  }
+
+  private static Notification toNotification(NotificationBuffer.Pending pending) {
+    Notification notification = new Notification();
+    // Assigned up front, so a retried insert of a written notification is a duplicate.
+    notification.setId(new ObjectId().toHexString());
+    notification.setRecipientId(pending.recipientId());
+    notification.setType(pending.type());
+    notification.setSubjectId(pending.subjectId());
+    notification.setActorIds(pending.latestActors(LATEST_ACTORS));
+    notification.setActorCount(pending.actorCount());
+    notification.setEventCount(pending.events());
+    notification.setCreatedAt(Instant.now());
+    return notification;
+  }
+
+  private static NotificationDto toDto(Notification notification, Map<String, BlogUser> actors) {
+    List<AuthorCardDto> cards =
+        notification.getActorIds().stream()
+            .map(actors::get)
+            .filter(Objects::nonNull)
+            .map(AuthorCardDto::from)
+            .toList();
+    return new NotificationDto(
+        notification.getId(),
+        notification.getType(),
+        notification.getSubjectId(),
+        cards,
+        notification.getActorCount(),
+        notification.getEventCount(),
+        notification.isRead(),
+        notification.getCreatedAt());
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,79 @@
+package com.lari.bloggerhub.service.notification;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class collects the notifications delivered by this node per recipient until they are added
+ * to the stored unread counts.
+ *
+ * <p>Only the increments are kept, never a copy of the stored count, so every node can add its own
+ * deliveries with {@code $inc} and none overwrites the others. Each delta remembers when its first
+ * notification was delivered, so a flush can tell whether a later "mark all read" already covers
+ * it.
+ */
+final class UnreadDeltas {
+
+  private final Map<String, Delta> deltas = new ConcurrentHashMap<>();
+
+  /**
+   * The notifications delivered to one recipient since the previous flush.
+   *
+   * @param count the number of notifications
+   * @param sinceMillis the time the first of them was delivered
+   */
+  record Delta(long count, long sinceMillis) {
+
+    Delta plus(Delta other) {
+      return new Delta(count + other.count, Math.min(sinceMillis, other.sinceMillis));
+    }
+  }
+
+  /**
+   * Adds delivered notifications to the delta of a recipient.
+   *
+   * @param recipientId the ID of the recipient
+   * @param count the number of notifications
+   * @param nowMillis the current time
+   */
+  void add(String recipientId, long count, long nowMillis) {
+    deltas.merge(recipientId, new Delta(count, nowMillis), Delta::plus);
+  }
+
+  /** Returns the notifications delivered to a recipient that have not been flushed yet. */
+  long pending(String recipientId) {
+    Delta delta = deltas.get(recipientId);
+    return delta == null ? 0 : delta.count();
+  }
+
+  /**
+   * Removes and returns every delta. Notifications delivered meanwhile start new deltas.
+   *
+   * @return the deltas by recipient ID
+   */
+  Map<String, Delta> drain() {
+    Map<String, Delta> drained = new HashMap<>();
+    for (String recipientId : deltas.keySet()) {
+      Delta delta = deltas.remove(recipientId);
+      if (delta != null) {
+        drained.put(recipientId, delta);
+      }
+    }
+    return drained;
+  }
+
+  /** Puts back a drained delta whose flush failed, merged with any delivered since. */
+  void restore(String recipientId, Delta delta) {
+    deltas.merge(recipientId, delta, Delta::plus);
+  }
+
+  /** Drops the delta of a recipient, whose stored count has been replaced. */
+  void discard(String recipientId) {
+    deltas.remove(recipientId);
+  }
+
+  int size() {
+    return deltas.size();
+  }
+}
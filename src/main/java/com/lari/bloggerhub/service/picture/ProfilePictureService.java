@@ -0,0 +1,362 @@
+package com.lari.bloggerhub.service.picture;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.util.image.Thumbnailer;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsCriteria;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * This class provides the profile picture pipeline of the Blogger Hub application: uploading a
+ * picture, turning it into thumbnails and serving them.
+ *
+ * <p>Multipart uploads are spooled to disk by the servlet container and moved into a staging
+ * directory, so an upload is never held on the heap. Thumbnails are created by the {@link
+ * Thumbnailer} on a small, bounded worker pool; when the pool and its queue are full, uploads are
+ * rejected with {@code 503} instead of piling up. Thumbnails are stored in GridFS, so any node can
+ * serve them, under the SHA-256 of the uploaded file, so uploading the same picture again reuses
+ * them. The profile picture of the user is set to the URL of the largest one. The smaller sizes
+ * are served from the same URL with another size suffix.
+ *
+ * <p>Thumbnail URLs never change their content, so each node keeps the thumbnails it serves in a
+ * local cache directory, copied from GridFS on the first request, and they are served with a one
+ * year, immutable cache lifetime. When the servlet container supports sendfile, the cached file is
+ * handed to it and copied to the socket by the kernel; otherwise, and for range requests, it is
+ * streamed as a {@link FileSystemResource}. The cache is never evicted and may be deleted at any
+ * time.
+ */
+@Service
+public class ProfilePictureService {
+
+  private static final Logger log = LoggerFactory.getLogger(ProfilePictureService.class);
+
+  /** The path under which thumbnails are served. */
+  public static final String URL_PREFIX = "/api/pictures/";
+
+  private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}-(\\d{1,4})\\.jpg");
+  private static final CacheControl IMMUTABLE =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final BlogUserRepository blogUserRepository;
+  private final GridFsTemplate gridFsTemplate;
+  private final Path directory;
+  private final Path staging;
+  private final List<Integer> sizes;
+  private final long maxPixels;
+  private final float quality;
+  private final Duration processingTimeout;
+  private final ThreadPoolExecutor workers;
+  private final Timer processingTimer;
+
+  /**
+   * Constructs a new instance of the {@link ProfilePictureService} class with the specified
+   * dependencies, and starts the thumbnail workers.
+   *
+   * @param blogUserRepository the repository class used to update the profile picture of users
+   * @param gridFsTemplate the template used to store and read the thumbnails
+   * @param meterRegistry the registry for the pipeline metrics
+   * @param directory the directory of the local thumbnail cache, with a staging directory for
+   *     uploads
+   * @param sizes the side lengths of the thumbnails, in pixels
+   * @param maxPixels the largest number of pixels an uploaded picture may have
+   * @param quality the JPEG quality of the thumbnails, between 0 and 1
+   * @param workers the number of threads creating thumbnails
+   * @param queueCapacity the number of uploads that may wait for a worker
+   * @param processingTimeout how long an upload waits for its thumbnails
+   */
+  public ProfilePictureService(
+      BlogUserRepository blogUserRepository,
+      GridFsTemplate gridFsTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.pictures.cache-directory}") Path directory,
+      @Value("${bloggerhub.pictures.sizes}") List<Integer> sizes,
+      @Value("${bloggerhub.pictures.max-pixels}") long maxPixels,
+      @Value("${bloggerhub.pictures.quality}") float quality,
+      @Value("${bloggerhub.pictures.workers}") int workers,
+      @Value("${bloggerhub.pictures.queue-capacity}") int queueCapacity,
+      @Value("${bloggerhub.pictures.processing-timeout}") Duration processingTimeout) {
+    this.blogUserRepository = blogUserRepository;
+    this.gridFsTemplate = gridFsTemplate;
+    this.directory = directory;
+    this.staging = directory.resolve("staging");
+    this.sizes = List.copyOf(sizes);
+    this.maxPixels = maxPixels;
+    this.quality = quality;
+    this.processingTimeout = processingTimeout;
+    try {
+      Files.createDirectories(staging);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create the picture directory " + directory, e);
+    }
+    this.workers =
+        new ThreadPoolExecutor(
+            workers,
+            workers,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("thumbnail-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    processingTimer = Timer.builder("bloggerhub.pictures.processing").register(meterRegistry);
+    Gauge.builder("bloggerhub.pictures.queued", this.workers, w -> w.getQueue().size())
+        .register(meterRegistry);
+  }
+
+  /**
+   * Replaces the profile picture of a user with thumbnails of an uploaded image.
+   *
+   * @param user the authenticated user
+   * @param file the uploaded image
+   * @return a response entity containing the URL of the new profile picture
+   */
+  public ResponseEntity<Response> uploadPicture(BlogUser user, MultipartFile file) {
+    if (file == null || file.isEmpty()) {
+      return error(HttpStatus.BAD_REQUEST, "The picture must not be empty.");
+    }
+    Path upload = staging.resolve(UUID.randomUUID() + ".upload");
+    try {
+      // The container has already spooled the part to disk; this moves the file where possible.
+      file.transferTo(upload.toFile());
+      String hash = sha256(upload);
+      if (!isStored(hash)) {
+        Future<?> thumbnails = workers.submit(() -> createThumbnails(upload, hash));
+        try {
+          thumbnails.get(processingTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          thumbnails.cancel(true);
+          return error(HttpStatus.SERVICE_UNAVAILABLE, "The picture took too long to process.");
+        }
+      }
+
+      String url = URL_PREFIX + name(hash, sizes.stream().max(Integer::compare).orElseThrow());
+      Optional<BlogUser> stored = blogUserRepository.findById(user.getId());
+      if (stored.isEmpty()) {
+        return error(HttpStatus.NOT_FOUND, "User not found.");
+      }
+      stored.get().setProfilePicture(url);
+      blogUserRepository.save(stored.get());
+      return ResponseEntity.ok(
+          new DataResponse<>(true, HttpStatus.OK.value(), "Profile picture updated.", url));
+    } catch (RejectedExecutionException e) {
+      return error(HttpStatus.SERVICE_UNAVAILABLE, "Too many pictures are being processed.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IllegalArgumentException invalid) {
+        return error(HttpStatus.BAD_REQUEST, invalid.getMessage());
+      }
+      log.warn("Could not create the thumbnails of a profile picture", e.getCause());
+      return error(HttpStatus.INTERNAL_SERVER_ERROR, "The picture could not be processed.");
+    } catch (IOException e) {
+      log.warn("Could not store an uploaded profile picture", e);
+      return error(HttpStatus.INTERNAL_SERVER_ERROR, "The picture could not be stored.");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return error(HttpStatus.SERVICE_UNAVAILABLE, "The upload was interrupted.");
+    } finally {
+      deleteQuietly(upload);
+    }
+  }
+
+  /**
+   * Serves a thumbnail. Thumbnails are immutable, so any entity tag the client sends for the same
+   * name is current.
+   *
+   * @param name the file name of the thumbnail
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @param request the request, used to hand the file to the container's sendfile support
+   * @return a response entity containing the thumbnail, or an empty body when the container sends
+   *     the file
+   */
+  public ResponseEntity<Resource> getPicture(
+      String name, String ifNoneMatch, HttpServletRequest request) {
+    if (!NAME.matcher(name).matches()) {
+      return ResponseEntity.notFound().build();
+    }
+    Path file = directory.resolve(name);
+    long length;
+    try {
+      if (!Files.exists(file) && !cache(name, file)) {
+        return ResponseEntity.notFound().build();
+      }
+      length = Files.size(file);
+    } catch (IOException e) {
+      log.warn("Could not cache the thumbnail {}", name, e);
+      return ResponseEntity.notFound().build();
+    }
+    String eTag = "\"" + name.substring(0, name.length() - ".jpg".length()) + "\"";
+    if (ifNoneMatch != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.strip().equals("*"))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(eTag)
+          .cacheControl(IMMUTABLE)
+          .build();
+    }
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.IMAGE_JPEG)
+            .eTag(eTag)
+            .cacheControl(IMMUTABLE)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (request.getHeader(HttpHeaders.RANGE) == null
+        && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, 0L);
+      request.setAttribute(SENDFILE_END, length);
+      return response.contentLength(length).build();
+    }
+    return response.body(new FileSystemResource(file));
+  }
+
+  /**
+   * Returns whether a URL points at a thumbnail served by this application.
+   *
+   * @param url the URL, may be null
+   * @return whether the URL is a thumbnail URL
+   */
+  public static boolean isPictureUrl(String url) {
+    return url != null
+        && url.startsWith(URL_PREFIX)
+        && NAME.matcher(url.substring(URL_PREFIX.length())).matches();
+  }
+
+  /** Stops the thumbnail workers, letting queued uploads finish. */
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdown();
+  }
+
+  private void createThumbnails(Path upload, String hash) {
+    processingTimer.record(
+        () -> {
+          try {
+            Map<Integer, byte[]> thumbnails =
+                Thumbnailer.createThumbnails(upload, sizes, maxPixels, quality);
+            // Concurrent uploads of the same picture may store identical copies; reads take any.
+            for (Map.Entry<Integer, byte[]> thumbnail : thumbnails.entrySet()) {
+              gridFsTemplate.store(
+                  new ByteArrayInputStream(thumbnail.getValue()),
+                  name(hash, thumbnail.getKey()),
+                  MediaType.IMAGE_JPEG_VALUE);
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  /** Returns whether every size of the thumbnails of a picture is stored in GridFS. */
+  private boolean isStored(String hash) {
+    List<String> names = sizes.stream().map(size -> name(hash, size)).toList();
+    Set<String> stored = new HashSet<>();
+    gridFsTemplate
+        .find(Query.query(GridFsCriteria.whereFilename().in(names)))
+        .forEach(file -> stored.add(file.getFilename()));
+    return stored.containsAll(names);
+  }
+
+  /**
+   * Copies a thumbnail from GridFS into the local cache. It is written under a temporary name and
+   * moved, so a cached thumbnail is served whole or not at all.
+   *
+   * @return false if there is no such thumbnail
+   */
+  private boolean cache(String name, Path file) throws IOException {
+    GridFSFile stored =
+        gridFsTemplate.find(Query.query(GridFsCriteria.whereFilename().is(name))).first();
+    if (stored == null) {
+      return false;
+    }
+    Path temp = Files.createTempFile(staging, name, ".part");
+    try {
+      try (InputStream in = gridFsTemplate.getResource(stored).getInputStream()) {
+        Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+      }
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      deleteQuietly(temp);
+    }
+    return true;
+  }
+
+  private static String name(String hash, int size) {
+    return hash + "-" + size + ".jpg";
+  }
+
+  private static String sha256(Path file) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete the staged file {}", file, e);
+    }
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,323 @@
+package com.lari.bloggerhub.service.post;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.request.PostRequestDto;
+import com.lari.bloggerhub.dto.response.PostPageDto;
+import com.lari.bloggerhub.dto.response.PostResponseDto;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostContent;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.clap.ClapService;
+import com.lari.bloggerhub.service.draft.DraftService;
+import com.lari.bloggerhub.service.render.PostRenderService;
+import com.lari.bloggerhub.service.revision.PostRevisionService;
+import com.lari.bloggerhub.service.trending.TrendingService;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides service methods for writing and reading posts in the Blogger Hub
+ * application.
+ *
+ * <p>Listings return slim {@link PostSummary} projections paged with {@link KeysetCursor}s; the
+ * body of a post is fetched separately when the post is opened. The excerpt and reading time shown
+ * on post cards are derived from the body on every write, so listings never need to load it, and
+ * so is the content hash that keys the rendered HTML of the body.
+ *
+ * <p>An update rewrites the whole body and discards the autosaved draft of the post. It is timed
+ * and counted under the same meters as autosaves, tagged as full writes, for comparison. Every
+ * save that changes the title or body is recorded in the revision history of the post.
+ */
+@Service
+public class PostService {
+
+  private static final int EXCERPT_LENGTH = 280;
+  private static final int WORDS_PER_MINUTE = 238;
+
+  private final PostRepository postRepository;
+  private final ClapService clapService;
+  private final TrendingService trendingService;
+  private final PostRenderService postRenderService;
+  private final DraftService draftService;
+  private final PostRevisionService postRevisionService;
+  private final Timer fullSaveTimer;
+  private final Counter fullWrittenCharacters;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+
+  /**
+   * Constructs a new instance of the {@link PostService} class with the specified dependencies.
+   *
+   * @param postRepository the repository class for managing post data
+   * @param clapService the service holding the clap counts not yet written to the database
+   * @param trendingService the service ranking posts by recent reads and claps
+   * @param postRenderService the service caching the rendered bodies of posts
+   * @param draftService the service autosaving the drafts of posts
+   * @param postRevisionService the service recording the revision history of posts
+   * @param meterRegistry the registry for the save metrics
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public PostService(
+      PostRepository postRepository,
+      ClapService clapService,
+      TrendingService trendingService,
+      PostRenderService postRenderService,
+      DraftService draftService,
+      PostRevisionService postRevisionService,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.post.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.post.max-page-size}") int maxPageSize) {
+    this.postRepository = postRepository;
+    this.clapService = clapService;
+    this.trendingService = trendingService;
+    this.postRenderService = postRenderService;
+    this.draftService = draftService;
+    this.postRevisionService = postRevisionService;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+
+    fullSaveTimer =
+        Timer.builder("bloggerhub.drafts.save").tag("mode", "full").register(meterRegistry);
+    fullWrittenCharacters =
+        Counter.builder("bloggerhub.drafts.written")
+            .tag("mode", "full")
+            .baseUnit("characters")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Creates a new post written by the given user.
+   *
+   * @param author the authenticated author
+   * @param dto the post details
+   * @return a response entity containing the created post
+   */
+  public ResponseEntity<Response> createPost(BlogUser author, PostRequestDto dto) {
+    Post post = new Post();
+    post.setAuthorId(author.getId());
+    apply(post, dto);
+    Post saved = postRepository.save(post);
+    postRevisionService.record(saved, null, null);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(
+            new DataResponse<>(
+                true, HttpStatus.CREATED.value(), "Post created.", toResponseDto(saved)));
+  }
+
+  /**
+   * Replaces the content of a post. Only the author may edit a post.
+   *
+   * @param author the authenticated author
+   * @param id the ID of the post
+   * @param dto the new post details
+   * @return a response entity containing the updated post
+   */
+  public ResponseEntity<Response> updatePost(BlogUser author, String id, PostRequestDto dto) {
+    Optional<Post> existing = ObjectId.isValid(id) ? postRepository.findById(id) : Optional.empty();
+    if (existing.isEmpty()) {
+      return notFound();
+    }
+    Post post = existing.get();
+    if (!post.getAuthorId().equals(author.getId())) {
+      return error(HttpStatus.FORBIDDEN, "Only the author can edit this post.");
+    }
+    String previousHash = post.getContentHash();
+    String previousTitle = post.getTitle();
+    String previousBody = post.getBody() == null ? "" : post.getBody();
+    apply(post, dto);
+    long start = System.nanoTime();
+    Post saved = postRepository.updateContent(post);
+    fullSaveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    fullWrittenCharacters.increment(post.getBody() == null ? 0 : post.getBody().length());
+    postRenderService.onContentChanged(previousHash, post.getContentHash());
+    draftService.discard(id);
+    postRevisionService.record(post, previousTitle, previousBody);
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Post updated.", toResponseDto(saved)));
+  }
+
+  /**
+   * Returns the summary of a post without its body. Drafts are only visible to their author.
+   *
+   * @param id the ID of the post
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @return a response entity containing the post summary
+   */
+  public ResponseEntity<Response> getPost(String id, BlogUser viewer) {
+    Optional<PostSummary> summary =
+        ObjectId.isValid(id) ? postRepository.findSummaryById(id) : Optional.empty();
+    if (summary.isEmpty() || !isVisible(summary.get().status(), summary.get().authorId(), viewer)) {
+      return notFound();
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Post found.",
+            clapService.withCurrentClaps(summary.get())));
+  }
+
+  /**
+   * Returns the body of a post. Drafts are only visible to their author.
+   *
+   * @param id the ID of the post
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @return a response entity containing the post body
+   */
+  public ResponseEntity<Response> getPostBody(String id, BlogUser viewer) {
+    Optional<PostContent> content =
+        ObjectId.isValid(id) ? postRepository.findContentById(id) : Optional.empty();
+    if (content.isEmpty() || !isVisible(content.get().status(), content.get().authorId(), viewer)) {
+      return notFound();
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Post found.", content.get()));
+  }
+
+  /**
+   * Returns a page of published posts, newest first, optionally restricted to one author.
+   *
+   * @param authorId the ID of the author, or null for all authors
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getTimeline(String authorId, String cursor, Integer limit) {
+    KeysetCursor after;
+    try {
+      after = KeysetCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    if (authorId != null && !ObjectId.isValid(authorId)) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid author ID.");
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    // Fetch one extra post to learn whether there is a next page without a count query.
+    List<PostSummary> posts =
+        authorId == null
+            ? postRepository.findPublishedTimeline(after, pageSize + 1)
+            : postRepository.findAuthorTimeline(authorId, after, pageSize + 1);
+    String nextCursor = null;
+    if (posts.size() > pageSize) {
+      posts = posts.subList(0, pageSize);
+      PostSummary last = posts.get(pageSize - 1);
+      nextCursor = new KeysetCursor(last.publishedAt(), last.id()).encode();
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Records found.",
+            new PostPageDto(clapService.withCurrentClaps(posts), nextCursor)));
+  }
+
+  /**
+   * Returns the posts with the most reads and claps over the last hour, most trending first.
+   *
+   * @param limit the requested number of posts, or null for the default page size
+   * @return a response entity containing the trending posts
+   */
+  public ResponseEntity<Response> getTrending(Integer limit) {
+    int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Records found.",
+            clapService.withCurrentClaps(trendingService.getTrending(size))));
+  }
+
+  /**
+   * Converts a post entity into the DTO returned by the API.
+   *
+   * @param post the post entity
+   * @return the post response DTO
+   */
+  public static PostResponseDto toResponseDto(Post post) {
+    return new PostResponseDto(
+        post.getId(),
+        post.getAuthorId(),
+        post.getTitle(),
+        post.getSubtitle(),
+        post.getBody(),
+        post.getCoverImage(),
+        post.getTags(),
+        post.getReadingTimeMinutes(),
+        post.getStatus(),
+        post.getPublishedAt(),
+        post.getUpdatedAt());
+  }
+
+  private static void apply(Post post, PostRequestDto dto) {
+    post.setTitle(dto.getTitle());
+    post.setSubtitle(dto.getSubtitle());
+    post.setBody(dto.getBody());
+    post.setContentHash(PostRenderService.contentHash(dto.getBody()));
+    post.setCoverImage(dto.getCoverImage());
+    post.setTags(dto.getTags() == null ? List.of() : List.copyOf(dto.getTags()));
+    post.setExcerpt(excerpt(dto.getBody()));
+    post.setReadingTimeMinutes(readingTimeMinutes(dto.getBody()));
+    if (dto.isPublish() && post.getStatus() == PostStatus.DRAFT) {
+      post.setStatus(PostStatus.PUBLISHED);
+      post.setPublishedAt(Instant.now());
+    }
+  }
+
+  private static boolean isVisible(PostStatus status, String authorId, BlogUser viewer) {
+    return status == PostStatus.PUBLISHED
+        || (viewer != null && viewer.getId().equals(authorId));
+  }
+
+  /** Strips the most common Markdown markup and cuts the text at a word boundary. */
+  static String excerpt(String body) {
+    if (body == null) {
+      return null;
+    }
+    String text =
+        body.replaceAll("!?\\[([^\\]]*)\\]\\([^)]*\\)", "$1")
+            .replaceAll("[#>*_`~|]", "")
+            .replaceAll("\\s+", " ")
+            .trim();
+    if (text.length() <= EXCERPT_LENGTH) {
+      return text;
+    }
+    int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+    return text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "…";
+  }
+
+  static int readingTimeMinutes(String body) {
+    if (body == null || body.isBlank()) {
+      return 0;
+    }
+    int words = body.trim().split("\\s+").length;
+    return Math.max(1, (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE);
+  }
+
+  private static ResponseEntity<Response> notFound() {
+    return error(HttpStatus.NOT_FOUND, "Post not found.");
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
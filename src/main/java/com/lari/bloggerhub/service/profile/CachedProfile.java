@@ -0,0 +1,65 @@
+package com.lari.bloggerhub.service.profile;
+
+import com.lari.bloggerhub.dto.response.PublicProfileDto;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ResponseFormat;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class represents a cached public profile: the serialized response bodies of one user
+ * together with the version they were rendered from.
+ *
+ * <p>The JSON body is rendered when the entry is created; the binary formats are rendered from the
+ * same response on first request and kept alongside it, so all bodies describe the same version.
+ */
+final class CachedProfile {
+
+  private final String id;
+  private final String username;
+  private final String version;
+  private final DataResponse<PublicProfileDto> response;
+  private final AtomicReferenceArray<byte[]> bodies =
+      new AtomicReferenceArray<>(ResponseFormat.values().length);
+
+  CachedProfile(
+      String id,
+      String username,
+      String version,
+      DataResponse<PublicProfileDto> response,
+      byte[] jsonBody) {
+    this.id = id;
+    this.username = username;
+    this.version = version;
+    this.response = response;
+    bodies.set(ResponseFormat.JSON.ordinal(), jsonBody);
+  }
+
+  String getId() {
+    return id;
+  }
+
+  String getUsername() {
+    return username;
+  }
+
+  DataResponse<PublicProfileDto> getResponse() {
+    return response;
+  }
+
+  byte[] getBody(ResponseFormat format) {
+    return bodies.get(format.ordinal());
+  }
+
+  void setBody(ResponseFormat format, byte[] body) {
+    bodies.set(format.ordinal(), body);
+  }
+
+  /**
+   * Returns the strong entity tag of the representation in the given format. Each format has its
+   * own tag, since the bodies differ byte for byte.
+   */
+  String etag(ResponseFormat format) {
+    String suffix = format == ResponseFormat.JSON ? "" : "-" + format.name().toLowerCase();
+    return "\"" + id + "-" + version + suffix + "\"";
+  }
+}
@@ -0,0 +1,44 @@
+package com.lari.bloggerhub.service.profile;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class evicts cached public profiles on every node whenever a {@link BlogUser} document is
+ * saved or deleted, so profile edits become visible on the next request.
+ */
+@Component
+public class ProfileCacheInvalidationListener extends AbstractMongoEventListener<BlogUser> {
+
+  private final InvalidationBus invalidationBus;
+
+  /**
+   * Constructs a new instance of the {@link ProfileCacheInvalidationListener} class.
+   *
+   * @param invalidationBus the bus the profile caches of all nodes subscribe to
+   */
+  public ProfileCacheInvalidationListener(InvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<BlogUser> event) {
+    invalidationBus.publish(CacheRegion.PROFILE, event.getSource().getId());
+  }
+
+  @Override
+  public void onAfterDelete(@NonNull AfterDeleteEvent<BlogUser> event) {
+    Document filter = event.getSource();
+    Object id = filter.get("_id");
+    if (id != null) {
+      invalidationBus.publish(CacheRegion.PROFILE, id.toString());
+    }
+  }
+}
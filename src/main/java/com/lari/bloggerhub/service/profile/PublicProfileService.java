@@ -0,0 +1,216 @@
+package com.lari.bloggerhub.service.profile;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.dto.response.PublicProfileDto;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.ResponseFormat;
+import com.lari.bloggerhub.response.ResponseWriters;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.cache.BoundedLruCache;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * This class provides the cached read path for public user profiles in the Blogger Hub
+ * application.
+ *
+ * <p>Profiles are served to anonymous clients with {@code Cache-Control: public}, so they are
+ * rendered as a {@link PublicProfileDto}, which leaves out the email address and roles.
+ *
+ * <p>Profiles are cached as serialized response bodies, keyed by user ID, and a second cache maps
+ * usernames to IDs. A username entry is only trusted if the profile it points to still carries
+ * that username, so evicting a user removes one entry and renames never need the old name. Every
+ * body carries a strong ETag derived from {@link BlogUser#getUpdatedAt()}, so a conditional request
+ * whose {@code If-None-Match} matches a cached entry is answered with 304 without touching MongoDB
+ * or the serializer. Entries are evicted on every node whenever the user document is saved or
+ * deleted, through the {@link InvalidationBus}.
+ */
+@Service
+public class PublicProfileService {
+
+  private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{24}");
+
+  private final BlogUserRepository blogUserRepository;
+  private final ResponseWriters responseWriters;
+  private final BoundedLruCache<String, CachedProfile> cache;
+  private final BoundedLruCache<String, String> usernames;
+  private final CacheControl cacheControl;
+  private final JavaType profileType;
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Constructs a new instance of the {@link PublicProfileService} class with the specified
+   * dependencies.
+   *
+   * @param blogUserRepository the repository class for managing user data
+   * @param responseWriters the precompiled writers for the response envelopes
+   * @param invalidationBus the bus that evicts profiles changed on any node
+   * @param cacheSize the maximum number of cached profiles
+   * @param maxAge how long clients and CDNs may reuse a profile without revalidating
+   * @param staleWhileRevalidate how long a CDN may serve a stale profile while revalidating
+   */
+  public PublicProfileService(
+      BlogUserRepository blogUserRepository,
+      ResponseWriters responseWriters,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.profile.cache-size}") int cacheSize,
+      @Value("${bloggerhub.profile.max-age}") Duration maxAge,
+      @Value("${bloggerhub.profile.stale-while-revalidate}") Duration staleWhileRevalidate) {
+    this.blogUserRepository = blogUserRepository;
+    this.responseWriters = responseWriters;
+    this.cache = new BoundedLruCache<>(cacheSize);
+    this.usernames = new BoundedLruCache<>(cacheSize);
+    this.cacheControl =
+        CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(staleWhileRevalidate);
+    this.profileType = responseWriters.type(DataResponse.class, PublicProfileDto.class);
+    invalidationBus.subscribe(CacheRegion.PROFILE, this::evict, this::evictAll);
+  }
+
+  /**
+   * Returns the public profile of a user, identified by ID or username.
+   *
+   * @param idOrUsername the ID or the username of the user
+   * @param accept the {@code Accept} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity with the serialized profile, or 304 if the client copy is current
+   */
+  public ResponseEntity<byte[]> getProfile(String idOrUsername, String accept, String ifNoneMatch) {
+    ResponseFormat format = ResponseFormat.negotiate(accept);
+    boolean byId = OBJECT_ID.matcher(idOrUsername).matches();
+
+    CachedProfile profile = byId ? cache.get(idOrUsername) : cachedByUsername(idOrUsername);
+    if (profile == null) {
+      long generation = evictions.get();
+      Optional<BlogUser> user =
+          byId
+              ? blogUserRepository.findProfileById(idOrUsername)
+              : blogUserRepository.findProfileByUsername(idOrUsername);
+      if (user.isEmpty()) {
+        return notFound(format);
+      }
+      profile = render(user.get());
+      // Skip caching if an eviction raced with the load, the entry may already be stale.
+      if (evictions.get() == generation) {
+        cache.put(profile.getId(), profile);
+        usernames.put(profile.getUsername(), profile.getId());
+      }
+    }
+
+    String etag = profile.etag(format);
+    if (matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(cacheControl)
+          .varyBy(HttpHeaders.ACCEPT)
+          .build();
+    }
+
+    byte[] body = profile.getBody(format);
+    if (body == null) {
+      body = responseWriters.write(format, profileType, profile.getResponse());
+      profile.setBody(format, body);
+    }
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .eTag(etag)
+        .cacheControl(cacheControl)
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(body);
+  }
+
+  /**
+   * Evicts the cached profile of the given user. Username entries pointing to it become misses.
+   *
+   * @param userId the ID of the user
+   */
+  public void evict(String userId) {
+    evictions.incrementAndGet();
+    cache.remove(userId);
+  }
+
+  /** Evicts every cached profile. */
+  public void evictAll() {
+    evictions.incrementAndGet();
+    cache.clear();
+    usernames.clear();
+  }
+
+  private CachedProfile cachedByUsername(String username) {
+    String id = usernames.get(username);
+    CachedProfile profile = id == null ? null : cache.get(id);
+    // The user was renamed since the username was cached.
+    return profile != null && profile.getUsername().equals(username) ? profile : null;
+  }
+
+  private CachedProfile render(BlogUser user) {
+    DataResponse<PublicProfileDto> response = toEnvelope(user);
+    byte[] json = responseWriters.write(ResponseFormat.JSON, profileType, response);
+    return new CachedProfile(
+        user.getId(), user.getUsername(), version(user, json), response, json);
+  }
+
+  private static DataResponse<PublicProfileDto> toEnvelope(BlogUser user) {
+    return new DataResponse<>(
+        true,
+        HttpStatus.OK.value(),
+        "Record found.",
+        new PublicProfileDto(
+            user.getId(), user.getUsername(), user.getBio(), user.getProfilePicture()));
+  }
+
+  private ResponseEntity<byte[]> notFound(ResponseFormat format) {
+    ErrorResponse error =
+        new ErrorResponse(
+            false,
+            HttpStatus.NOT_FOUND.value(),
+            "User not found",
+            HttpStatus.NOT_FOUND.getReasonPhrase());
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .contentType(format.getMediaType())
+        .body(responseWriters.write(format, responseWriters.type(ErrorResponse.class), error));
+  }
+
+  private static String version(BlogUser user, byte[] json) {
+    Instant modified = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+    // The "p" prefix separates these tags from those of the former representation, which
+    // included the email address and roles.
+    if (modified != null) {
+      return "p" + Long.toHexString(modified.toEpochMilli());
+    }
+    // Documents written before auditing was enabled carry no timestamps.
+    CRC32 crc = new CRC32();
+    crc.update(json);
+    return "pc" + Long.toHexString(crc.getValue());
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (!StringUtils.hasText(ifNoneMatch)) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
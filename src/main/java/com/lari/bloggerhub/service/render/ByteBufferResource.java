@@ -0,0 +1,96 @@
+package com.lari.bloggerhub.service.render;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * This class exposes the remaining bytes of a {@link ByteBuffer}, such as a memory-mapped file, as
+ * a {@link org.springframework.core.io.Resource}, so it can be returned from a controller with
+ * support for range requests.
+ */
+class ByteBufferResource extends AbstractResource {
+
+  private final ByteBuffer buffer;
+  private final String description;
+
+  /**
+   * Constructs a new resource over the remaining bytes of a buffer.
+   *
+   * @param buffer the buffer, which is not modified
+   * @param description the description used in log messages
+   */
+  ByteBufferResource(ByteBuffer buffer, String description) {
+    this.buffer = buffer.duplicate();
+    this.description = description;
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    ByteBuffer source = buffer.duplicate();
+    return new InputStream() {
+      @Override
+      public int read() {
+        return source.hasRemaining() ? source.get() & 0xff : -1;
+      }
+
+      @Override
+      public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+          return 0;
+        }
+        if (!source.hasRemaining()) {
+          return -1;
+        }
+        int count = Math.min(length, source.remaining());
+        source.get(bytes, offset, count);
+        return count;
+      }
+
+      @Override
+      public long skip(long count) {
+        int skipped = (int) Math.max(0, Math.min(count, source.remaining()));
+        source.position(source.position() + skipped);
+        return skipped;
+      }
+
+      @Override
+      public int available() {
+        return source.remaining();
+      }
+    };
+  }
+
+  @Override
+  public byte[] getContentAsByteArray() {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Override
+  public long contentLength() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public boolean isFile() {
+    return false;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(this);
+  }
+}
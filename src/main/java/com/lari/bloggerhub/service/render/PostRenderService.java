@@ -0,0 +1,300 @@
+package com.lari.bloggerhub.service.render;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostContent;
+import com.lari.bloggerhub.repository.projection.PostContentKey;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.service.render.RenderedBodyCache.RenderedBody;
+import com.lari.bloggerhub.util.file.StorageDirectories;
+import com.lari.bloggerhub.util.markdown.MarkdownRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This class provides the HTML rendering of post bodies in the Blogger Hub application.
+ *
+ * <p>Bodies are written in Markdown and rendered into sanitized HTML by the {@link
+ * MarkdownRenderer} once per content hash, together with a gzip variant compressed at the highest
+ * level. Renderings are kept in a {@link RenderedBodyCache} and served as they are stored: clients
+ * that accept gzip get the precompressed bytes, so nothing is rendered or compressed on a cache
+ * hit. The content hash is stored with the post, so a hit never loads the body from MongoDB, and it
+ * doubles as the entity tag for conditional requests, suffixed for the gzip variant.
+ *
+ * <p>Editing the body of a post changes its hash, so a stale rendering is never served; the
+ * rendering of the previous content is evicted when the edit is saved. Concurrent misses for the
+ * same content share a single rendering.
+ */
+@Service
+public class PostRenderService {
+
+  /** The version of the rendered output, bumped whenever the renderer changes its output. */
+  static final int RENDER_VERSION = 1;
+
+  private static final MediaType TEXT_HTML_UTF8 =
+      new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+  private final PostRepository postRepository;
+  private final RenderedBodyCache cache;
+  private final ConcurrentHashMap<String, CompletableFuture<RenderedBody>> rendering =
+      new ConcurrentHashMap<>();
+  private final Counter renders;
+
+  /**
+   * Constructs a new instance of the {@link PostRenderService} class with the specified
+   * dependencies, and opens the disk tier of the cache.
+   *
+   * @param postRepository the repository class used to load the bodies of posts
+   * @param meterRegistry the registry for the cache metrics
+   * @param directory the directory of the disk tier
+   * @param heapEntries the maximum number of renderings on the heap
+   * @param maxHeapEntrySize the largest rendering held on the heap
+   * @param maxDiskSize the maximum size of the disk tier
+   */
+  public PostRenderService(
+      PostRepository postRepository,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.render.directory}") Path directory,
+      @Value("${bloggerhub.render.heap-entries}") int heapEntries,
+      @Value("${bloggerhub.render.max-heap-entry-size}") DataSize maxHeapEntrySize,
+      @Value("${bloggerhub.render.max-disk-size}") DataSize maxDiskSize) {
+    this.postRepository = postRepository;
+    this.cache =
+        new RenderedBodyCache(
+            StorageDirectories.requireOutsideTemporary(directory, "rendered post cache"),
+            RENDER_VERSION,
+            heapEntries,
+            maxHeapEntrySize.toBytes(),
+            maxDiskSize.toBytes());
+
+    renders = Counter.builder("bloggerhub.render.renders").register(meterRegistry);
+    Gauge.builder("bloggerhub.render.heap.entries", cache, RenderedBodyCache::heapEntries)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.render.disk.entries", cache, RenderedBodyCache::diskEntries)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.render.disk.bytes", cache, RenderedBodyCache::diskBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the body of a post rendered as HTML. Drafts are only visible to their author.
+   *
+   * @param id the ID of the post
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity containing the HTML, or an error response
+   */
+  public ResponseEntity<?> getPostHtml(
+      String id, BlogUser viewer, String acceptEncoding, String ifNoneMatch) {
+    Optional<PostContentKey> key =
+        ObjectId.isValid(id) ? postRepository.findContentKeyById(id) : Optional.empty();
+    if (key.isEmpty() || !isVisible(key.get().status(), key.get().authorId(), viewer)) {
+      return notFound();
+    }
+    CacheControl cacheControl =
+        key.get().status() == PostStatus.PUBLISHED
+            ? CacheControl.noCache()
+            : CacheControl.noCache().cachePrivate();
+    String hash = key.get().contentHash();
+    boolean gzip = acceptsGzip(acceptEncoding);
+    if (hash != null && matches(ifNoneMatch, renderingETag(hash, gzip))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(renderingETag(hash, gzip))
+          .cacheControl(cacheControl)
+          .varyBy(HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    RenderedBody body = hash == null ? null : cache.get(hash);
+    if (body == null) {
+      // Missing or changed since the key was read; the loaded body decides what is rendered.
+      Optional<PostContent> content = postRepository.findContentById(id);
+      if (content.isEmpty()) {
+        return notFound();
+      }
+      body = render(content.get().body());
+    }
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(TEXT_HTML_UTF8)
+            .eTag(renderingETag(body.hash(), gzip))
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(
+        new ByteBufferResource(gzip ? body.gzip() : body.html(), "rendering " + body.hash()));
+  }
+
+  /**
+   * Evicts the rendering of content that a post no longer has.
+   *
+   * @param previousHash the content hash of the post before the edit, may be null
+   * @param currentHash the content hash of the post after the edit
+   */
+  public void onContentChanged(String previousHash, String currentHash) {
+    if (previousHash != null && !previousHash.equals(currentHash)) {
+      cache.invalidate(previousHash);
+    }
+  }
+
+  /**
+   * Computes the content hash of a post body.
+   *
+   * @param body the Markdown body, may be null
+   * @return the hex encoded SHA-256 of the body
+   */
+  public static String contentHash(String body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] bytes = (body == null ? "" : body).getBytes(StandardCharsets.UTF_8);
+      return HexFormat.of().formatHex(digest.digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private RenderedBody render(String markdown) {
+    String hash = contentHash(markdown);
+    RenderedBody cached = cache.get(hash);
+    if (cached != null) {
+      return cached;
+    }
+    CompletableFuture<RenderedBody> future = new CompletableFuture<>();
+    CompletableFuture<RenderedBody> running = rendering.putIfAbsent(hash, future);
+    if (running != null) {
+      return running.join().duplicate();
+    }
+    try {
+      byte[] html = MarkdownRenderer.render(markdown).getBytes(StandardCharsets.UTF_8);
+      RenderedBody body =
+          new RenderedBody(hash, ByteBuffer.wrap(html), ByteBuffer.wrap(gzip(html)));
+      renders.increment();
+      cache.put(body);
+      future.complete(body);
+      return body.duplicate();
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      rendering.remove(hash);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3 + 64);
+    try (GZIPOutputStream out =
+        new GZIPOutputStream(compressed) {
+          {
+            def.setLevel(Deflater.BEST_COMPRESSION);
+          }
+        }) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Returns the strong entity tag of one encoding of a representation. The gzip and identity
+   * encodings differ byte for byte, so they must not share a strong tag.
+   *
+   * @param tag the opaque tag of the representation, without quotes
+   * @param gzip whether the body is sent gzip compressed
+   * @return the quoted entity tag
+   */
+  public static String eTag(String tag, boolean gzip) {
+    return "\"" + tag + (gzip ? "-gz" : "") + "\"";
+  }
+
+  /** Returns whether an {@code Accept-Encoding} header accepts gzip with a non-zero quality. */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].strip().toLowerCase(Locale.ROOT);
+      if (!name.equals("gzip") && !name.equals("*")) {
+        continue;
+      }
+      boolean rejected = false;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].strip();
+        if (parameter.startsWith("q=")) {
+          try {
+            rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+          } catch (NumberFormatException e) {
+            rejected = true;
+          }
+        }
+      }
+      if (!rejected) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matches(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.strip();
+      if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String renderingETag(String hash, boolean gzip) {
+    return eTag(hash + "-" + RENDER_VERSION, gzip);
+  }
+
+  private static boolean isVisible(PostStatus status, String authorId, BlogUser viewer) {
+    return status == PostStatus.PUBLISHED
+        || (viewer != null && viewer.getId().equals(authorId));
+  }
+
+  private static ResponseEntity<?> notFound() {
+    HttpStatus status = HttpStatus.NOT_FOUND;
+    // The endpoint produces HTML, so the JSON error must name its own content type.
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(
+            new ErrorResponse(false, status.value(), "Post not found.", status.getReasonPhrase()));
+  }
+}
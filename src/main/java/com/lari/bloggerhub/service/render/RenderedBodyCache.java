@@ -0,0 +1,285 @@
+package com.lari.bloggerhub.service.render;
+
+import com.lari.bloggerhub.util.cache.BoundedLruCache;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the two-tier cache of rendered post bodies, keyed by content hash.
+ *
+ * <p>Hot renderings are held on the heap in a {@link BoundedLruCache}. Every rendering is also
+ * written to a pair of files in a local directory, which is bounded by size with LRU eviction and
+ * read through memory mappings, so the long tail is served from the page cache without occupying
+ * the heap. A rendering read from disk is promoted to the heap tier.
+ *
+ * <p>Files are written under a temporary name and moved into place atomically, so readers never
+ * see a partial rendering, and a file deleted while mapped stays readable until it is unmapped.
+ * The file names include the version of the rendering, so renderings of an older renderer left on
+ * disk are deleted on startup.
+ */
+class RenderedBodyCache {
+
+  private static final Logger log = LoggerFactory.getLogger(RenderedBodyCache.class);
+
+  private static final String HTML_SUFFIX = ".html";
+  private static final String GZIP_SUFFIX = ".html.gz";
+
+  /**
+   * Represents a rendered post body with its precompressed variant.
+   *
+   * @param hash the content hash of the Markdown source
+   * @param html the UTF-8 encoded HTML
+   * @param gzip the gzip compressed HTML
+   */
+  record RenderedBody(String hash, ByteBuffer html, ByteBuffer gzip) {
+
+    long sizeInBytes() {
+      return html.remaining() + gzip.remaining();
+    }
+
+    /** Returns a view of the rendering with buffer positions independent of this one. */
+    RenderedBody duplicate() {
+      return new RenderedBody(hash, html.duplicate(), gzip.duplicate());
+    }
+  }
+
+  private final BoundedLruCache<String, RenderedBody> heap;
+  private final long maxHeapEntrySize;
+  private final Path directory;
+  private final String version;
+  private final long maxDiskSize;
+  private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+  private long diskBytes;
+
+  /**
+   * Constructs a new cache, indexing the renderings already on disk.
+   *
+   * @param directory the directory of the disk tier
+   * @param version the version of the renderer, part of the file names
+   * @param heapEntries the maximum number of renderings on the heap
+   * @param maxHeapEntrySize the largest rendering held on the heap, in bytes
+   * @param maxDiskSize the maximum size of the disk tier, in bytes
+   */
+  RenderedBodyCache(
+      Path directory, int version, int heapEntries, long maxHeapEntrySize, long maxDiskSize) {
+    this.heap = new BoundedLruCache<>(heapEntries);
+    this.maxHeapEntrySize = maxHeapEntrySize;
+    this.directory = directory;
+    this.version = ".v" + version;
+    this.maxDiskSize = maxDiskSize;
+    try {
+      Files.createDirectories(directory);
+      loadDiskIndex();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open the render cache in " + directory, e);
+    }
+  }
+
+  /**
+   * Returns the rendering for a content hash.
+   *
+   * @param hash the content hash
+   * @return the rendering, or null if it is not cached
+   */
+  RenderedBody get(String hash) {
+    RenderedBody body = heap.get(hash);
+    if (body != null) {
+      return body.duplicate();
+    }
+    synchronized (this) {
+      if (files.get(hash) == null) {
+        return null;
+      }
+    }
+    try {
+      body = new RenderedBody(hash, map(hash, HTML_SUFFIX), map(hash, GZIP_SUFFIX));
+    } catch (NoSuchFileException e) {
+      forget(hash);
+      return null;
+    } catch (IOException e) {
+      log.warn("Could not read the rendering {} from disk", hash, e);
+      return null;
+    }
+    if (body.sizeInBytes() <= maxHeapEntrySize) {
+      heap.put(hash, copyToHeap(body));
+    }
+    return body;
+  }
+
+  /**
+   * Stores a rendering in both tiers, evicting the least recently used files beyond the size limit
+   * of the disk tier.
+   *
+   * @param body the rendering
+   */
+  void put(RenderedBody body) {
+    if (body.sizeInBytes() <= maxHeapEntrySize) {
+      heap.put(body.hash(), body.duplicate());
+    }
+    try {
+      write(body.hash(), HTML_SUFFIX, body.html());
+      write(body.hash(), GZIP_SUFFIX, body.gzip());
+    } catch (IOException e) {
+      log.warn("Could not write the rendering {} to disk", body.hash(), e);
+      return;
+    }
+    List<String> evicted = new ArrayList<>();
+    synchronized (this) {
+      Long previous = files.put(body.hash(), body.sizeInBytes());
+      diskBytes += body.sizeInBytes() - (previous == null ? 0 : previous);
+      Iterator<Map.Entry<String, Long>> eldest = files.entrySet().iterator();
+      while (diskBytes > maxDiskSize && files.size() > 1) {
+        Map.Entry<String, Long> entry = eldest.next();
+        diskBytes -= entry.getValue();
+        evicted.add(entry.getKey());
+        eldest.remove();
+      }
+    }
+    evicted.forEach(this::delete);
+  }
+
+  /**
+   * Removes the rendering for a content hash from both tiers.
+   *
+   * @param hash the content hash
+   */
+  void invalidate(String hash) {
+    heap.remove(hash);
+    if (forget(hash)) {
+      delete(hash);
+    }
+  }
+
+  /** Returns the number of renderings on the heap. */
+  int heapEntries() {
+    return heap.size();
+  }
+
+  /** Returns the number of renderings on disk. */
+  synchronized int diskEntries() {
+    return files.size();
+  }
+
+  /** Returns the size of the renderings on disk, in bytes. */
+  synchronized long diskBytes() {
+    return diskBytes;
+  }
+
+  private synchronized boolean forget(String hash) {
+    Long size = files.remove(hash);
+    if (size == null) {
+      return false;
+    }
+    diskBytes -= size;
+    return true;
+  }
+
+  private ByteBuffer map(String hash, String suffix) throws IOException {
+    try (FileChannel channel = FileChannel.open(file(hash, suffix), StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private void write(String hash, String suffix, ByteBuffer content) throws IOException {
+    Path target = file(hash, suffix);
+    Path temp = Files.createTempFile(directory, hash, ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+      ByteBuffer source = content.duplicate();
+      while (source.hasRemaining()) {
+        channel.write(source);
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private void delete(String hash) {
+    try {
+      Files.deleteIfExists(file(hash, HTML_SUFFIX));
+      Files.deleteIfExists(file(hash, GZIP_SUFFIX));
+    } catch (IOException e) {
+      log.warn("Could not delete the rendering {} from disk", hash, e);
+    }
+  }
+
+  private Path file(String hash, String suffix) {
+    return directory.resolve(hash + version + suffix);
+  }
+
+  /**
+   * Indexes the renderings of the current version on disk, least recently modified first, and
+   * deletes everything else in the directory.
+   */
+  private void loadDiskIndex() throws IOException {
+    List<Path> renderings = new ArrayList<>();
+    List<Path> variants = new ArrayList<>();
+    try (Stream<Path> listing = Files.list(directory)) {
+      for (Path path : (Iterable<Path>) listing::iterator) {
+        if (path.getFileName().toString().endsWith(version + HTML_SUFFIX)) {
+          renderings.add(path);
+        } else if (path.getFileName().toString().endsWith(version + GZIP_SUFFIX)) {
+          variants.add(path);
+        } else {
+          Files.deleteIfExists(path);
+        }
+      }
+    }
+    renderings.sort(Comparator.comparing(RenderedBodyCache::lastModified));
+    for (Path html : renderings) {
+      String name = html.getFileName().toString();
+      String hash = name.substring(0, name.length() - version.length() - HTML_SUFFIX.length());
+      Path gzip = file(hash, GZIP_SUFFIX);
+      if (Files.exists(gzip)) {
+        long size = Files.size(html) + Files.size(gzip);
+        files.put(hash, size);
+        diskBytes += size;
+      } else {
+        Files.deleteIfExists(html);
+      }
+    }
+    for (Path gzip : variants) {
+      String name = gzip.getFileName().toString();
+      if (!files.containsKey(name.substring(0, name.indexOf(version)))) {
+        Files.deleteIfExists(gzip);
+      }
+    }
+    log.info("Render cache opened with {} renderings on disk", files.size());
+  }
+
+  private static FileTime lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static RenderedBody copyToHeap(RenderedBody body) {
+    return new RenderedBody(body.hash(), copy(body.html()), copy(body.gzip()));
+  }
+
+  private static ByteBuffer copy(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+}
@@ -0,0 +1,263 @@
+package com.lari.bloggerhub.service.revision;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostRevision;
+import com.lari.bloggerhub.dto.response.RevisionDto;
+import com.lari.bloggerhub.dto.response.RevisionPageDto;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.PostRevisionRepository;
+import com.lari.bloggerhub.repository.projection.PostContentKey;
+import com.lari.bloggerhub.repository.projection.PostRevisionInfo;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.render.PostRenderService;
+import com.lari.bloggerhub.util.revision.RevisionCodec;
+import com.lari.bloggerhub.util.text.TextDiff;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Optional;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the revision history of posts in the Blogger Hub application.
+ *
+ * <p>Every save of a post that changes its title or body is recorded as a {@link PostRevision}.
+ * Most revisions are stored as compressed deltas from the previous one; a compressed keyframe of
+ * the full body is stored at least every {@code maxDeltas} revisions, and earlier when the delta
+ * would be almost as large. Any revision is therefore rebuilt by reading one keyframe and at most
+ * {@code maxDeltas} deltas, whatever the length of the history, while the storage grows with the
+ * size of the edits rather than the size of the post.
+ *
+ * <p>The history is listed from the revision metadata alone, without reading the bodies.
+ */
+@Service
+public class PostRevisionService {
+
+  private static final Logger log = LoggerFactory.getLogger(PostRevisionService.class);
+
+  private final PostRevisionRepository postRevisionRepository;
+  private final PostRepository postRepository;
+  private final int maxDeltas;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+  private final Counter keyframeBytes;
+  private final Counter deltaBytes;
+  private final Timer restoreTimer;
+
+  /**
+   * Constructs a new instance of the {@link PostRevisionService} class with the specified
+   * dependencies.
+   *
+   * @param postRevisionRepository the repository class for the revisions of posts
+   * @param postRepository the repository class used to check the author of a post
+   * @param meterRegistry the registry for the history metrics
+   * @param maxDeltas the maximum number of deltas after a keyframe
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   */
+  public PostRevisionService(
+      PostRevisionRepository postRevisionRepository,
+      PostRepository postRepository,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.revisions.max-deltas}") int maxDeltas,
+      @Value("${bloggerhub.revisions.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.revisions.max-page-size}") int maxPageSize) {
+    this.postRevisionRepository = postRevisionRepository;
+    this.postRepository = postRepository;
+    this.maxDeltas = maxDeltas;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+
+    keyframeBytes =
+        Counter.builder("bloggerhub.revisions.stored")
+            .tag("kind", "keyframe")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    deltaBytes =
+        Counter.builder("bloggerhub.revisions.stored")
+            .tag("kind", "delta")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    restoreTimer = Timer.builder("bloggerhub.revisions.restore").register(meterRegistry);
+  }
+
+  /**
+   * Records a save of a post as a new revision, if its title or body changed. A failure is logged
+   * rather than failing the save, which has already been written.
+   *
+   * @param post the saved post
+   * @param previousTitle the title before the save, or null for a new post
+   * @param previousBody the body before the save, or null for a new post
+   */
+  public void record(Post post, String previousTitle, String previousBody) {
+    String body = post.getBody() == null ? "" : post.getBody();
+    if (previousBody != null
+        && previousBody.equals(body)
+        && String.valueOf(previousTitle).equals(String.valueOf(post.getTitle()))) {
+      return;
+    }
+    try {
+      Optional<PostRevisionInfo> head =
+          previousBody == null
+              ? Optional.empty()
+              : postRevisionRepository.findFirstByPostIdOrderByRevisionDesc(post.getId());
+      PostRevision revision = new PostRevision();
+      revision.setPostId(post.getId());
+      revision.setTitle(post.getTitle());
+      revision.setLength(body.length());
+      revision.setContentHash(PostRenderService.contentHash(body));
+      byte[] keyframe = RevisionCodec.encodeKeyframe(body);
+      if (head.isEmpty()) {
+        insertKeyframe(revision, 1, keyframe);
+        return;
+      }
+      if (!PostRenderService.contentHash(previousBody).equals(head.get().contentHash())) {
+        // A concurrent save recorded another text since the previous body was read.
+        insertKeyframe(revision, head.get().revision() + 1, keyframe);
+        return;
+      }
+      byte[] delta = RevisionCodec.encodeDelta(previousBody, TextDiff.diff(previousBody, body));
+      long number = head.get().revision() + 1;
+      int deltasSinceKeyframe = (int) (head.get().revision() - head.get().keyframe());
+      if (RevisionCodec.needsKeyframe(
+          deltasSinceKeyframe, maxDeltas, delta.length, keyframe.length)) {
+        insertKeyframe(revision, number, keyframe);
+        return;
+      }
+      revision.setRevision(number);
+      revision.setKeyframe(head.get().keyframe());
+      revision.setData(delta);
+      revision.setSize(delta.length);
+      try {
+        postRevisionRepository.insert(revision);
+        deltaBytes.increment(delta.length);
+      } catch (DuplicateKeyException e) {
+        // A concurrent save took the number after the head was read.
+        long latest =
+            postRevisionRepository
+                .findFirstByPostIdOrderByRevisionDesc(post.getId())
+                .map(PostRevisionInfo::revision)
+                .orElse(0L);
+        revision.setId(null);
+        insertKeyframe(revision, latest + 1, keyframe);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not record a revision of post {}: {}", post.getId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Returns a page of the revision history of a post, newest first. Only the author may read it.
+   *
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @param postId the ID of the post
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getHistory(
+      BlogUser viewer, String postId, String cursor, Integer limit) {
+    if (!isAuthor(viewer, postId)) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    long before;
+    try {
+      before = cursor == null ? Long.MAX_VALUE : Long.parseLong(cursor);
+    } catch (NumberFormatException e) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    // Fetch one extra revision to learn whether there is a next page without a count query.
+    List<PostRevisionInfo> revisions =
+        postRevisionRepository.findByPostIdAndRevisionLessThanOrderByRevisionDesc(
+            postId, before, Limit.of(pageSize + 1));
+    String nextCursor = null;
+    if (revisions.size() > pageSize) {
+      revisions = revisions.subList(0, pageSize);
+      nextCursor = Long.toString(revisions.get(pageSize - 1).revision());
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Records found.",
+            new RevisionPageDto(revisions, nextCursor)));
+  }
+
+  /**
+   * Returns a revision of a post, rebuilt from its keyframe. Only the author may read it.
+   *
+   * @param viewer the authenticated user, or null for anonymous requests
+   * @param postId the ID of the post
+   * @param number the number of the revision
+   * @return a response entity containing the revision
+   */
+  public ResponseEntity<Response> getRevision(BlogUser viewer, String postId, long number) {
+    if (!isAuthor(viewer, postId)) {
+      return error(HttpStatus.NOT_FOUND, "Post not found.");
+    }
+    Optional<PostRevisionInfo> info =
+        postRevisionRepository.findByPostIdAndRevision(postId, number);
+    if (info.isEmpty()) {
+      return error(HttpStatus.NOT_FOUND, "Revision not found.");
+    }
+    String body = restoreTimer.record(() -> restore(postId, info.get()));
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Revision found.",
+            new RevisionDto(number, info.get().title(), body, info.get().createdAt())));
+  }
+
+  /** Decodes the keyframe of a revision and applies the deltas up to it, one document at a time. */
+  private String restore(String postId, PostRevisionInfo info) {
+    List<PostRevision> chain =
+        postRevisionRepository.findByPostIdAndRevisionBetweenOrderByRevisionAsc(
+            postId, Range.closed(info.keyframe(), info.revision()));
+    if (chain.size() != info.revision() - info.keyframe() + 1) {
+      throw new IllegalStateException(
+          "The history of post " + postId + " is missing revisions before " + info.revision());
+    }
+    StringBuilder text = new StringBuilder(info.length());
+    RevisionCodec.decodeKeyframe(text, chain.get(0).getData());
+    for (PostRevision delta : chain.subList(1, chain.size())) {
+      RevisionCodec.applyDelta(text, delta.getData());
+    }
+    return text.toString();
+  }
+
+  private void insertKeyframe(PostRevision revision, long number, byte[] keyframe) {
+    revision.setRevision(number);
+    revision.setKeyframe(number);
+    revision.setData(keyframe);
+    revision.setSize(keyframe.length);
+    postRevisionRepository.insert(revision);
+    keyframeBytes.increment(keyframe.length);
+  }
+
+  private boolean isAuthor(BlogUser viewer, String postId) {
+    Optional<PostContentKey> key =
+        ObjectId.isValid(postId) ? postRepository.findContentKeyById(postId) : Optional.empty();
+    return key.isPresent() && viewer != null && key.get().authorId().equals(viewer.getId());
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
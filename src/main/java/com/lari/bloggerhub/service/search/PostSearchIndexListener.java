@@ -0,0 +1,31 @@
+package com.lari.bloggerhub.service.search;
+
+import com.lari.bloggerhub.document.Post;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class hands every saved {@link Post} to the search index, so new and edited posts become
+ * searchable, and unpublished ones disappear from the results, on the next refresh.
+ */
+@Component
+public class PostSearchIndexListener extends AbstractMongoEventListener<Post> {
+
+  private final SearchIndexService searchIndexService;
+
+  /**
+   * Constructs a new instance of the {@link PostSearchIndexListener} class.
+   *
+   * @param searchIndexService the service holding the search index
+   */
+  public PostSearchIndexListener(SearchIndexService searchIndexService) {
+    this.searchIndexService = searchIndexService;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<Post> event) {
+    searchIndexService.onPostSaved(event.getSource());
+  }
+}
@@ -0,0 +1,386 @@
+package com.lari.bloggerhub.service.search;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.response.AuthorCardDto;
+import com.lari.bloggerhub.dto.response.SearchResultDto;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.BlogUserService;
+import com.lari.bloggerhub.service.clap.ClapService;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import com.lari.bloggerhub.util.file.StorageDirectories;
+import com.lari.bloggerhub.util.search.InvertedIndex;
+import com.lari.bloggerhub.util.search.InvertedIndex.Hit;
+import com.lari.bloggerhub.util.search.InvertedIndex.SearchDocument;
+import com.lari.bloggerhub.util.search.Tokenizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This class provides full-text search over the published posts and the users of the Blogger Hub
+ * application.
+ *
+ * <p>Posts and users are indexed in an {@link InvertedIndex} on local disk and ranked with BM25;
+ * the titles and tags of posts and the usernames of users count twice. Saved posts and users reach
+ * the index through mapping event listeners and become searchable on the next refresh, about a
+ * second later. Matching and ranking never query MongoDB; only the cards of the returned page are
+ * loaded, with one batched lookup per type.
+ *
+ * <p>Users saved on any node reach the index of every node through the {@link InvalidationBus}.
+ * Mapping events only cover saves made through the repositories, so the index also catches up
+ * with MongoDB: after startup, on schedule and whenever invalidations may have been missed, posts
+ * and users updated since the checkpoint are indexed again. This picks up posts saved on other
+ * nodes, partial updates and changes made while the index was down. The checkpoint is the start of
+ * the last complete catch-up, slightly moved back to cover writes that were in flight, and is
+ * stored with every refresh. Re-indexing is idempotent, so the margin only costs a little repeated
+ * work.
+ */
+@Service
+public class SearchIndexService {
+
+  private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+  static final byte POST = 0;
+  static final byte USER = 1;
+
+  private static final int DEFAULT_LIMIT = 20;
+  private static final Duration CHECKPOINT_MARGIN = Duration.ofMinutes(1);
+
+  private final MongoTemplate mongoTemplate;
+  private final PostRepository postRepository;
+  private final BlogUserService blogUserService;
+  private final ClapService clapService;
+  private final InvertedIndex index;
+  private final int maxLimit;
+  private final AtomicBoolean merging = new AtomicBoolean();
+  private final AtomicBoolean catchingUp = new AtomicBoolean();
+  private final Timer queryTimer;
+
+  /** The checkpoint of the last complete catch-up, or 0 until the first has completed. */
+  private volatile long caughtUpTo;
+
+  /**
+   * Constructs a new instance of the {@link SearchIndexService} class with the specified
+   * dependencies, and opens the index.
+   *
+   * @param mongoTemplate the template used to catch up with changes
+   * @param postRepository the repository class used to load the post cards of a page
+   * @param blogUserService the service class used to load the user cards of a page
+   * @param clapService the service holding the clap counts not yet written to the database
+   * @param meterRegistry the registry for the search metrics
+   * @param invalidationBus the bus that announces users saved on any node
+   * @param directory the directory of the index
+   * @param mergeFactor the number of segments above which segments are merged
+   * @param maxSegmentSize the size above which segments are no longer merged
+   * @param maxLimit the largest number of results a client may ask for
+   */
+  public SearchIndexService(
+      MongoTemplate mongoTemplate,
+      PostRepository postRepository,
+      BlogUserService blogUserService,
+      ClapService clapService,
+      MeterRegistry meterRegistry,
+      InvalidationBus invalidationBus,
+      @Value("${bloggerhub.search.directory}") Path directory,
+      @Value("${bloggerhub.search.merge-factor}") int mergeFactor,
+      @Value("${bloggerhub.search.max-segment-size}") DataSize maxSegmentSize,
+      @Value("${bloggerhub.search.max-limit}") int maxLimit) {
+    this.mongoTemplate = mongoTemplate;
+    this.postRepository = postRepository;
+    this.blogUserService = blogUserService;
+    this.clapService = clapService;
+    this.maxLimit = maxLimit;
+    try {
+      this.index =
+          InvertedIndex.open(
+              StorageDirectories.requireOutsideTemporary(directory, "search index"),
+              mergeFactor,
+              maxSegmentSize.toBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open the search index", e);
+    }
+
+    queryTimer = Timer.builder("bloggerhub.search.query").register(meterRegistry);
+    Gauge.builder("bloggerhub.search.documents", index, InvertedIndex::documentCount)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.search.segments", index, InvertedIndex::segmentCount)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.search.index.bytes", index, InvertedIndex::sizeInBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    invalidationBus.subscribe(CacheRegion.USER_SEARCH, this::reindexUser, this::scheduledCatchUp);
+  }
+
+  /**
+   * Indexes the posts and users updated since the checkpoint of the index. Runs in the background
+   * after startup.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void catchUp() {
+    if (!catchingUp.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      catchUpSince(caughtUpTo != 0 ? caughtUpTo : index.checkpoint());
+    } finally {
+      catchingUp.set(false);
+    }
+  }
+
+  /** Catches up with the changes since the previous catch-up, without blocking the scheduler. */
+  @Scheduled(
+      fixedDelayString = "${bloggerhub.search.catch-up-interval}",
+      initialDelayString = "${bloggerhub.search.catch-up-interval}")
+  public void scheduledCatchUp() {
+    if (!catchingUp.get()) {
+      Thread.ofVirtual().name("search-catch-up").start(this::catchUp);
+    }
+  }
+
+  private void catchUpSince(long since) {
+    long start = System.currentTimeMillis();
+    Query query =
+        since == 0
+            ? new Query()
+            : Query.query(Criteria.where("updatedAt").gte(Instant.ofEpochMilli(since)));
+    int posts = 0;
+    int users = 0;
+    try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+      for (Post post : (Iterable<Post>) stream::iterator) {
+        onPostSaved(post);
+        posts++;
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not catch up the search index with the posts", e);
+      return;
+    }
+    try (Stream<BlogUser> stream = mongoTemplate.stream(query, BlogUser.class)) {
+      for (BlogUser user : (Iterable<BlogUser>) stream::iterator) {
+        onUserSaved(user);
+        users++;
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not catch up the search index with the users", e);
+      return;
+    }
+    boolean first = caughtUpTo == 0;
+    caughtUpTo = Math.max(since, start - CHECKPOINT_MARGIN.toMillis());
+    refresh();
+    if (first) {
+      log.info(
+          "Caught up the search index with {} posts and {} users in {} ms",
+          posts,
+          users,
+          System.currentTimeMillis() - start);
+    } else {
+      log.debug("Caught up the search index with {} posts and {} users", posts, users);
+    }
+  }
+
+  /**
+   * Indexes a saved post if it is published, and removes it from the index otherwise.
+   *
+   * @param post the saved post
+   */
+  public void onPostSaved(Post post) {
+    if (post.getId() == null) {
+      return;
+    }
+    if (post.getStatus() != PostStatus.PUBLISHED) {
+      index.delete(post.getId());
+      return;
+    }
+    List<String> terms = new ArrayList<>();
+    List<String> title = Tokenizer.tokenize(post.getTitle());
+    terms.addAll(title);
+    terms.addAll(title);
+    if (post.getTags() != null) {
+      for (String tag : post.getTags()) {
+        List<String> tagTerms = Tokenizer.tokenize(tag);
+        terms.addAll(tagTerms);
+        terms.addAll(tagTerms);
+      }
+    }
+    terms.addAll(Tokenizer.tokenize(post.getSubtitle()));
+    terms.addAll(Tokenizer.tokenize(post.getBody()));
+    index.update(new SearchDocument(post.getId(), POST, terms));
+  }
+
+  /** Indexes the stored state of a user saved on any node. */
+  private void reindexUser(String userId) {
+    BlogUser user = mongoTemplate.findById(userId, BlogUser.class);
+    if (user != null) {
+      onUserSaved(user);
+    }
+  }
+
+  /**
+   * Indexes a saved user.
+   *
+   * @param user the saved user
+   */
+  public void onUserSaved(BlogUser user) {
+    if (user.getId() == null || user.getUsername() == null) {
+      return;
+    }
+    List<String> terms = new ArrayList<>();
+    List<String> username = Tokenizer.tokenize(user.getUsername());
+    terms.addAll(username);
+    terms.addAll(username);
+    terms.addAll(Tokenizer.tokenize(user.getBio()));
+    index.update(new SearchDocument(user.getId(), USER, terms));
+  }
+
+  /**
+   * Makes the changes indexed since the previous refresh searchable, and starts a background merge
+   * when there are too many segments.
+   */
+  @Scheduled(fixedDelayString = "${bloggerhub.search.refresh-interval}")
+  public void refresh() {
+    // Until the first catch-up is done, the old checkpoint still marks where it has to start.
+    long checkpoint = caughtUpTo != 0 ? caughtUpTo : index.checkpoint();
+    try {
+      index.refresh(checkpoint);
+    } catch (IOException e) {
+      log.warn("Could not refresh the search index: {}", e.getMessage());
+      return;
+    }
+    if (index.needsMerge() && merging.compareAndSet(false, true)) {
+      Thread.ofVirtual().name("search-merge").start(this::merge);
+    }
+  }
+
+  private void merge() {
+    try {
+      while (index.needsMerge()) {
+        long start = System.nanoTime();
+        index.merge();
+        log.debug("Merged search segments in {} ms", (System.nanoTime() - start) / 1_000_000);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not merge search segments", e);
+    } finally {
+      merging.set(false);
+    }
+  }
+
+  /**
+   * Searches the posts and users matching a query, best match first.
+   *
+   * @param query the query text
+   * @param type {@code post} or {@code user} to search one type only, or null for both
+   * @param limit the requested number of results, or null for the default
+   * @return a response entity containing the results
+   */
+  public ResponseEntity<Response> search(String query, String type, Integer limit) {
+    List<String> terms = Tokenizer.tokenize(query);
+    if (terms.isEmpty()) {
+      return error(HttpStatus.BAD_REQUEST, "The search query must contain a word.");
+    }
+    int typeFilter;
+    if (type == null) {
+      typeFilter = -1;
+    } else if (type.equals("post")) {
+      typeFilter = POST;
+    } else if (type.equals("user")) {
+      typeFilter = USER;
+    } else {
+      return error(HttpStatus.BAD_REQUEST, "The type must be post or user.");
+    }
+    int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, maxLimit));
+    List<Hit> hits = queryTimer.record(() -> index.search(terms, typeFilter, size));
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Records found.", hydrate(hits)));
+  }
+
+  /** Loads the cards of the hits with one lookup per type, dropping hits that no longer exist. */
+  private List<SearchResultDto> hydrate(List<Hit> hits) {
+    List<String> postIds = new ArrayList<>();
+    Set<String> userIds = new LinkedHashSet<>();
+    for (Hit hit : hits) {
+      if (hit.type() == POST) {
+        postIds.add(hit.key());
+      } else {
+        userIds.add(hit.key());
+      }
+    }
+    Map<String, PostSummary> posts = new HashMap<>();
+    if (!postIds.isEmpty()) {
+      for (PostSummary post : postRepository.findSummariesById(postIds)) {
+        posts.put(post.id(), post);
+      }
+    }
+    Map<String, BlogUser> users =
+        userIds.isEmpty() ? Map.of() : blogUserService.findAllById(userIds);
+
+    List<SearchResultDto> results = new ArrayList<>(hits.size());
+    for (Hit hit : hits) {
+      if (hit.type() == POST) {
+        PostSummary post = posts.get(hit.key());
+        if (post != null && post.status() == PostStatus.PUBLISHED) {
+          results.add(
+              new SearchResultDto("post", hit.score(), clapService.withCurrentClaps(post), null));
+        }
+      } else {
+        BlogUser user = users.get(hit.key());
+        if (user != null) {
+          results.add(
+              new SearchResultDto("user", hit.score(), null, AuthorCardDto.from(user)));
+        }
+      }
+    }
+    return results;
+  }
+
+  /** Writes the buffered changes on shutdown, keeping the checkpoint of the last refresh. */
+  @PreDestroy
+  public void close() {
+    try {
+      index.refresh(index.checkpoint());
+    } catch (IOException e) {
+      log.warn("Could not write the buffered search changes: {}", e.getMessage());
+    }
+    index.close();
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
@@ -0,0 +1,33 @@
+package com.lari.bloggerhub.service.search;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.InvalidationBus;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class hands every saved {@link BlogUser} to the search index of every node, so new users
+ * and changed profiles are found by the user search on the next refresh.
+ */
+@Component
+public class UserSearchIndexListener extends AbstractMongoEventListener<BlogUser> {
+
+  private final InvalidationBus invalidationBus;
+
+  /**
+   * Constructs a new instance of the {@link UserSearchIndexListener} class.
+   *
+   * @param invalidationBus the bus the search indexes of all nodes subscribe to
+   */
+  public UserSearchIndexListener(InvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<BlogUser> event) {
+    invalidationBus.publish(CacheRegion.USER_SEARCH, event.getSource().getId());
+  }
+}
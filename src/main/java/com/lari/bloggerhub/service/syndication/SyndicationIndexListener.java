@@ -0,0 +1,31 @@
+package com.lari.bloggerhub.service.syndication;
+
+import com.lari.bloggerhub.document.Post;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class hands every saved {@link Post} to the syndication service, so feeds and sitemaps are
+ * updated entry by entry as posts are published and edited.
+ */
+@Component
+public class SyndicationIndexListener extends AbstractMongoEventListener<Post> {
+
+  private final SyndicationService syndicationService;
+
+  /**
+   * Constructs a new instance of the {@link SyndicationIndexListener} class.
+   *
+   * @param syndicationService the service maintaining the feed and sitemap entries
+   */
+  public SyndicationIndexListener(SyndicationService syndicationService) {
+    this.syndicationService = syndicationService;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<Post> event) {
+    syndicationService.onPostSaved(event.getSource());
+  }
+}
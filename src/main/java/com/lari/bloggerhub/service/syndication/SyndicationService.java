@@ -0,0 +1,522 @@
+package com.lari.bloggerhub.service.syndication;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.document.SitemapShard;
+import com.lari.bloggerhub.document.SyndicationBackfill;
+import com.lari.bloggerhub.document.SyndicationEntry;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.repository.SitemapShardRepository;
+import com.lari.bloggerhub.repository.SyndicationEntryRepository;
+import com.lari.bloggerhub.repository.projection.UserSitemapEntry;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.service.render.PostRenderService;
+import com.mongodb.client.result.UpdateResult;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This class provides the RSS and Atom feeds of authors and the sitemaps of the Blogger Hub
+ * application.
+ *
+ * <p>Feeds and sitemaps are never built from the posts on request. Every save of a post renders
+ * its feed items and sitemap URL once, as gzip members stored in a {@link SyndicationEntry}, and
+ * keeps the counts and versions of the monthly {@link SitemapShard}s up to date; unpublishing a
+ * post removes its entry. A response is the concatenation of a header, the stored segments and a
+ * footer, which is a valid gzip stream, written to the client as the segments are read from a
+ * cursor. Clients that do not accept gzip get each segment decompressed as it is written.
+ *
+ * <p>Feeds and post sitemaps carry entity tags derived from their entries and shard versions, so
+ * conditional requests are answered without reading any segment. User sitemaps are streamed from
+ * a cursor over the users who signed up in a month, one shard per month.
+ */
+@Service
+public class SyndicationService {
+
+  private static final Logger log = LoggerFactory.getLogger(SyndicationService.class);
+
+  /** The maximum number of URLs in one sitemap file. */
+  static final int MAX_SITEMAP_URLS = 50_000;
+
+  /** The key of the first page of a post sitemap shard. */
+  static final String FIRST_PAGE = "0";
+
+  private static final MediaType RSS =
+      new MediaType("application", "rss+xml", StandardCharsets.UTF_8);
+  private static final MediaType ATOM =
+      new MediaType("application", "atom+xml", StandardCharsets.UTF_8);
+  private static final MediaType XML =
+      new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8);
+  private static final byte[] RSS_FOOTER = SyndicationXml.gzip(SyndicationXml.RSS_FOOTER);
+  private static final byte[] ATOM_FOOTER = SyndicationXml.gzip(SyndicationXml.ATOM_FOOTER);
+  private static final byte[] URLSET_HEADER = SyndicationXml.gzip(SyndicationXml.URLSET_HEADER);
+  private static final byte[] URLSET_FOOTER = SyndicationXml.gzip(SyndicationXml.URLSET_FOOTER);
+
+  private final MongoTemplate mongoTemplate;
+  private final SyndicationEntryRepository syndicationEntryRepository;
+  private final SitemapShardRepository sitemapShardRepository;
+  private final BlogUserRepository blogUserRepository;
+  private final String baseUrl;
+  private final int feedSize;
+
+  /**
+   * Constructs a new instance of the {@link SyndicationService} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to maintain and stream the entries
+   * @param syndicationEntryRepository the repository class for the feed and sitemap entries
+   * @param sitemapShardRepository the repository class for the sitemap shards
+   * @param blogUserRepository the repository class used to load authors and list users
+   * @param baseUrl the absolute URL the links of feeds and sitemaps start with
+   * @param feedSize the number of posts in a feed
+   */
+  public SyndicationService(
+      MongoTemplate mongoTemplate,
+      SyndicationEntryRepository syndicationEntryRepository,
+      SitemapShardRepository sitemapShardRepository,
+      BlogUserRepository blogUserRepository,
+      @Value("${bloggerhub.syndication.base-url}") String baseUrl,
+      @Value("${bloggerhub.syndication.feed-size}") int feedSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.syndicationEntryRepository = syndicationEntryRepository;
+    this.sitemapShardRepository = sitemapShardRepository;
+    this.blogUserRepository = blogUserRepository;
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.feedSize = feedSize;
+  }
+
+  /**
+   * Renders the entry of a saved post if it is published, or removes it if it is not. Failures are
+   * logged, as the post itself has been saved.
+   *
+   * @param post the saved post
+   */
+  public void onPostSaved(Post post) {
+    try {
+      if (post.getStatus() == PostStatus.PUBLISHED && post.getPublishedAt() != null) {
+        publish(post);
+      } else {
+        unpublish(post.getId());
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not update the feed entry of post {}: {}", post.getId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Renders the entries of the published posts that have none, such as on the first start after
+   * the feeds were introduced. Runs in the background after startup, on every start until one run
+   * has completed, so a run cut short by a failure or a shutdown is picked up by the next start.
+   * Posts saved meanwhile are rendered by {@link #onPostSaved(Post)}, so posts that already have
+   * an entry are skipped.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    try {
+      if (mongoTemplate.exists(byId(SyndicationBackfill.ID), SyndicationBackfill.class)) {
+        return;
+      }
+      Query query =
+          Query.query(Criteria.where("status").is(PostStatus.PUBLISHED))
+              .with(Sort.by(Sort.Direction.ASC, "publishedAt", "_id"));
+      query.fields().exclude("body");
+      long count = 0;
+      try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+        for (Post post : (Iterable<Post>) posts::iterator) {
+          if (post.getPublishedAt() != null
+              && !syndicationEntryRepository.existsById(post.getId())) {
+            publish(post);
+            count++;
+          }
+        }
+      }
+      mongoTemplate.save(new SyndicationBackfill(Instant.now()));
+      log.info("Rendered the feed entries of {} published posts", count);
+    } catch (RuntimeException e) {
+      log.warn("Could not render the feed entries: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the RSS feed of the latest posts of an author.
+   *
+   * @param userId the ID of the author
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity streaming the feed, or an error response
+   */
+  public ResponseEntity<?> getRssFeed(String userId, String acceptEncoding, String ifNoneMatch) {
+    return getFeed(userId, false, acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns the Atom feed of the latest posts of an author.
+   *
+   * @param userId the ID of the author
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity streaming the feed, or an error response
+   */
+  public ResponseEntity<?> getAtomFeed(String userId, String acceptEncoding, String ifNoneMatch) {
+    return getFeed(userId, true, acceptEncoding, ifNoneMatch);
+  }
+
+  /**
+   * Returns the sitemap index, which lists the post sitemaps of every month with published posts
+   * and the user sitemaps of every month since the first sign-up.
+   *
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity containing the sitemap index
+   */
+  public ResponseEntity<?> getSitemapIndex(String acceptEncoding, String ifNoneMatch) {
+    StringBuilder xml = new StringBuilder(SyndicationXml.XML_DECLARATION);
+    xml.append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+    for (SitemapShard shard : sitemapShardRepository.findAll(Sort.by("id"))) {
+      for (String start : pageStarts(shard)) {
+        sitemap(xml, baseUrl + "/sitemaps/posts/" + shard.getId() + "/" + start + ".xml", shard);
+      }
+    }
+    Optional<UserSitemapEntry> first = blogUserRepository.findFirstByOrderByIdAsc();
+    if (first.isPresent()) {
+      YearMonth now = YearMonth.now(ZoneOffset.UTC);
+      Instant firstSignUp = new ObjectId(first.get().id()).getDate().toInstant();
+      YearMonth month = YearMonth.from(firstSignUp.atOffset(ZoneOffset.UTC));
+      for (; !month.isAfter(now); month = month.plusMonths(1)) {
+        sitemap(xml, baseUrl + "/sitemaps/users/" + month + ".xml", null);
+      }
+    }
+    xml.append("</sitemapindex>\n");
+
+    String index = xml.toString();
+    boolean gzip = PostRenderService.acceptsGzip(acceptEncoding);
+    String eTag =
+        PostRenderService.eTag(PostRenderService.contentHash(index).substring(0, 32), gzip);
+    if (matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    return ok(XML, eTag, gzip)
+        .body(gzip ? SyndicationXml.gzip(index) : index.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns a page of the sitemap of the posts published in a month, streamed from the stored
+   * segments. Pages are keyed by the ID of their first post, so a page is read with a range scan
+   * of the sitemap index instead of skipping the entries of the pages before it.
+   *
+   * @param shard the month, formatted as {@code yyyy-MM}
+   * @param start {@value #FIRST_PAGE} for the first page of the shard, or the ID of the first post
+   *     of a later page, for months with more posts than one sitemap may list
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+   * @return a response entity streaming the sitemap, or an error response
+   */
+  public ResponseEntity<?> getPostSitemap(
+      String shard, String start, String acceptEncoding, String ifNoneMatch) {
+    Optional<SitemapShard> sitemapShard = sitemapShardRepository.findById(shard);
+    if (sitemapShard.isEmpty() || !(start.equals(FIRST_PAGE) || ObjectId.isValid(start))) {
+      return notFound("Sitemap not found.");
+    }
+    boolean gzip = PostRenderService.acceptsGzip(acceptEncoding);
+    String eTag =
+        PostRenderService.eTag(shard + "-" + start + "-" + sitemapShard.get().getVersion(), gzip);
+    if (matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    Criteria criteria = Criteria.where("shard").is(shard);
+    if (!start.equals(FIRST_PAGE)) {
+      criteria.and("_id").gte(new ObjectId(start));
+    }
+    Query query = Query.query(criteria).with(Sort.by("_id")).limit(MAX_SITEMAP_URLS);
+    query.fields().include("sitemapUrl");
+    StreamingResponseBody body =
+        out -> {
+          writeSegment(out, URLSET_HEADER, gzip);
+          try (Stream<SyndicationEntry> entries =
+              mongoTemplate.stream(query, SyndicationEntry.class)) {
+            for (SyndicationEntry entry : (Iterable<SyndicationEntry>) entries::iterator) {
+              writeSegment(out, entry.getSitemapUrl(), gzip);
+            }
+          }
+          writeSegment(out, URLSET_FOOTER, gzip);
+        };
+    return ok(XML, eTag, gzip).body(body);
+  }
+
+  /**
+   * Returns the sitemap of the profiles of the users who signed up in a month, streamed from a
+   * cursor over the users.
+   *
+   * @param month the month, formatted as {@code yyyy-MM}
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be null
+   * @return a response entity streaming the sitemap, or an error response
+   */
+  public ResponseEntity<?> getUserSitemap(String month, String acceptEncoding) {
+    YearMonth yearMonth;
+    try {
+      yearMonth = YearMonth.parse(month);
+    } catch (DateTimeParseException e) {
+      return notFound("Sitemap not found.");
+    }
+    ObjectId from = firstObjectId(yearMonth.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+    ObjectId to =
+        firstObjectId(yearMonth.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+    boolean gzip = PostRenderService.acceptsGzip(acceptEncoding);
+    StreamingResponseBody body =
+        out -> {
+          OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+          Writer writer = new OutputStreamWriter(target, StandardCharsets.UTF_8);
+          writer.write(SyndicationXml.URLSET_HEADER);
+          try (Stream<UserSitemapEntry> users = blogUserRepository.streamSitemapEntries(from, to)) {
+            for (UserSitemapEntry user : (Iterable<UserSitemapEntry>) users::iterator) {
+              writer.write(
+                  SyndicationXml.sitemapUrl(
+                      baseUrl + "/api/users/" + user.username(), user.updatedAt()));
+            }
+          }
+          writer.write(SyndicationXml.URLSET_FOOTER);
+          writer.flush();
+          if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+          }
+        };
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(XML)
+            .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
+  private ResponseEntity<?> getFeed(
+      String userId, boolean atom, String acceptEncoding, String ifNoneMatch) {
+    Optional<BlogUser> author =
+        ObjectId.isValid(userId) ? blogUserRepository.findProfileById(userId) : Optional.empty();
+    if (author.isEmpty()) {
+      return notFound("User not found.");
+    }
+    String segment = atom ? "atomEntry" : "rssItem";
+    Query query =
+        Query.query(Criteria.where("authorId").is(userId))
+            .with(Sort.by(Sort.Direction.DESC, "publishedAt"))
+            .limit(feedSize);
+    query.fields().include(segment, "updatedAt");
+    List<SyndicationEntry> entries = mongoTemplate.find(query, SyndicationEntry.class);
+
+    StringBuilder version = new StringBuilder(segment);
+    version.append(author.get().getUsername()).append(author.get().getBio());
+    Instant updated = null;
+    for (SyndicationEntry entry : entries) {
+      version.append(entry.getId()).append(entry.getUpdatedAt());
+      if (updated == null || entry.getUpdatedAt().isAfter(updated)) {
+        updated = entry.getUpdatedAt();
+      }
+    }
+    boolean gzip = PostRenderService.acceptsGzip(acceptEncoding);
+    String eTag =
+        PostRenderService.eTag(
+            PostRenderService.contentHash(version.toString()).substring(0, 32), gzip);
+    if (matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+
+    String username = author.get().getUsername();
+    String link = baseUrl + "/api/users/" + username;
+    String self = baseUrl + "/api/users/" + userId + (atom ? "/atom" : "/rss");
+    String title = username + " on Blogger Hub";
+    byte[] header =
+        SyndicationXml.gzip(
+            atom
+                ? SyndicationXml.atomHeader(title, link, self, username, updated)
+                : SyndicationXml.rssHeader(
+                    title,
+                    link,
+                    self,
+                    author.get().getBio() == null ? "Posts by " + username : author.get().getBio(),
+                    updated));
+    byte[] footer = atom ? ATOM_FOOTER : RSS_FOOTER;
+    StreamingResponseBody body =
+        out -> {
+          writeSegment(out, header, gzip);
+          for (SyndicationEntry entry : entries) {
+            writeSegment(out, atom ? entry.getAtomEntry() : entry.getRssItem(), gzip);
+          }
+          writeSegment(out, footer, gzip);
+        };
+    return ok(atom ? ATOM : RSS, eTag, gzip).body(body);
+  }
+
+  private void publish(Post post) {
+    Instant publishedAt = post.getPublishedAt();
+    Instant updatedAt = post.getUpdatedAt() == null ? publishedAt : post.getUpdatedAt();
+    String shard = YearMonth.from(publishedAt.atOffset(ZoneOffset.UTC)).toString();
+    String link = baseUrl + "/api/posts/" + post.getId() + "/html";
+    Update update =
+        new Update()
+            .set("authorId", post.getAuthorId())
+            .set("shard", shard)
+            .set("publishedAt", publishedAt)
+            .set("updatedAt", updatedAt)
+            .set(
+                "rssItem",
+                SyndicationXml.gzip(
+                    SyndicationXml.rssItem(
+                        post.getTitle(), link, post.getExcerpt(), post.getTags(), publishedAt)))
+            .set(
+                "atomEntry",
+                SyndicationXml.gzip(
+                    SyndicationXml.atomEntry(
+                        post.getTitle(),
+                        link,
+                        post.getExcerpt(),
+                        post.getTags(),
+                        publishedAt,
+                        updatedAt)))
+            .set("sitemapUrl", SyndicationXml.gzip(SyndicationXml.sitemapUrl(link, updatedAt)));
+    UpdateResult result = mongoTemplate.upsert(byId(post.getId()), update, SyndicationEntry.class);
+    Update shardUpdate = new Update().inc("version", 1).max("lastModified", updatedAt);
+    if (result.getUpsertedId() != null) {
+      shardUpdate.inc("entries", 1);
+    }
+    mongoTemplate.upsert(byId(shard), shardUpdate, SitemapShard.class);
+  }
+
+  private void unpublish(String postId) {
+    Query query = byId(postId);
+    query.fields().include("shard");
+    SyndicationEntry removed = mongoTemplate.findAndRemove(query, SyndicationEntry.class);
+    if (removed != null) {
+      mongoTemplate.updateFirst(
+          byId(removed.getShard()),
+          new Update().inc("entries", -1).inc("version", 1).set("lastModified", Instant.now()),
+          SitemapShard.class);
+    }
+  }
+
+  /** Writes a gzip member as it is, or decompressed for clients that do not accept gzip. */
+  private static void writeSegment(OutputStream out, byte[] segment, boolean gzip)
+      throws IOException {
+    if (gzip) {
+      out.write(segment);
+    } else {
+      try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(segment))) {
+        in.transferTo(out);
+      }
+    }
+  }
+
+  private static void sitemap(StringBuilder xml, String location, SitemapShard shard) {
+    xml.append("<sitemap><loc>").append(SyndicationXml.escape(location)).append("</loc>");
+    if (shard != null && shard.getLastModified() != null) {
+      xml.append("<lastmod>").append(shard.getLastModified()).append("</lastmod>");
+    }
+    xml.append("</sitemap>\n");
+  }
+
+  /**
+   * Returns the keys of the pages of a shard. Only shards with more entries than one sitemap may
+   * list are scanned for the IDs the later pages start at; the scan reads the sitemap index alone.
+   */
+  private List<String> pageStarts(SitemapShard shard) {
+    List<String> starts = new ArrayList<>();
+    if (shard.getEntries() > 0) {
+      starts.add(FIRST_PAGE);
+    }
+    if (shard.getEntries() <= MAX_SITEMAP_URLS) {
+      return starts;
+    }
+    Query query = Query.query(Criteria.where("shard").is(shard.getId())).with(Sort.by("_id"));
+    query.fields().include("_id");
+    long position = 0;
+    try (Stream<SyndicationEntry> entries = mongoTemplate.stream(query, SyndicationEntry.class)) {
+      for (SyndicationEntry entry : (Iterable<SyndicationEntry>) entries::iterator) {
+        if (position > 0 && position % MAX_SITEMAP_URLS == 0) {
+          starts.add(entry.getId());
+        }
+        position++;
+      }
+    }
+    return starts;
+  }
+
+  /** Returns the lowest ObjectId created at an instant, the start of a range of IDs. */
+  private static ObjectId firstObjectId(Instant instant) {
+    return new ObjectId(String.format("%08x%016x", instant.getEpochSecond(), 0));
+  }
+
+  private static Query byId(String id) {
+    return Query.query(Criteria.where("id").is(id));
+  }
+
+  private static boolean matches(String ifNoneMatch, String eTag) {
+    return ifNoneMatch != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.strip().equals("*"));
+  }
+
+  private static ResponseEntity.BodyBuilder ok(MediaType contentType, String eTag, boolean gzip) {
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(contentType)
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache().cachePublic())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response;
+  }
+
+  private static ResponseEntity<?> notModified(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(eTag)
+        .cacheControl(CacheControl.noCache().cachePublic())
+        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+        .build();
+  }
+
+  private static ResponseEntity<?> notFound(String message) {
+    HttpStatus status = HttpStatus.NOT_FOUND;
+    // The endpoints produce XML, so the JSON error must name its own content type.
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+}
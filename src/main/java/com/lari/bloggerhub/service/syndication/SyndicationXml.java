@@ -0,0 +1,154 @@
+package com.lari.bloggerhub.service.syndication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class renders the fragments of RSS 2.0 feeds, Atom feeds and sitemaps, and compresses them
+ * into gzip members that can be concatenated into a complete document.
+ */
+final class SyndicationXml {
+
+  static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+  static final String RSS_FOOTER = "</channel>\n</rss>\n";
+  static final String ATOM_FOOTER = "</feed>\n";
+  static final String URLSET_HEADER =
+      XML_DECLARATION + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n";
+  static final String URLSET_FOOTER = "</urlset>\n";
+
+  private SyndicationXml() {}
+
+  static String rssHeader(
+      String title, String link, String self, String description, Instant lastBuildDate) {
+    StringBuilder xml = new StringBuilder(XML_DECLARATION);
+    xml.append("<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<channel>\n");
+    element(xml, "title", title);
+    element(xml, "link", link);
+    xml.append("<atom:link href=\"")
+        .append(escape(self))
+        .append("\" rel=\"self\" type=\"application/rss+xml\"/>\n");
+    element(xml, "description", description);
+    if (lastBuildDate != null) {
+      element(xml, "lastBuildDate", rfc1123(lastBuildDate));
+    }
+    return xml.toString();
+  }
+
+  static String rssItem(
+      String title, String link, String summary, List<String> tags, Instant publishedAt) {
+    StringBuilder xml = new StringBuilder("<item>\n");
+    element(xml, "title", title);
+    element(xml, "link", link);
+    xml.append("<guid isPermaLink=\"true\">").append(escape(link)).append("</guid>\n");
+    element(xml, "pubDate", rfc1123(publishedAt));
+    if (summary != null) {
+      element(xml, "description", summary);
+    }
+    for (String tag : tags == null ? List.<String>of() : tags) {
+      element(xml, "category", tag);
+    }
+    return xml.append("</item>\n").toString();
+  }
+
+  static String atomHeader(String title, String link, String self, String author, Instant updated) {
+    StringBuilder xml = new StringBuilder(XML_DECLARATION);
+    xml.append("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n");
+    element(xml, "title", title);
+    element(xml, "id", self);
+    xml.append("<link rel=\"self\" href=\"").append(escape(self)).append("\"/>\n");
+    xml.append("<link href=\"").append(escape(link)).append("\"/>\n");
+    element(xml, "updated", (updated == null ? Instant.EPOCH : updated).toString());
+    xml.append("<author>\n");
+    element(xml, "name", author);
+    return xml.append("</author>\n").toString();
+  }
+
+  static String atomEntry(
+      String title,
+      String link,
+      String summary,
+      List<String> tags,
+      Instant publishedAt,
+      Instant updatedAt) {
+    StringBuilder xml = new StringBuilder("<entry>\n");
+    element(xml, "title", title);
+    element(xml, "id", link);
+    xml.append("<link href=\"").append(escape(link)).append("\"/>\n");
+    element(xml, "published", publishedAt.toString());
+    element(xml, "updated", updatedAt.toString());
+    if (summary != null) {
+      element(xml, "summary", summary);
+    }
+    for (String tag : tags == null ? List.<String>of() : tags) {
+      xml.append("<category term=\"").append(escape(tag)).append("\"/>\n");
+    }
+    return xml.append("</entry>\n").toString();
+  }
+
+  static String sitemapUrl(String location, Instant lastModified) {
+    StringBuilder xml = new StringBuilder("<url>");
+    xml.append("<loc>").append(escape(location)).append("</loc>");
+    if (lastModified != null) {
+      xml.append("<lastmod>").append(lastModified).append("</lastmod>");
+    }
+    return xml.append("</url>\n").toString();
+  }
+
+  /** Compresses a fragment into a self-contained gzip member. */
+  static byte[] gzip(String fragment) {
+    byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2 + 32);
+    try (GZIPOutputStream out =
+        new GZIPOutputStream(compressed) {
+          {
+            def.setLevel(Deflater.BEST_COMPRESSION);
+          }
+        }) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static void element(StringBuilder xml, String name, String text) {
+    xml.append('<').append(name).append('>');
+    xml.append(escape(text == null ? "" : text));
+    xml.append("</").append(name).append(">\n");
+  }
+
+  private static String rfc1123(Instant instant) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atOffset(ZoneOffset.UTC));
+  }
+
+  /** Escapes text for XML content and attributes, dropping characters XML 1.0 does not allow. */
+  static String escape(String text) {
+    StringBuilder escaped = new StringBuilder(text.length() + 16);
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '&' -> escaped.append("&amp;");
+        case '<' -> escaped.append("&lt;");
+        case '>' -> escaped.append("&gt;");
+        case '"' -> escaped.append("&quot;");
+        case '\'' -> escaped.append("&apos;");
+        default -> {
+          if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+            if (c != 0xFFFE && c != 0xFFFF) {
+              escaped.append(c);
+            }
+          }
+        }
+      }
+    }
+    return escaped.toString();
+  }
+}
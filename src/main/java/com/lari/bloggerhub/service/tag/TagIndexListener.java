@@ -0,0 +1,31 @@
+package com.lari.bloggerhub.service.tag;
+
+import com.lari.bloggerhub.document.Post;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class hands every saved {@link Post} to the tag index, so published posts appear in the
+ * tag feeds right away and edited tags take effect immediately.
+ */
+@Component
+public class TagIndexListener extends AbstractMongoEventListener<Post> {
+
+  private final TagIndexService tagIndexService;
+
+  /**
+   * Constructs a new instance of the {@link TagIndexListener} class.
+   *
+   * @param tagIndexService the service holding the tag index
+   */
+  public TagIndexListener(TagIndexService tagIndexService) {
+    this.tagIndexService = tagIndexService;
+  }
+
+  @Override
+  public void onAfterSave(@NonNull AfterSaveEvent<Post> event) {
+    tagIndexService.onPostSaved(event.getSource());
+  }
+}
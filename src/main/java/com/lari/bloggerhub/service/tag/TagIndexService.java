@@ -0,0 +1,571 @@
+package com.lari.bloggerhub.service.tag;
+
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.response.PostPageDto;
+import com.lari.bloggerhub.dto.response.TagStatsDto;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.clap.ClapService;
+import com.lari.bloggerhub.util.bitmap.RoaringBitmap;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the tag feeds of the Blogger Hub application, which list the published
+ * posts matching a boolean {@link TagQuery} filter, newest first.
+ *
+ * <p>Every published post gets a dense int ID, assigned in order of publication time and post ID,
+ * and every tag a {@link RoaringBitmap} of the IDs of its posts. A filter is evaluated with bitmap
+ * intersections, unions and differences, and because IDs follow publication order, a page is read
+ * by walking the resulting bitmap downwards from the position of the cursor. Only the cards of the
+ * page are loaded from MongoDB.
+ *
+ * <p>The index is built from MongoDB on startup and kept up to date by the post save listener.
+ * The listener only sees saves made on this node, so posts updated since the last catch-up are
+ * also read from MongoDB on schedule. New posts are published with the current time, so they
+ * normally get the next ID. A post that arrives out of order, for example because of clock skew
+ * between instances, is held back while a renumbered index is built in the background, off the
+ * write lock; it shows up in the tag feeds once the new index is swapped in.
+ */
+@Service
+public class TagIndexService {
+
+  private static final Logger log = LoggerFactory.getLogger(TagIndexService.class);
+
+  private static final RoaringBitmap EMPTY = new RoaringBitmap();
+  private static final String[] NO_TAGS = new String[0];
+  private static final int DEFAULT_STATS_LIMIT = 20;
+  private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+  private final MongoTemplate mongoTemplate;
+  private final PostRepository postRepository;
+  private final ClapService clapService;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+  private final int maxStatsLimit;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicBoolean renumbering = new AtomicBoolean();
+  private final AtomicBoolean catchingUp = new AtomicBoolean();
+
+  /** Guarded by lock. */
+  private Index index = Index.build(List.of());
+
+  /** The posts saved while the index is rebuilt or renumbered, or null. Guarded by lock. */
+  private List<Entry> savedDuringRebuild;
+
+  /** Published posts older than the newest indexed one, waiting for a renumber. Guarded by lock. */
+  private final List<Entry> late = new ArrayList<>();
+
+  /** The time from which the next catch-up reads changes, or 0 until the index is built. */
+  private volatile long caughtUpTo;
+
+  /** The indexed state of one post. */
+  private record Entry(String postId, long publishedAt, String[] tags, boolean published) {}
+
+  private static final Comparator<Entry> ORDER =
+      Comparator.comparingLong(Entry::publishedAt).thenComparing(Entry::postId);
+
+  /**
+   * Constructs a new instance of the {@link TagIndexService} class with the specified
+   * dependencies.
+   *
+   * @param mongoTemplate the template used to build the index and catch up with changes
+   * @param postRepository the repository class used to load the post cards of a page
+   * @param clapService the service holding the clap counts not yet written to the database
+   * @param meterRegistry the registry for the index metrics
+   * @param defaultPageSize the page size used when the client does not ask for one
+   * @param maxPageSize the largest page size a client may ask for
+   * @param maxStatsLimit the largest number of tags a client may ask the statistics of
+   */
+  public TagIndexService(
+      MongoTemplate mongoTemplate,
+      PostRepository postRepository,
+      ClapService clapService,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.post.default-page-size}") int defaultPageSize,
+      @Value("${bloggerhub.post.max-page-size}") int maxPageSize,
+      @Value("${bloggerhub.tags.max-stats-limit}") int maxStatsLimit) {
+    this.mongoTemplate = mongoTemplate;
+    this.postRepository = postRepository;
+    this.clapService = clapService;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+    this.maxStatsLimit = maxStatsLimit;
+
+    gauge(meterRegistry, "bloggerhub.tags.count", index -> index.bitmaps.size());
+    gauge(meterRegistry, "bloggerhub.tags.posts", index -> index.published.cardinality());
+    Gauge.builder("bloggerhub.tags.memory", this, s -> s.read(Index::sizeInBytes))
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /** Builds the index from the published posts. Runs in the background after startup. */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      if (savedDuringRebuild != null) {
+        // Another rebuild or a renumber is running.
+        return;
+      }
+      savedDuringRebuild = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    long start = System.currentTimeMillis();
+    List<Entry> entries = new ArrayList<>();
+    Query query =
+        Query.query(Criteria.where("status").is(PostStatus.PUBLISHED))
+            .with(Sort.by(Sort.Direction.ASC, "publishedAt", "_id"));
+    query.fields().include("tags", "status", "publishedAt");
+    try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+      posts.forEach(
+          post -> {
+            Entry entry = toEntry(post);
+            if (entry.published()) {
+              entries.add(entry);
+            }
+          });
+    } catch (RuntimeException e) {
+      log.warn("Could not build the tag index", e);
+      lock.writeLock().lock();
+      try {
+        savedDuringRebuild = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      return;
+    }
+    Index built = Index.build(entries);
+    swap(built, true);
+    caughtUpTo = start - CATCH_UP_MARGIN.toMillis();
+    log.info(
+        "Built tag index of {} posts and {} tags in {} ms, {} KiB",
+        entries.size(),
+        read(current -> current.bitmaps.size()),
+        System.currentTimeMillis() - start,
+        read(Index::sizeInBytes) / 1024);
+  }
+
+  /**
+   * Applies the posts updated since the previous catch-up, or builds the index if it has not been
+   * built yet. Runs on schedule, without blocking the scheduler.
+   */
+  @Scheduled(
+      fixedDelayString = "${bloggerhub.tags.catch-up-interval}",
+      initialDelayString = "${bloggerhub.tags.catch-up-interval}")
+  public void catchUp() {
+    if (catchingUp.compareAndSet(false, true)) {
+      Thread.ofVirtual()
+          .name("tag-index-catch-up")
+          .start(
+              () -> {
+                try {
+                  long since = caughtUpTo;
+                  if (since == 0) {
+                    rebuild();
+                  } else {
+                    catchUpSince(since);
+                  }
+                } finally {
+                  catchingUp.set(false);
+                }
+              });
+    }
+  }
+
+  private void catchUpSince(long since) {
+    long start = System.currentTimeMillis();
+    Query query = Query.query(Criteria.where("updatedAt").gte(Instant.ofEpochMilli(since)));
+    query.fields().include("tags", "status", "publishedAt");
+    int posts = 0;
+    try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+      for (Post post : (Iterable<Post>) stream::iterator) {
+        onPostSaved(post);
+        posts++;
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not catch up the tag index", e);
+      return;
+    }
+    caughtUpTo = start - CATCH_UP_MARGIN.toMillis();
+    log.debug("Caught up the tag index with {} posts", posts);
+  }
+
+  /**
+   * Updates the tags of a saved post.
+   *
+   * @param post the saved post
+   */
+  public void onPostSaved(Post post) {
+    if (post.getId() == null) {
+      return;
+    }
+    Entry entry = toEntry(post);
+    lock.writeLock().lock();
+    try {
+      apply(entry);
+      if (savedDuringRebuild != null) {
+        savedDuringRebuild.add(entry);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns a page of the published posts matching a tag filter, newest first.
+   *
+   * @param filter the tag filter, see {@link TagQuery}
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a response entity containing the page
+   */
+  public ResponseEntity<Response> getTaggedPosts(String filter, String cursor, Integer limit) {
+    TagQuery query;
+    KeysetCursor after;
+    try {
+      query = TagQuery.parse(filter);
+    } catch (IllegalArgumentException e) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid tag filter. " + e.getMessage());
+    }
+    try {
+      after = KeysetCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      return error(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+    List<String> postIds = new ArrayList<>(pageSize);
+    String nextCursor = null;
+    lock.readLock().lock();
+    try {
+      RoaringBitmap matches = index.evaluate(query);
+      int bound = after == null ? Integer.MAX_VALUE : index.positionBefore(after);
+      int last = -1;
+      for (int id = matches.previousValue(bound); id >= 0; id = matches.previousValue(id - 1)) {
+        if (postIds.size() == pageSize) {
+          Instant publishedAt = Instant.ofEpochMilli(index.publishedAt[last]);
+          nextCursor = new KeysetCursor(publishedAt, index.postIds[last]).encode();
+          break;
+        }
+        postIds.add(index.postIds[id]);
+        last = id;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    Map<String, PostSummary> summaries = new HashMap<>();
+    if (!postIds.isEmpty()) {
+      for (PostSummary summary : postRepository.findSummariesById(postIds)) {
+        summaries.put(summary.id(), summary);
+      }
+    }
+    List<PostSummary> posts = new ArrayList<>(postIds.size());
+    for (String postId : postIds) {
+      PostSummary summary = summaries.get(postId);
+      if (summary != null && summary.status() == PostStatus.PUBLISHED) {
+        posts.add(clapService.withCurrentClaps(summary));
+      }
+    }
+    return ResponseEntity.ok(
+        new DataResponse<>(
+            true, HttpStatus.OK.value(), "Records found.", new PostPageDto(posts, nextCursor)));
+  }
+
+  /**
+   * Returns the tags with the most posts, with the memory used by their bitmaps.
+   *
+   * @param limit the requested number of tags, or null for the default
+   * @return a response entity containing the tag statistics
+   */
+  public ResponseEntity<Response> getTagStats(Integer limit) {
+    int size = limit == null ? DEFAULT_STATS_LIMIT : Math.max(1, Math.min(limit, maxStatsLimit));
+    List<TagStatsDto> stats =
+        read(
+            current ->
+                current.bitmaps.entrySet().stream()
+                    .map(
+                        tag ->
+                            new TagStatsDto(
+                                tag.getKey(),
+                                tag.getValue().cardinality(),
+                                tag.getValue().sizeInBytes()))
+                    .sorted(
+                        Comparator.comparingLong(TagStatsDto::getPosts)
+                            .reversed()
+                            .thenComparing(TagStatsDto::getTag))
+                    .limit(size)
+                    .toList());
+    return ResponseEntity.ok(
+        new DataResponse<>(true, HttpStatus.OK.value(), "Records found.", stats));
+  }
+
+  /** Runs under the write lock. */
+  private void apply(Entry entry) {
+    // A newer state of a post that is waiting for a renumber replaces the waiting one.
+    late.removeIf(waiting -> waiting.postId().equals(entry.postId()));
+    if (!index.apply(entry)) {
+      // The post is older than the newest indexed one; renumber so IDs stay in order.
+      late.add(entry);
+      if (renumbering.compareAndSet(false, true)) {
+        Thread.ofVirtual().name("tag-index-renumber").start(this::renumber);
+      }
+    }
+  }
+
+  /**
+   * Builds an index of the indexed and the late posts with fresh IDs. Only taking the entries and
+   * swapping in the result hold the write lock; posts saved in between are applied on top.
+   */
+  private void renumber() {
+    List<Entry> entries;
+    lock.writeLock().lock();
+    try {
+      if (savedDuringRebuild != null) {
+        // The running rebuild applies the late posts once it completes.
+        renumbering.set(false);
+        return;
+      }
+      entries = index.entries();
+      entries.addAll(late);
+      late.clear();
+      savedDuringRebuild = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    swap(Index.build(entries), false);
+  }
+
+  /**
+   * Swaps in a built index, applies the posts saved meanwhile and starts another renumber if some
+   * of them arrived late.
+   */
+  private void swap(Index built, boolean rebuilt) {
+    lock.writeLock().lock();
+    try {
+      index = built;
+      if (rebuilt) {
+        // The rebuild read the late posts from the database.
+        late.clear();
+      }
+      renumbering.set(false);
+      for (Entry entry : savedDuringRebuild) {
+        apply(entry);
+      }
+      savedDuringRebuild = null;
+      if (!late.isEmpty() && renumbering.compareAndSet(false, true)) {
+        Thread.ofVirtual().name("tag-index-renumber").start(this::renumber);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private <T> T read(Function<Index, T> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.apply(index);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void gauge(MeterRegistry meterRegistry, String name, ToDoubleFunction<Index> value) {
+    Gauge.builder(name, this, s -> s.read(value::applyAsDouble)).register(meterRegistry);
+  }
+
+  private static Entry toEntry(Post post) {
+    boolean published =
+        post.getStatus() == PostStatus.PUBLISHED && post.getPublishedAt() != null;
+    Set<String> tags = new LinkedHashSet<>();
+    if (published && post.getTags() != null) {
+      for (String tag : post.getTags()) {
+        String normalized = TagQuery.normalize(tag);
+        if (!normalized.isEmpty()) {
+          tags.add(normalized);
+        }
+      }
+    }
+    return new Entry(
+        post.getId(),
+        published ? post.getPublishedAt().toEpochMilli() : 0,
+        tags.toArray(NO_TAGS),
+        published);
+  }
+
+  private static ResponseEntity<Response> error(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(false, status.value(), message, status.getReasonPhrase()));
+  }
+
+  /**
+   * The dense IDs of the posts and the bitmaps of the tags. IDs are positions in the arrays, which
+   * are in order of publication time and post ID.
+   */
+  private static final class Index {
+    String[] postIds;
+    long[] publishedAt;
+    String[][] tags;
+    int count;
+    final Map<String, Integer> idByPost;
+    final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+    final RoaringBitmap published = new RoaringBitmap();
+
+    private Index(int capacity) {
+      postIds = new String[capacity];
+      publishedAt = new long[capacity];
+      tags = new String[capacity][];
+      idByPost = new HashMap<>(capacity * 2);
+    }
+
+    /** Builds an index of entries, which are usually already in order. */
+    static Index build(List<Entry> entries) {
+      List<Entry> sorted = new ArrayList<>(entries);
+      sorted.sort(ORDER);
+      Index index = new Index(Math.max(16, sorted.size() + sorted.size() / 4));
+      for (Entry entry : sorted) {
+        index.apply(entry);
+      }
+      return index;
+    }
+
+    /**
+     * Applies the state of a post.
+     *
+     * @return false if the post is new and older than the newest post, so it cannot get an ID
+     */
+    boolean apply(Entry entry) {
+      Integer known = idByPost.get(entry.postId());
+      int id;
+      if (known != null) {
+        id = known;
+      } else if (!entry.published()) {
+        return true;
+      } else if (count > 0 && ORDER.compare(entry, entryAt(count - 1)) < 0) {
+        return false;
+      } else {
+        id = append(entry);
+      }
+      for (String tag : tags[id]) {
+        if (!Arrays.asList(entry.tags()).contains(tag)) {
+          RoaringBitmap bitmap = bitmaps.get(tag);
+          bitmap.remove(id);
+          if (bitmap.isEmpty()) {
+            bitmaps.remove(tag);
+          }
+        }
+      }
+      for (String tag : entry.tags()) {
+        bitmaps.computeIfAbsent(tag, t -> new RoaringBitmap()).add(id);
+      }
+      tags[id] = entry.tags();
+      if (entry.published()) {
+        published.add(id);
+      } else {
+        published.remove(id);
+      }
+      return true;
+    }
+
+    private int append(Entry entry) {
+      if (count == postIds.length) {
+        int capacity = count * 2;
+        postIds = Arrays.copyOf(postIds, capacity);
+        publishedAt = Arrays.copyOf(publishedAt, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+      }
+      postIds[count] = entry.postId();
+      publishedAt[count] = entry.publishedAt();
+      tags[count] = NO_TAGS;
+      idByPost.put(entry.postId(), count);
+      return count++;
+    }
+
+    private Entry entryAt(int id) {
+      return new Entry(postIds[id], publishedAt[id], tags[id], published.contains(id));
+    }
+
+    List<Entry> entries() {
+      List<Entry> entries = new ArrayList<>(count + 1);
+      for (int id = 0; id < count; id++) {
+        entries.add(entryAt(id));
+      }
+      return entries;
+    }
+
+    /** Returns the largest ID that sorts before the cursor, or -1 if there is none. */
+    int positionBefore(KeysetCursor cursor) {
+      Entry key = new Entry(cursor.id(), cursor.publishedAt().toEpochMilli(), NO_TAGS, true);
+      int low = 0;
+      int high = count;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (ORDER.compare(entryAt(mid), key) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low - 1;
+    }
+
+    RoaringBitmap evaluate(TagQuery query) {
+      return switch (query) {
+        case TagQuery.Tag tag -> bitmaps.getOrDefault(tag.tag(), EMPTY);
+        case TagQuery.Not not -> RoaringBitmap.andNot(published, evaluate(not.query()));
+        case TagQuery.And(TagQuery left, TagQuery.Not right) ->
+            RoaringBitmap.andNot(evaluate(left), evaluate(right.query()));
+        case TagQuery.And(TagQuery.Not left, TagQuery right) ->
+            RoaringBitmap.andNot(evaluate(right), evaluate(left.query()));
+        case TagQuery.And and -> RoaringBitmap.and(evaluate(and.left()), evaluate(and.right()));
+        case TagQuery.Or or -> RoaringBitmap.or(evaluate(or.left()), evaluate(or.right()));
+      };
+    }
+
+    long sizeInBytes() {
+      long bytes = published.sizeInBytes() + postIds.length * 8L + publishedAt.length * 8L;
+      for (RoaringBitmap bitmap : bitmaps.values()) {
+        bytes += bitmap.sizeInBytes();
+      }
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.lari.bloggerhub.service.tag;
+
+import java.util.Locale;
+
+/**
+ * Represents a parsed boolean filter over post tags, such as {@code java AND performance}, {@code
+ * (java OR kotlin) NOT android} or {@code not politics}.
+ *
+ * <p>The operators {@code NOT}, {@code AND} and {@code OR} are matched case-insensitively and bind
+ * in that order; adjacent filters without an operator are combined with {@code AND}. Tags that
+ * contain spaces or look like operators are written in double quotes. Tags are compared after
+ * {@link #normalize(String) normalization}.
+ */
+public sealed interface TagQuery {
+
+  /** The largest number of tags a query may name, which bounds the cost of evaluating it. */
+  int MAX_TAGS = 16;
+
+  /**
+   * Matches the posts with a tag.
+   *
+   * @param tag the normalized tag
+   */
+  record Tag(String tag) implements TagQuery {}
+
+  /**
+   * Matches the posts that do not match a filter.
+   *
+   * @param query the negated filter
+   */
+  record Not(TagQuery query) implements TagQuery {}
+
+  /**
+   * Matches the posts that match both filters.
+   *
+   * @param left the first filter
+   * @param right the second filter
+   */
+  record And(TagQuery left, TagQuery right) implements TagQuery {}
+
+  /**
+   * Matches the posts that match either filter.
+   *
+   * @param left the first filter
+   * @param right the second filter
+   */
+  record Or(TagQuery left, TagQuery right) implements TagQuery {}
+
+  /**
+   * Normalizes a tag for indexing and matching by trimming and lower-casing it.
+   *
+   * @param tag the tag
+   * @return the normalized tag, empty if the tag is blank
+   */
+  static String normalize(String tag) {
+    return tag == null ? "" : tag.strip().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Parses a filter.
+   *
+   * @param text the filter
+   * @return the parsed filter
+   * @throws IllegalArgumentException if the filter is malformed or names too many tags
+   */
+  static TagQuery parse(String text) {
+    return new TagQueryParser(text == null ? "" : text).parse();
+  }
+}
@@ -0,0 +1,120 @@
+package com.lari.bloggerhub.service.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Parses {@link TagQuery} filters by recursive descent. */
+final class TagQueryParser {
+
+  private final List<String> tokens;
+  private int position;
+  private int tags;
+
+  TagQueryParser(String text) {
+    this.tokens = tokenize(text);
+  }
+
+  TagQuery parse() {
+    TagQuery query = or();
+    if (position < tokens.size()) {
+      throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "'.");
+    }
+    return query;
+  }
+
+  private TagQuery or() {
+    TagQuery query = and();
+    while (accept("OR")) {
+      query = new TagQuery.Or(query, and());
+    }
+    return query;
+  }
+
+  private TagQuery and() {
+    TagQuery query = unary();
+    while (position < tokens.size() && !peekIs("OR") && !peekIs(")")) {
+      accept("AND");
+      query = new TagQuery.And(query, unary());
+    }
+    return query;
+  }
+
+  private TagQuery unary() {
+    if (position == tokens.size()) {
+      throw new IllegalArgumentException("A tag is missing.");
+    }
+    if (accept("NOT")) {
+      return new TagQuery.Not(unary());
+    }
+    if (accept("(")) {
+      TagQuery query = or();
+      if (!accept(")")) {
+        throw new IllegalArgumentException("A closing parenthesis is missing.");
+      }
+      return query;
+    }
+    String token = tokens.get(position);
+    if (token.equals(")") || isOperator(token)) {
+      throw new IllegalArgumentException("Unexpected '" + token + "'.");
+    }
+    position++;
+    String tag = TagQuery.normalize(token.startsWith("\"") ? token.substring(1) : token);
+    if (tag.isEmpty()) {
+      throw new IllegalArgumentException("Tags must not be blank.");
+    }
+    if (++tags > TagQuery.MAX_TAGS) {
+      throw new IllegalArgumentException(
+          "A filter may name at most " + TagQuery.MAX_TAGS + " tags.");
+    }
+    return new TagQuery.Tag(tag);
+  }
+
+  private boolean accept(String token) {
+    if (peekIs(token)) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean peekIs(String token) {
+    return position < tokens.size() && tokens.get(position).equalsIgnoreCase(token);
+  }
+
+  private static boolean isOperator(String token) {
+    return token.equalsIgnoreCase("AND")
+        || token.equalsIgnoreCase("OR")
+        || token.equalsIgnoreCase("NOT");
+  }
+
+  private static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    int i = 0;
+    while (i < text.length()) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(' || c == ')') {
+        tokens.add(String.valueOf(c));
+        i++;
+      } else if (c == '"') {
+        int end = text.indexOf('"', i + 1);
+        if (end < 0) {
+          throw new IllegalArgumentException("Unterminated quote.");
+        }
+        // Quoted tags keep their opening quote, so they are never read as operators.
+        tokens.add(text.substring(i, end));
+        i = end + 1;
+      } else {
+        int start = i;
+        while (i < text.length()
+            && !Character.isWhitespace(text.charAt(i))
+            && "()\"".indexOf(text.charAt(i)) < 0) {
+          i++;
+        }
+        tokens.add(text.substring(start, i));
+      }
+    }
+    return tokens;
+  }
+}
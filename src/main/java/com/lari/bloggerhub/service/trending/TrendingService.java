@@ -0,0 +1,174 @@
+package com.lari.bloggerhub.service.trending;
+
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.util.sketch.SlidingTopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides the posts that are trending in the Blogger Hub application, ranked by the
+ * reads and claps they received over the last hour.
+ *
+ * <p>The request path only appends events to a lock-free queue. A scheduled refresh drains the
+ * queue into a {@link SlidingTopK} tracker, which counts events in time-bucketed Count-Min
+ * Sketches and keeps the heaviest posts in a min-heap, then publishes the top posts as an
+ * immutable snapshot. Nothing is aggregated in MongoDB; the only query is the batched lookup of
+ * the post cards of the new snapshot. Readers get the latest snapshot without any computation.
+ *
+ * <p>When the queue is full because the refresh falls behind, new events are dropped and counted;
+ * trends are statistical, so losing a burst of events does not change them noticeably.
+ */
+@Service
+public class TrendingService {
+
+  private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+  private final PostRepository postRepository;
+  private final int topK;
+  private final int maxQueuedEvents;
+  private final long clapWeight;
+  private final SlidingTopK tracker;
+  private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedEvents = new AtomicInteger();
+  private final Counter droppedEvents;
+
+  private volatile List<PostSummary> trending = List.of();
+
+  private record Event(String postId, long weight) {}
+
+  /**
+   * Constructs a new instance of the {@link TrendingService} class with the specified
+   * dependencies.
+   *
+   * @param postRepository the repository class used to load the trending post cards
+   * @param meterRegistry the registry for the trending metrics
+   * @param window the time window trends are computed over
+   * @param bucketCount the number of buckets the window is split into
+   * @param topK the number of trending posts to publish
+   * @param sketchWidth the width of the Count-Min Sketch of each bucket
+   * @param sketchDepth the depth of the Count-Min Sketch of each bucket
+   * @param clapWeight the weight of a clap relative to a read
+   * @param maxQueuedEvents the number of events that may wait for the next refresh
+   */
+  public TrendingService(
+      PostRepository postRepository,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.trending.window}") Duration window,
+      @Value("${bloggerhub.trending.buckets}") int bucketCount,
+      @Value("${bloggerhub.trending.top-k}") int topK,
+      @Value("${bloggerhub.trending.sketch.width}") int sketchWidth,
+      @Value("${bloggerhub.trending.sketch.depth}") int sketchDepth,
+      @Value("${bloggerhub.trending.clap-weight}") long clapWeight,
+      @Value("${bloggerhub.trending.max-queued-events}") int maxQueuedEvents) {
+    this.postRepository = postRepository;
+    this.topK = topK;
+    this.clapWeight = clapWeight;
+    this.maxQueuedEvents = maxQueuedEvents;
+    // Track more candidates than are published, so ranks near the cut-off are stable.
+    this.tracker =
+        new SlidingTopK(
+            window.toMillis(),
+            bucketCount,
+            topK * 4,
+            sketchWidth,
+            sketchDepth,
+            System.currentTimeMillis());
+
+    droppedEvents = Counter.builder("bloggerhub.trending.dropped_events").register(meterRegistry);
+    Gauge.builder("bloggerhub.trending.queued_events", queuedEvents, AtomicInteger::get)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.trending.memory", tracker, SlidingTopK::sizeInBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records a read of a post.
+   *
+   * @param postId the ID of the post
+   */
+  public void recordRead(String postId) {
+    offer(new Event(postId, 1));
+  }
+
+  /**
+   * Records claps for a post.
+   *
+   * @param postId the ID of the post
+   * @param claps the number of claps
+   */
+  public void recordClaps(String postId, int claps) {
+    offer(new Event(postId, claps * clapWeight));
+  }
+
+  /**
+   * Returns the trending posts of the latest snapshot, most trending first.
+   *
+   * @param limit the maximum number of posts
+   * @return the trending posts
+   */
+  public List<PostSummary> getTrending(int limit) {
+    List<PostSummary> snapshot = trending;
+    return snapshot.size() > limit ? snapshot.subList(0, limit) : snapshot;
+  }
+
+  /** Drains the queued events into the tracker and publishes a new snapshot. */
+  @Scheduled(fixedDelayString = "${bloggerhub.trending.refresh-interval}")
+  public void refresh() {
+    long now = System.currentTimeMillis();
+    Event event;
+    while ((event = events.poll()) != null) {
+      queuedEvents.decrementAndGet();
+      tracker.add(event.postId(), event.weight(), now);
+    }
+    tracker.advance(now);
+
+    List<SlidingTopK.Entry> top = tracker.top(topK);
+    if (top.isEmpty()) {
+      trending = List.of();
+      return;
+    }
+    try {
+      Map<String, PostSummary> posts = new HashMap<>();
+      for (PostSummary post :
+          postRepository.findSummariesById(top.stream().map(SlidingTopK.Entry::key).toList())) {
+        posts.put(post.id(), post);
+      }
+      List<PostSummary> snapshot = new ArrayList<>(top.size());
+      for (SlidingTopK.Entry entry : top) {
+        PostSummary post = posts.get(entry.key());
+        if (post != null && post.status() == PostStatus.PUBLISHED) {
+          snapshot.add(post);
+        }
+      }
+      trending = List.copyOf(snapshot);
+    } catch (RuntimeException e) {
+      log.warn("Could not refresh trending posts, keeping the previous snapshot", e);
+    }
+  }
+
+  private void offer(Event event) {
+    if (queuedEvents.incrementAndGet() > maxQueuedEvents) {
+      queuedEvents.decrementAndGet();
+      droppedEvents.increment();
+      return;
+    }
+    events.offer(event);
+  }
+}
@@ -0,0 +1,77 @@
+package com.lari.bloggerhub.service.warmup;
+
+/**
+ * This class tracks the throughput of one warm-up workload across measurement rounds and decides
+ * when it has stabilized.
+ *
+ * <p>While the JIT compiler is still promoting the code of a workload from the interpreter to C1
+ * and then C2, rounds keep setting new throughput records. The workload counts as stable once a
+ * number of consecutive rounds have not beaten the best round so far by more than a relative
+ * tolerance. Comparing against the best round rather than the previous one keeps slow rounds, such
+ * as those hit by a garbage collection or a noisy neighbour, from resetting the count.
+ */
+final class ThroughputMonitor {
+
+  private final double tolerance;
+  private final int stableRounds;
+
+  private int rounds;
+  private int steadyRounds;
+  private double first;
+  private double last;
+  private double best;
+
+  /**
+   * Creates a monitor.
+   *
+   * @param tolerance the largest relative improvement on the best round that counts as steady
+   * @param stableRounds the number of consecutive steady rounds after which the workload is stable
+   */
+  ThroughputMonitor(double tolerance, int stableRounds) {
+    this.tolerance = tolerance;
+    this.stableRounds = stableRounds;
+  }
+
+  /**
+   * Records the throughput of a round.
+   *
+   * @param opsPerSecond the operations per second measured in the round
+   * @return true if the workload is stable after this round
+   */
+  boolean record(double opsPerSecond) {
+    if (rounds == 0) {
+      first = opsPerSecond;
+    } else if (opsPerSecond <= best * (1 + tolerance)) {
+      steadyRounds++;
+    } else {
+      steadyRounds = 0;
+    }
+    best = Math.max(best, opsPerSecond);
+    last = opsPerSecond;
+    rounds++;
+    return isStable();
+  }
+
+  boolean isStable() {
+    return steadyRounds >= stableRounds;
+  }
+
+  int rounds() {
+    return rounds;
+  }
+
+  /** Returns the throughput of the first round, which ran mostly interpreted code. */
+  double first() {
+    return first;
+  }
+
+  /** Returns the throughput of the latest round. */
+  double last() {
+    return last;
+  }
+
+  /** Returns the latest throughput relative to the first, or 0 before the first round. */
+  double speedup() {
+    return first > 0 ? last / first : 0;
+  }
+}
@@ -0,0 +1,254 @@
+package com.lari.bloggerhub.service.warmup;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.lari.bloggerhub.config.security.filter.AccessTokenFilter;
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Role;
+import com.lari.bloggerhub.dto.response.PublicProfileDto;
+import com.lari.bloggerhub.dto.response.TokenResponseDto;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.ErrorResponse;
+import com.lari.bloggerhub.response.ResponseFormat;
+import com.lari.bloggerhub.response.ResponseWriters;
+import com.lari.bloggerhub.util.jwt.JwtHelper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class warms up the hot request paths of the Blogger Hub application before it accepts
+ * traffic.
+ *
+ * <p>A freshly started JVM runs the token, filter, serialization and password code interpreted or
+ * C1-compiled, so the first requests of a new instance are much slower than later ones. The runner
+ * drives synthetic workloads through the same code: it signs and verifies access tokens, feeds
+ * tokens of a fake principal through {@link AccessTokenFilter#authenticate}, encodes response
+ * envelopes in every {@link ResponseFormat} and checks a BCrypt hash. Each workload runs in rounds
+ * until its throughput stabilizes, as decided by a {@link ThroughputMonitor}, or until the maximum
+ * duration has passed; nothing touches the database.
+ *
+ * <p>Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC} only after every application
+ * runner has returned, so the readiness probe reports {@code REFUSING_TRAFFIC} for as long as the
+ * warm-up runs. The duration of the warm-up and the first and last throughput of each workload are
+ * exposed as metrics.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+  private static final String PASSWORD = "warm-up-password";
+
+  private final JwtHelper jwtHelper;
+  private final AccessTokenFilter accessTokenFilter;
+  private final ResponseWriters responseWriters;
+  private final PasswordEncoder passwordEncoder;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final Duration roundDuration;
+  private final Duration maxDuration;
+  private final double tolerance;
+  private final int stableRounds;
+
+  private long blackhole;
+
+  private record Workload(String name, LongSupplier operation, ThroughputMonitor monitor) {}
+
+  /**
+   * Constructs a new instance of the {@link WarmupRunner} class with the specified dependencies.
+   *
+   * @param jwtHelper the helper that signs and verifies tokens
+   * @param accessTokenFilter the filter that authenticates requests
+   * @param responseWriters the writers that encode response envelopes
+   * @param passwordEncoder the encoder that checks passwords
+   * @param meterRegistry the registry the warm-up metrics are published to
+   * @param enabled whether the warm-up runs at all
+   * @param roundDuration how long each measurement round of a workload runs
+   * @param maxDuration the time after which the warm-up stops even if a workload is not stable
+   * @param tolerance the largest relative improvement on the best round that counts as steady
+   * @param stableRounds the number of consecutive steady rounds after which a workload is stable
+   */
+  public WarmupRunner(
+      JwtHelper jwtHelper,
+      AccessTokenFilter accessTokenFilter,
+      ResponseWriters responseWriters,
+      PasswordEncoder passwordEncoder,
+      MeterRegistry meterRegistry,
+      @Value("${bloggerhub.warmup.enabled}") boolean enabled,
+      @Value("${bloggerhub.warmup.round-duration}") Duration roundDuration,
+      @Value("${bloggerhub.warmup.max-duration}") Duration maxDuration,
+      @Value("${bloggerhub.warmup.tolerance}") double tolerance,
+      @Value("${bloggerhub.warmup.stable-rounds}") int stableRounds) {
+    this.jwtHelper = jwtHelper;
+    this.accessTokenFilter = accessTokenFilter;
+    this.responseWriters = responseWriters;
+    this.passwordEncoder = passwordEncoder;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.roundDuration = roundDuration;
+    this.maxDuration = maxDuration;
+    this.tolerance = tolerance;
+    this.stableRounds = stableRounds;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    long start = System.nanoTime();
+    List<Workload> workloads = workloads();
+    long deadline = start + maxDuration.toNanos();
+    long sink = 0;
+    boolean warming = true;
+    while (warming && System.nanoTime() < deadline) {
+      warming = false;
+      for (Workload workload : workloads) {
+        if (!workload.monitor().isStable()) {
+          sink += round(workload);
+          warming |= !workload.monitor().isStable();
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    Timer.builder("bloggerhub.warmup.duration")
+        .register(meterRegistry)
+        .record(Duration.ofNanos(elapsed));
+    for (Workload workload : workloads) {
+      register(workload);
+      log.info(
+          "Warm-up of {}: {} rounds, {} to {} ops/s ({}x){}",
+          workload.name(),
+          workload.monitor().rounds(),
+          Math.round(workload.monitor().first()),
+          Math.round(workload.monitor().last()),
+          String.format("%.1f", workload.monitor().speedup()),
+          workload.monitor().isStable() ? "" : ", not stable");
+    }
+    // Keeps the results observable, so the compiler cannot drop the work that produced them.
+    blackhole = sink;
+    log.info("Warm-up finished in {} ms", elapsed / 1_000_000);
+  }
+
+  /** Runs a workload for one round, records its throughput and returns the sum of its results. */
+  private long round(Workload workload) {
+    long sink = 0;
+    long operations = 0;
+    long start = System.nanoTime();
+    long end = start + roundDuration.toNanos();
+    long now;
+    do {
+      sink += workload.operation().getAsLong();
+      operations++;
+      now = System.nanoTime();
+    } while (now < end);
+    workload.monitor().record(operations * 1e9 / (now - start));
+    return sink;
+  }
+
+  private List<Workload> workloads() {
+    BlogUser user = new BlogUser();
+    user.setId(new ObjectId().toHexString());
+    user.setUsername("warmup");
+    user.setEmail("warmup@localhost");
+    user.setRoles(List.of(Role.FREE_USER));
+    String accessToken = jwtHelper.generateAccessToken(user);
+    String bearer = "Bearer " + accessToken;
+    String hash = passwordEncoder.encode(PASSWORD);
+
+    JavaType tokenType = responseWriters.type(DataResponse.class, TokenResponseDto.class);
+    JavaType userType = responseWriters.type(DataResponse.class, PublicProfileDto.class);
+    JavaType errorType = responseWriters.type(ErrorResponse.class);
+    DataResponse<TokenResponseDto> tokenResponse =
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "Login successful",
+            new TokenResponseDto(user.getId(), accessToken, accessToken));
+    DataResponse<PublicProfileDto> userResponse =
+        new DataResponse<>(
+            true,
+            HttpStatus.OK.value(),
+            "User found",
+            new PublicProfileDto(user.getId(), user.getUsername(), "", null));
+    ErrorResponse errorResponse =
+        new ErrorResponse(false, HttpStatus.NOT_FOUND.value(), "Not found", "Post not found");
+
+    List<Workload> workloads = new ArrayList<>();
+    workloads.add(
+        workload(
+            "jwt",
+            () ->
+                jwtHelper
+                    .verifyAccessToken(jwtHelper.generateAccessToken(user))
+                    .map(String::length)
+                    .orElse(0)));
+    workloads.add(
+        workload(
+            "filter",
+            () ->
+                accessTokenFilter
+                    .authenticate(bearer, id -> user)
+                    .map(token -> token.getAuthorities().size())
+                    .orElse(0)));
+    workloads.add(
+        workload(
+            "serialization",
+            () -> {
+              long bytes = 0;
+              for (ResponseFormat format : ResponseFormat.values()) {
+                bytes += responseWriters.write(format, tokenType, tokenResponse).length;
+                bytes += responseWriters.write(format, userType, userResponse).length;
+                bytes += responseWriters.write(format, errorType, errorResponse).length;
+              }
+              return bytes;
+            }));
+    workloads.add(workload("bcrypt", () -> passwordEncoder.matches(PASSWORD, hash) ? 1 : 0));
+    return workloads;
+  }
+
+  private Workload workload(String name, LongSupplier operation) {
+    return new Workload(name, operation, new ThroughputMonitor(tolerance, stableRounds));
+  }
+
+  private void register(Workload workload) {
+    ThroughputMonitor monitor = workload.monitor();
+    Gauge.builder("bloggerhub.warmup.throughput", monitor, ThroughputMonitor::first)
+        .tag("workload", workload.name())
+        .tag("round", "first")
+        .baseUnit("operations/s")
+        .strongReference(true)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.warmup.throughput", monitor, ThroughputMonitor::last)
+        .tag("workload", workload.name())
+        .tag("round", "last")
+        .baseUnit("operations/s")
+        .strongReference(true)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.warmup.speedup", monitor, ThroughputMonitor::speedup)
+        .tag("workload", workload.name())
+        .strongReference(true)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.warmup.rounds", monitor, ThroughputMonitor::rounds)
+        .tag("workload", workload.name())
+        .strongReference(true)
+        .register(meterRegistry);
+    Gauge.builder("bloggerhub.warmup.stable", monitor, m -> m.isStable() ? 1 : 0)
+        .tag("workload", workload.name())
+        .strongReference(true)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,561 @@
+package com.lari.bloggerhub.util.bitmap;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a compressed bitmap of non-negative ints in the style of Roaring bitmaps.
+ *
+ * <p>Values are split into chunks of 65536 by their high 16 bits. A chunk with at most 4096
+ * values is stored as a sorted array of their low 16 bits, two bytes per value; a denser chunk as
+ * a plain bitmap of 8 KiB. Sparse and dense sets are both compact, and intersections, unions and
+ * differences work chunk by chunk on the two representations with merges, lookups or word-wise
+ * logic, without decoding values.
+ *
+ * <p>The bitmap is not thread-safe; the operations that combine bitmaps return new bitmaps and do
+ * not modify their arguments.
+ */
+public final class RoaringBitmap {
+
+  private static final int ARRAY_MAX = 4096;
+  private static final int BITMAP_WORDS = 1024;
+
+  private char[] keys = new char[0];
+  private Container[] containers = new Container[0];
+  private int size;
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value, not negative
+   * @return true if the value was not in the bitmap
+   */
+  public boolean add(int value) {
+    checkValue(value);
+    char key = (char) (value >>> 16);
+    int index = find(key);
+    if (index < 0) {
+      index = -index - 1;
+      insert(index, key, new ArrayContainer(new char[4], 0));
+    }
+    Container container = containers[index];
+    int before = container.cardinality();
+    containers[index] = container.add((char) value);
+    return containers[index].cardinality() > before;
+  }
+
+  /**
+   * Removes a value.
+   *
+   * @param value the value
+   * @return true if the value was in the bitmap
+   */
+  public boolean remove(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = find((char) (value >>> 16));
+    if (index < 0) {
+      return false;
+    }
+    Container container = containers[index];
+    int before = container.cardinality();
+    containers[index] = container.remove((char) value);
+    if (containers[index].cardinality() == 0) {
+      delete(index);
+      return true;
+    }
+    return containers[index].cardinality() < before;
+  }
+
+  /**
+   * Returns whether the bitmap contains a value.
+   *
+   * @param value the value
+   * @return true if the value is in the bitmap
+   */
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = find((char) (value >>> 16));
+    return index >= 0 && containers[index].contains((char) value);
+  }
+
+  /**
+   * Returns the largest value of the bitmap that is not greater than a bound.
+   *
+   * @param bound the bound
+   * @return the value, or -1 if there is none
+   */
+  public int previousValue(int bound) {
+    if (bound < 0) {
+      return -1;
+    }
+    char key = (char) (bound >>> 16);
+    int index = find(key);
+    if (index >= 0) {
+      int low = containers[index].previousValue((char) bound);
+      if (low >= 0) {
+        return key << 16 | low;
+      }
+      index--;
+    } else {
+      index = -index - 2;
+    }
+    return index < 0 ? -1 : keys[index] << 16 | containers[index].last();
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return the cardinality
+   */
+  public long cardinality() {
+    long cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += containers[i].cardinality();
+    }
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the memory used by the bitmap, counting the chunk keys and the container payloads.
+   *
+   * @return the size in bytes
+   */
+  public long sizeInBytes() {
+    long bytes = keys.length * 2L + containers.length * 8L;
+    for (int i = 0; i < size; i++) {
+      bytes += containers[i].sizeInBytes();
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the values in both bitmaps.
+   *
+   * @param a a bitmap
+   * @param b another bitmap
+   * @return the intersection
+   */
+  public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+    RoaringBitmap result = new RoaringBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < a.size && j < b.size) {
+      if (a.keys[i] < b.keys[j]) {
+        i++;
+      } else if (a.keys[i] > b.keys[j]) {
+        j++;
+      } else {
+        Container container = a.containers[i].and(b.containers[j]);
+        if (container.cardinality() > 0) {
+          result.append(a.keys[i], container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the values in either bitmap.
+   *
+   * @param a a bitmap
+   * @param b another bitmap
+   * @return the union
+   */
+  public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+    RoaringBitmap result = new RoaringBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < a.size || j < b.size) {
+      if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+        result.append(a.keys[i], a.containers[i].copy());
+        i++;
+      } else if (i == a.size || a.keys[i] > b.keys[j]) {
+        result.append(b.keys[j], b.containers[j].copy());
+        j++;
+      } else {
+        result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the values of the first bitmap that are not in the second.
+   *
+   * @param a a bitmap
+   * @param b the bitmap of the values to leave out
+   * @return the difference
+   */
+  public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+    RoaringBitmap result = new RoaringBitmap();
+    int j = 0;
+    for (int i = 0; i < a.size; i++) {
+      while (j < b.size && b.keys[j] < a.keys[i]) {
+        j++;
+      }
+      Container container =
+          j < b.size && b.keys[j] == a.keys[i]
+              ? a.containers[i].andNot(b.containers[j])
+              : a.containers[i].copy();
+      if (container.cardinality() > 0) {
+        result.append(a.keys[i], container);
+      }
+    }
+    return result;
+  }
+
+  private static void checkValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Values must not be negative: " + value);
+    }
+  }
+
+  private int find(char key) {
+    return Arrays.binarySearch(keys, 0, size, key);
+  }
+
+  private void insert(int index, char key, Container container) {
+    if (size == keys.length) {
+      int capacity = Math.max(4, size * 2);
+      keys = Arrays.copyOf(keys, capacity);
+      containers = Arrays.copyOf(containers, capacity);
+    }
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(containers, index, containers, index + 1, size - index);
+    keys[index] = key;
+    containers[index] = container;
+    size++;
+  }
+
+  private void append(char key, Container container) {
+    insert(size, key, container);
+  }
+
+  private void delete(int index) {
+    System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+    containers[--size] = null;
+  }
+
+  /** The values of one chunk, as their low 16 bits. */
+  private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+    abstract int cardinality();
+
+    abstract boolean contains(char value);
+
+    /** Adds a value, returning the container to use from now on. */
+    abstract Container add(char value);
+
+    /** Removes a value, returning the container to use from now on. */
+    abstract Container remove(char value);
+
+    abstract int previousValue(char bound);
+
+    abstract int last();
+
+    abstract long sizeInBytes();
+
+    abstract Container copy();
+
+    abstract Container and(Container other);
+
+    abstract Container or(Container other);
+
+    abstract Container andNot(Container other);
+  }
+
+  /** A sorted array of up to 4096 values. */
+  private static final class ArrayContainer extends Container {
+    char[] values;
+    int cardinality;
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_MAX) {
+        return toBitmap().add(value);
+      }
+      index = -index - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+      }
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    int previousValue(char bound) {
+      int index = Arrays.binarySearch(values, 0, cardinality, bound);
+      if (index >= 0) {
+        return values[index];
+      }
+      index = -index - 2;
+      return index < 0 ? -1 : values[index];
+    }
+
+    @Override
+    int last() {
+      return values[cardinality - 1];
+    }
+
+    @Override
+    long sizeInBytes() {
+      return 16 + values.length * 2L;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    Container and(Container other) {
+      char[] result = new char[cardinality];
+      int count = 0;
+      if (other instanceof ArrayContainer array) {
+        int i = 0;
+        int j = 0;
+        while (i < cardinality && j < array.cardinality) {
+          if (values[i] < array.values[j]) {
+            i++;
+          } else if (values[i] > array.values[j]) {
+            j++;
+          } else {
+            result[count++] = values[i];
+            i++;
+            j++;
+          }
+        }
+      } else {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            result[count++] = values[i];
+          }
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof BitmapContainer bitmap) {
+        return bitmap.or(this);
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      char[] result = new char[cardinality + array.cardinality];
+      int count = 0;
+      int i = 0;
+      int j = 0;
+      while (i < cardinality || j < array.cardinality) {
+        if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+          result[count++] = values[i++];
+        } else if (i == cardinality || values[i] > array.values[j]) {
+          result[count++] = array.values[j++];
+        } else {
+          result[count++] = values[i++];
+          j++;
+        }
+      }
+      ArrayContainer union = new ArrayContainer(result, count);
+      return count > ARRAY_MAX ? union.toBitmap() : union;
+    }
+
+    @Override
+    Container andNot(Container other) {
+      char[] result = new char[cardinality];
+      int count = 0;
+      for (int i = 0; i < cardinality; i++) {
+        if (!other.contains(values[i])) {
+          result[count++] = values[i];
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    BitmapContainer toBitmap() {
+      long[] words = new long[BITMAP_WORDS];
+      for (int i = 0; i < cardinality; i++) {
+        words[values[i] >>> 6] |= 1L << values[i];
+      }
+      return new BitmapContainer(words, cardinality);
+    }
+  }
+
+  /** A bitmap of all 65536 values of a chunk, used for more than 4096 values. */
+  private static final class BitmapContainer extends Container {
+    final long[] words;
+    int cardinality;
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return (words[value >>> 6] & 1L << value) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+      long before = words[value >>> 6];
+      words[value >>> 6] = before | 1L << value;
+      if (words[value >>> 6] != before) {
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      long before = words[value >>> 6];
+      words[value >>> 6] = before & ~(1L << value);
+      if (words[value >>> 6] != before) {
+        cardinality--;
+      }
+      return cardinality <= ARRAY_MAX ? toArray() : this;
+    }
+
+    @Override
+    int previousValue(char bound) {
+      int word = bound >>> 6;
+      long bits = words[word] & (-1L >>> (63 - (bound & 63)));
+      while (bits == 0) {
+        if (--word < 0) {
+          return -1;
+        }
+        bits = words[word];
+      }
+      return word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    @Override
+    int last() {
+      return previousValue((char) 0xffff);
+    }
+
+    @Override
+    long sizeInBytes() {
+      return 16 + BITMAP_WORDS * 8L;
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    Container and(Container other) {
+      if (other instanceof ArrayContainer array) {
+        return array.and(this);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      long[] result = new long[BITMAP_WORDS];
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        result[i] = words[i] & otherWords[i];
+      }
+      return fromWords(result);
+    }
+
+    @Override
+    Container or(Container other) {
+      long[] result = words.clone();
+      if (other instanceof ArrayContainer array) {
+        for (int i = 0; i < array.cardinality; i++) {
+          result[array.values[i] >>> 6] |= 1L << array.values[i];
+        }
+      } else {
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+          result[i] |= otherWords[i];
+        }
+      }
+      return fromWords(result);
+    }
+
+    @Override
+    Container andNot(Container other) {
+      long[] result = words.clone();
+      if (other instanceof ArrayContainer array) {
+        for (int i = 0; i < array.cardinality; i++) {
+          result[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+        }
+      } else {
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+          result[i] &= ~otherWords[i];
+        }
+      }
+      return fromWords(result);
+    }
+
+    private static Container fromWords(long[] words) {
+      int cardinality = 0;
+      for (long word : words) {
+        cardinality += Long.bitCount(word);
+      }
+      BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+      return cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+    }
+
+    private ArrayContainer toArray() {
+      char[] values = new char[cardinality];
+      int count = 0;
+      for (int word = 0; word < BITMAP_WORDS; word++) {
+        long bits = words[word];
+        while (bits != 0) {
+          values[count++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+          bits &= bits - 1;
+        }
+      }
+      return new ArrayContainer(values, count);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.lari.bloggerhub.util.bloom;
+
+import com.lari.bloggerhub.util.hash.MurmurHash3;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a thread-safe Bloom filter over strings.
+ *
+ * <p>The filter is sized once from the expected number of insertions and the target false positive
+ * probability and never grows, so its memory use is fixed. Elements are hashed with MurmurHash3
+ * (x64, 128 bit) and the bit positions are derived by double hashing. Bits are set with atomic
+ * operations, so insertions and lookups may run concurrently without locking.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+  private final long expectedInsertions;
+  private final AtomicLong insertions = new AtomicLong();
+
+  private BloomFilter(long bitCount, int hashCount, long expectedInsertions) {
+    this.bitCount = bitCount;
+    this.hashCount = hashCount;
+    this.expectedInsertions = expectedInsertions;
+    this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+  }
+
+  /**
+   * Creates a filter sized for the given number of elements and false positive probability.
+   *
+   * @param expectedInsertions the number of elements the filter is sized for
+   * @param falsePositiveProbability the target false positive probability, between 0 and 1
+   * @return a new, empty filter
+   */
+  public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+    if (expectedInsertions < 1) {
+      throw new IllegalArgumentException("Expected insertions must be positive");
+    }
+    if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+    }
+    double ln2 = Math.log(2);
+    long bits =
+        Math.max(
+            64,
+            (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2)));
+    int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+    return new BloomFilter(bits, hashes, expectedInsertions);
+  }
+
+  /**
+   * Adds an element to the filter.
+   *
+   * @param value the element to add
+   */
+  public void put(String value) {
+    long[] hash = MurmurHash3.hash128(value.getBytes(StandardCharsets.UTF_8));
+    long combined = hash[0];
+    for (int i = 0; i < hashCount; i++) {
+      long bit = (combined & Long.MAX_VALUE) % bitCount;
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = words.get(word);
+      while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+        current = words.get(word);
+      }
+      combined += hash[1];
+    }
+    insertions.incrementAndGet();
+  }
+
+  /**
+   * Checks whether the element may have been added. A {@code false} answer is definite.
+   *
+   * @param value the element to check
+   * @return false if the element was definitely never added, true if it may have been
+   */
+  public boolean mightContain(String value) {
+    long[] hash = MurmurHash3.hash128(value.getBytes(StandardCharsets.UTF_8));
+    long combined = hash[0];
+    for (int i = 0; i < hashCount; i++) {
+      long bit = (combined & Long.MAX_VALUE) % bitCount;
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+      combined += hash[1];
+    }
+    return true;
+  }
+
+  /**
+   * Returns the false positive probability expected for the current number of insertions.
+   *
+   * @return the expected false positive probability
+   */
+  public double expectedFalsePositiveProbability() {
+    return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+  }
+
+  public long getBitCount() {
+    return bitCount;
+  }
+
+  public int getHashCount() {
+    return hashCount;
+  }
+
+  public long getExpectedInsertions() {
+    return expectedInsertions;
+  }
+
+  public long getInsertions() {
+    return insertions.get();
+  }
+
+  /**
+   * Returns the memory used by the bit array.
+   *
+   * @return the size of the bit array in bytes
+   */
+  public long sizeInBytes() {
+    return (long) words.length() * Long.BYTES;
+  }
+}
@@ -0,0 +1,138 @@
+package com.lari.bloggerhub.util.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * This class implements a bounded, thread-safe LRU cache.
+ *
+ * <p>The cache is split into independently locked segments, each an access ordered {@link
+ * LinkedHashMap} holding an equal share of the capacity. Lookups of different keys rarely contend,
+ * and eviction is LRU within a segment, which approximates global LRU closely for uniformly hashed
+ * keys.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedLruCache<K, V> {
+
+  private static final int SEGMENTS = 16;
+
+  private final Segment<K, V>[] segments;
+
+  /**
+   * Constructs a new cache.
+   *
+   * @param maximumSize the maximum number of entries
+   */
+  @SuppressWarnings("unchecked")
+  public BoundedLruCache(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+    }
+    int perSegment = Math.max(1, maximumSize / SEGMENTS);
+    segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment<>(perSegment);
+    }
+  }
+
+  /**
+   * Returns the cached value for the key, marking it as recently used.
+   *
+   * @param key the key
+   * @return the value, or null if absent
+   */
+  public V get(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      return segment.get(key);
+    }
+  }
+
+  /**
+   * Stores a value, evicting the least recently used entry of its segment if needed.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public void put(K key, V value) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  /**
+   * Removes the entry for the key.
+   *
+   * @param key the key
+   * @return the removed value, or null if absent
+   */
+  public V remove(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      return segment.remove(key);
+    }
+  }
+
+  /**
+   * Removes all entries matching the predicate.
+   *
+   * @param predicate the predicate over keys and values
+   */
+  public void removeIf(BiPredicate<K, V> predicate) {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue()));
+      }
+    }
+  }
+
+  /** Removes all entries. */
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of cached entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > capacity;
+    }
+  }
+}
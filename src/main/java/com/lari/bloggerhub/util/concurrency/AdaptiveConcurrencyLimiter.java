@@ -0,0 +1,127 @@
+package com.lari.bloggerhub.util.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements a gradient based adaptive concurrency limit for the request path.
+ *
+ * <p>The limiter keeps a short and a long exponentially weighted average of the observed request
+ * latency. While the short term latency stays close to the long term baseline the limit grows by a
+ * small queue allowance; once latency rises above the baseline the limit is scaled down by the
+ * ratio of the two averages. Dropped requests (timeouts, dependency failures) cause a
+ * multiplicative decrease, which gives the AIMD behaviour under hard failures.
+ *
+ * <p>Acquiring a permit never blocks. Callers that cannot get a permit are expected to shed the
+ * request immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double SHORT_WINDOW_WEIGHT = 0.1;
+  private static final double LONG_WINDOW_WEIGHT = 0.01;
+  private static final double TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double DROP_BACKOFF = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final ReentrantLock updateLock = new ReentrantLock();
+
+  private volatile double limit;
+  private double shortRttNanos;
+  private double longRttNanos;
+
+  /**
+   * Constructs a new limiter.
+   *
+   * @param initialLimit the limit used until enough samples have been observed
+   * @param minLimit the lower bound of the limit
+   * @param maxLimit the upper bound of the limit
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || minLimit > maxLimit) {
+      throw new IllegalArgumentException("Invalid limiter bounds: " + minLimit + ".." + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * Tries to acquire a permit for a request of the given priority.
+   *
+   * @param priority the priority class of the request
+   * @return true if the request may proceed, false if it should be shed
+   */
+  public boolean tryAcquire(RequestPriority priority) {
+    int allowed = Math.max(1, (int) (limit * priority.getLimitShare()));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases a permit and feeds the observed latency back into the limit.
+   *
+   * @param rttNanos the time the request held the permit
+   * @param dropped whether the request failed in a way that indicates overload
+   */
+  public void release(long rttNanos, boolean dropped) {
+    int current = inFlight.getAndDecrement();
+    // Samples are best effort; skip them instead of queueing behind another update.
+    if (!updateLock.tryLock()) {
+      return;
+    }
+    try {
+      update(rttNanos, current, dropped);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  private void update(long rttNanos, int inFlightAtRelease, boolean dropped) {
+    double currentLimit = limit;
+    if (dropped) {
+      limit = Math.max(minLimit, currentLimit * DROP_BACKOFF);
+      return;
+    }
+
+    if (longRttNanos == 0) {
+      shortRttNanos = rttNanos;
+      longRttNanos = rttNanos;
+      return;
+    }
+    shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_WEIGHT;
+    longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_WEIGHT;
+
+    // Let the baseline recover quickly after a sustained latency shift.
+    if (longRttNanos / shortRttNanos > 2) {
+      longRttNanos *= 0.95;
+    }
+
+    // Do not grow the limit when the application is not using it.
+    if (inFlightAtRelease < currentLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+    double target = currentLimit * gradient + Math.sqrt(currentLimit);
+    double smoothed = currentLimit * (1 - SMOOTHING) + target * SMOOTHING;
+    limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
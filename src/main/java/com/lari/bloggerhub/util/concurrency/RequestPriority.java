@@ -0,0 +1,32 @@
+package com.lari.bloggerhub.util.concurrency;
+
+/**
+ * Represents the priority classes used by the {@link AdaptiveConcurrencyLimiter} when deciding
+ * which requests to shed under overload.
+ *
+ * <p>Each class may only occupy a fraction of the current concurrency limit, so lower priority
+ * traffic is rejected first while critical traffic can still use the full limit.
+ */
+public enum RequestPriority {
+  /** Token refresh and health checks. May use the whole limit. */
+  CRITICAL(1.0),
+  /** Regular interactive traffic. */
+  NORMAL(0.9),
+  /** Listing and other bulk reads. Shed first. */
+  BULK(0.6);
+
+  private final double limitShare;
+
+  RequestPriority(double limitShare) {
+    this.limitShare = limitShare;
+  }
+
+  /**
+   * Returns the fraction of the concurrency limit that requests of this class may occupy.
+   *
+   * @return the share of the limit, between 0 and 1
+   */
+  public double getLimitShare() {
+    return limitShare;
+  }
+}
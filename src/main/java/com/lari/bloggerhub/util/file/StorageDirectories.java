@@ -0,0 +1,31 @@
+package com.lari.bloggerhub.util.file;
+
+import java.nio.file.Path;
+
+/**
+ * This class checks the local directories the Blogger Hub application keeps its journals, indexes
+ * and caches in.
+ */
+public final class StorageDirectories {
+
+  private StorageDirectories() {}
+
+  /**
+   * Rejects a directory inside the temporary directory. Temporary directories are cleared on
+   * reboot and by tmp cleaners, and are private to a container, so they must not hold state that
+   * is expected to survive the process.
+   *
+   * @param directory the configured directory
+   * @param purpose what the directory holds, used in the error message
+   * @return the directory
+   * @throws IllegalStateException if the directory is inside the temporary directory
+   */
+  public static Path requireOutsideTemporary(Path directory, String purpose) {
+    Path temporary = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+    if (directory.toAbsolutePath().normalize().startsWith(temporary)) {
+      throw new IllegalStateException(
+          "The " + purpose + " directory must not be in the temporary directory: " + directory);
+    }
+    return directory;
+  }
+}
@@ -0,0 +1,189 @@
+package com.lari.bloggerhub.util.graph;
+
+import java.util.Arrays;
+
+/**
+ * This class assigns dense {@code int} IDs to MongoDB ObjectIds, so that graph structures can
+ * refer to documents with four bytes instead of a 24 character string.
+ *
+ * <p>ObjectIds are kept as a {@code long} and an {@code int} in an open addressing hash table with
+ * linear probing. Lookups parse the hexadecimal ID in place and allocate nothing. Dense IDs are
+ * assigned in insertion order starting at zero and are never reused. The class is not thread-safe.
+ */
+public final class ObjectIdIndex {
+
+  private static final int ABSENT = -1;
+
+  private long[] tableHigh;
+  private int[] tableLow;
+  private int[] tableIds;
+  private long[] high;
+  private int[] low;
+  private int size;
+
+  /**
+   * Constructs a new index.
+   *
+   * @param expectedSize the number of IDs to size the index for
+   */
+  public ObjectIdIndex(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+    tableHigh = new long[capacity];
+    tableLow = new int[capacity];
+    tableIds = new int[capacity];
+    Arrays.fill(tableIds, ABSENT);
+    high = new long[Math.max(16, expectedSize)];
+    low = new int[high.length];
+  }
+
+  /**
+   * Returns the dense ID of an ObjectId, assigning the next free one if the ObjectId is new.
+   *
+   * @param objectId the ObjectId as a 24 character hexadecimal string
+   * @return the dense ID
+   * @throws IllegalArgumentException if the string is not an ObjectId
+   */
+  public int getOrAdd(String objectId) {
+    long h = parseHigh(objectId);
+    int l = parseLow(objectId);
+    int slot = find(h, l);
+    if (tableIds[slot] != ABSENT) {
+      return tableIds[slot];
+    }
+    if ((size + 1) * 2 > tableIds.length) {
+      rehash(tableIds.length * 2);
+      slot = find(h, l);
+    }
+    if (size == high.length) {
+      high = Arrays.copyOf(high, size * 2);
+      low = Arrays.copyOf(low, size * 2);
+    }
+    int id = size++;
+    tableHigh[slot] = h;
+    tableLow[slot] = l;
+    tableIds[slot] = id;
+    high[id] = h;
+    low[id] = l;
+    return id;
+  }
+
+  /**
+   * Returns the dense ID of an ObjectId.
+   *
+   * @param objectId the ObjectId as a 24 character hexadecimal string
+   * @return the dense ID, or -1 if the ObjectId is unknown or malformed
+   */
+  public int get(String objectId) {
+    if (!isObjectId(objectId)) {
+      return ABSENT;
+    }
+    return tableIds[find(parseHigh(objectId), parseLow(objectId))];
+  }
+
+  /**
+   * Returns the ObjectId of a dense ID.
+   *
+   * @param id the dense ID
+   * @return the ObjectId as a 24 character hexadecimal string
+   */
+  public String objectId(int id) {
+    char[] hex = new char[24];
+    for (int i = 0; i < 16; i++) {
+      hex[i] = Character.forDigit((int) (high[id] >>> (60 - 4 * i)) & 0xf, 16);
+    }
+    for (int i = 0; i < 8; i++) {
+      hex[16 + i] = Character.forDigit((low[id] >>> (28 - 4 * i)) & 0xf, 16);
+    }
+    return new String(hex);
+  }
+
+  /**
+   * Returns the number of IDs in the index.
+   *
+   * @return the number of IDs
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes allocated by the index.
+   *
+   * @return the size of the arrays in bytes
+   */
+  public long sizeInBytes() {
+    return (long) tableIds.length * (Long.BYTES + 2 * Integer.BYTES)
+        + (long) high.length * (Long.BYTES + Integer.BYTES);
+  }
+
+  private int find(long h, int l) {
+    int mask = tableIds.length - 1;
+    int slot = mix(h, l) & mask;
+    while (tableIds[slot] != ABSENT && (tableHigh[slot] != h || tableLow[slot] != l)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldHigh = tableHigh;
+    int[] oldLow = tableLow;
+    int[] oldIds = tableIds;
+    tableHigh = new long[capacity];
+    tableLow = new int[capacity];
+    tableIds = new int[capacity];
+    Arrays.fill(tableIds, ABSENT);
+    for (int i = 0; i < oldIds.length; i++) {
+      if (oldIds[i] != ABSENT) {
+        int slot = find(oldHigh[i], oldLow[i]);
+        tableHigh[slot] = oldHigh[i];
+        tableLow[slot] = oldLow[i];
+        tableIds[slot] = oldIds[i];
+      }
+    }
+  }
+
+  private static int mix(long h, int l) {
+    long x = h * 0x9E3779B97F4A7C15L ^ l * 0xC2B2AE3D27D4EB4FL;
+    return (int) (x ^ (x >>> 32));
+  }
+
+  private static boolean isObjectId(String value) {
+    if (value == null || value.length() != 24) {
+      return false;
+    }
+    for (int i = 0; i < 24; i++) {
+      if (Character.digit(value.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long parseHigh(String objectId) {
+    if (objectId.length() != 24) {
+      throw new IllegalArgumentException("Not an ObjectId: " + objectId);
+    }
+    long value = 0;
+    for (int i = 0; i < 16; i++) {
+      value = value << 4 | digit(objectId, i);
+    }
+    return value;
+  }
+
+  private static int parseLow(String objectId) {
+    int value = 0;
+    for (int i = 16; i < 24; i++) {
+      value = value << 4 | digit(objectId, i);
+    }
+    return value;
+  }
+
+  private static int digit(String objectId, int index) {
+    int digit = Character.digit(objectId.charAt(index), 16);
+    if (digit < 0) {
+      throw new IllegalArgumentException("Not an ObjectId: " + objectId);
+    }
+    return digit;
+  }
+}
@@ -0,0 +1,243 @@
+package com.lari.bloggerhub.util.graph;
+
+import java.util.Arrays;
+
+/**
+ * This class stores a directed graph over dense {@code int} node IDs as one sorted {@code int[]}
+ * of neighbours per node.
+ *
+ * <p>Membership is a binary search and intersections are a linear merge, switching to galloping
+ * search when one list is much shorter than the other; neither allocates. Neighbour arrays grow by
+ * half their size when full. The class is not thread-safe.
+ */
+public final class SortedIntAdjacency {
+
+  private static final int[] EMPTY = new int[0];
+
+  private int[][] neighbours;
+  private int[] degrees;
+  private long edges;
+
+  /**
+   * Constructs a new adjacency.
+   *
+   * @param expectedNodes the number of nodes to size the adjacency for
+   */
+  public SortedIntAdjacency(int expectedNodes) {
+    neighbours = new int[Math.max(16, expectedNodes)][];
+    Arrays.fill(neighbours, EMPTY);
+    degrees = new int[neighbours.length];
+  }
+
+  /**
+   * Adds an edge.
+   *
+   * @param node the source node
+   * @param neighbour the target node
+   * @return true if the edge was added, false if it already existed
+   */
+  public boolean add(int node, int neighbour) {
+    ensureNode(node);
+    int[] list = neighbours[node];
+    int degree = degrees[node];
+    int position = Arrays.binarySearch(list, 0, degree, neighbour);
+    if (position >= 0) {
+      return false;
+    }
+    position = -position - 1;
+    if (degree == list.length) {
+      list = Arrays.copyOf(list, Math.max(2, degree + (degree >> 1) + 1));
+      neighbours[node] = list;
+    }
+    System.arraycopy(list, position, list, position + 1, degree - position);
+    list[position] = neighbour;
+    degrees[node] = degree + 1;
+    edges++;
+    return true;
+  }
+
+  /**
+   * Removes an edge.
+   *
+   * @param node the source node
+   * @param neighbour the target node
+   * @return true if the edge was removed, false if it did not exist
+   */
+  public boolean remove(int node, int neighbour) {
+    if (node >= degrees.length) {
+      return false;
+    }
+    int[] list = neighbours[node];
+    int degree = degrees[node];
+    int position = Arrays.binarySearch(list, 0, degree, neighbour);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(list, position + 1, list, position, degree - position - 1);
+    degrees[node] = degree - 1;
+    edges--;
+    return true;
+  }
+
+  /**
+   * Checks whether an edge exists.
+   *
+   * @param node the source node
+   * @param neighbour the target node
+   * @return true if the edge exists
+   */
+  public boolean contains(int node, int neighbour) {
+    return node < degrees.length
+        && Arrays.binarySearch(neighbours[node], 0, degrees[node], neighbour) >= 0;
+  }
+
+  /**
+   * Returns the number of neighbours of a node.
+   *
+   * @param node the node
+   * @return the out-degree of the node
+   */
+  public int degree(int node) {
+    return node < degrees.length ? degrees[node] : 0;
+  }
+
+  /**
+   * Copies the neighbours of a node, in ascending order.
+   *
+   * @param node the node
+   * @param out the array to copy to, at least {@link #degree(int)} long
+   * @return the number of neighbours copied
+   */
+  public int neighbours(int node, int[] out) {
+    int degree = degree(node);
+    if (degree > 0) {
+      System.arraycopy(neighbours[node], 0, out, 0, degree);
+    }
+    return degree;
+  }
+
+  /**
+   * Counts the nodes that are neighbours of a node in this adjacency and of another node in
+   * another adjacency.
+   *
+   * @param node the node in this adjacency
+   * @param other the other adjacency, may be this one
+   * @param otherNode the node in the other adjacency
+   * @return the size of the intersection
+   */
+  public int intersectionSize(int node, SortedIntAdjacency other, int otherNode) {
+    return intersect(node, other, otherNode, null);
+  }
+
+  /**
+   * Computes the nodes that are neighbours of a node in this adjacency and of another node in
+   * another adjacency.
+   *
+   * @param node the node in this adjacency
+   * @param other the other adjacency, may be this one
+   * @param otherNode the node in the other adjacency
+   * @param out the array receiving the intersection in ascending order, at least as long as the
+   *     smaller of the two degrees; null to only count
+   * @return the size of the intersection
+   */
+  public int intersect(int node, SortedIntAdjacency other, int otherNode, int[] out) {
+    int[] a = node < degrees.length ? neighbours[node] : EMPTY;
+    int na = degree(node);
+    int[] b = otherNode < other.degrees.length ? other.neighbours[otherNode] : EMPTY;
+    int nb = other.degree(otherNode);
+    if (na > nb) {
+      int[] list = a;
+      a = b;
+      b = list;
+      int length = na;
+      na = nb;
+      nb = length;
+    }
+    if (na == 0) {
+      return 0;
+    }
+    return (long) na * 32 < nb ? gallop(a, na, b, nb, out) : merge(a, na, b, nb, out);
+  }
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return the number of edges
+   */
+  public long edgeCount() {
+    return edges;
+  }
+
+  /**
+   * Returns the number of bytes allocated by the adjacency, including array headers.
+   *
+   * @return the size of the arrays in bytes
+   */
+  public long sizeInBytes() {
+    long bytes = (long) neighbours.length * (Integer.BYTES + 4) + 16;
+    for (int[] list : neighbours) {
+      if (list != EMPTY) {
+        bytes += 16 + (long) list.length * Integer.BYTES;
+      }
+    }
+    return bytes;
+  }
+
+  private static int merge(int[] a, int na, int[] b, int nb, int[] out) {
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < na && j < nb) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (a[i] > b[j]) {
+        j++;
+      } else {
+        if (out != null) {
+          out[count] = a[i];
+        }
+        count++;
+        i++;
+        j++;
+      }
+    }
+    return count;
+  }
+
+  /** Looks up every element of the short list in the long one with exponential search. */
+  private static int gallop(int[] small, int ns, int[] large, int nl, int[] out) {
+    int count = 0;
+    int from = 0;
+    for (int i = 0; i < ns && from < nl; i++) {
+      int value = small[i];
+      int step = 1;
+      int to = from;
+      while (to < nl && large[to] < value) {
+        from = to;
+        to += step;
+        step <<= 1;
+      }
+      int position = Arrays.binarySearch(large, from, Math.min(to + 1, nl), value);
+      if (position >= 0) {
+        if (out != null) {
+          out[count] = value;
+        }
+        count++;
+        from = position + 1;
+      } else {
+        from = -position - 1;
+      }
+    }
+    return count;
+  }
+
+  private void ensureNode(int node) {
+    if (node >= neighbours.length) {
+      int length = Math.max(node + 1, neighbours.length * 2);
+      int oldLength = neighbours.length;
+      neighbours = Arrays.copyOf(neighbours, length);
+      Arrays.fill(neighbours, oldLength, length, EMPTY);
+      degrees = Arrays.copyOf(degrees, length);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.lari.bloggerhub.util.hll;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class implements a HyperLogLog sketch, which estimates the number of distinct values offered
+ * to it in a fixed amount of memory.
+ *
+ * <p>The sketch has {@code 2^precision} one-byte registers; the relative standard error of the
+ * estimate is about {@code 1.04 / sqrt(2^precision)}. Values are offered as 64 bit hashes, so
+ * callers choose the hash function and no large range correction is needed. Small cardinalities
+ * are estimated with linear counting.
+ *
+ * <p>Sketches of the same precision merge by taking the register-wise maximum, which is the
+ * sketch of the union of both inputs. Merging is idempotent, so merging the same sketch twice does
+ * not change the estimate.
+ *
+ * <p>Offering is thread-safe. Registers are only ever raised, and a register is checked before the
+ * lock is taken, so offers of values already represented do not synchronize.
+ */
+public final class HyperLogLog {
+
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 16;
+  private static final byte SPARSE = 0;
+  private static final byte DENSE = 1;
+  private static final int SPARSE_ENTRY_BYTES = 3;
+  private static final int REGISTER_BITS = 6;
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * Constructs an empty sketch.
+   *
+   * @param precision the number of index bits, between 4 and 16
+   */
+  public HyperLogLog(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Offers a hashed value to the sketch.
+   *
+   * @param hash a well mixed 64 bit hash of the value
+   * @return true if the sketch changed
+   */
+  public boolean offer(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    byte rank = (byte) Math.min(Long.numberOfLeadingZeros(hash << precision) + 1, maxRank());
+    if (registers[index] >= rank) {
+      return false;
+    }
+    synchronized (this) {
+      if (registers[index] >= rank) {
+        return false;
+      }
+      registers[index] = rank;
+      return true;
+    }
+  }
+
+  /**
+   * Merges another sketch of the same precision into this one.
+   *
+   * @param other the sketch to merge
+   * @return true if this sketch changed
+   */
+  public synchronized boolean merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "Cannot merge sketches of precision " + other.precision + " and " + precision);
+    }
+    boolean changed = false;
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Estimates the number of distinct values offered to this sketch and the sketches merged into
+   * it.
+   *
+   * @return the estimated cardinality
+   */
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Serializes the sketch. Sketches with few filled registers are written as a list of index and
+   * value pairs; the others as registers packed into six bits each.
+   *
+   * @return the serialized sketch
+   */
+  public synchronized byte[] toBytes() {
+    int filled = 0;
+    for (byte register : registers) {
+      if (register != 0) {
+        filled++;
+      }
+    }
+    int denseBytes = (registers.length * REGISTER_BITS + 7) / 8;
+    if (filled * SPARSE_ENTRY_BYTES < denseBytes) {
+      ByteBuffer buffer = ByteBuffer.allocate(2 + filled * SPARSE_ENTRY_BYTES);
+      buffer.put((byte) precision).put(SPARSE);
+      for (int i = 0; i < registers.length; i++) {
+        if (registers[i] != 0) {
+          buffer.putShort((short) i).put(registers[i]);
+        }
+      }
+      return buffer.array();
+    }
+
+    byte[] bytes = new byte[2 + denseBytes];
+    bytes[0] = (byte) precision;
+    bytes[1] = DENSE;
+    for (int i = 0; i < registers.length; i++) {
+      int bit = i * REGISTER_BITS;
+      int value = registers[i] << (bit & 7);
+      bytes[2 + (bit >>> 3)] |= (byte) value;
+      if ((bit & 7) + REGISTER_BITS > 8) {
+        bytes[3 + (bit >>> 3)] |= (byte) (value >>> 8);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Deserializes a sketch written by {@link #toBytes()}.
+   *
+   * @param bytes the serialized sketch
+   * @return the sketch
+   * @throws IllegalArgumentException if the bytes are not a serialized sketch
+   */
+  public static HyperLogLog fromBytes(byte[] bytes) {
+    if (bytes.length < 2) {
+      throw new IllegalArgumentException("Truncated sketch");
+    }
+    HyperLogLog sketch = new HyperLogLog(bytes[0]);
+    byte[] registers = sketch.registers;
+    if (bytes[1] == SPARSE) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+      while (buffer.remaining() >= SPARSE_ENTRY_BYTES) {
+        int index = Short.toUnsignedInt(buffer.getShort());
+        byte value = buffer.get();
+        if (index >= registers.length) {
+          throw new IllegalArgumentException("Register index out of range: " + index);
+        }
+        registers[index] = value;
+      }
+    } else if (bytes[1] == DENSE) {
+      if (bytes.length < 2 + (registers.length * REGISTER_BITS + 7) / 8) {
+        throw new IllegalArgumentException("Truncated sketch");
+      }
+      for (int i = 0; i < registers.length; i++) {
+        int bit = i * REGISTER_BITS;
+        int value = (bytes[2 + (bit >>> 3)] & 0xff) >>> (bit & 7);
+        if ((bit & 7) + REGISTER_BITS > 8) {
+          value |= (bytes[3 + (bit >>> 3)] & 0xff) << (8 - (bit & 7));
+        }
+        registers[i] = (byte) (value & ((1 << REGISTER_BITS) - 1));
+      }
+    } else {
+      throw new IllegalArgumentException("Unknown sketch format: " + bytes[1]);
+    }
+    return sketch;
+  }
+
+  /**
+   * Returns the memory used by the registers of a sketch.
+   *
+   * @return the size in bytes
+   */
+  public int sizeInBytes() {
+    return registers.length;
+  }
+
+  private int maxRank() {
+    return Long.SIZE - precision + 1;
+  }
+
+  private static double alpha(int m) {
+    return switch (m) {
+      case 16 -> 0.673;
+      case 32 -> 0.697;
+      case 64 -> 0.709;
+      default -> 0.7213 / (1 + 1.079 / m);
+    };
+  }
+}
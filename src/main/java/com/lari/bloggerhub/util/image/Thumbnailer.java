@@ -0,0 +1,120 @@
+package com.lari.bloggerhub.util.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * This class creates square JPEG thumbnails of images stored on disk.
+ *
+ * <p>The dimensions are read from the image header first, so oversized images are rejected before
+ * any pixel is decoded. Only the centered square that the thumbnails show is decoded, and it is
+ * subsampled while decoding to about twice the largest thumbnail size, so the memory used does not
+ * grow with the resolution of the upload. Every thumbnail is then scaled from that square.
+ */
+public final class Thumbnailer {
+
+  private Thumbnailer() {}
+
+  /**
+   * Creates square thumbnails of an image, cropped to its center.
+   *
+   * @param source the image file, in any format ImageIO can read
+   * @param sizes the side lengths of the thumbnails, in pixels
+   * @param maxPixels the largest number of pixels a source image may have
+   * @param quality the JPEG quality between 0 and 1
+   * @return the JPEG encoded thumbnails, keyed by size
+   * @throws IllegalArgumentException if the file is not a readable image or is too large
+   * @throws IOException if reading the file fails
+   */
+  public static Map<Integer, byte[]> createThumbnails(
+      Path source, List<Integer> sizes, long maxPixels, float quality) throws IOException {
+    int largest = sizes.stream().mapToInt(Integer::intValue).max().orElseThrow();
+    BufferedImage square = readCenterSquare(source, largest, maxPixels);
+    Map<Integer, byte[]> thumbnails = new LinkedHashMap<>();
+    for (int size : sizes) {
+      thumbnails.put(size, encodeJpeg(scale(square, size), quality));
+    }
+    return thumbnails;
+  }
+
+  private static BufferedImage readCenterSquare(Path source, int largest, long maxPixels)
+      throws IOException {
+    try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+      Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+      if (readers == null || !readers.hasNext()) {
+        throw new IllegalArgumentException("The file is not a supported image.");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+          throw new IllegalArgumentException("The image is too large.");
+        }
+        int side = Math.min(width, height);
+        int subsampling = Math.max(1, side / (largest * 2));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } catch (IIOException e) {
+        throw new IllegalArgumentException("The image could not be decoded.", e);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /** Scales an image to a square of the given size, flattening transparency onto white. */
+  private static BufferedImage scale(BufferedImage image, int size) {
+    BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, size, size);
+      graphics.drawImage(image, 0, 0, size, size, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+
+  private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+      writer.setOutput(out);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,307 @@
+package com.lari.bloggerhub.util.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * This class implements a write-ahead journal on local disk for in-memory state that is flushed to
+ * the database in batches.
+ *
+ * <p>The journal is split into stripes, each with its own lock and segment file, so concurrent
+ * writers rarely contend. Every record is framed with its length and a CRC32C checksum and written
+ * straight to the file, so it survives a crash of the process once {@link #append} returns. A
+ * journal opened with {@code sync} also survives a crash of the host: {@link #append} returns only
+ * after the segment has been forced to the device. The force is a group commit; while one writer
+ * forces a stripe, the others queue up and are all covered by the next force. A {@link
+ * #checkpoint} seals the current segments of all stripes and starts new ones; the caller
+ * deletes the sealed segments once the state they describe has been flushed. Segments still
+ * present on startup are replayed, up to the first torn or corrupt record of each segment.
+ */
+public final class StripedJournal implements Closeable {
+
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+  private final Path directory;
+  private final String name;
+  private final Stripe[] stripes;
+  private final List<Path> recovered;
+  private final boolean sync;
+  private final AtomicLong syncs = new AtomicLong();
+  private long sequence;
+
+  private static final class Stripe {
+    final ReentrantLock lock = new ReentrantLock();
+    final CRC32C crc = new CRC32C();
+
+    /** Serializes forces of the stripe, so that writers waiting for one share the next. */
+    final ReentrantLock syncLock = new ReentrantLock();
+
+    /** The number of bytes ever written to the stripe and known to be on the device. */
+    final AtomicLong synced = new AtomicLong();
+
+    ByteBuffer frame = ByteBuffer.allocate(256);
+    Path path;
+    FileChannel channel;
+
+    /** The number of bytes ever written to the stripe, across segments. Guarded by lock. */
+    long written;
+  }
+
+  private StripedJournal(
+      Path directory, String name, int stripeCount, boolean sync, List<Path> recovered) {
+    this.directory = directory;
+    this.name = name;
+    this.stripes = new Stripe[stripeCount];
+    this.sync = sync;
+    this.recovered = recovered;
+  }
+
+  /**
+   * Opens the journal in a directory, creating the directory if needed. Segments left by a
+   * previous run are kept for {@link #recoveredSegments()}.
+   *
+   * @param directory the directory of the segment files
+   * @param name the name of the journal, used as the prefix of the segment files
+   * @param stripeCount the number of stripes
+   * @param sync whether appends wait until their records are forced to the device
+   * @return the opened journal
+   * @throws IOException if the directory or the first segments cannot be created
+   */
+  public static StripedJournal open(Path directory, String name, int stripeCount, boolean sync)
+      throws IOException {
+    Files.createDirectories(directory);
+    Pattern pattern = Pattern.compile(Pattern.quote(name) + "-(\\d+)-\\d+\\.wal");
+    List<Path> recovered = new ArrayList<>();
+    long lastSequence = -1;
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Matcher matcher = pattern.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+          recovered.add(file);
+          lastSequence = Math.max(lastSequence, Long.parseLong(matcher.group(1)));
+        }
+      }
+    }
+    recovered.sort(Comparator.comparing(Path::toString));
+    StripedJournal journal = new StripedJournal(directory, name, stripeCount, sync, recovered);
+    journal.sequence = lastSequence + 1;
+    for (int i = 0; i < stripeCount; i++) {
+      journal.stripes[i] = new Stripe();
+      journal.openSegment(i);
+    }
+    return journal;
+  }
+
+  /**
+   * Returns the segments left by a previous run, in the order they were written.
+   *
+   * @return the recovered segments
+   */
+  public List<Path> recoveredSegments() {
+    return List.copyOf(recovered);
+  }
+
+  /**
+   * Reads the records of segments.
+   *
+   * @param segments the segments to read
+   * @param consumer the consumer receiving each record
+   * @return the number of records read
+   * @throws IOException if a segment cannot be read
+   */
+  public static long replay(List<Path> segments, Consumer<ByteBuffer> consumer)
+      throws IOException {
+    long records = 0;
+    CRC32C crc = new CRC32C();
+    for (Path segment : segments) {
+      ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+      while (data.remaining() >= HEADER_BYTES) {
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length < 0 || length > data.remaining()) {
+          break;
+        }
+        ByteBuffer record = data.slice(data.position(), length);
+        crc.reset();
+        crc.update(record.duplicate());
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        consumer.accept(record);
+        data.position(data.position() + length);
+        records++;
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Appends a record and applies its effect in memory while the stripe is locked, so that a
+   * concurrent {@link #checkpoint} observes either both or neither. If the journal syncs, the call
+   * then waits for the record to be forced to the device.
+   *
+   * @param record the record
+   * @param apply the in-memory effect of the record
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  public void append(byte[] record, Runnable apply) {
+    Stripe stripe = stripes[(int) (Thread.currentThread().threadId() % stripes.length)];
+    long end;
+    stripe.lock.lock();
+    try {
+      if (stripe.frame.capacity() < record.length + HEADER_BYTES) {
+        stripe.frame = ByteBuffer.allocate(record.length + HEADER_BYTES);
+      }
+      stripe.crc.reset();
+      stripe.crc.update(record);
+      ByteBuffer frame = stripe.frame.clear();
+      frame.putInt(record.length).putInt((int) stripe.crc.getValue()).put(record).flip();
+      int length = frame.remaining();
+      while (frame.hasRemaining()) {
+        stripe.channel.write(frame);
+      }
+      stripe.written += length;
+      end = stripe.written;
+      apply.run();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append to journal " + name, e);
+    } finally {
+      stripe.lock.unlock();
+    }
+    if (sync) {
+      awaitSync(stripe, end);
+    }
+  }
+
+  /** Returns the number of times a stripe was forced to the device by appends. */
+  long syncs() {
+    return syncs.get();
+  }
+
+  /** Returns once the bytes of the stripe up to the given offset are on the device. */
+  private void awaitSync(Stripe stripe, long end) {
+    if (stripe.synced.get() >= end) {
+      return;
+    }
+    stripe.syncLock.lock();
+    try {
+      // The force of the previous holder may have covered this record as well.
+      if (stripe.synced.get() >= end) {
+        return;
+      }
+      long written;
+      FileChannel channel;
+      stripe.lock.lock();
+      try {
+        written = stripe.written;
+        channel = stripe.channel;
+      } finally {
+        stripe.lock.unlock();
+      }
+      try {
+        channel.force(false);
+      } catch (ClosedChannelException e) {
+        // A checkpoint sealed the segment, and forced it before closing it.
+        if (stripe.synced.get() >= end) {
+          return;
+        }
+        throw e;
+      }
+      syncs.incrementAndGet();
+      stripe.synced.accumulateAndGet(written, Math::max);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not sync journal " + name, e);
+    } finally {
+      stripe.syncLock.unlock();
+    }
+  }
+
+  /**
+   * Seals the current segments and starts new ones. The drain runs while every stripe is locked,
+   * so it sees exactly the effects of the records in the sealed segments and of earlier ones.
+   *
+   * @param drain takes the in-memory state described by the sealed segments
+   * @return the sealed segments
+   * @throws UncheckedIOException if a segment cannot be synced or created
+   */
+  public List<Path> checkpoint(Runnable drain) {
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+    }
+    try {
+      List<Path> sealed = new ArrayList<>(stripes.length);
+      for (int i = 0; i < stripes.length; i++) {
+        stripes[i].channel.force(false);
+        stripes[i].synced.accumulateAndGet(stripes[i].written, Math::max);
+        stripes[i].channel.close();
+        sealed.add(stripes[i].path);
+      }
+      sequence++;
+      for (int i = 0; i < stripes.length; i++) {
+        openSegment(i);
+      }
+      drain.run();
+      return sealed;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not checkpoint journal " + name, e);
+    } finally {
+      for (Stripe stripe : stripes) {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Deletes segments whose records have been flushed.
+   *
+   * @param segments the segments to delete
+   * @throws IOException if a segment cannot be deleted
+   */
+  public void delete(Collection<Path> segments) throws IOException {
+    for (Path segment : segments) {
+      Files.deleteIfExists(segment);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        stripe.channel.force(false);
+        stripe.channel.close();
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  private void openSegment(int index) throws IOException {
+    Stripe stripe = stripes[index];
+    stripe.path = directory.resolve(String.format("%s-%012d-%d.wal", name, sequence, index));
+    stripe.channel =
+        FileChannel.open(
+            stripe.path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+  }
+}
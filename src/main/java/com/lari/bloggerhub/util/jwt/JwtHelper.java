@@ -89,6 +89,16 @@ public class JwtHelper {
     return decodeRefreshToken(token).isPresent();
   }
 
+  /**
+   * Verifies an access token once and returns its subject.
+   *
+   * @param token the access token
+   * @return the ID of the user the token was issued to, or empty if the token is invalid
+   */
+  public Optional<String> verifyAccessToken(String token) {
+    return decodeAccessToken(token).map(DecodedJWT::getSubject);
+  }
+
   public String getUserIdFromAccessToken(String token) {
     DecodedJWT decodedJWT = decodeAccessToken(token).orElseThrow(IllegalArgumentException::new);
     return decodedJWT.getSubject();
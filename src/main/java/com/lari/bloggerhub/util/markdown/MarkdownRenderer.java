@@ -0,0 +1,583 @@
+package com.lari.bloggerhub.util.markdown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class renders the Markdown of post bodies into HTML.
+ *
+ * <p>It supports the commonly used subset of CommonMark: ATX headings, paragraphs with hard line
+ * breaks, block quotes, bullet and ordered lists, fenced code blocks, thematic breaks, code spans,
+ * emphasis, strikethrough, links, images and autolinks. The output is safe to embed by
+ * construction: raw HTML in the source is escaped like any other text, and links and images are
+ * only emitted for {@code http}, {@code https}, {@code mailto} and relative URLs.
+ */
+public final class MarkdownRenderer {
+
+  private static final Pattern HEADING =
+      Pattern.compile("(#{1,6})(?:[ \\t]+(.*?))?(?:[ \\t]+#+)?[ \\t]*");
+  private static final Pattern FENCE = Pattern.compile("(`{3,}|~{3,})[ \\t]*([^`]*)");
+  private static final Pattern THEMATIC_BREAK =
+      Pattern.compile("(?:\\*[ \\t]*){3,}|(?:-[ \\t]*){3,}|(?:_[ \\t]*){3,}");
+  private static final Pattern BULLET = Pattern.compile("([-*+])(?:[ \\t]+(.*))?");
+  private static final Pattern ORDERED = Pattern.compile("(\\d{1,9})([.)])(?:[ \\t]+(.*))?");
+  private static final Pattern LANGUAGE = Pattern.compile("[\\w#+.-]+");
+  private static final Pattern AUTOLINK = Pattern.compile("(?i)(?:https?://|mailto:)[^\\s<>]+");
+
+  private MarkdownRenderer() {}
+
+  /**
+   * Renders Markdown into HTML.
+   *
+   * @param markdown the Markdown source, may be null
+   * @return the HTML
+   */
+  public static String render(String markdown) {
+    if (markdown == null || markdown.isEmpty()) {
+      return "";
+    }
+    StringBuilder out = new StringBuilder(markdown.length() + (markdown.length() >> 2));
+    String normalized = markdown.replace("\r\n", "\n").replace('\r', '\n');
+    renderBlocks(List.of(normalized.split("\n")), out, false);
+    return out.toString();
+  }
+
+  /**
+   * Renders a sequence of lines as blocks. Paragraphs directly inside the items of a tight list are
+   * rendered without {@code <p>} tags.
+   */
+  private static void renderBlocks(List<String> lines, StringBuilder out, boolean tight) {
+    int i = 0;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      if (line.isBlank()) {
+        i++;
+        continue;
+      }
+      String block = blockText(line);
+      Matcher matcher;
+      if (block == null) {
+        i = renderParagraph(lines, i, out, tight);
+      } else if ((matcher = FENCE.matcher(block)).matches()) {
+        i = renderFence(lines, i, matcher, out);
+      } else if (THEMATIC_BREAK.matcher(block).matches()) {
+        out.append("<hr>\n");
+        i++;
+      } else if ((matcher = HEADING.matcher(block)).matches()) {
+        String level = String.valueOf(matcher.group(1).length());
+        out.append("<h").append(level).append('>');
+        renderInline(matcher.group(2) == null ? "" : matcher.group(2), out);
+        out.append("</h").append(level).append(">\n");
+        i++;
+      } else if (block.startsWith(">")) {
+        i = renderBlockquote(lines, i, out);
+      } else if (startsList(block)) {
+        i = renderList(lines, i, out);
+      } else {
+        i = renderParagraph(lines, i, out, tight);
+      }
+    }
+  }
+
+  private static int renderParagraph(
+      List<String> lines, int start, StringBuilder out, boolean tight) {
+    StringBuilder text = new StringBuilder();
+    int i = start;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      if (line.isBlank() || (i > start && interruptsParagraph(line))) {
+        break;
+      }
+      if (text.length() > 0) {
+        // Two trailing spaces are a hard line break, which the inline renderer knows as "\\\n".
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == ' ') {
+          end--;
+        }
+        boolean hardBreak = text.length() - end >= 2;
+        text.setLength(end);
+        text.append(hardBreak ? "\\\n" : "\n");
+      }
+      text.append(line.stripLeading());
+      i++;
+    }
+    if (!tight) {
+      out.append("<p>");
+    }
+    renderInline(text.toString().stripTrailing(), out);
+    out.append(tight ? "\n" : "</p>\n");
+    return i;
+  }
+
+  private static boolean interruptsParagraph(String line) {
+    String block = blockText(line);
+    if (block == null) {
+      return false;
+    }
+    Matcher ordered = ORDERED.matcher(block);
+    return FENCE.matcher(block).matches()
+        || THEMATIC_BREAK.matcher(block).matches()
+        || HEADING.matcher(block).matches()
+        || block.startsWith(">")
+        || (BULLET.matcher(block).matches() && !block.substring(1).isBlank())
+        || (ordered.matches() && ordered.group(1).equals("1") && ordered.group(3) != null);
+  }
+
+  private static int renderFence(List<String> lines, int start, Matcher open, StringBuilder out) {
+    String fence = open.group(1);
+    String language = open.group(2).strip().split("[ \\t]", 2)[0];
+    out.append("<pre><code");
+    if (LANGUAGE.matcher(language).matches()) {
+      out.append(" class=\"language-");
+      escape(language, out);
+      out.append('"');
+    }
+    out.append('>');
+    int i = start + 1;
+    for (; i < lines.size(); i++) {
+      String line = lines.get(i);
+      String block = blockText(line);
+      if (block != null
+          && block.startsWith(fence)
+          && block.chars().allMatch(c -> c == fence.charAt(0) || c == ' ' || c == '\t')) {
+        i++;
+        break;
+      }
+      escape(line, out);
+      out.append('\n');
+    }
+    out.append("</code></pre>\n");
+    return i;
+  }
+
+  private static int renderBlockquote(List<String> lines, int start, StringBuilder out) {
+    List<String> quoted = new ArrayList<>();
+    int i = start;
+    while (i < lines.size()) {
+      String block = blockText(lines.get(i));
+      if (block == null || !block.startsWith(">")) {
+        break;
+      }
+      String rest = block.substring(1);
+      quoted.add(rest.startsWith(" ") ? rest.substring(1) : rest);
+      i++;
+    }
+    out.append("<blockquote>\n");
+    renderBlocks(quoted, out, false);
+    out.append("</blockquote>\n");
+    return i;
+  }
+
+  /**
+   * Renders a list starting at the given line. Items continue on lines indented at least as deep as
+   * their content, and on unindented lines that would otherwise continue a paragraph. A blank line
+   * between items or inside one makes the list loose, which wraps its items in paragraphs.
+   */
+  private static int renderList(List<String> lines, int start, StringBuilder out) {
+    String first = blockText(lines.get(start));
+    Matcher ordered = ORDERED.matcher(first);
+    boolean isOrdered = ordered.matches();
+    char delimiter = isOrdered ? ordered.group(2).charAt(0) : first.charAt(0);
+    List<List<String>> items = new ArrayList<>();
+    List<String> item = null;
+    int contentIndent = 0;
+    boolean loose = false;
+    boolean blank = false;
+    int i = start;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      if (line.isBlank()) {
+        blank = true;
+        if (item != null) {
+          item.add("");
+        }
+        i++;
+        continue;
+      }
+      String block = blockText(line);
+      // Markers indented as deep as the content of the current item start a nested list.
+      boolean nested = item != null && indent(line) >= contentIndent;
+      String content = block == null || nested ? null : itemContent(block, isOrdered, delimiter);
+      if (content != null) {
+        loose |= blank && item != null;
+        item = new ArrayList<>();
+        item.add(content);
+        items.add(item);
+        contentIndent = indent(line) + block.length() - content.length();
+        if (content.isEmpty()) {
+          contentIndent = indent(line) + block.length() + 1;
+        }
+      } else if (indent(line) >= Math.min(contentIndent, 4)) {
+        loose |= blank;
+        item.add(line.substring(Math.min(indent(line), contentIndent)));
+      } else if (!blank && !interruptsParagraph(line) && !startsList(block)) {
+        item.add(line.strip());
+      } else {
+        break;
+      }
+      blank = false;
+      i++;
+    }
+
+    String tag = isOrdered ? "ol" : "ul";
+    out.append('<').append(tag);
+    if (isOrdered && !ordered.group(1).equals("1")) {
+      out.append(" start=\"").append(Integer.parseInt(ordered.group(1))).append('"');
+    }
+    out.append(">\n");
+    for (List<String> itemLines : items) {
+      StringBuilder rendered = new StringBuilder();
+      renderBlocks(itemLines, rendered, !loose);
+      int end = rendered.length();
+      while (end > 0 && rendered.charAt(end - 1) == '\n') {
+        end--;
+      }
+      rendered.setLength(end);
+      out.append("<li>");
+      if (loose) {
+        out.append('\n').append(rendered).append('\n');
+      } else {
+        out.append(rendered);
+      }
+      out.append("</li>\n");
+    }
+    out.append("</").append(tag).append(">\n");
+    return i;
+  }
+
+  private static boolean startsList(String block) {
+    return BULLET.matcher(block).matches() || ORDERED.matcher(block).matches();
+  }
+
+  /** Returns the content of a list item line of the given list, or null if it starts no item. */
+  private static String itemContent(String block, boolean isOrdered, char delimiter) {
+    if (THEMATIC_BREAK.matcher(block).matches()) {
+      return null;
+    }
+    Matcher matcher = (isOrdered ? ORDERED : BULLET).matcher(block);
+    if (!matcher.matches()) {
+      return null;
+    }
+    char marker = isOrdered ? matcher.group(2).charAt(0) : matcher.group(1).charAt(0);
+    if (marker != delimiter) {
+      return null;
+    }
+    String content = matcher.group(isOrdered ? 3 : 2);
+    return content == null ? "" : content;
+  }
+
+  /** Returns the line without indentation, or null if it is indented too deep to open a block. */
+  private static String blockText(String line) {
+    return indent(line) < 4 ? line.strip() : null;
+  }
+
+  private static int indent(String line) {
+    int indent = 0;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == ' ') {
+        indent++;
+      } else if (c == '\t') {
+        indent += 4 - indent % 4;
+      } else {
+        break;
+      }
+    }
+    return indent;
+  }
+
+  // Inline content.
+
+  private static void renderInline(String text, StringBuilder out) {
+    int i = 0;
+    int length = text.length();
+    while (i < length) {
+      char c = text.charAt(i);
+      int next = -1;
+      switch (c) {
+        case '\\' -> {
+          if (i + 1 < length && text.charAt(i + 1) == '\n') {
+            out.append("<br>\n");
+            next = i + 2;
+          } else if (i + 1 < length && isPunctuation(text.charAt(i + 1))) {
+            escape(text.charAt(i + 1), out);
+            next = i + 2;
+          }
+        }
+        case '`' -> next = renderCodeSpan(text, i, out);
+        case '[' -> next = renderLink(text, i, false, out);
+        case '!' -> {
+          if (i + 1 < length && text.charAt(i + 1) == '[') {
+            next = renderLink(text, i + 1, true, out);
+          }
+        }
+        case '<' -> next = renderAutolink(text, i, out);
+        case '*', '_', '~' -> next = renderEmphasis(text, i, out);
+        default -> {}
+      }
+      if (next < 0) {
+        escape(c, out);
+        next = i + 1;
+      }
+      i = next;
+    }
+  }
+
+  private static int renderCodeSpan(String text, int start, StringBuilder out) {
+    int run = runLength(text, start, '`');
+    int end = start + run;
+    while (end < text.length()) {
+      int close = text.indexOf('`', end);
+      if (close < 0) {
+        break;
+      }
+      int closeRun = runLength(text, close, '`');
+      if (closeRun == run) {
+        String code = text.substring(start + run, close).replace('\n', ' ');
+        if (code.length() > 2 && code.startsWith(" ") && code.endsWith(" ") && !code.isBlank()) {
+          code = code.substring(1, code.length() - 1);
+        }
+        out.append("<code>");
+        escape(code, out);
+        out.append("</code>");
+        return close + closeRun;
+      }
+      end = close + closeRun;
+    }
+    // An unmatched run of backticks is literal text.
+    out.append(text, start, start + run);
+    return start + run;
+  }
+
+  /**
+   * Renders an inline link or image whose label starts at the given bracket, returning the index
+   * after it, or -1 if the text there is not a link. Links to unsafe URLs keep only their label.
+   */
+  private static int renderLink(String text, int open, boolean image, StringBuilder out) {
+    int close = closingBracket(text, open);
+    if (close < 0 || close + 1 >= text.length() || text.charAt(close + 1) != '(') {
+      return -1;
+    }
+    int i = skipWhitespace(text, close + 2);
+    StringBuilder url = new StringBuilder();
+    if (i < text.length() && text.charAt(i) == '<') {
+      int end = text.indexOf('>', i);
+      if (end < 0) {
+        return -1;
+      }
+      url.append(text, i + 1, end);
+      i = end + 1;
+    } else {
+      int depth = 0;
+      for (; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (Character.isWhitespace(c) || (c == ')' && depth == 0)) {
+          break;
+        }
+        if (c == '\\' && i + 1 < text.length() && isPunctuation(text.charAt(i + 1))) {
+          c = text.charAt(++i);
+        } else if (c == '(') {
+          depth++;
+        } else if (c == ')') {
+          depth--;
+        }
+        url.append(c);
+      }
+    }
+    i = skipWhitespace(text, i);
+    String title = null;
+    if (i < text.length() && (text.charAt(i) == '"' || text.charAt(i) == '\'')) {
+      int end = text.indexOf(text.charAt(i), i + 1);
+      if (end < 0) {
+        return -1;
+      }
+      title = text.substring(i + 1, end);
+      i = skipWhitespace(text, end + 1);
+    }
+    if (i >= text.length() || text.charAt(i) != ')') {
+      return -1;
+    }
+
+    String label = text.substring(open + 1, close);
+    boolean safe = isSafeUrl(url.toString());
+    if (image) {
+      if (safe) {
+        out.append("<img src=\"");
+        escape(url.toString(), out);
+        out.append("\" alt=\"");
+        escape(label, out);
+        out.append('"');
+        appendTitle(title, out);
+        out.append('>');
+      } else {
+        escape(label, out);
+      }
+    } else if (safe) {
+      out.append("<a href=\"");
+      escape(url.toString(), out);
+      out.append('"');
+      appendTitle(title, out);
+      out.append('>');
+      renderInline(label, out);
+      out.append("</a>");
+    } else {
+      renderInline(label, out);
+    }
+    return i + 1;
+  }
+
+  private static void appendTitle(String title, StringBuilder out) {
+    if (title != null) {
+      out.append(" title=\"");
+      escape(title, out);
+      out.append('"');
+    }
+  }
+
+  private static int closingBracket(String text, int open) {
+    int depth = 0;
+    for (int i = open; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        depth++;
+      } else if (c == ']' && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int renderAutolink(String text, int open, StringBuilder out) {
+    int close = text.indexOf('>', open);
+    if (close < 0) {
+      return -1;
+    }
+    String url = text.substring(open + 1, close);
+    if (!AUTOLINK.matcher(url).matches()) {
+      return -1;
+    }
+    out.append("<a href=\"");
+    escape(url, out);
+    out.append("\">");
+    escape(url, out);
+    out.append("</a>");
+    return close + 1;
+  }
+
+  /**
+   * Renders emphasis ({@code *} and {@code _}, doubled for strong emphasis) or strikethrough
+   * ({@code ~~}) opened at the given index, returning the index after it. A delimiter run that
+   * opens nothing is literal text. The closing run must have the same length as the opening one.
+   */
+  private static int renderEmphasis(String text, int start, StringBuilder out) {
+    char delimiter = text.charAt(start);
+    int run = runLength(text, start, delimiter);
+    int end = start + run;
+    boolean canOpen =
+        end < text.length()
+            && !Character.isWhitespace(text.charAt(end))
+            && (delimiter != '_'
+                || start == 0
+                || !Character.isLetterOrDigit(text.charAt(start - 1)));
+    if (!canOpen || (delimiter == '~' ? run != 2 : run > 3)) {
+      out.append(text, start, end);
+      return end;
+    }
+    for (int i = end; i < text.length(); ) {
+      char c = text.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == '`') {
+        i += runLength(text, i, '`');
+      } else if (c == delimiter) {
+        int closeRun = runLength(text, i, delimiter);
+        int after = i + closeRun;
+        boolean canClose =
+            closeRun == run
+                && !Character.isWhitespace(text.charAt(i - 1))
+                && (delimiter != '_'
+                    || after == text.length()
+                    || !Character.isLetterOrDigit(text.charAt(after)));
+        if (canClose) {
+          String[] tags =
+              switch (delimiter == '~' ? 0 : run) {
+                case 0 -> new String[] {"del"};
+                case 1 -> new String[] {"em"};
+                case 2 -> new String[] {"strong"};
+                default -> new String[] {"em", "strong"};
+              };
+          for (String tag : tags) {
+            out.append('<').append(tag).append('>');
+          }
+          renderInline(text.substring(end, i), out);
+          for (int t = tags.length - 1; t >= 0; t--) {
+            out.append("</").append(tags[t]).append('>');
+          }
+          return after;
+        }
+        i = after;
+      } else {
+        i++;
+      }
+    }
+    out.append(text, start, end);
+    return end;
+  }
+
+  private static boolean isSafeUrl(String url) {
+    for (int i = 0; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == ':') {
+        String scheme = url.substring(0, i).toLowerCase(Locale.ROOT);
+        return scheme.equals("http") || scheme.equals("https") || scheme.equals("mailto");
+      }
+      if (c == '/' || c == '?' || c == '#') {
+        return true;
+      }
+      if (Character.isISOControl(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int runLength(String text, int start, char c) {
+    int end = start;
+    while (end < text.length() && text.charAt(end) == c) {
+      end++;
+    }
+    return end - start;
+  }
+
+  private static int skipWhitespace(String text, int i) {
+    while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isPunctuation(char c) {
+    return c < 128 && !Character.isLetterOrDigit(c) && c > ' ' && c != 127;
+  }
+
+  private static void escape(String text, StringBuilder out) {
+    for (int i = 0; i < text.length(); i++) {
+      escape(text.charAt(i), out);
+    }
+  }
+
+  private static void escape(char c, StringBuilder out) {
+    switch (c) {
+      case '&' -> out.append("&amp;");
+      case '<' -> out.append("&lt;");
+      case '>' -> out.append("&gt;");
+      case '"' -> out.append("&quot;");
+      default -> out.append(c);
+    }
+  }
+}
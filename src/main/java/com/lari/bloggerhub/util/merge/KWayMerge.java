@@ -0,0 +1,57 @@
+package com.lari.bloggerhub.util.merge;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class merges several sorted lists into one sorted list, such as the timeline pages of
+ * several sources of a feed.
+ */
+public final class KWayMerge {
+
+  private KWayMerge() {}
+
+  /**
+   * Merges lists that are each sorted by the comparator. Elements that compare equal to the
+   * previously emitted element are emitted only once.
+   *
+   * @param lists the sorted lists
+   * @param order the order of the lists
+   * @param limit the maximum number of elements to return
+   * @param <T> the element type
+   * @return the first elements of the merged order
+   */
+  public static <T> List<T> merge(List<? extends List<T>> lists, Comparator<T> order, int limit) {
+    if (lists.size() == 1) {
+      List<T> only = lists.get(0);
+      return only.size() <= limit ? only : only.subList(0, limit);
+    }
+    // Each heap element is {list index, position in list}.
+    PriorityQueue<int[]> heads =
+        new PriorityQueue<>(
+            Math.max(1, lists.size()),
+            (a, b) -> order.compare(lists.get(a[0]).get(a[1]), lists.get(b[0]).get(b[1])));
+    for (int i = 0; i < lists.size(); i++) {
+      if (!lists.get(i).isEmpty()) {
+        heads.add(new int[] {i, 0});
+      }
+    }
+    List<T> merged = new ArrayList<>(limit);
+    T previous = null;
+    while (merged.size() < limit && !heads.isEmpty()) {
+      int[] head = heads.poll();
+      List<T> list = lists.get(head[0]);
+      T element = list.get(head[1]);
+      if (previous == null || order.compare(previous, element) != 0) {
+        merged.add(element);
+        previous = element;
+      }
+      if (++head[1] < list.size()) {
+        heads.add(head);
+      }
+    }
+    return merged;
+  }
+}
@@ -0,0 +1,54 @@
+package com.lari.bloggerhub.util.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.bson.types.ObjectId;
+
+/**
+ * Represents the position after the last item of a timeline page, sorted by publication time and
+ * ID in descending order.
+ *
+ * <p>Clients receive the cursor as an opaque URL-safe token and send it back to fetch the next
+ * page. Unlike offset paging, the next page starts with an index seek to the cursor position, so
+ * its cost does not grow with the page number and items inserted in the meantime neither shift
+ * nor repeat entries.
+ *
+ * @param publishedAt the publication time of the last item
+ * @param id the ID of the last item
+ */
+public record KeysetCursor(Instant publishedAt, String id) {
+
+  /**
+   * Encodes the cursor as an opaque token.
+   *
+   * @return the token
+   */
+  public String encode() {
+    String raw = publishedAt.toEpochMilli() + "." + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decodes a token created by {@link #encode()}.
+   *
+   * @param token the token, may be null or empty for the first page
+   * @return the cursor, or null for the first page
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static KeysetCursor decode(String token) {
+    if (token == null || token.isEmpty()) {
+      return null;
+    }
+    String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+    int dot = raw.indexOf('.');
+    if (dot < 0 || !ObjectId.isValid(raw.substring(dot + 1))) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    return new KeysetCursor(
+        Instant.ofEpochMilli(Long.parseLong(raw.substring(0, dot))),
+        new ObjectId(raw.substring(dot + 1)).toHexString());
+  }
+}
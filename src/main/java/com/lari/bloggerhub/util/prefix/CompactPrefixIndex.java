@@ -0,0 +1,285 @@
+package com.lari.bloggerhub.util.prefix;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class implements an immutable, read-optimized prefix index over usernames, answering top-k
+ * prefix queries ranked by a popularity score.
+ *
+ * <p>All data lives in a handful of primitive arrays: the UTF-8 bytes of the usernames sorted
+ * ASCII case-insensitively and concatenated into one blob, their start offsets, their 12 byte
+ * MongoDB object IDs, their scores, and a max segment tree over the scores. A prefix query binary
+ * searches the contiguous range of usernames sharing the prefix and then pulls the k highest
+ * scores out of that range through the segment tree, in {@code O(log n + k log k)} time regardless
+ * of how many usernames share the prefix.
+ *
+ * <p>Instances are never modified after construction, so any number of threads may query them
+ * without synchronization.
+ */
+public final class CompactPrefixIndex {
+
+  /** An indexed username. */
+  public record Entry(String id, String username, int score) {}
+
+  private static final int OBJECT_ID_BYTES = 12;
+
+  /** The key order of the index: ASCII case-insensitive UTF-8 byte order. */
+  public static final Comparator<Entry> ORDER =
+      (a, b) -> {
+        byte[] left = a.username().getBytes(StandardCharsets.UTF_8);
+        byte[] right = b.username().getBytes(StandardCharsets.UTF_8);
+        int common = Math.min(left.length, right.length);
+        for (int i = 0; i < common; i++) {
+          int difference = fold(left[i]) - fold(right[i]);
+          if (difference != 0) {
+            return difference;
+          }
+        }
+        return Integer.compare(left.length, right.length);
+      };
+
+  private final byte[] keys;
+  private final int[] offsets;
+  private final byte[] ids;
+  private final int[] scores;
+  private final int[] tree;
+  private final int leaves;
+  private final int size;
+
+  private CompactPrefixIndex(List<Entry> sortedEntries) {
+    size = sortedEntries.size();
+    offsets = new int[size + 1];
+    ids = new byte[size * OBJECT_ID_BYTES];
+    scores = new int[size];
+
+    byte[][] encoded = new byte[size][];
+    int totalBytes = 0;
+    for (int i = 0; i < size; i++) {
+      encoded[i] = sortedEntries.get(i).username().getBytes(StandardCharsets.UTF_8);
+      totalBytes += encoded[i].length;
+    }
+    keys = new byte[totalBytes];
+    int position = 0;
+    for (int i = 0; i < size; i++) {
+      Entry entry = sortedEntries.get(i);
+      offsets[i] = position;
+      System.arraycopy(encoded[i], 0, keys, position, encoded[i].length);
+      position += encoded[i].length;
+      System.arraycopy(
+          HexFormat.of().parseHex(entry.id()), 0, ids, i * OBJECT_ID_BYTES, OBJECT_ID_BYTES);
+      scores[i] = entry.score();
+    }
+    offsets[size] = position;
+
+    int capacity = 1;
+    while (capacity < Math.max(1, size)) {
+      capacity <<= 1;
+    }
+    leaves = capacity;
+    tree = new int[2 * capacity];
+    Arrays.fill(tree, -1);
+    for (int i = 0; i < size; i++) {
+      tree[capacity + i] = i;
+    }
+    for (int node = capacity - 1; node >= 1; node--) {
+      tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+    }
+  }
+
+  /**
+   * Builds an index from the given entries. Entries whose ID is not a MongoDB object ID are
+   * skipped.
+   *
+   * @param entries the entries to index, in any order
+   * @return the index
+   */
+  public static CompactPrefixIndex build(List<Entry> entries) {
+    List<Entry> sorted = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      if (entry.username() != null && isObjectId(entry.id())) {
+        sorted.add(entry);
+      }
+    }
+    sorted.sort(ORDER);
+    return new CompactPrefixIndex(sorted);
+  }
+
+  /**
+   * Returns the entries whose username starts with the prefix, highest score first, ties broken by
+   * username.
+   *
+   * @param prefix the prefix, matched ASCII case-insensitively
+   * @param limit the maximum number of entries to return
+   * @return the matching entries
+   */
+  public List<Entry> topK(String prefix, int limit) {
+    byte[] needle = prefix.getBytes(StandardCharsets.UTF_8);
+    int from = lowerBound(needle, false);
+    int to = lowerBound(needle, true);
+    List<Entry> result = new ArrayList<>(Math.min(limit, to - from));
+    if (from >= to || limit <= 0) {
+      return result;
+    }
+
+    // Each candidate is a range together with the position of its maximum.
+    PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> compareRank(a[2], b[2]));
+    candidates.add(new int[] {from, to, rangeMax(from, to)});
+    while (!candidates.isEmpty() && result.size() < limit) {
+      int[] best = candidates.poll();
+      int index = best[2];
+      result.add(entryAt(index));
+      if (best[0] < index) {
+        candidates.add(new int[] {best[0], index, rangeMax(best[0], index)});
+      }
+      if (index + 1 < best[1]) {
+        candidates.add(new int[] {index + 1, best[1], rangeMax(index + 1, best[1])});
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether a username starts with the prefix under the matching rules of the index.
+   *
+   * @param username the username
+   * @param prefix the prefix
+   * @return true if the username starts with the prefix
+   */
+  public static boolean hasPrefix(String username, String prefix) {
+    byte[] key = username.getBytes(StandardCharsets.UTF_8);
+    byte[] needle = prefix.getBytes(StandardCharsets.UTF_8);
+    if (key.length < needle.length) {
+      return false;
+    }
+    for (int i = 0; i < needle.length; i++) {
+      if (fold(key[i]) != fold(needle[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns every entry of the index in key order.
+   *
+   * @return the entries
+   */
+  public List<Entry> entries() {
+    List<Entry> entries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      entries.add(entryAt(i));
+    }
+    return entries;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes held by the arrays of the index.
+   *
+   * @return the memory footprint in bytes, excluding object headers
+   */
+  public long sizeInBytes() {
+    return keys.length
+        + (long) offsets.length * Integer.BYTES
+        + ids.length
+        + (long) scores.length * Integer.BYTES
+        + (long) tree.length * Integer.BYTES;
+  }
+
+  private Entry entryAt(int index) {
+    String username =
+        new String(keys, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    String id =
+        HexFormat.of().formatHex(ids, index * OBJECT_ID_BYTES, (index + 1) * OBJECT_ID_BYTES);
+    return new Entry(id, username, scores[index]);
+  }
+
+  /**
+   * Finds the first key that is not below the prefix, or with {@code pastPrefix}, the first key
+   * that neither is below nor starts with the prefix.
+   */
+  private int lowerBound(byte[] prefix, boolean pastPrefix) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = comparePrefix(middle, prefix);
+      if (comparison < 0 || (pastPrefix && comparison == 0)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Compares the first {@code prefix.length} bytes of a key with the prefix. */
+  private int comparePrefix(int index, byte[] prefix) {
+    int start = offsets[index];
+    int length = offsets[index + 1] - start;
+    int common = Math.min(length, prefix.length);
+    for (int i = 0; i < common; i++) {
+      int difference = fold(keys[start + i]) - fold(prefix[i]);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return length >= prefix.length ? 0 : -1;
+  }
+
+  /** Returns the index of the highest ranked entry in {@code [from, to)}. */
+  private int rangeMax(int from, int to) {
+    int best = -1;
+    for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+      if ((low & 1) == 1) {
+        best = better(best, tree[low++]);
+      }
+      if ((high & 1) == 1) {
+        best = better(best, tree[--high]);
+      }
+    }
+    return best;
+  }
+
+  private int better(int a, int b) {
+    if (a < 0) {
+      return b;
+    }
+    if (b < 0) {
+      return a;
+    }
+    return compareRank(a, b) <= 0 ? a : b;
+  }
+
+  /** Orders by score descending, then by key position, which is username order. */
+  private int compareRank(int a, int b) {
+    int byScore = Integer.compare(scores[b], scores[a]);
+    return byScore != 0 ? byScore : Integer.compare(a, b);
+  }
+
+  private static int fold(byte value) {
+    int unsigned = value & 0xff;
+    return unsigned >= 'A' && unsigned <= 'Z' ? unsigned + ('a' - 'A') : unsigned;
+  }
+
+  private static boolean isObjectId(String id) {
+    if (id == null || id.length() != OBJECT_ID_BYTES * 2) {
+      return false;
+    }
+    for (int i = 0; i < id.length(); i++) {
+      if (Character.digit(id.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,131 @@
+package com.lari.bloggerhub.util.resilience;
+
+import java.time.Duration;
+
+/**
+ * This class implements a count based circuit breaker.
+ *
+ * <p>The breaker records the outcome of the last {@code windowSize} calls. Once the window is full
+ * and the failure rate reaches the threshold the circuit opens and every call is rejected until the
+ * open duration has passed. After that a single trial call is let through (half-open); its outcome
+ * decides whether the circuit closes again or stays open for another period.
+ */
+public class CircuitBreaker {
+
+  /** The states of the circuit. */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int windowSize;
+  private final double failureRateThreshold;
+  private final long openDurationNanos;
+  private final boolean[] outcomes;
+
+  private State state = State.CLOSED;
+  private int recorded;
+  private int failures;
+  private int position;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  /**
+   * Constructs a new circuit breaker.
+   *
+   * @param windowSize the number of recent calls the failure rate is computed over
+   * @param failureRateThreshold the failure rate, between 0 and 1, that opens the circuit
+   * @param openDuration how long the circuit stays open before a trial call is allowed
+   */
+  public CircuitBreaker(int windowSize, double failureRateThreshold, Duration openDuration) {
+    this.windowSize = windowSize;
+    this.failureRateThreshold = failureRateThreshold;
+    this.openDurationNanos = openDuration.toNanos();
+    this.outcomes = new boolean[windowSize];
+  }
+
+  /**
+   * Checks whether a call may proceed. A caller that gets {@code true} must report the outcome
+   * with {@link #onSuccess()} or {@link #onFailure()}.
+   *
+   * @return true if the call is permitted
+   */
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedAt < openDurationNanos) {
+        return false;
+      }
+      state = State.HALF_OPEN;
+      trialInFlight = false;
+    }
+    if (state == State.HALF_OPEN) {
+      if (trialInFlight) {
+        return false;
+      }
+      trialInFlight = true;
+    }
+    return true;
+  }
+
+  /** Returns a permission without recording an outcome, for calls that never ran. */
+  public synchronized void releasePermission() {
+    if (state == State.HALF_OPEN) {
+      trialInFlight = false;
+    }
+  }
+
+  /** Records a successful call. */
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      reset();
+      return;
+    }
+    record(false);
+  }
+
+  /** Records a failed call. */
+  public synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+    record(true);
+    if (recorded == windowSize && failures >= failureRateThreshold * windowSize) {
+      open();
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  private void record(boolean failure) {
+    if (recorded == windowSize) {
+      if (outcomes[position]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    outcomes[position] = failure;
+    if (failure) {
+      failures++;
+    }
+    position = (position + 1) % windowSize;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = System.nanoTime();
+    trialInFlight = false;
+  }
+
+  private void reset() {
+    state = State.CLOSED;
+    recorded = 0;
+    failures = 0;
+    position = 0;
+    trialInFlight = false;
+  }
+}
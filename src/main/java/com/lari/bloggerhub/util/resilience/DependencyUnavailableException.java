@@ -0,0 +1,27 @@
+package com.lari.bloggerhub.util.resilience;
+
+/**
+ * Thrown when a call to a backing dependency is rejected or abandoned by a {@link
+ * ResilienceGuard}: the bulkhead is full, the circuit is open, the call missed its deadline or the
+ * dependency failed. Components that wait on a dependency with their own deadline throw it too.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+  private final String dependency;
+
+  /**
+   * Initializes a new exception for the given dependency.
+   *
+   * @param dependency the name of the guarded dependency
+   * @param message the reason the call was rejected
+   * @param cause the underlying failure, if any
+   */
+  public DependencyUnavailableException(String dependency, String message, Throwable cause) {
+    super(dependency + ": " + message, cause);
+    this.dependency = dependency;
+  }
+
+  public String getDependency() {
+    return dependency;
+  }
+}
@@ -0,0 +1,142 @@
+package com.lari.bloggerhub.util.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+
+/**
+ * This class combines a concurrency bulkhead, a per-call deadline and a {@link CircuitBreaker}
+ * around calls to a single dependency.
+ *
+ * <p>Calls run on the supplied executor while the caller waits at most for the deadline. A call
+ * that misses its deadline keeps its bulkhead permit until it actually finishes, so a stuck
+ * dependency fills its own bulkhead and further calls are rejected immediately instead of piling
+ * up request threads.
+ */
+public class ResilienceGuard {
+
+  private final String name;
+  private final Semaphore bulkhead;
+  private final long timeoutNanos;
+  private final CircuitBreaker circuitBreaker;
+  private final ExecutorService executor;
+
+  /**
+   * Constructs a new guard.
+   *
+   * @param name the name of the guarded dependency, used in error messages
+   * @param maxConcurrentCalls the size of the bulkhead
+   * @param timeout the deadline of a single call
+   * @param circuitBreaker the circuit breaker of the dependency
+   * @param executor the executor the calls run on
+   */
+  public ResilienceGuard(
+      String name,
+      int maxConcurrentCalls,
+      Duration timeout,
+      CircuitBreaker circuitBreaker,
+      ExecutorService executor) {
+    this.name = name;
+    this.bulkhead = new Semaphore(maxConcurrentCalls);
+    this.timeoutNanos = timeout.toNanos();
+    this.circuitBreaker = circuitBreaker;
+    this.executor = executor;
+  }
+
+  /**
+   * Executes the call under the guard.
+   *
+   * @param call the call to execute
+   * @param <T> the result type
+   * @return the result of the call
+   * @throws DependencyUnavailableException if the call was rejected, timed out or failed with a
+   *     checked exception
+   */
+  public <T> T execute(Supplier<T> call) {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      throw new DependencyUnavailableException(name, "circuit is open", null);
+    }
+    if (!bulkhead.tryAcquire()) {
+      // The call never ran, so it tells nothing about the health of the dependency.
+      circuitBreaker.releasePermission();
+      throw new DependencyUnavailableException(name, "bulkhead is full", null);
+    }
+
+    Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                try {
+                  return call.get();
+                } finally {
+                  bulkhead.release();
+                }
+              });
+    } catch (RuntimeException e) {
+      bulkhead.release();
+      circuitBreaker.onFailure();
+      throw new DependencyUnavailableException(name, "call could not be scheduled", e);
+    }
+
+    try {
+      T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      circuitBreaker.onSuccess();
+      return result;
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      circuitBreaker.onFailure();
+      throw new DependencyUnavailableException(name, "deadline exceeded", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      // The caller gave up, which tells nothing about the dependency, but a half-open trial
+      // permit must be returned or the circuit never closes again.
+      circuitBreaker.releasePermission();
+      throw new DependencyUnavailableException(name, "interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (isDependencyFailure(cause)) {
+        circuitBreaker.onFailure();
+      } else {
+        circuitBreaker.onSuccess();
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new DependencyUnavailableException(name, "call failed", cause);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public int getAvailablePermits() {
+    return bulkhead.availablePermits();
+  }
+
+  /**
+   * Only infrastructure failures count against the circuit. Application level exceptions, such as
+   * a duplicate key or a missing entity, mean the dependency answered.
+   */
+  private static boolean isDependencyFailure(Throwable cause) {
+    return !(cause instanceof IllegalArgumentException)
+        && !(cause instanceof DuplicateKeyException)
+        && !(cause instanceof IncorrectResultSizeDataAccessException);
+  }
+}
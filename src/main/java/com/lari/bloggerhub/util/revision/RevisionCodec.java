@@ -0,0 +1,211 @@
+package com.lari.bloggerhub.util.revision;
+
+import com.lari.bloggerhub.util.text.TextEdit;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This class encodes the revisions of a text as compressed keyframes and deltas.
+ *
+ * <p>A keyframe is the full text, deflated. A delta is the list of {@link TextEdit}s from the
+ * previous revision, deflated with the end of the previous text as a preset dictionary, so text
+ * inserted by an edit compresses against the words already in the document. A revision is rebuilt
+ * by decoding its keyframe and applying the deltas after it in order; both are decoded as streams,
+ * so no decompressed copy of a revision is held besides the text being rebuilt.
+ *
+ * <p>How many deltas follow a keyframe is bounded by the caller, which makes the cost of rebuilding
+ * any revision bounded too; {@link #needsKeyframe} implements the usual policy.
+ */
+public final class RevisionCodec {
+
+  /** The number of characters at the end of the previous text used as the delta dictionary. */
+  static final int DICTIONARY_CHARS = 16 * 1024;
+
+  private static final int KEYFRAME = 0;
+  private static final int DELTA = 1;
+
+  private RevisionCodec() {}
+
+  /**
+   * Returns whether the next revision should be stored as a keyframe: once the chain of deltas
+   * reaches its maximum length, or when the delta is so large that a keyframe costs little more.
+   *
+   * @param deltasSinceKeyframe the number of deltas after the latest keyframe
+   * @param maxDeltas the maximum number of deltas after a keyframe
+   * @param deltaSize the encoded size of the delta
+   * @param keyframeSize the encoded size of the revision as a keyframe
+   * @return true if the revision should be a keyframe
+   */
+  public static boolean needsKeyframe(
+      int deltasSinceKeyframe, int maxDeltas, int deltaSize, int keyframeSize) {
+    return deltasSinceKeyframe >= maxDeltas || deltaSize * 2L > keyframeSize;
+  }
+
+  /**
+   * Encodes a text as a keyframe.
+   *
+   * @param text the text
+   * @return the encoded keyframe
+   */
+  public static byte[] encodeKeyframe(String text) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length() / 3 + 16);
+    bytes.write(KEYFRAME);
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Encodes the edits from a text to the next revision as a delta.
+   *
+   * @param previous the text of the previous revision
+   * @param edits the edits
+   * @return the encoded delta
+   */
+  public static byte[] encodeDelta(String previous, List<TextEdit> edits) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(DELTA);
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    deflater.setDictionary(dictionary(previous));
+    try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+      writeVarInt(out, edits.size());
+      for (TextEdit edit : edits) {
+        byte[] insert =
+            edit.insert() == null ? new byte[0] : edit.insert().getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, edit.at());
+        writeVarInt(out, edit.delete());
+        writeVarInt(out, insert.length);
+        out.write(insert);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns whether an encoded revision is a keyframe.
+   *
+   * @param encoded the encoded revision
+   * @return true for a keyframe, false for a delta
+   */
+  public static boolean isKeyframe(byte[] encoded) {
+    return encoded[0] == KEYFRAME;
+  }
+
+  /**
+   * Replaces a text with the keyframe it was encoded from.
+   *
+   * @param text the text to replace
+   * @param encoded the encoded keyframe
+   * @throws IllegalArgumentException if the data is not a valid keyframe
+   */
+  public static void decodeKeyframe(StringBuilder text, byte[] encoded) {
+    if (!isKeyframe(encoded)) {
+      throw new IllegalArgumentException("Not a keyframe.");
+    }
+    text.setLength(0);
+    Inflater inflater = new Inflater(true);
+    try (Reader in = new InputStreamReader(inflate(encoded, inflater), StandardCharsets.UTF_8)) {
+      char[] buffer = new char[8192];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        text.append(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Corrupt keyframe.", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Applies an encoded delta to the text of the previous revision, decoding one edit at a time.
+   *
+   * @param text the text of the previous revision, updated in place
+   * @param encoded the encoded delta
+   * @throws IllegalArgumentException if the data is not a valid delta for the text
+   */
+  public static void applyDelta(StringBuilder text, byte[] encoded) {
+    if (isKeyframe(encoded)) {
+      throw new IllegalArgumentException("Not a delta.");
+    }
+    Inflater inflater = new Inflater(true);
+    inflater.setDictionary(dictionary(text));
+    try (DataInputStream in = new DataInputStream(inflate(encoded, inflater))) {
+      int count = readVarInt(in);
+      for (int i = 0; i < count; i++) {
+        int at = readVarInt(in);
+        int delete = readVarInt(in);
+        byte[] insert = new byte[readVarInt(in)];
+        in.readFully(insert);
+        TextEdit.apply(
+            text,
+            List.of(new TextEdit(at, delete, new String(insert, StandardCharsets.UTF_8))));
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Corrupt delta.", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static InputStream inflate(byte[] encoded, Inflater inflater) {
+    return new InflaterInputStream(
+        new ByteArrayInputStream(encoded, 1, encoded.length - 1), inflater, 8192);
+  }
+
+  private static byte[] dictionary(CharSequence previous) {
+    int start = Math.max(0, previous.length() - DICTIONARY_CHARS);
+    if (start > 0 && Character.isLowSurrogate(previous.charAt(start))) {
+      start++;
+    }
+    String tail = previous.subSequence(start, previous.length()).toString();
+    return tail.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer.");
+  }
+}
@@ -0,0 +1,676 @@
+package com.lari.bloggerhub.util.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * This class implements an embedded full-text index with BM25 ranking, stored as immutable
+ * memory-mapped {@link Segment} files on local disk.
+ *
+ * <p>Updates and deletes are buffered in memory and become searchable on the next {@link
+ * #refresh}, which writes the buffered documents as a new segment and marks older copies of their
+ * keys as deleted. A manifest, replaced atomically on every refresh, lists the live segments and
+ * a checkpoint chosen by the caller, so the caller knows from where to catch up after a restart.
+ * Small segments are merged in the background by {@link #merge()}, which drops deleted documents
+ * and keeps the number of segments, and so the cost of a search, bounded.
+ *
+ * <p>Searches read an immutable snapshot of the segments and never block on writers.
+ */
+public final class InvertedIndex implements Closeable {
+
+  private static final String MANIFEST = "manifest";
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final Path directory;
+  private final int mergeFactor;
+  private final long maxMergedBytes;
+  private final ReentrantLock commitLock = new ReentrantLock();
+  private final Object bufferLock = new Object();
+
+  /** Buffered documents by key; null marks a delete. Guarded by bufferLock. */
+  private Map<String, SearchDocument> buffer = new LinkedHashMap<>();
+
+  private volatile List<Segment> segments;
+  private long generation;
+  private long checkpoint;
+
+  /**
+   * Represents a document to index.
+   *
+   * @param key the unique key of the document
+   * @param type the type of the document, used to filter searches
+   * @param terms the terms of the document, see {@link Tokenizer}
+   */
+  public record SearchDocument(String key, byte type, List<String> terms) {}
+
+  /**
+   * Represents a search result.
+   *
+   * @param key the key of the document
+   * @param type the type of the document
+   * @param score the BM25 score
+   */
+  public record Hit(String key, byte type, double score) {}
+
+  private InvertedIndex(Path directory, int mergeFactor, long maxMergedBytes) {
+    this.directory = directory;
+    this.mergeFactor = mergeFactor;
+    this.maxMergedBytes = maxMergedBytes;
+  }
+
+  /**
+   * Opens the index in a directory, creating it if needed. Files that are not part of the last
+   * committed manifest, such as a segment written by an interrupted refresh, are deleted.
+   *
+   * @param directory the index directory
+   * @param mergeFactor the number of segments above which segments are merged
+   * @param maxMergedBytes the size above which segments are no longer merged
+   * @return the index
+   */
+  public static InvertedIndex open(Path directory, int mergeFactor, long maxMergedBytes)
+      throws IOException {
+    Files.createDirectories(directory);
+    InvertedIndex index = new InvertedIndex(directory, mergeFactor, maxMergedBytes);
+    List<Segment> segments = new ArrayList<>();
+    Set<String> live = new HashSet<>();
+    live.add(MANIFEST);
+    Path manifest = directory.resolve(MANIFEST);
+    if (Files.exists(manifest)) {
+      for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+        String[] parts = line.split(" ", 2);
+        switch (parts[0]) {
+          case "generation" -> index.generation = Long.parseLong(parts[1]);
+          case "checkpoint" -> index.checkpoint = Long.parseLong(parts[1]);
+          case "segment" -> {
+            String[] segment = parts[1].split(" ");
+            live.add(segment[0] + ".seg");
+            BitSet deleted = new BitSet();
+            if (segment.length > 1) {
+              live.add(segment[1]);
+              deleted = BitSet.valueOf(Files.readAllBytes(directory.resolve(segment[1])));
+            }
+            segments.add(
+                Segment.open(segment[0], directory.resolve(segment[0] + ".seg"), deleted));
+          }
+          default -> throw new IOException("Corrupt search manifest: " + line);
+        }
+      }
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        if (!live.contains(file.getFileName().toString())) {
+          Files.delete(file);
+        }
+      }
+    }
+    index.segments = List.copyOf(segments);
+    return index;
+  }
+
+  /**
+   * Returns the checkpoint of the last refresh.
+   *
+   * @return the checkpoint, or 0 if the index has never been refreshed
+   */
+  public long checkpoint() {
+    commitLock.lock();
+    try {
+      return checkpoint;
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Adds a document, replacing the document with the same key.
+   *
+   * @param document the document
+   */
+  public void update(SearchDocument document) {
+    synchronized (bufferLock) {
+      buffer.put(document.key(), document);
+    }
+  }
+
+  /**
+   * Deletes the document with a key, if any.
+   *
+   * @param key the key
+   */
+  public void delete(String key) {
+    synchronized (bufferLock) {
+      buffer.put(key, null);
+    }
+  }
+
+  /**
+   * Makes the buffered changes searchable and durable. If the changes cannot be written, they are
+   * put back into the buffer for the next refresh, behind any change buffered meanwhile.
+   *
+   * @param newCheckpoint the checkpoint to store in the manifest
+   * @return the number of changes written
+   */
+  public int refresh(long newCheckpoint) throws IOException {
+    commitLock.lock();
+    try {
+      Map<String, SearchDocument> changes;
+      synchronized (bufferLock) {
+        changes = buffer;
+        buffer = new LinkedHashMap<>();
+      }
+      if (changes.isEmpty() && newCheckpoint == checkpoint) {
+        return 0;
+      }
+      Segment segment = null;
+      try {
+        List<Segment> current = new ArrayList<>(segments);
+        Map<Segment, BitSet> deletes = new HashMap<>();
+        for (String key : changes.keySet()) {
+          byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+          for (Segment existing : current) {
+            int doc = existing.findDoc(bytes);
+            if (doc >= 0 && !existing.isDeleted(doc)) {
+              deletes.computeIfAbsent(existing, s -> (BitSet) s.deleted().clone()).set(doc);
+            }
+          }
+        }
+        List<SearchDocument> added =
+            changes.values().stream()
+                .filter(document -> document != null)
+                .sorted(
+                    Comparator.comparing(document -> keyBytes(document), Arrays::compareUnsigned))
+                .toList();
+        if (!added.isEmpty()) {
+          segment = writeSegment(added);
+          current.add(segment);
+        }
+        commit(current, deletes, newCheckpoint);
+        return changes.size();
+      } catch (IOException | RuntimeException e) {
+        if (segment != null) {
+          Files.deleteIfExists(segment.file());
+        }
+        synchronized (bufferLock) {
+          changes.putAll(buffer);
+          buffer = changes;
+        }
+        throw e;
+      }
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Returns whether there are more segments than the merge factor allows.
+   *
+   * @return true if {@link #merge()} has work to do
+   */
+  public boolean needsMerge() {
+    return mergeCandidates(segments).size() > 1;
+  }
+
+  /**
+   * Merges the smallest segments into one, dropping their deleted documents. The merge itself runs
+   * without holding the commit lock; documents deleted from the merged segments meanwhile are
+   * carried over to the new segment when it is committed.
+   */
+  public void merge() throws IOException {
+    List<Segment> sources = mergeCandidates(segments);
+    if (sources.size() < 2) {
+      return;
+    }
+    Map<Segment, BitSet> deletedAtStart = new HashMap<>();
+    for (Segment source : sources) {
+      deletedAtStart.put(source, source.deleted());
+    }
+    int[][] docMaps = new int[sources.size()][];
+    List<SegmentWriter.Doc> docs = mergeDocs(sources, deletedAtStart, docMaps);
+    Segment merged = writeMergedSegment(sources, docMaps, docs);
+
+    commitLock.lock();
+    try {
+      BitSet deleted = new BitSet();
+      for (int s = 0; s < sources.size(); s++) {
+        BitSet now = sources.get(s).deleted();
+        BitSet added = (BitSet) now.clone();
+        added.andNot(deletedAtStart.get(sources.get(s)));
+        for (int doc = added.nextSetBit(0); doc >= 0; doc = added.nextSetBit(doc + 1)) {
+          deleted.set(docMaps[s][doc]);
+        }
+      }
+      List<Segment> current = new ArrayList<>();
+      boolean placed = false;
+      for (Segment segment : segments) {
+        if (!sources.contains(segment)) {
+          current.add(segment);
+        } else if (!placed) {
+          current.add(merged);
+          placed = true;
+        }
+      }
+      commit(current, deleted.isEmpty() ? Map.of() : Map.of(merged, deleted), checkpoint);
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Finds the documents matching any of the terms, ranked by BM25.
+   *
+   * @param terms the query terms
+   * @param type the type of the documents to return, or a negative value for all types
+   * @param limit the maximum number of hits
+   * @return the hits, best first
+   */
+  public List<Hit> search(List<String> terms, int type, int limit) {
+    List<Segment> snapshot = segments;
+    byte[][] queryTerms =
+        terms.stream()
+            .distinct()
+            .map(term -> term.getBytes(StandardCharsets.UTF_8))
+            .toArray(byte[][]::new);
+    long docCount = 0;
+    long totalLength = 0;
+    for (Segment segment : snapshot) {
+      docCount += segment.docCount();
+      totalLength += segment.totalLength();
+    }
+    if (docCount == 0 || queryTerms.length == 0) {
+      return List.of();
+    }
+    double averageLength = (double) totalLength / docCount;
+
+    Segment.TermInfo[][] infos = new Segment.TermInfo[snapshot.size()][queryTerms.length];
+    double[] idf = new double[queryTerms.length];
+    for (int t = 0; t < queryTerms.length; t++) {
+      long docFreq = 0;
+      for (int s = 0; s < snapshot.size(); s++) {
+        infos[s][t] = snapshot.get(s).lookup(queryTerms[t]);
+        docFreq += infos[s][t] == null ? 0 : infos[s][t].docFreq();
+      }
+      idf[t] = Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    PriorityQueue<ScoredDoc> top =
+        new PriorityQueue<>(limit + 1, Comparator.comparingDouble(ScoredDoc::score));
+    for (int s = 0; s < snapshot.size(); s++) {
+      collect(snapshot.get(s), s, infos[s], idf, averageLength, type, limit, top);
+    }
+    List<Hit> hits = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      ScoredDoc scored = top.poll();
+      Segment segment = snapshot.get(scored.segment());
+      hits.add(new Hit(segment.key(scored.doc()), segment.type(scored.doc()), scored.score()));
+    }
+    return hits.reversed();
+  }
+
+  /**
+   * Returns the number of searchable documents.
+   *
+   * @return the number of live documents
+   */
+  public long documentCount() {
+    long count = 0;
+    for (Segment segment : segments) {
+      count += segment.liveDocCount();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of segments.
+   *
+   * @return the number of segments
+   */
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Returns the size of the segment files.
+   *
+   * @return the size in bytes
+   */
+  public long sizeInBytes() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.sizeInBytes();
+    }
+    return size;
+  }
+
+  @Override
+  public void close() {
+    // Mappings are released with the segments; buffered changes are the caller's to refresh.
+    segments = List.of();
+  }
+
+  private record ScoredDoc(int segment, int doc, double score) {}
+
+  /** Scores the matching documents of a segment document at a time. */
+  private static void collect(
+      Segment segment,
+      int segmentIndex,
+      Segment.TermInfo[] infos,
+      double[] idf,
+      double averageLength,
+      int type,
+      int limit,
+      PriorityQueue<ScoredDoc> top) {
+    Segment.Postings[] postings = new Segment.Postings[infos.length];
+    double[] weights = new double[infos.length];
+    int terms = 0;
+    for (int t = 0; t < infos.length; t++) {
+      if (infos[t] != null) {
+        postings[terms] = segment.postings(infos[t]);
+        postings[terms].next();
+        weights[terms++] = idf[t];
+      }
+    }
+    BitSet deleted = segment.deleted();
+    while (true) {
+      int doc = Integer.MAX_VALUE;
+      for (int i = 0; i < terms; i++) {
+        doc = Math.min(doc, postings[i].doc());
+      }
+      if (doc == Integer.MAX_VALUE) {
+        return;
+      }
+      double norm = K1 * (1 - B + B * segment.length(doc) / averageLength);
+      double score = 0;
+      for (int i = 0; i < terms; i++) {
+        if (postings[i].doc() == doc) {
+          int freq = postings[i].freq();
+          score += weights[i] * freq * (K1 + 1) / (freq + norm);
+          postings[i].next();
+        }
+      }
+      if (deleted.get(doc) || (type >= 0 && segment.type(doc) != type)) {
+        continue;
+      }
+      if (top.size() < limit) {
+        top.add(new ScoredDoc(segmentIndex, doc, score));
+      } else if (score > top.peek().score()) {
+        top.poll();
+        top.add(new ScoredDoc(segmentIndex, doc, score));
+      }
+    }
+  }
+
+  /** The postings of one term of a segment being written, in document order. */
+  private static final class PostingsBuilder {
+    int[] docs = new int[4];
+    int[] freqs = new int[4];
+    int count;
+    int lastDoc = -1;
+
+    void add(int doc) {
+      if (doc == lastDoc) {
+        freqs[count - 1]++;
+        return;
+      }
+      if (count == docs.length) {
+        docs = Arrays.copyOf(docs, count * 2);
+        freqs = Arrays.copyOf(freqs, count * 2);
+      }
+      docs[count] = doc;
+      freqs[count++] = 1;
+      lastDoc = doc;
+    }
+  }
+
+  /** Writes buffered documents, sorted by key, as a new segment. */
+  private Segment writeSegment(List<SearchDocument> documents) throws IOException {
+    Map<String, PostingsBuilder> postings = new HashMap<>();
+    List<SegmentWriter.Doc> docs = new ArrayList<>(documents.size());
+    for (int doc = 0; doc < documents.size(); doc++) {
+      SearchDocument document = documents.get(doc);
+      for (String term : document.terms()) {
+        postings.computeIfAbsent(term, t -> new PostingsBuilder()).add(doc);
+      }
+      docs.add(new SegmentWriter.Doc(document.key(), document.type(), document.terms().size()));
+    }
+    TreeMap<byte[], PostingsBuilder> sorted = new TreeMap<>(Arrays::compareUnsigned);
+    postings.forEach((term, builder) -> sorted.put(term.getBytes(StandardCharsets.UTF_8), builder));
+
+    String name = nextSegmentName();
+    Path file = directory.resolve(name + ".seg");
+    try (SegmentWriter writer = new SegmentWriter(file)) {
+      for (Map.Entry<byte[], PostingsBuilder> entry : sorted.entrySet()) {
+        PostingsBuilder builder = entry.getValue();
+        writer.addTerm(entry.getKey(), builder.docs, builder.freqs, builder.count);
+      }
+      writer.finish(docs);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return Segment.open(name, file, new BitSet());
+  }
+
+  /** A position in the documents or the terms of a segment being merged. */
+  private record Cursor(int source, int ordinal, byte[] bytes) {}
+
+  private static final Comparator<Cursor> CURSOR_ORDER =
+      (a, b) -> {
+        int cmp = Arrays.compareUnsigned(a.bytes(), b.bytes());
+        return cmp != 0 ? cmp : Integer.compare(a.source(), b.source());
+      };
+
+  /**
+   * Orders the live documents of the merged segments by key and maps their old document IDs to
+   * the new ones; deleted documents map to -1.
+   */
+  private static List<SegmentWriter.Doc> mergeDocs(
+      List<Segment> sources, Map<Segment, BitSet> deleted, int[][] docMaps) {
+    PriorityQueue<Cursor> queue = new PriorityQueue<>(CURSOR_ORDER);
+    for (int s = 0; s < sources.size(); s++) {
+      docMaps[s] = new int[sources.get(s).docCount()];
+      Arrays.fill(docMaps[s], -1);
+      Cursor first = nextLive(sources.get(s), s, 0, deleted.get(sources.get(s)));
+      if (first != null) {
+        queue.add(first);
+      }
+    }
+    List<SegmentWriter.Doc> docs = new ArrayList<>();
+    while (!queue.isEmpty()) {
+      Cursor cursor = queue.poll();
+      Segment segment = sources.get(cursor.source());
+      docMaps[cursor.source()][cursor.ordinal()] = docs.size();
+      docs.add(
+          new SegmentWriter.Doc(
+              new String(cursor.bytes(), StandardCharsets.UTF_8),
+              segment.type(cursor.ordinal()),
+              segment.length(cursor.ordinal())));
+      Cursor next =
+          nextLive(segment, cursor.source(), cursor.ordinal() + 1, deleted.get(segment));
+      if (next != null) {
+        queue.add(next);
+      }
+    }
+    return docs;
+  }
+
+  private static Cursor nextLive(Segment segment, int source, int from, BitSet deleted) {
+    int doc = deleted.nextClearBit(from);
+    if (doc >= segment.docCount()) {
+      return null;
+    }
+    return new Cursor(source, doc, segment.key(doc).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Writes the merged segment, merging the term dictionaries of the sources in order and
+   * remapping their postings to the new document IDs.
+   */
+  private Segment writeMergedSegment(
+      List<Segment> sources, int[][] docMaps, List<SegmentWriter.Doc> docs) throws IOException {
+    PriorityQueue<Cursor> queue = new PriorityQueue<>(CURSOR_ORDER);
+    for (int s = 0; s < sources.size(); s++) {
+      if (sources.get(s).termCount() > 0) {
+        queue.add(new Cursor(s, 0, sources.get(s).term(0)));
+      }
+    }
+    String name;
+    commitLock.lock();
+    try {
+      name = nextSegmentName();
+    } finally {
+      commitLock.unlock();
+    }
+    Path file = directory.resolve(name + ".seg");
+    try (SegmentWriter writer = new SegmentWriter(file)) {
+      long[] postings = new long[64];
+      int[] ids = new int[64];
+      int[] freqs = new int[64];
+      while (!queue.isEmpty()) {
+        byte[] term = queue.peek().bytes();
+        int count = 0;
+        while (!queue.isEmpty() && Arrays.equals(queue.peek().bytes(), term)) {
+          Cursor cursor = queue.poll();
+          Segment source = sources.get(cursor.source());
+          int[] docMap = docMaps[cursor.source()];
+          Segment.TermInfo info = source.termInfo(cursor.ordinal());
+          if (count + info.docFreq() > postings.length) {
+            int capacity = Math.max(postings.length * 2, count + info.docFreq());
+            postings = Arrays.copyOf(postings, capacity);
+          }
+          Segment.Postings iterator = source.postings(info);
+          while (iterator.next()) {
+            int doc = docMap[iterator.doc()];
+            if (doc >= 0) {
+              // Pack the new ID above the frequency, so sorting orders postings by document.
+              postings[count++] = (long) doc << 32 | iterator.freq();
+            }
+          }
+          int next = cursor.ordinal() + 1;
+          if (next < source.termCount()) {
+            queue.add(new Cursor(cursor.source(), next, source.term(next)));
+          }
+        }
+        if (count == 0) {
+          continue;
+        }
+        Arrays.sort(postings, 0, count);
+        if (count > ids.length) {
+          ids = new int[postings.length];
+          freqs = new int[postings.length];
+        }
+        for (int i = 0; i < count; i++) {
+          ids[i] = (int) (postings[i] >>> 32);
+          freqs[i] = (int) postings[i];
+        }
+        writer.addTerm(term, ids, freqs, count);
+      }
+      writer.finish(docs);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return Segment.open(name, file, new BitSet());
+  }
+
+  private List<Segment> mergeCandidates(List<Segment> current) {
+    if (current.size() <= mergeFactor) {
+      return List.of();
+    }
+    List<Segment> bySize =
+        current.stream()
+            .filter(segment -> segment.sizeInBytes() < maxMergedBytes)
+            .sorted(Comparator.comparingLong(Segment::sizeInBytes))
+            .toList();
+    List<Segment> candidates = new ArrayList<>();
+    long size = 0;
+    for (Segment segment : bySize) {
+      if (candidates.size() == mergeFactor || size + segment.sizeInBytes() > maxMergedBytes) {
+        break;
+      }
+      candidates.add(segment);
+      size += segment.sizeInBytes();
+    }
+    return candidates;
+  }
+
+  /**
+   * Writes the deletions and the manifest, then publishes the new segments and deletions to
+   * searches. Nothing is published if a file cannot be written.
+   */
+  private void commit(List<Segment> current, Map<Segment, BitSet> deletes, long newCheckpoint)
+      throws IOException {
+    for (Map.Entry<Segment, BitSet> entry : deletes.entrySet()) {
+      Files.write(
+          directory.resolve(deletesFile(entry.getKey(), entry.getValue())),
+          entry.getValue().toByteArray());
+    }
+    StringBuilder manifest = new StringBuilder();
+    manifest.append("generation ").append(generation).append('\n');
+    manifest.append("checkpoint ").append(newCheckpoint).append('\n');
+    for (Segment segment : current) {
+      BitSet deleted = deletes.getOrDefault(segment, segment.deleted());
+      manifest.append("segment ").append(segment.name());
+      if (!deleted.isEmpty()) {
+        manifest.append(' ').append(deletesFile(segment, deleted));
+      }
+      manifest.append('\n');
+    }
+    Path temporary = directory.resolve(MANIFEST + ".tmp");
+    Files.writeString(temporary, manifest, StandardCharsets.UTF_8);
+    Files.move(
+        temporary,
+        directory.resolve(MANIFEST),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+
+    List<Segment> previous = segments;
+    for (Map.Entry<Segment, BitSet> entry : deletes.entrySet()) {
+      Segment segment = entry.getKey();
+      String superseded = deletesFile(segment, segment.deleted());
+      segment.setDeleted(entry.getValue());
+      if (!superseded.equals(deletesFile(segment, entry.getValue()))) {
+        Files.deleteIfExists(directory.resolve(superseded));
+      }
+    }
+    segments = List.copyOf(current);
+    checkpoint = newCheckpoint;
+    for (Segment segment : previous) {
+      if (!current.contains(segment)) {
+        // Open mappings stay valid after the file is deleted.
+        Files.deleteIfExists(segment.file());
+        Files.deleteIfExists(directory.resolve(deletesFile(segment, segment.deleted())));
+      }
+    }
+  }
+
+  private static String deletesFile(Segment segment, BitSet deleted) {
+    return segment.name() + "-" + deleted.cardinality() + ".del";
+  }
+
+  private String nextSegmentName() {
+    return String.format("seg-%012d", ++generation);
+  }
+
+  private static byte[] keyBytes(SearchDocument document) {
+    return document.key().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,271 @@
+package com.lari.bloggerhub.util.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Represents an immutable, memory-mapped segment of the {@link InvertedIndex}.
+ *
+ * <p>A segment file holds, in this order: the postings of every term as pairs of variable length
+ * integers (the gap to the previous document ID and the term frequency), a fixed width table of
+ * the documents, their keys, an index of the term dictionary and the dictionary itself, whose
+ * terms are sorted by their UTF-8 bytes. A footer at the end locates the regions. Document IDs
+ * are assigned in key order, so a key is found by binary search in the document table.
+ *
+ * <p>All reads use absolute positions, so one mapping is shared by concurrent searches. Deleted
+ * documents are tracked in a bit set that is replaced, never modified, when documents are
+ * deleted.
+ */
+final class Segment {
+
+  static final int MAGIC = 0x42485331;
+  static final int DOC_ENTRY_BYTES = 9;
+  static final int FOOTER_BYTES = 36;
+
+  private final String name;
+  private final Path file;
+  private final MappedByteBuffer buffer;
+  private final int docCount;
+  private final int docTableOffset;
+  private final int keysOffset;
+  private final int termCount;
+  private final int termIndexOffset;
+  private final int termsOffset;
+  private final long totalLength;
+  private volatile BitSet deleted;
+
+  /**
+   * Describes the postings of a term in a segment.
+   *
+   * @param docFreq the number of documents containing the term
+   * @param offset the position of the postings
+   */
+  record TermInfo(int docFreq, int offset) {}
+
+  private Segment(String name, Path file, MappedByteBuffer buffer, BitSet deleted) {
+    this.name = name;
+    this.file = file;
+    this.buffer = buffer;
+    int footer = buffer.capacity() - FOOTER_BYTES;
+    if (buffer.capacity() < FOOTER_BYTES + Integer.BYTES
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(footer + 32) != MAGIC) {
+      throw new IllegalStateException("Not a complete segment: " + file);
+    }
+    this.docCount = buffer.getInt(footer);
+    this.docTableOffset = buffer.getInt(footer + 4);
+    this.keysOffset = buffer.getInt(footer + 8);
+    this.termCount = buffer.getInt(footer + 12);
+    this.termIndexOffset = buffer.getInt(footer + 16);
+    this.termsOffset = buffer.getInt(footer + 20);
+    this.totalLength = buffer.getLong(footer + 24);
+    this.deleted = deleted;
+  }
+
+  /**
+   * Maps a segment file.
+   *
+   * @param name the name of the segment
+   * @param file the segment file
+   * @param deleted the deleted documents
+   * @return the segment
+   */
+  static Segment open(String name, Path file, BitSet deleted) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new Segment(name, file, buffer, deleted);
+    }
+  }
+
+  String name() {
+    return name;
+  }
+
+  Path file() {
+    return file;
+  }
+
+  int docCount() {
+    return docCount;
+  }
+
+  int liveDocCount() {
+    return docCount - deleted.cardinality();
+  }
+
+  long totalLength() {
+    return totalLength;
+  }
+
+  long sizeInBytes() {
+    return buffer.capacity();
+  }
+
+  BitSet deleted() {
+    return deleted;
+  }
+
+  void setDeleted(BitSet deleted) {
+    this.deleted = deleted;
+  }
+
+  boolean isDeleted(int doc) {
+    return deleted.get(doc);
+  }
+
+  int length(int doc) {
+    return buffer.getInt(docTableOffset + doc * DOC_ENTRY_BYTES + 4);
+  }
+
+  byte type(int doc) {
+    return buffer.get(docTableOffset + doc * DOC_ENTRY_BYTES + 8);
+  }
+
+  String key(int doc) {
+    int offset = keysOffset + buffer.getInt(docTableOffset + doc * DOC_ENTRY_BYTES);
+    byte[] key = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+    buffer.get(offset + 2, key);
+    return new String(key, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Finds the document with a key.
+   *
+   * @param key the UTF-8 bytes of the key
+   * @return the document ID, or -1 if the segment has no such document
+   */
+  int findDoc(byte[] key) {
+    int low = 0;
+    int high = docCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int offset = keysOffset + buffer.getInt(docTableOffset + mid * DOC_ENTRY_BYTES);
+      int cmp = compare(offset + 2, Short.toUnsignedInt(buffer.getShort(offset)), key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  int termCount() {
+    return termCount;
+  }
+
+  /** Returns the UTF-8 bytes of the term at a position of the dictionary. */
+  byte[] term(int ordinal) {
+    int offset = termOffset(ordinal);
+    byte[] term = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+    buffer.get(offset + 2, term);
+    return term;
+  }
+
+  /** Returns the postings of the term at a position of the dictionary. */
+  TermInfo termInfo(int ordinal) {
+    int offset = termOffset(ordinal);
+    int end = offset + 2 + Short.toUnsignedInt(buffer.getShort(offset));
+    return new TermInfo(buffer.getInt(end), buffer.getInt(end + 4));
+  }
+
+  /**
+   * Looks up a term in the dictionary.
+   *
+   * @param term the UTF-8 bytes of the term
+   * @return the postings of the term, or null if no document of the segment contains it
+   */
+  TermInfo lookup(byte[] term) {
+    int low = 0;
+    int high = termCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int offset = termOffset(mid);
+      int cmp = compare(offset + 2, Short.toUnsignedInt(buffer.getShort(offset)), term);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return termInfo(mid);
+      }
+    }
+    return null;
+  }
+
+  Postings postings(TermInfo info) {
+    return new Postings(info);
+  }
+
+  private int termOffset(int ordinal) {
+    return termsOffset + buffer.getInt(termIndexOffset + ordinal * Integer.BYTES);
+  }
+
+  private int compare(int offset, int length, byte[] other) {
+    int common = Math.min(length, other.length);
+    for (int i = 0; i < common; i++) {
+      int cmp = Byte.compareUnsigned(buffer.get(offset + i), other[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(length, other.length);
+  }
+
+  /** Iterates over the postings of one term, decoding them straight from the mapping. */
+  final class Postings {
+    private final ByteBuffer data = buffer;
+    private int remaining;
+    private int position;
+    private int doc = -1;
+    private int freq;
+
+    private Postings(TermInfo info) {
+      this.remaining = info.docFreq();
+      this.position = info.offset();
+    }
+
+    /**
+     * Moves to the next posting.
+     *
+     * @return false if there are no more postings
+     */
+    boolean next() {
+      if (remaining == 0) {
+        doc = Integer.MAX_VALUE;
+        return false;
+      }
+      remaining--;
+      doc = Math.max(doc, 0) + readVarInt();
+      freq = readVarInt();
+      return true;
+    }
+
+    int doc() {
+      return doc;
+    }
+
+    int freq() {
+      return freq;
+    }
+
+    private int readVarInt() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = data.get(position++);
+        value |= (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.lari.bloggerhub.util.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a {@link Segment} file. Terms must be added in ascending unsigned byte order, each with
+ * its postings in ascending document order; the documents are written last, in document ID
+ * order, which is also ascending key order.
+ *
+ * <p>Postings are streamed to the file as they are added. Only the term dictionary is held in
+ * memory until the segment is finished.
+ */
+final class SegmentWriter implements Closeable {
+
+  private static final int FLUSH_BYTES = 1 << 20;
+
+  private final FileChannel channel;
+  private final ByteSink postings = new ByteSink(FLUSH_BYTES + 1024);
+  private final ByteSink terms = new ByteSink(1 << 16);
+  private final ByteSink termIndex = new ByteSink(1 << 12);
+  private long position = Integer.BYTES;
+  private int termCount;
+  private byte[] lastTerm;
+
+  /** The description of one document of the segment. */
+  record Doc(String key, byte type, int length) {}
+
+  SegmentWriter(Path file) throws IOException {
+    channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.READ);
+    ByteSink header = new ByteSink(4);
+    header.writeInt(Segment.MAGIC);
+    header.writeTo(channel);
+  }
+
+  /**
+   * Adds a term and its postings.
+   *
+   * @param term the UTF-8 bytes of the term
+   * @param docs the document IDs, ascending
+   * @param freqs the frequency of the term in each document
+   * @param count the number of postings
+   */
+  void addTerm(byte[] term, int[] docs, int[] freqs, int count) throws IOException {
+    if (lastTerm != null && Arrays.compareUnsigned(lastTerm, term) >= 0) {
+      throw new IllegalArgumentException("Terms must be added in ascending order");
+    }
+    lastTerm = term;
+    long start = position + postings.size();
+    int previous = 0;
+    for (int i = 0; i < count; i++) {
+      postings.writeVarInt(docs[i] - previous);
+      postings.writeVarInt(freqs[i]);
+      previous = docs[i];
+    }
+    long end = position + postings.size();
+    if (end > Integer.MAX_VALUE) {
+      throw new IOException("Segment exceeds 2 GiB");
+    }
+    termIndex.writeInt(terms.size());
+    terms.writeShort(term.length);
+    terms.writeBytes(term);
+    terms.writeInt(count);
+    terms.writeInt((int) start);
+    termCount++;
+    if (postings.size() >= FLUSH_BYTES) {
+      flushPostings();
+    }
+  }
+
+  /**
+   * Writes the documents, the term dictionary and the footer, and syncs the file.
+   *
+   * @param docs the documents in document ID order
+   */
+  void finish(List<Doc> docs) throws IOException {
+    flushPostings();
+    ByteSink keys = new ByteSink(docs.size() * 32);
+    ByteSink docTable = new ByteSink(docs.size() * Segment.DOC_ENTRY_BYTES);
+    long totalLength = 0;
+    for (Doc doc : docs) {
+      docTable.writeInt(keys.size());
+      docTable.writeInt(doc.length());
+      docTable.writeByte(doc.type());
+      byte[] key = doc.key().getBytes(StandardCharsets.UTF_8);
+      keys.writeShort(key.length);
+      keys.writeBytes(key);
+      totalLength += doc.length();
+    }
+    long docTableOffset = position;
+    long keysOffset = docTableOffset + docTable.size();
+    long termIndexOffset = keysOffset + keys.size();
+    long termsOffset = termIndexOffset + termIndex.size();
+    if (termsOffset + terms.size() + Segment.FOOTER_BYTES > Integer.MAX_VALUE) {
+      throw new IOException("Segment exceeds 2 GiB");
+    }
+    docTable.writeTo(channel);
+    keys.writeTo(channel);
+    termIndex.writeTo(channel);
+    terms.writeTo(channel);
+
+    ByteSink footer = new ByteSink(Segment.FOOTER_BYTES);
+    footer.writeInt(docs.size());
+    footer.writeInt((int) docTableOffset);
+    footer.writeInt((int) keysOffset);
+    footer.writeInt(termCount);
+    footer.writeInt((int) termIndexOffset);
+    footer.writeInt((int) termsOffset);
+    footer.writeLong(totalLength);
+    footer.writeInt(Segment.MAGIC);
+    footer.writeTo(channel);
+    channel.force(true);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void flushPostings() throws IOException {
+    postings.writeTo(channel);
+    position += postings.size();
+    postings.clear();
+  }
+}
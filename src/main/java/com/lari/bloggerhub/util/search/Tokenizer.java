@@ -0,0 +1,56 @@
+package com.lari.bloggerhub.util.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class splits text into the terms of the full-text index.
+ *
+ * <p>Terms are maximal runs of letters and digits, lower-cased. Single characters, common English
+ * stop words and the tail of very long tokens are dropped; the same rules apply to documents and
+ * queries, so they always agree on the terms.
+ */
+public final class Tokenizer {
+
+  private static final int MIN_LENGTH = 2;
+  private static final int MAX_LENGTH = 64;
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is",
+          "it", "its", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+          "there", "these", "they", "this", "to", "was", "will", "with");
+
+  private Tokenizer() {}
+
+  /**
+   * Splits text into terms, in the order they appear.
+   *
+   * @param text the text, may be null
+   * @return the terms
+   */
+  public static List<String> tokenize(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null) {
+      return terms;
+    }
+    StringBuilder token = new StringBuilder();
+    int length = text.length();
+    for (int i = 0; i <= length; ) {
+      int codePoint = i < length ? text.codePointAt(i) : ' ';
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (token.length() < MAX_LENGTH) {
+          token.appendCodePoint(Character.toLowerCase(codePoint));
+        }
+      } else if (!token.isEmpty()) {
+        String term = token.toString();
+        if (term.length() >= MIN_LENGTH && !STOP_WORDS.contains(term)) {
+          terms.add(term);
+        }
+        token.setLength(0);
+      }
+      i += i < length ? Character.charCount(codePoint) : 1;
+    }
+    return terms;
+  }
+}
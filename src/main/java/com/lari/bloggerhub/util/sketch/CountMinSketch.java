@@ -0,0 +1,87 @@
+package com.lari.bloggerhub.util.sketch;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a Count-Min Sketch, which estimates the frequency of keys in a stream in a
+ * fixed amount of memory.
+ *
+ * <p>The sketch has {@code depth} rows of {@code width} counters. A key is counted in one counter
+ * per row, chosen by double hashing of its 64 bit hash, and its estimate is the smallest of those
+ * counters. Estimates never undercount; with conservative update a counter is only raised as far
+ * as the new estimate of the key requires, which keeps the overcount of light keys small.
+ *
+ * <p>The sketch is not thread-safe.
+ */
+public final class CountMinSketch {
+
+  private final int depth;
+  private final int mask;
+  private final long[] counters;
+
+  /**
+   * Constructs an empty sketch.
+   *
+   * @param width the number of counters per row, a power of two
+   * @param depth the number of rows
+   */
+  public CountMinSketch(int width, int depth) {
+    if (width < 1 || Integer.bitCount(width) != 1 || depth < 1) {
+      throw new IllegalArgumentException("Invalid sketch dimensions: " + width + "x" + depth);
+    }
+    this.depth = depth;
+    this.mask = width - 1;
+    this.counters = new long[width * depth];
+  }
+
+  /**
+   * Adds occurrences of a key.
+   *
+   * @param hash a well mixed 64 bit hash of the key
+   * @param count the number of occurrences
+   * @return the new estimate of the key
+   */
+  public long add(long hash, long count) {
+    long estimate = estimate(hash);
+    long target = estimate + count;
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int row = 0, offset = 0; row < depth; row++, offset += mask + 1) {
+      int index = offset + ((h1 + row * h2) & mask);
+      if (counters[index] < target) {
+        counters[index] = target;
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Estimates the number of occurrences of a key.
+   *
+   * @param hash a well mixed 64 bit hash of the key
+   * @return an estimate that is never smaller than the true count
+   */
+  public long estimate(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0, offset = 0; row < depth; row++, offset += mask + 1) {
+      estimate = Math.min(estimate, counters[offset + ((h1 + row * h2) & mask)]);
+    }
+    return estimate;
+  }
+
+  /** Resets all counters. */
+  public void clear() {
+    Arrays.fill(counters, 0);
+  }
+
+  /**
+   * Returns the memory used by the counters.
+   *
+   * @return the size in bytes
+   */
+  public long sizeInBytes() {
+    return (long) counters.length * Long.BYTES;
+  }
+}
@@ -0,0 +1,189 @@
+package com.lari.bloggerhub.util.sketch;
+
+import com.lari.bloggerhub.util.hash.MurmurHash3;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class tracks the heaviest keys of a stream over a sliding time window.
+ *
+ * <p>The window is split into buckets of equal length, each counted by its own {@link
+ * CountMinSketch}; when time moves past the newest bucket, the oldest one is cleared and reused,
+ * so the window covers the last {@code buckets - 1} to {@code buckets} bucket lengths. The weight
+ * of a key over the window is the sum of its estimates in all buckets.
+ *
+ * <p>A bounded set of candidate keys is kept in a min-heap ordered by weight. A key that is not a
+ * candidate replaces the lightest candidate once its weight exceeds it. Weights only grow between
+ * two rotations, so the heap is not reordered on every add: a candidate's position reflects its
+ * weight when it was last placed, and stale entries are only repaired when the lightest candidate
+ * is needed. Candidate weights are recomputed whenever a bucket expires.
+ *
+ * <p>The tracker is not thread-safe; it is meant to be fed by a single consumer.
+ */
+public final class SlidingTopK {
+
+  private final CountMinSketch[] buckets;
+  private final long bucketMillis;
+  private final int capacity;
+  private final Map<String, Candidate> candidates;
+  private final PriorityQueue<Candidate> heap =
+      new PriorityQueue<>(Comparator.comparingLong(candidate -> candidate.placedWeight));
+  private int current;
+  private long currentBucketEnd;
+
+  private static final class Candidate {
+    final String key;
+    final long hash;
+    long weight;
+    long placedWeight;
+
+    Candidate(String key, long hash, long weight) {
+      this.key = key;
+      this.hash = hash;
+      this.weight = weight;
+      this.placedWeight = weight;
+    }
+  }
+
+  /**
+   * Represents a key and its weight over the window.
+   *
+   * @param key the key
+   * @param weight the estimated weight
+   */
+  public record Entry(String key, long weight) {}
+
+  /**
+   * Constructs an empty tracker.
+   *
+   * @param windowMillis the length of the window
+   * @param bucketCount the number of buckets the window is split into
+   * @param capacity the number of candidate keys to track
+   * @param sketchWidth the width of the sketch of each bucket, a power of two
+   * @param sketchDepth the depth of the sketch of each bucket
+   * @param nowMillis the current time
+   */
+  public SlidingTopK(
+      long windowMillis,
+      int bucketCount,
+      int capacity,
+      int sketchWidth,
+      int sketchDepth,
+      long nowMillis) {
+    this.buckets = new CountMinSketch[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      buckets[i] = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+    this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+    this.capacity = capacity;
+    this.candidates = new HashMap<>(capacity * 2);
+    this.currentBucketEnd = nowMillis + bucketMillis;
+  }
+
+  /**
+   * Adds weight to a key at the given time.
+   *
+   * @param key the key
+   * @param weight the weight to add
+   * @param nowMillis the current time
+   */
+  public void add(String key, long weight, long nowMillis) {
+    advance(nowMillis);
+    long hash = MurmurHash3.hash64(key);
+    buckets[current].add(hash, weight);
+
+    Candidate candidate = candidates.get(key);
+    if (candidate != null) {
+      candidate.weight += weight;
+      return;
+    }
+    long total = weightOf(hash);
+    if (candidates.size() < capacity) {
+      admit(new Candidate(key, hash, total));
+      return;
+    }
+    Candidate lightest = lightest();
+    if (total > lightest.weight) {
+      heap.poll();
+      candidates.remove(lightest.key);
+      admit(new Candidate(key, hash, total));
+    }
+  }
+
+  /**
+   * Expires the buckets that have fallen out of the window at the given time.
+   *
+   * @param nowMillis the current time
+   */
+  public void advance(long nowMillis) {
+    if (nowMillis < currentBucketEnd) {
+      return;
+    }
+    long expired = (nowMillis - currentBucketEnd) / bucketMillis + 1;
+    for (long i = 0; i < Math.min(expired, buckets.length); i++) {
+      current = (current + 1) % buckets.length;
+      buckets[current].clear();
+    }
+    currentBucketEnd += expired * bucketMillis;
+
+    heap.clear();
+    candidates.values().removeIf(candidate -> (candidate.weight = weightOf(candidate.hash)) == 0);
+    for (Candidate candidate : candidates.values()) {
+      candidate.placedWeight = candidate.weight;
+      heap.add(candidate);
+    }
+  }
+
+  /**
+   * Returns the heaviest keys, heaviest first.
+   *
+   * @param k the number of keys
+   * @return at most {@code k} keys with their weights
+   */
+  public List<Entry> top(int k) {
+    List<Entry> entries = new ArrayList<>(candidates.size());
+    for (Candidate candidate : candidates.values()) {
+      entries.add(new Entry(candidate.key, candidate.weight));
+    }
+    entries.sort(Comparator.comparingLong(Entry::weight).reversed());
+    return entries.size() > k ? List.copyOf(entries.subList(0, k)) : entries;
+  }
+
+  /**
+   * Returns the memory used by the bucket sketches.
+   *
+   * @return the size in bytes
+   */
+  public long sizeInBytes() {
+    return buckets.length * buckets[0].sizeInBytes();
+  }
+
+  private void admit(Candidate candidate) {
+    candidates.put(candidate.key, candidate);
+    heap.add(candidate);
+  }
+
+  /** Returns the lightest candidate, first moving stale heap entries to their current weight. */
+  private Candidate lightest() {
+    Candidate top = heap.peek();
+    while (top.placedWeight != top.weight) {
+      heap.poll();
+      top.placedWeight = top.weight;
+      heap.add(top);
+      top = heap.peek();
+    }
+    return top;
+  }
+
+  private long weightOf(long hash) {
+    long weight = 0;
+    for (CountMinSketch bucket : buckets) {
+      weight += bucket.estimate(hash);
+    }
+    return weight;
+  }
+}
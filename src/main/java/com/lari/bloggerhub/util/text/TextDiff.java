@@ -0,0 +1,225 @@
+package com.lari.bloggerhub.util.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class computes the {@link TextEdit}s that turn one text into another.
+ *
+ * <p>The texts are compared line by line with the Myers algorithm, which finds a shortest edit
+ * script in time proportional to the length of the texts times the number of changed lines. Every
+ * changed run of lines is then narrowed to the characters that actually differ, so fixing a typo
+ * produces an edit of a few characters rather than a replaced line.
+ *
+ * <p>Texts that differ in more than {@link #MAX_CHANGED_LINES} lines are not worth a fine diff; the
+ * whole region between their common first and last lines is replaced by a single edit instead.
+ */
+public final class TextDiff {
+
+  /** The number of changed lines beyond which the texts are replaced as one region. */
+  static final int MAX_CHANGED_LINES = 1000;
+
+  private TextDiff() {}
+
+  /**
+   * Computes the edits that turn a text into another, in the order {@link TextEdit#apply} expects.
+   *
+   * @param from the original text
+   * @param to the new text
+   * @return the edits, empty if the texts are equal
+   */
+  public static List<TextEdit> diff(String from, String to) {
+    List<String> fromLines = lines(from);
+    List<String> toLines = lines(to);
+    Map<String, Integer> ids = new HashMap<>();
+    int[] a = intern(fromLines, ids);
+    int[] b = intern(toLines, ids);
+
+    int prefix = 0;
+    while (prefix < a.length && prefix < b.length && a[prefix] == b[prefix]) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < a.length - prefix
+        && suffix < b.length - prefix
+        && a[a.length - 1 - suffix] == b[b.length - 1 - suffix]) {
+      suffix++;
+    }
+
+    boolean[] deleted = new boolean[a.length];
+    boolean[] inserted = new boolean[b.length];
+    if (!shortestEditScript(a, b, prefix, suffix, deleted, inserted)) {
+      for (int i = prefix; i < a.length - suffix; i++) {
+        deleted[i] = true;
+      }
+      for (int j = prefix; j < b.length - suffix; j++) {
+        inserted[j] = true;
+      }
+    }
+    return toEdits(from, fromLines, toLines, deleted, inserted);
+  }
+
+  /**
+   * Marks the lines deleted from {@code a} and inserted into {@code b} by a shortest edit script
+   * of the lines between the common prefix and suffix.
+   *
+   * @return false if the script has more than {@link #MAX_CHANGED_LINES} changes
+   */
+  private static boolean shortestEditScript(
+      int[] a, int[] b, int prefix, int suffix, boolean[] deleted, boolean[] inserted) {
+    int n = a.length - prefix - suffix;
+    int m = b.length - prefix - suffix;
+    int max = Math.min(n + m, MAX_CHANGED_LINES);
+    // v[k + offset] is the furthest x reached on diagonal k = x - y.
+    int offset = max + 1;
+    int[] v = new int[2 * max + 3];
+    List<int[]> trace = new ArrayList<>();
+    int steps = -1;
+    for (int d = 0; d <= max && steps < 0; d++) {
+      trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+      for (int k = -d; k <= d; k += 2) {
+        int x =
+            k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                ? v[offset + k + 1]
+                : v[offset + k - 1] + 1;
+        int y = x - k;
+        while (x < n && y < m && a[prefix + x] == b[prefix + y]) {
+          x++;
+          y++;
+        }
+        v[offset + k] = x;
+        if (x >= n && y >= m) {
+          steps = d;
+          break;
+        }
+      }
+    }
+    if (steps < 0) {
+      return false;
+    }
+
+    int x = n;
+    int y = m;
+    for (int d = steps; d > 0; d--) {
+      // The slice of step d holds the diagonals -d - 1 .. d + 1 as they were before the step.
+      int[] previous = trace.get(d);
+      int k = x - y;
+      boolean down =
+          k == -d || (k != d && previous[k - 1 + d + 1] < previous[k + 1 + d + 1]);
+      int previousK = down ? k + 1 : k - 1;
+      int previousX = previous[previousK + d + 1];
+      int previousY = previousX - previousK;
+      while (x > previousX && y > previousY) {
+        x--;
+        y--;
+      }
+      if (down) {
+        inserted[prefix + previousY] = true;
+      } else {
+        deleted[prefix + previousX] = true;
+      }
+      x = previousX;
+      y = previousY;
+    }
+    return true;
+  }
+
+  private static List<TextEdit> toEdits(
+      String from,
+      List<String> fromLines,
+      List<String> toLines,
+      boolean[] deleted,
+      boolean[] inserted) {
+    List<TextEdit> edits = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    int position = 0;
+    int shift = 0;
+    while (i < fromLines.size() || j < toLines.size()) {
+      if (i < fromLines.size() && j < toLines.size() && !deleted[i] && !inserted[j]) {
+        position += fromLines.get(i++).length();
+        j++;
+        continue;
+      }
+      // Pair the changed lines of the run, which are usually the same lines edited, and narrow
+      // each pair on its own; lines left over on either side form one more edit.
+      while (i < fromLines.size() && deleted[i] && j < toLines.size() && inserted[j]) {
+        int start = position;
+        position += fromLines.get(i++).length();
+        shift = add(edits, narrow(from, start, position, toLines.get(j++), shift), shift);
+      }
+      int start = position;
+      while (i < fromLines.size() && deleted[i]) {
+        position += fromLines.get(i++).length();
+      }
+      StringBuilder replacement = new StringBuilder();
+      while (j < toLines.size() && inserted[j]) {
+        replacement.append(toLines.get(j++));
+      }
+      shift = add(edits, narrow(from, start, position, replacement, shift), shift);
+    }
+    return edits;
+  }
+
+  /** Adds an edit, if any, and returns the shift of the positions after it. */
+  private static int add(List<TextEdit> edits, TextEdit edit, int shift) {
+    if (edit == null) {
+      return shift;
+    }
+    edits.add(edit);
+    return shift + edit.insertLength() - edit.delete();
+  }
+
+  /** Narrows the replacement of {@code from[start, end)} to the characters that differ. */
+  private static TextEdit narrow(
+      String from, int start, int end, CharSequence replacement, int shift) {
+    int length = end - start;
+    int common = 0;
+    while (common < length
+        && common < replacement.length()
+        && from.charAt(start + common) == replacement.charAt(common)) {
+      common++;
+    }
+    int trailing = 0;
+    while (trailing < length - common
+        && trailing < replacement.length() - common
+        && from.charAt(end - 1 - trailing)
+            == replacement.charAt(replacement.length() - 1 - trailing)) {
+      trailing++;
+    }
+    int delete = length - common - trailing;
+    String insert =
+        replacement.subSequence(common, replacement.length() - trailing).toString();
+    if (delete == 0 && insert.isEmpty()) {
+      return null;
+    }
+    return new TextEdit(start + common + shift, delete, insert.isEmpty() ? null : insert);
+  }
+
+  /** Splits a text into lines that keep their line terminators, so they concatenate back to it. */
+  private static List<String> lines(String text) {
+    List<String> lines = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '\n') {
+        lines.add(text.substring(start, i + 1));
+        start = i + 1;
+      }
+    }
+    if (start < text.length()) {
+      lines.add(text.substring(start));
+    }
+    return lines;
+  }
+
+  private static int[] intern(List<String> lines, Map<String, Integer> ids) {
+    int[] interned = new int[lines.size()];
+    for (int i = 0; i < interned.length; i++) {
+      interned[i] = ids.computeIfAbsent(lines.get(i), line -> ids.size());
+    }
+    return interned;
+  }
+}
@@ -0,0 +1,64 @@
+package com.lari.bloggerhub.util.text;
+
+import java.util.List;
+
+/**
+ * Represents one splice of a text: {@code delete} characters are removed at position {@code at}
+ * and {@code insert} is inserted in their place.
+ *
+ * <p>Positions and lengths count UTF-16 code units, like string indices in Java and JavaScript. A
+ * list of edits is applied in order, so the position of every edit refers to the text left by the
+ * edits before it.
+ *
+ * @param at the position of the edit
+ * @param delete the number of characters removed
+ * @param insert the text inserted, may be null for none
+ */
+public record TextEdit(int at, int delete, String insert) {
+
+  /**
+   * Checks that edits can be applied to a text of the given length, without needing the text.
+   *
+   * @param length the length of the text
+   * @param edits the edits
+   * @return the length of the text after the edits
+   * @throws IllegalArgumentException if an edit falls outside the text
+   */
+  public static int apply(int length, List<TextEdit> edits) {
+    long current = length;
+    for (TextEdit edit : edits) {
+      if (edit.at < 0 || edit.delete < 0 || edit.at > current - edit.delete) {
+        throw new IllegalArgumentException(
+            "Edit at " + edit.at + " deleting " + edit.delete + " exceeds length " + current);
+      }
+      current += edit.insertLength() - edit.delete;
+      if (current > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The text would be too long.");
+      }
+    }
+    return (int) current;
+  }
+
+  /**
+   * Applies edits to a text in place.
+   *
+   * @param text the text
+   * @param edits the edits
+   * @throws IllegalArgumentException if an edit falls outside the text
+   */
+  public static void apply(StringBuilder text, List<TextEdit> edits) {
+    apply(text.length(), edits);
+    for (TextEdit edit : edits) {
+      text.replace(edit.at, edit.at + edit.delete, edit.insert == null ? "" : edit.insert);
+    }
+  }
+
+  /**
+   * Returns the length of the inserted text.
+   *
+   * @return the number of inserted characters
+   */
+  public int insertLength() {
+    return insert == null ? 0 : insert.length();
+  }
+}
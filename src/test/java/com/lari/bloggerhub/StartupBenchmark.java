@@ -0,0 +1,223 @@
+package com.lari.bloggerhub;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the startup time, the latency of the first request and the resident memory of the
+ * application started as a plain JVM jar, with Spring AOT, with Spring AOT and an AppCDS archive,
+ * and as a GraalVM native image.
+ *
+ * <p>Each mode is started {@value #RUNS} times as a separate process on a free port. Startup is the
+ * wall time from launching the process until it answers its first HTTP request; the first request
+ * is a public read that goes through security, a service and a repository. Modes whose artifacts
+ * have not been built are skipped, so build them first, with MongoDB reachable for the requests:
+ *
+ * <pre>
+ * ./mvnw -Pcds package -DskipTests        # jar with AOT classes, target/cds and its archive
+ * ./mvnw -Pnative native:compile          # target/blogger-hub
+ * </pre>
+ *
+ * <p>Run with {@code ./mvnw test -Pbenchmark -Dtest=StartupBenchmark}.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+  private static final int RUNS = 5;
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+  private static final Pattern STARTED =
+      Pattern.compile("Started BloggerHubApplication in ([0-9.]+) seconds");
+  private static final String AOT_INITIALIZER =
+      "BOOT-INF/classes/com/lari/bloggerhub/BloggerHubApplication__ApplicationContextInitializer"
+          + ".class";
+
+  private final HttpClient client =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+  private record Mode(String name, List<String> command) {}
+
+  private record Run(
+      double startupMillis, double startedSeconds, double firstRequestMillis, long rssKib) {}
+
+  @Test
+  void startupAndFirstRequestLatency() throws Exception {
+    Path target = Path.of("target");
+    String java = ProcessHandle.current().info().command().orElse("java");
+    Path jar = findJar(target);
+    List<Mode> modes = new ArrayList<>();
+    if (jar == null) {
+      System.out.println("jvm, aot: skipped, no application jar in target (run ./mvnw package)");
+    } else {
+      modes.add(new Mode("jvm", List.of(java, "-jar", jar.toString())));
+      if (hasAotClasses(jar)) {
+        modes.add(
+            new Mode("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toString())));
+      } else {
+        System.out.println("aot: skipped, the jar has no AOT classes (run ./mvnw -Paot package)");
+      }
+    }
+    Path archive = target.resolve("cds/application.jsa");
+    if (jar != null && Files.exists(archive)) {
+      modes.add(
+          new Mode(
+              "aot+cds",
+              List.of(
+                  java,
+                  "-XX:SharedArchiveFile=" + archive,
+                  "-Dspring.aot.enabled=true",
+                  "-jar",
+                  target.resolve("cds").resolve(jar.getFileName()).toString())));
+    } else {
+      System.out.println("aot+cds: skipped, no CDS archive (run ./mvnw -Pcds package)");
+    }
+    Path image = target.resolve("blogger-hub");
+    if (Files.isExecutable(image)) {
+      modes.add(new Mode("native", List.of(image.toString())));
+    } else {
+      System.out.println("native: skipped, no native image (run ./mvnw -Pnative native:compile)");
+    }
+
+    System.out.printf(
+        "%-8s %14s %14s %16s %10s%n",
+        "mode", "startup (ms)", "started (s)", "1st request (ms)", "RSS (MiB)");
+    for (Mode mode : modes) {
+      List<Run> runs = new ArrayList<>();
+      for (int i = 0; i < RUNS; i++) {
+        runs.add(start(mode));
+      }
+      System.out.printf(
+          "%-8s %14.0f %14.2f %16.1f %10d%n",
+          mode.name(),
+          median(runs.stream().mapToDouble(Run::startupMillis).toArray()),
+          median(runs.stream().mapToDouble(Run::startedSeconds).toArray()),
+          median(runs.stream().mapToDouble(Run::firstRequestMillis).toArray()),
+          (long) median(runs.stream().mapToDouble(Run::rssKib).toArray()) >> 10);
+    }
+  }
+
+  /** Starts the application, waits for its first response, times one request and stops it. */
+  private Run start(Mode mode) throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>(mode.command());
+    command.add("--server.port=" + port);
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    StringBuffer output = new StringBuffer();
+    Thread.ofVirtual().start(() -> drain(process, output));
+    try {
+      URI health = URI.create("http://localhost:" + port + "/actuator/health");
+      long deadline = start + STARTUP_TIMEOUT.toNanos();
+      while (!respond(health)) {
+        if (!process.isAlive() || System.nanoTime() > deadline) {
+          throw new IllegalStateException(mode.name() + " did not start:\n" + output);
+        }
+        Thread.sleep(5);
+      }
+      double startupMillis = (System.nanoTime() - start) / 1e6;
+
+      long requestStart = System.nanoTime();
+      respond(URI.create("http://localhost:" + port + "/api/posts?limit=10"));
+      double firstRequestMillis = (System.nanoTime() - requestStart) / 1e6;
+
+      Matcher started = STARTED.matcher(output);
+      return new Run(
+          startupMillis,
+          started.find() ? Double.parseDouble(started.group(1)) : Double.NaN,
+          firstRequestMillis,
+          residentKib(process.pid()));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /** Sends a GET request and returns whether the server answered it, whatever the status. */
+  private boolean respond(URI uri) throws InterruptedException {
+    try {
+      client.send(
+          HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+          HttpResponse.BodyHandlers.discarding());
+      return true;
+    } catch (ConnectException e) {
+      return false;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void drain(Process process, StringBuffer output) {
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      for (String line; (line = reader.readLine()) != null; ) {
+        output.append(line).append('\n');
+      }
+    } catch (IOException e) {
+      // The process was stopped.
+    }
+  }
+
+  /** Returns the resident set size of a process on Linux, or 0 elsewhere. */
+  private static long residentKib(long pid) {
+    Path status = Path.of("/proc", Long.toString(pid), "status");
+    try (Stream<String> lines = Files.lines(status)) {
+      return lines
+          .filter(line -> line.startsWith("VmRSS:"))
+          .mapToLong(line -> Long.parseLong(line.replaceAll("[^0-9]", "")))
+          .findFirst()
+          .orElse(0);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static Path findJar(Path target) throws IOException {
+    if (!Files.isDirectory(target)) {
+      return null;
+    }
+    try (Stream<Path> files = Files.list(target)) {
+      return files
+          .filter(file -> file.getFileName().toString().matches("blogger-hub-.*\\.jar"))
+          .findFirst()
+          .orElse(null);
+    }
+  }
+
+  private static boolean hasAotClasses(Path jar) throws IOException {
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      return zip.getEntry(AOT_INITIALIZER) != null;
+    }
+  }
+
+  private static double median(double[] values) {
+    Arrays.sort(values);
+    return values[values.length / 2];
+  }
+}
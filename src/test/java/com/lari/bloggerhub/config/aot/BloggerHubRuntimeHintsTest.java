@@ -0,0 +1,49 @@
+package com.lari.bloggerhub.config.aot;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.RefreshToken;
+import com.lari.bloggerhub.dto.request.PostRequestDto;
+import com.lari.bloggerhub.dto.response.NotificationPageDto;
+import com.lari.bloggerhub.repository.PostContentRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class BloggerHubRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  @Test
+  void registersTheBoundClassesAndTheRepositoryProxies() {
+    new BloggerHubRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+    for (Class<?> type :
+        new Class<?>[] {
+          BlogUser.class,
+          RefreshToken.class,
+          PostRequestDto.class,
+          NotificationPageDto.class,
+          DataResponse.class,
+          PostSummary.class
+        }) {
+      assertTrue(
+          RuntimeHintsPredicates.reflection()
+              .onType(type)
+              .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+              .test(hints),
+          type.getSimpleName());
+    }
+    assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PostRepository.class).test(hints));
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onType(PostContentRepository.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)
+            .test(hints));
+  }
+}
@@ -0,0 +1,103 @@
+package com.lari.bloggerhub.config.security.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lari.bloggerhub.util.concurrency.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadSheddingFilterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private LoadSheddingFilter filter(int limit) {
+    return new LoadSheddingFilter(
+        new ObjectMapper(),
+        meterRegistry,
+        limit,
+        1,
+        limit,
+        new String[] {"/api/auth/refresh-token", " /actuator/health/**"},
+        new String[] {"GET /api/users"});
+  }
+
+  @Test
+  void classifiesRequestsByPathAndMethod() {
+    LoadSheddingFilter filter = filter(10);
+    assertEquals(
+        RequestPriority.CRITICAL,
+        filter.classify(new MockHttpServletRequest("POST", "/api/auth/refresh-token")));
+    assertEquals(
+        RequestPriority.CRITICAL,
+        filter.classify(new MockHttpServletRequest("GET", "/actuator/health/readiness")));
+    assertEquals(
+        RequestPriority.BULK, filter.classify(new MockHttpServletRequest("GET", "/api/users")));
+    assertEquals(
+        RequestPriority.NORMAL, filter.classify(new MockHttpServletRequest("POST", "/api/users")));
+    assertEquals(
+        RequestPriority.NORMAL, filter.classify(new MockHttpServletRequest("GET", "/api/posts")));
+  }
+
+  @Test
+  void shedsWith503WhileThePermitsAreTaken() throws Exception {
+    LoadSheddingFilter filter = filter(1);
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    Thread holder =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    filter.doFilter(
+                        new MockHttpServletRequest("GET", "/api/posts"),
+                        new MockHttpServletResponse(),
+                        (request, response) -> {
+                          entered.countDown();
+                          try {
+                            proceed.await();
+                          } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                          }
+                        });
+                  } catch (Exception e) {
+                    failure.set(e);
+                  }
+                });
+    entered.await();
+
+    MockHttpServletResponse shed = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), shed, chain);
+    assertEquals(503, shed.getStatus());
+    assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+    assertTrue(shed.getContentAsString().contains("\"statusCode\":503"));
+    assertNull(chain.getRequest());
+    assertEquals(1, shedCount("NORMAL"));
+
+    proceed.countDown();
+    holder.join();
+    assertNull(failure.get());
+    MockHttpServletResponse admitted = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/posts"), admitted, new MockFilterChain());
+    assertEquals(200, admitted.getStatus());
+  }
+
+  private double shedCount(String priority) {
+    return meterRegistry
+        .get("bloggerhub.load_shedding.shed")
+        .tag("priority", priority)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,31 @@
+package com.lari.bloggerhub.config.web;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class WebConfigTest {
+
+  private static Jackson2ObjectMapperBuilder bootLikeBuilder() {
+    return new Jackson2ObjectMapperBuilder()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  @Test
+  void binaryConvertersKeepTheSettingsOfTheBootBuilder() {
+    WebConfig config = new WebConfig();
+    ObjectMapper cbor = config.cborHttpMessageConverter(bootLikeBuilder()).getObjectMapper();
+    ObjectMapper smile = config.smileHttpMessageConverter(bootLikeBuilder()).getObjectMapper();
+
+    assertInstanceOf(CBORFactory.class, cbor.getFactory());
+    assertInstanceOf(SmileFactory.class, smile.getFactory());
+    assertFalse(cbor.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    assertFalse(smile.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+  }
+}
@@ -0,0 +1,176 @@
+package com.lari.bloggerhub.repository;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.lari.bloggerhub.config.mongo.MongoIndexInitializer;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.util.pagination.KeysetCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Reports the latency of timeline pages over a post collection of realistic size, comparing keyset
+ * pagination through {@link PostTimelineRepositoryImpl} with offset paging at the same depth.
+ *
+ * <p>Needs a MongoDB server. The collection is seeded once with {@code benchmark.posts} posts
+ * (10 million by default) spread over authors with a skewed post count, and reused by later runs.
+ *
+ * <p>Run with {@code BENCHMARK_MONGODB_URI=mongodb://localhost:27017 ./mvnw test -Pbenchmark
+ * -Dtest=PostTimelineBenchmark}.
+ */
+@Tag("benchmark")
+class PostTimelineBenchmark {
+
+  private static final String DATABASE = "bloggerhub_benchmark";
+  private static final int AUTHORS = 100_000;
+  private static final int PAGE_SIZE = 20;
+  private static final int PAGES = 50;
+  private static final int SAMPLES = 200;
+
+  @Test
+  void timelinePageLatency() {
+    String uri = System.getenv("BENCHMARK_MONGODB_URI");
+    assumeTrue(uri != null, "BENCHMARK_MONGODB_URI is not set");
+    long posts = Long.getLong("benchmark.posts", 10_000_000L);
+
+    try (MongoClient client = MongoClients.create(uri)) {
+      MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+      mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Post.class);
+      List<ObjectId> authors = seed(mongoTemplate, posts);
+      new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+      PostTimelineRepositoryImpl repository = new PostTimelineRepositoryImpl(mongoTemplate);
+      Random random = new Random(7);
+
+      // The first authors post the most, see seed().
+      List<String> busyAuthors =
+          authors.subList(0, 100).stream().map(ObjectId::toHexString).toList();
+      report(
+          "author, first page",
+          () ->
+              repository.findAuthorTimeline(
+                  busyAuthors.get(random.nextInt(busyAuthors.size())), null, PAGE_SIZE));
+      report(
+          "author, page " + PAGES + ", keyset",
+          () -> {
+            String author = busyAuthors.get(random.nextInt(busyAuthors.size()));
+            KeysetCursor cursor = null;
+            List<PostSummary> page = List.of();
+            for (int i = 0; i < PAGES; i++) {
+              page = repository.findAuthorTimeline(author, cursor, PAGE_SIZE);
+              if (page.isEmpty()) {
+                break;
+              }
+              PostSummary last = page.get(page.size() - 1);
+              cursor = new KeysetCursor(last.publishedAt(), last.id());
+            }
+            return page;
+          },
+          PAGES);
+      report(
+          "author, page " + PAGES + ", offset",
+          () ->
+              offsetPage(
+                  mongoTemplate,
+                  Criteria.where("authorId")
+                      .is(busyAuthors.get(random.nextInt(busyAuthors.size())))
+                      .and("status")
+                      .is("PUBLISHED"),
+                  PAGES - 1));
+      report("all posts, first page", () -> repository.findPublishedTimeline(null, PAGE_SIZE));
+      report(
+          "all posts, page " + PAGES + ", offset",
+          () -> offsetPage(mongoTemplate, Criteria.where("status").is("PUBLISHED"), PAGES - 1));
+    }
+  }
+
+  /**
+   * Measures one operation; when the operation walks several pages, the reported time is per page.
+   */
+  private static void report(String name, Supplier<List<?>> operation) {
+    report(name, operation, 1);
+  }
+
+  private static void report(String name, Supplier<List<?>> operation, int pagesPerOperation) {
+    for (int i = 0; i < SAMPLES / 4; i++) {
+      operation.get();
+    }
+    long[] nanos = new long[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      long start = System.nanoTime();
+      operation.get();
+      nanos[i] = (System.nanoTime() - start) / pagesPerOperation;
+    }
+    Arrays.sort(nanos);
+    System.out.printf(
+        "%-28s p50 %8.2f ms   p99 %8.2f ms%n",
+        name, nanos[SAMPLES / 2] / 1e6, nanos[SAMPLES * 99 / 100] / 1e6);
+  }
+
+  private static List<PostSummary> offsetPage(
+      MongoTemplate mongoTemplate, Criteria criteria, int page) {
+    Query query =
+        Query.query(criteria)
+            .with(Sort.by(Sort.Order.desc("publishedAt"), Sort.Order.desc("id")))
+            .skip((long) page * PAGE_SIZE)
+            .limit(PAGE_SIZE);
+    return mongoTemplate.query(Post.class).as(PostSummary.class).matching(query).all();
+  }
+
+  /**
+   * Seeds the post collection unless it already holds the requested number of posts. Authors get
+   * a Zipf-like share of the posts, so the first authors have tens of thousands of posts each.
+   */
+  private static List<ObjectId> seed(MongoTemplate mongoTemplate, long posts) {
+    List<ObjectId> authors = new ArrayList<>(AUTHORS);
+    for (int i = 0; i < AUTHORS; i++) {
+      authors.add(new ObjectId(new Date(1_600_000_000_000L), i));
+    }
+    MongoCollection<Document> collection = mongoTemplate.getCollection("post");
+    if (collection.estimatedDocumentCount() >= posts) {
+      return authors;
+    }
+    collection.drop();
+
+    Random random = new Random(42);
+    String body = "Lorem ipsum dolor sit amet. ".repeat(200);
+    long now = System.currentTimeMillis();
+    List<Document> batch = new ArrayList<>(10_000);
+    for (long i = 0; i < posts; i++) {
+      int author = (int) Math.min(AUTHORS - 1, Math.pow(random.nextDouble(), 3) * AUTHORS);
+      batch.add(
+          new Document("authorId", authors.get(author))
+              .append("title", "Post " + i)
+              .append("subtitle", "Subtitle of post " + i)
+              .append("excerpt", body.substring(0, 280))
+              .append("body", body)
+              .append("tags", List.of("java", "mongodb"))
+              .append("readingTimeMinutes", 5)
+              .append("status", "PUBLISHED")
+              .append("publishedAt", new Date(now - random.nextLong(5L * 365 * 24 * 3600 * 1000))));
+      if (batch.size() == 10_000) {
+        collection.insertMany(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      collection.insertMany(batch);
+    }
+    return authors;
+  }
+}
@@ -0,0 +1,179 @@
+package com.lari.bloggerhub.repository.resilience;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * An in-memory stand-in for Spring Data MongoDB repositories that can inject faults per repository
+ * method: added latency, random errors and network partitions.
+ *
+ * <p>Only the operations used by the application are implemented: {@code save}, {@code findById},
+ * {@code existsById}, {@code findAll}, {@code findAllById}, {@code deleteById}, {@code count} and
+ * derived {@code findBy}/{@code existsBy}/{@code deleteBy} queries on a single property path.
+ */
+public final class FaultInjectingMongoStandIn implements InvocationHandler {
+
+  private record Fault(Duration latency, double errorRate, boolean partitioned) {}
+
+  private static final Fault NONE = new Fault(Duration.ZERO, 0, false);
+
+  private final Map<Object, Object> documents = new ConcurrentHashMap<>();
+  private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+  private final Object partitionMonitor = new Object();
+
+  /**
+   * Creates a repository backed by a new stand-in.
+   *
+   * @param repositoryType the repository interface
+   * @param standIn the stand-in holding the data and the faults
+   * @param <R> the repository type
+   * @return the repository proxy
+   */
+  public static <R> R create(Class<R> repositoryType, FaultInjectingMongoStandIn standIn) {
+    return repositoryType.cast(
+        Proxy.newProxyInstance(
+            repositoryType.getClassLoader(), new Class<?>[] {repositoryType}, standIn));
+  }
+
+  /** Adds a fixed latency to every call of the given method. */
+  public FaultInjectingMongoStandIn injectLatency(String method, Duration latency) {
+    Fault fault = faults.getOrDefault(method, NONE);
+    faults.put(method, new Fault(latency, fault.errorRate(), fault.partitioned()));
+    return this;
+  }
+
+  /** Makes the given fraction of the calls of the given method fail. */
+  public FaultInjectingMongoStandIn injectErrors(String method, double errorRate) {
+    Fault fault = faults.getOrDefault(method, NONE);
+    faults.put(method, new Fault(fault.latency(), errorRate, fault.partitioned()));
+    return this;
+  }
+
+  /** Makes calls of the given method hang until {@link #heal()} is called. */
+  public FaultInjectingMongoStandIn partition(String method) {
+    Fault fault = faults.getOrDefault(method, NONE);
+    faults.put(method, new Fault(fault.latency(), fault.errorRate(), true));
+    return this;
+  }
+
+  /** Removes all faults and releases partitioned calls. */
+  public void heal() {
+    faults.clear();
+    synchronized (partitionMonitor) {
+      partitionMonitor.notifyAll();
+    }
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return method.invoke(this, args);
+    }
+    applyFault(method.getName());
+
+    String name = method.getName();
+    return switch (name) {
+      case "save" -> save(args[0]);
+      case "findById" -> Optional.ofNullable(documents.get(args[0]));
+      case "existsById" -> documents.containsKey(args[0]);
+      case "findAll" -> new ArrayList<>(documents.values());
+      case "findAllById" -> findAllById((Iterable<?>) args[0]);
+      case "deleteById" -> {
+        documents.remove(args[0]);
+        yield null;
+      }
+      case "count" -> (long) documents.size();
+      default -> derivedQuery(name, args[0]);
+    };
+  }
+
+  private void applyFault(String method) throws InterruptedException {
+    Fault fault = faults.getOrDefault(method, NONE);
+    if (fault.partitioned()) {
+      synchronized (partitionMonitor) {
+        while (faults.getOrDefault(method, NONE).partitioned()) {
+          partitionMonitor.wait();
+        }
+      }
+      throw new DataAccessResourceFailureException("Partitioned: " + method);
+    }
+    if (!fault.latency().isZero()) {
+      Thread.sleep(fault.latency().toMillis());
+    }
+    if (fault.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < fault.errorRate()) {
+      throw new DataAccessResourceFailureException("Injected failure: " + method);
+    }
+  }
+
+  private Object save(Object document) throws ReflectiveOperationException {
+    Object id = document.getClass().getMethod("getId").invoke(document);
+    if (id == null) {
+      id = UUID.randomUUID().toString();
+      document.getClass().getMethod("setId", String.class).invoke(document, id);
+    }
+    documents.put(id, document);
+    return document;
+  }
+
+  private List<Object> findAllById(Iterable<?> ids) {
+    List<Object> result = new ArrayList<>();
+    for (Object id : ids) {
+      Object document = documents.get(id);
+      if (document != null) {
+        result.add(document);
+      }
+    }
+    return result;
+  }
+
+  private Object derivedQuery(String name, Object value) throws ReflectiveOperationException {
+    String prefix;
+    if (name.startsWith("findBy")) {
+      prefix = "findBy";
+    } else if (name.startsWith("existsBy")) {
+      prefix = "existsBy";
+    } else if (name.startsWith("deleteBy")) {
+      prefix = "deleteBy";
+    } else {
+      throw new UnsupportedOperationException(name);
+    }
+
+    String[] path = name.substring(prefix.length()).split("_");
+    List<Object> matches = new ArrayList<>();
+    for (Object document : documents.values()) {
+      if (Objects.equals(resolve(document, path), value)) {
+        matches.add(document);
+      }
+    }
+    return switch (prefix) {
+      case "findBy" -> matches.stream().findFirst();
+      case "existsBy" -> !matches.isEmpty();
+      default -> {
+        documents.values().removeAll(matches);
+        yield null;
+      }
+    };
+  }
+
+  private static Object resolve(Object document, String[] path) throws ReflectiveOperationException {
+    Object current = document;
+    for (String property : path) {
+      if (current == null) {
+        return null;
+      }
+      current = current.getClass().getMethod("get" + property).invoke(current);
+    }
+    return current;
+  }
+}
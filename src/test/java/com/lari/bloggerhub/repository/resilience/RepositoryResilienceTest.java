@@ -0,0 +1,141 @@
+package com.lari.bloggerhub.repository.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.config.resilience.RepositoryResilienceConfig;
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.RefreshToken;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.repository.RefreshTokenRepository;
+import com.lari.bloggerhub.util.resilience.CircuitBreaker;
+import com.lari.bloggerhub.util.resilience.DependencyUnavailableException;
+import com.lari.bloggerhub.util.resilience.ResilienceGuard;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RepositoryResilienceTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final FaultInjectingMongoStandIn userStore = new FaultInjectingMongoStandIn();
+  private final FaultInjectingMongoStandIn tokenStore = new FaultInjectingMongoStandIn();
+
+  private ResilienceGuard readGuard;
+  private BlogUserRepository users;
+  private RefreshTokenRepository tokens;
+  private BlogUser user;
+  private RefreshToken token;
+
+  @BeforeEach
+  void setUp() {
+    RepositoryResilienceConfig config = new RepositoryResilienceConfig();
+    ResilienceGuard authGuard =
+        new ResilienceGuard(
+            "auth",
+            16,
+            Duration.ofMillis(200),
+            new CircuitBreaker(10, 0.5, Duration.ofSeconds(5)),
+            executor);
+    readGuard =
+        new ResilienceGuard(
+            "read",
+            4,
+            Duration.ofMillis(100),
+            new CircuitBreaker(10, 0.5, Duration.ofSeconds(5)),
+            executor);
+    users =
+        config.resilientBlogUserRepository(
+            FaultInjectingMongoStandIn.create(BlogUserRepository.class, userStore),
+            authGuard,
+            readGuard);
+    tokens =
+        config.resilientRefreshTokenRepository(
+            FaultInjectingMongoStandIn.create(RefreshTokenRepository.class, tokenStore),
+            authGuard);
+
+    user = new BlogUser();
+    user.setUsername("reader");
+    users.save(user);
+    token = new RefreshToken();
+    token.setOwner(user);
+    tokens.save(token);
+  }
+
+  @AfterEach
+  void tearDown() {
+    userStore.heal();
+    tokenStore.heal();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void authLatencyStaysBoundedWhenListingIsDegraded() throws InterruptedException {
+    userStore.injectLatency("findAll", Duration.ofSeconds(2));
+    userStore.injectLatency("findById", Duration.ofMillis(2));
+    tokenStore.injectLatency("existsById", Duration.ofMillis(2));
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread[] listingClients = new Thread[32];
+    for (int i = 0; i < listingClients.length; i++) {
+      listingClients[i] =
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    while (running.get()) {
+                      try {
+                        users.findAll();
+                      } catch (DependencyUnavailableException e) {
+                        // Expected while the listing path is degraded; back off like a client.
+                        sleepQuietly(5);
+                      }
+                    }
+                  });
+    }
+
+    long[] latencies = new long[500];
+    for (int i = 0; i < latencies.length; i++) {
+      long start = System.nanoTime();
+      assertTrue(tokens.existsById(token.getId()));
+      assertTrue(users.findById(user.getId()).isPresent());
+      latencies[i] = System.nanoTime() - start;
+    }
+    running.set(false);
+    for (Thread client : listingClients) {
+      client.join();
+    }
+
+    Arrays.sort(latencies);
+    long p99Millis = Duration.ofNanos(latencies[latencies.length * 99 / 100]).toMillis();
+    assertTrue(p99Millis < 100, "auth p99 was " + p99Millis + " ms");
+    assertEquals(CircuitBreaker.State.OPEN, readGuard.getCircuitBreaker().getState());
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void partitionedListingFailsFastOnceTheCircuitIsOpen() {
+    userStore.partition("findAll");
+
+    for (int i = 0; i < 10; i++) {
+      assertThrows(DependencyUnavailableException.class, () -> users.findAll());
+    }
+    assertEquals(CircuitBreaker.State.OPEN, readGuard.getCircuitBreaker().getState());
+
+    long start = System.nanoTime();
+    assertThrows(DependencyUnavailableException.class, () -> users.findAll());
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 20);
+  }
+}
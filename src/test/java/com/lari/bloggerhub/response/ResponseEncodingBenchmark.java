@@ -0,0 +1,98 @@
+package com.lari.bloggerhub.response;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lari.bloggerhub.document.Role;
+import com.lari.bloggerhub.dto.response.BlogUserResponseDto;
+import com.lari.bloggerhub.dto.response.TokenResponseDto;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Reports bytes on the wire and CPU time per response for every {@link ResponseFormat}, comparing
+ * runtime-resolved serialization with the precompiled writers of {@link ResponseWriters} and the
+ * precomputed bodies of constant responses.
+ *
+ * <p>Run with {@code ./mvnw test -Pbenchmark -Dtest=ResponseEncodingBenchmark}.
+ */
+@Tag("benchmark")
+class ResponseEncodingBenchmark {
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int MEASURED_ITERATIONS = 50_000;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  @Test
+  void encodeResponseEnvelopes() {
+    ObjectMapper json = new ObjectMapper();
+    ResponseWriters writers =
+        new ResponseWriters(
+            json,
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter());
+
+    List<BlogUserResponseDto> users = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      users.add(
+          new BlogUserResponseDto(
+              "6718d2f0c2a4b1" + (100000 + i),
+              "writer" + i,
+              "writer" + i + "@example.com",
+              "Writes about distributed systems, JVM performance and the occasional recipe.",
+              "https://cdn.example.com/avatars/writer" + i + ".jpg",
+              List.of(Role.FREE_USER)));
+    }
+    DataResponse<List<BlogUserResponseDto>> listing =
+        new DataResponse<>(true, 200, "Records found.", users);
+    JavaType listingType =
+        json.getTypeFactory()
+            .constructParametricType(
+                DataResponse.class,
+                json.getTypeFactory().constructCollectionType(List.class, BlogUserResponseDto.class));
+    TokenResponseDto token =
+        new TokenResponseDto(
+            "6718d2f0c2a4b1100000",
+            "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9." + "a".repeat(180) + ".signature",
+            "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9." + "b".repeat(220) + ".signature");
+    SuccessResponse loggedOut = new SuccessResponse(true, 200, "Logged out");
+    PrecomputedResponse precomputedLoggedOut = writers.precompute(loggedOut);
+
+    JavaType untyped = json.constructType(Object.class);
+    System.out.printf("%-12s %-34s %8s %12s%n", "format", "case", "bytes", "cpu ns/op");
+    for (ResponseFormat format : ResponseFormat.values()) {
+      report(format, "listing, runtime resolved", () -> writers.write(format, untyped, listing));
+      report(format, "listing, precompiled writer", () -> writers.write(format, listingType, listing));
+      JavaType tokenType = json.constructType(TokenResponseDto.class);
+      report(format, "token, precompiled writer", () -> writers.write(format, tokenType, token));
+      JavaType successType = json.constructType(SuccessResponse.class);
+      report(format, "logged out, serialized", () -> writers.write(format, successType, loggedOut));
+      report(format, "logged out, precomputed", () -> precomputedLoggedOut.getBody(format));
+    }
+  }
+
+  private void report(ResponseFormat format, String name, Supplier<byte[]> encoder) {
+    int size = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      size += encoder.get().length;
+    }
+    long start = threads.getCurrentThreadCpuTime();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      size += encoder.get().length;
+    }
+    long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+    System.out.printf(
+        "%-12s %-34s %8d %12d%n",
+        format,
+        name,
+        size / (WARMUP_ITERATIONS + MEASURED_ITERATIONS),
+        cpuNanos / MEASURED_ITERATIONS);
+  }
+}
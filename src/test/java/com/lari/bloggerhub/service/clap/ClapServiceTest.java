@@ -0,0 +1,229 @@
+package com.lari.bloggerhub.service.clap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Post;
+import com.lari.bloggerhub.document.PostClap;
+import com.lari.bloggerhub.dto.response.ClapCountsDto;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.Response;
+import com.lari.bloggerhub.service.notification.NotificationService;
+import com.lari.bloggerhub.service.trending.TrendingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class ClapServiceTest {
+
+  private static final String POST_ID = new ObjectId().toHexString();
+  private static final String AUTHOR_ID = new ObjectId().toHexString();
+  private static final String USER_ID = new ObjectId().toHexString();
+  private static final String KEY = PostClap.id(POST_ID, USER_ID);
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private TrendingService trendingService;
+  @Mock private NotificationService notificationService;
+
+  private ClapService service;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // The service rejects journal directories in the temporary directory.
+    Path directory = Files.createTempDirectory(Files.createDirectories(Path.of("target")), "claps");
+    when(mongoTemplate.getCollectionName(Post.class)).thenReturn("post");
+    when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("post")))
+        .thenReturn(
+            new Document("authorId", new ObjectId(AUTHOR_ID))
+                .append("status", "PUBLISHED")
+                .append("claps", 10L));
+    service =
+        new ClapService(
+            mongoTemplate,
+            trendingService,
+            notificationService,
+            new SimpleMeterRegistry(),
+            50,
+            Duration.ofMinutes(5),
+            directory,
+            2,
+            false);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    service.close();
+  }
+
+  @Test
+  void takesTheStoredTotalsFromTheFlush() {
+    whenUserWritten().thenReturn(stored(10));
+    whenPostWritten().thenReturn(new Document("claps", 25L));
+
+    assertEquals(13, counts(service.clap(user(), POST_ID, 3)).getClaps());
+    service.flush();
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate)
+        .findAndModify(
+            any(Query.class),
+            update.capture(),
+            any(FindAndModifyOptions.class),
+            eq(Document.class),
+            eq("post"));
+    assertEquals(new Document("claps", 3L), update.getValue().getUpdateObject().get("$inc"));
+    ClapCountsDto counts = counts(service.getClaps(POST_ID, user()));
+    assertEquals(25, counts.getClaps());
+    assertEquals(10, counts.getYourClaps());
+  }
+
+  @Test
+  void capsClapsAtTheTotalAnotherNodeStored() {
+    whenUserWritten().thenReturn(stored(49));
+    whenPostWritten().thenReturn(new Document("claps", 59L));
+
+    service.clap(user(), POST_ID, 5);
+    service.flush();
+    ClapCountsDto counts = counts(service.clap(user(), POST_ID, 5));
+
+    assertEquals(60, counts.getClaps());
+    assertEquals(50, counts.getYourClaps());
+  }
+
+  @Test
+  void dropsTheClapsTheDatabaseCapRejects() {
+    whenUserWritten().thenThrow(new DuplicateKeyException("E11000")).thenReturn(stored(50));
+    when(mongoTemplate.findById(KEY, PostClap.class)).thenReturn(null, stored(48));
+    whenPostWritten().thenReturn(new Document("claps", 12L));
+
+    service.clap(user(), POST_ID, 5);
+    service.flush();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+        .findAndModify(
+            query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(PostClap.class));
+    List<Query> queries = query.getAllValues();
+    assertEquals(new Document("$lt", 46), queries.get(0).getQueryObject().get("claps"));
+    assertEquals(new Document("$lt", 49), queries.get(1).getQueryObject().get("claps"));
+    assertEquals(new Document("claps", 2), update.getValue().getUpdateObject().get("$inc"));
+    ClapCountsDto counts = counts(service.getClaps(POST_ID, user()));
+    assertEquals(12, counts.getClaps());
+    assertEquals(50, counts.getYourClaps());
+  }
+
+  @Test
+  void holdsBackThePostClapsOfAUserCountThatCouldNotBeWritten() {
+    whenUserWritten()
+        .thenThrow(new DataAccessResourceFailureException("unavailable"))
+        .thenReturn(stored(3));
+    whenPostWritten().thenReturn(new Document("claps", 13L));
+
+    service.clap(user(), POST_ID, 3);
+    service.flush();
+
+    verify(mongoTemplate, never())
+        .findAndModify(
+            any(Query.class),
+            any(Update.class),
+            any(FindAndModifyOptions.class),
+            eq(Document.class),
+            eq("post"));
+    assertEquals(13, counts(service.getClaps(POST_ID, user())).getClaps());
+
+    service.flush();
+
+    ClapCountsDto counts = counts(service.getClaps(POST_ID, user()));
+    assertEquals(13, counts.getClaps());
+    assertEquals(3, counts.getYourClaps());
+  }
+
+  @Test
+  void keepsPostClapsThatCouldNotBeWrittenForTheNextFlush() {
+    whenUserWritten().thenReturn(stored(3));
+    whenPostWritten()
+        .thenThrow(new DataAccessResourceFailureException("unavailable"))
+        .thenReturn(new Document("claps", 13L));
+
+    service.clap(user(), POST_ID, 3);
+    service.flush();
+    assertEquals(13, counts(service.getClaps(POST_ID, null)).getClaps());
+    service.flush();
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+        .findAndModify(
+            any(Query.class),
+            update.capture(),
+            any(FindAndModifyOptions.class),
+            eq(Document.class),
+            eq("post"));
+    assertEquals(new Document("claps", 3L), update.getValue().getUpdateObject().get("$inc"));
+    assertEquals(13, counts(service.getClaps(POST_ID, null)).getClaps());
+  }
+
+  private OngoingStubbing<PostClap> whenUserWritten() {
+    return when(
+        mongoTemplate.findAndModify(
+            any(Query.class),
+            any(Update.class),
+            any(FindAndModifyOptions.class),
+            eq(PostClap.class)));
+  }
+
+  private OngoingStubbing<Document> whenPostWritten() {
+    return when(
+        mongoTemplate.findAndModify(
+            any(Query.class),
+            any(Update.class),
+            any(FindAndModifyOptions.class),
+            eq(Document.class),
+            eq("post")));
+  }
+
+  private static PostClap stored(int claps) {
+    PostClap stored = new PostClap();
+    stored.setId(KEY);
+    stored.setClaps(claps);
+    return stored;
+  }
+
+  private static BlogUser user() {
+    BlogUser user = new BlogUser();
+    user.setId(USER_ID);
+    return user;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ClapCountsDto counts(ResponseEntity<Response> response) {
+    return ((DataResponse<ClapCountsDto>) response.getBody()).getData();
+  }
+}
@@ -0,0 +1,199 @@
+package com.lari.bloggerhub.service.comment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Comment;
+import com.lari.bloggerhub.document.PostStatus;
+import com.lari.bloggerhub.dto.request.CommentRequestDto;
+import com.lari.bloggerhub.dto.response.CommentPageDto;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.repository.CommentRepository;
+import com.lari.bloggerhub.repository.PostRepository;
+import com.lari.bloggerhub.repository.projection.PostSummary;
+import com.lari.bloggerhub.response.DataResponse;
+import com.lari.bloggerhub.response.Response;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class CommentServiceTest {
+
+  private static final String POST_ID = new ObjectId().toHexString();
+
+  private final Map<String, Comment> comments = new ConcurrentHashMap<>();
+  private final CommentRepository commentRepository = mock(CommentRepository.class);
+  private final PostRepository postRepository = mock(PostRepository.class);
+  private final BlogUserRepository userRepository = mock(BlogUserRepository.class);
+  private final CommentService service =
+      new CommentService(commentRepository, postRepository, userRepository, null, 2, 3, 2, 5);
+
+  @BeforeEach
+  void setUp() {
+    when(commentRepository.findById(anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(comments.get(invocation.getArgument(0))));
+    when(commentRepository.insert(any(Comment.class)))
+        .thenAnswer(
+            invocation -> {
+              Comment comment = invocation.getArgument(0);
+              comments.put(comment.getId(), comment);
+              return comment;
+            });
+    when(commentRepository.findThreadPage(
+            anyString(), anyString(), anyString(), anyInt(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              String after = invocation.getArgument(1);
+              String before = invocation.getArgument(2);
+              int minDepth = invocation.getArgument(3);
+              int maxDepth = invocation.getArgument(4);
+              return comments.values().stream()
+                  .filter(c -> c.getPath().compareTo(after) > 0)
+                  .filter(c -> c.getPath().compareTo(before) < 0)
+                  .filter(c -> c.getDepth() >= minDepth && c.getDepth() <= maxDepth)
+                  .sorted((a, b) -> a.getPath().compareTo(b.getPath()))
+                  .limit(invocation.<Integer>getArgument(5))
+                  .toList();
+            });
+    PostSummary post =
+        new PostSummary(
+            POST_ID,
+            new ObjectId().toHexString(),
+            "Title",
+            null,
+            null,
+            null,
+            List.of(),
+            1,
+            PostStatus.PUBLISHED,
+            Instant.now(),
+            0,
+            0);
+    when(postRepository.findSummaryById(POST_ID)).thenReturn(Optional.of(post));
+    when(userRepository.findResponsesByIdIn(any())).thenReturn(List.of());
+  }
+
+  @Test
+  void subtreeEndBoundsExactlyTheDescendantsOfAComment() {
+    String path = "65f000000000000000000001.";
+    String end = Comment.subtreeEnd(path);
+
+    assertTrue((path + "65f000000000000000000002.").compareTo(end) < 0);
+    assertTrue((path + "ffffffffffffffffffffffff.").compareTo(end) < 0);
+    assertTrue(path.compareTo(end) < 0);
+    assertTrue("65f000000000000000000002.".compareTo(end) > 0);
+    assertEquals("65f000000000000000000001/", end);
+  }
+
+  @Test
+  void decodesTheCursorsItEncodes() {
+    String path = "65f000000000000000000001.65f000000000000000000002.";
+
+    assertEquals(path, CommentService.decodeCursor(CommentService.encodeCursor(path), ""));
+    assertEquals("start", CommentService.decodeCursor(null, "start"));
+    assertEquals("start", CommentService.decodeCursor("", "start"));
+  }
+
+  @Test
+  void rejectsMalformedCursors() {
+    assertNull(CommentService.decodeCursor("not base64!", ""));
+    assertNull(CommentService.decodeCursor(CommentService.encodeCursor("abc."), ""));
+    assertNull(CommentService.decodeCursor(CommentService.encodeCursor("} || 1 == 1"), ""));
+    assertNull(
+        CommentService.decodeCursor(
+            CommentService.encodeCursor("65f000000000000000000001"), ""));
+  }
+
+  @Test
+  void rejectsRepliesNestedDeeperThanTheMaximumDepth() {
+    Comment deepest = comment(comment(comment(null)));
+
+    ResponseEntity<Response> response = add(deepest);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(3, comments.size());
+  }
+
+  @Test
+  void pagesShowTheConfiguredNumberOfLevels() {
+    Comment root = comment(null);
+    Comment reply = comment(root);
+    Comment collapsed = comment(comment(reply));
+
+    CommentPageDto thread = page(service.getThread(POST_ID, null, 5));
+    CommentPageDto replies = page(service.getReplies(reply.getId(), null, 100));
+
+    assertEquals(3, thread.getComments().size());
+    assertFalse(thread.getComments().stream().anyMatch(c -> c.getId().equals(collapsed.getId())));
+    assertEquals(2, replies.getComments().size());
+    verify(commentRepository).findThreadPage(POST_ID, "", "\uffff", 0, 2, 6);
+    verify(commentRepository)
+        .findThreadPage(POST_ID, reply.getPath(), Comment.subtreeEnd(reply.getPath()), 2, 4, 6);
+  }
+
+  @Test
+  void returnsTheCursorOfTheLastCommentWhenThereIsANextPage() {
+    Comment root = comment(null);
+    comment(root);
+    comment(root);
+
+    CommentPageDto page = page(service.getThread(POST_ID, null, 2));
+
+    assertEquals(2, page.getComments().size());
+    String cursor = page.getNextCursor();
+    assertEquals(
+        page.getComments().get(1).getId(),
+        pathIds(CommentService.decodeCursor(cursor, "")).getLast());
+    assertFalse(page(service.getThread(POST_ID, cursor, 2)).getComments().isEmpty());
+    assertEquals(
+        HttpStatus.BAD_REQUEST, service.getReplies(root.getId(), "x", null).getStatusCode());
+  }
+
+  /** Only replies that are rejected can be added, as there is no notification service. */
+  private ResponseEntity<Response> add(Comment parent) {
+    BlogUser author = new BlogUser();
+    author.setId(new ObjectId().toHexString());
+    CommentRequestDto dto = new CommentRequestDto();
+    dto.setBody("A reply");
+    dto.setParentId(parent.getId());
+    return service.addComment(author, POST_ID, dto);
+  }
+
+  private Comment comment(Comment parent) {
+    String id = new ObjectId().toHexString();
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setPostId(POST_ID);
+    comment.setAuthorId(new ObjectId().toHexString());
+    comment.setParentId(parent == null ? null : parent.getId());
+    comment.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+    comment.setPath((parent == null ? "" : parent.getPath()) + id + Comment.PATH_SEPARATOR);
+    comments.put(id, comment);
+    return comment;
+  }
+
+  private static List<String> pathIds(String path) {
+    return List.of(path.split("\\."));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CommentPageDto page(ResponseEntity<Response> response) {
+    return ((DataResponse<CommentPageDto>) response.getBody()).getData();
+  }
+}
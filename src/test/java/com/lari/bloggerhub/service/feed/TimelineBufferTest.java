@@ -0,0 +1,77 @@
+package com.lari.bloggerhub.service.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.merge.KWayMerge;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class TimelineBufferTest {
+
+  private final String author = new ObjectId().toHexString();
+
+  @Test
+  void keepsTheNewestEntriesInFeedOrderAndPagesByCursor() {
+    Random random = new Random(1);
+    List<FeedEntry> all = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      all.add(new FeedEntry(new ObjectId().toHexString(), author, random.nextInt(200)));
+    }
+    List<FeedEntry> shuffled = new ArrayList<>(all);
+    Collections.shuffle(shuffled, random);
+    TimelineBuffer buffer = new TimelineBuffer(100, List.of(), true);
+    shuffled.forEach(buffer::add);
+
+    List<FeedEntry> expected = all.stream().sorted(FeedEntry.ORDER).limit(100).toList();
+    assertFalse(buffer.add(expected.get(0)));
+    assertEquals(100, buffer.size());
+    List<FeedEntry> paged = new ArrayList<>();
+    TimelineBuffer.Page page = buffer.page(null, 30);
+    while (true) {
+      paged.addAll(page.entries());
+      if (page.entries().size() < 30) {
+        break;
+      }
+      page = buffer.page(page.entries().get(29).toCursor(), 30);
+    }
+    assertEquals(expected, paged);
+    // Entries were dropped, so the last page has to report where the buffer ends.
+    assertNotNull(page.floor());
+    assertNull(buffer.page(null, 30).floor());
+  }
+
+  @Test
+  void mergesTimelinesWithoutDuplicates() {
+    FeedEntry shared = new FeedEntry(new ObjectId().toHexString(), author, 50);
+    List<FeedEntry> first = List.of(new FeedEntry(new ObjectId().toHexString(), author, 90), shared);
+    List<FeedEntry> second =
+        List.of(shared, new FeedEntry(new ObjectId().toHexString(), author, 10));
+
+    List<FeedEntry> merged = KWayMerge.merge(List.of(first, second), FeedEntry.ORDER, 10);
+    assertEquals(List.of(first.get(0), shared, second.get(1)), merged);
+  }
+
+  @Test
+  void keepsEntriesAddedWhileLoading() {
+    FeedEntry delivered = new FeedEntry(new ObjectId().toHexString(), author, 100);
+    FeedEntry stored = new FeedEntry(new ObjectId().toHexString(), author, 50);
+    TimelineBuffer buffer = new TimelineBuffer(10);
+    buffer.add(delivered);
+    assertTrue(buffer.isLoading());
+
+    buffer.load(List.of(stored), true);
+
+    assertFalse(buffer.isLoading());
+    TimelineBuffer.Page page = buffer.page(null, 10);
+    assertEquals(List.of(delivered, stored), page.entries());
+    assertNull(page.floor());
+  }
+}
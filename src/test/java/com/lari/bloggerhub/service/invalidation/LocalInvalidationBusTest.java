@@ -0,0 +1,45 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.lari.bloggerhub.document.CacheRegion;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LocalInvalidationBusTest {
+
+  @Test
+  void appliesPublishedKeysToEverySubscriberBeforeReturning() {
+    List<String> first = new ArrayList<>();
+    List<String> second = new ArrayList<>();
+    try (InvalidationBus bus = new LocalInvalidationBus()) {
+      bus.subscribe(CacheRegion.PROFILE, first::add, first::clear);
+      bus.subscribe(CacheRegion.PROFILE, second::add, second::clear);
+
+      bus.publish(CacheRegion.PROFILE, "user1");
+      bus.publish(CacheRegion.PROFILE, "user2");
+    }
+
+    assertEquals(List.of("user1", "user2"), first);
+    assertEquals(List.of("user1", "user2"), second);
+  }
+
+  @Test
+  void keepsApplyingKeysWhenASubscriberFails() {
+    List<String> evicted = new ArrayList<>();
+    try (InvalidationBus bus = new LocalInvalidationBus()) {
+      bus.subscribe(
+          CacheRegion.AVAILABILITY,
+          key -> {
+            throw new IllegalStateException("database unavailable");
+          },
+          () -> {});
+      bus.subscribe(CacheRegion.AVAILABILITY, evicted::add, evicted::clear);
+
+      bus.publish(CacheRegion.AVAILABILITY, "user1");
+    }
+
+    assertEquals(List.of("user1"), evicted);
+  }
+}
@@ -0,0 +1,206 @@
+package com.lari.bloggerhub.service.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lari.bloggerhub.document.CacheInvalidation;
+import com.lari.bloggerhub.document.CacheRegion;
+import com.lari.bloggerhub.service.invalidation.MongoInvalidationBus.Invalidation;
+import com.mongodb.CursorType;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+class MongoInvalidationBusTest {
+
+  private static final Duration OVERLAP = Duration.ofSeconds(5);
+
+  /** The documents of the capped collection, in natural order. */
+  private final List<Document> collection = new ArrayList<>();
+
+  /** The number of tailable cursors opened. */
+  private int cursors;
+
+  @Test
+  void batchesTheKeysOfARegionIntoOneDocumentWithoutDuplicates() {
+    List<CacheInvalidation> batch =
+        MongoInvalidationBus.batch(
+            "node",
+            List.of(
+                new Invalidation(CacheRegion.PROFILE, "a"),
+                new Invalidation(CacheRegion.PROFILE, "b"),
+                new Invalidation(CacheRegion.PROFILE, "a")));
+
+    assertEquals(1, batch.size());
+    CacheInvalidation invalidation = batch.get(0);
+    assertEquals("node", invalidation.getOrigin());
+    assertEquals(CacheRegion.PROFILE, invalidation.getRegion());
+    assertEquals(List.of("a", "b"), invalidation.getKeys());
+    assertFalse(invalidation.isAll());
+  }
+
+  @Test
+  void writesNothingForAnEmptyBatch() {
+    assertTrue(MongoInvalidationBus.batch("node", List.of()).isEmpty());
+  }
+
+  @Test
+  void tailsTheWholeCollectionAndSkipsInvalidationsBeforeTheResumePoint() {
+    MongoInvalidationBus bus = bus();
+    List<String> evicted = new ArrayList<>();
+    bus.subscribe(CacheRegion.PROFILE, evicted::add, () -> evicted.add("*"));
+    // The empty invalidation that starts every collection, written long before this node started.
+    collection.add(invalidation(Instant.now().minus(Duration.ofHours(1)), null, List.of()));
+    collection.add(invalidation(Instant.now().minus(Duration.ofHours(1)), "PROFILE", List.of("a")));
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("b")));
+
+    bus.tail();
+
+    assertEquals(1, cursors);
+    assertEquals(List.of("b"), evicted);
+  }
+
+  @Test
+  void resumesAfterTheLastInvalidationSeenWithOverlap() {
+    MongoInvalidationBus bus = bus();
+    List<String> evicted = new ArrayList<>();
+    bus.subscribe(CacheRegion.PROFILE, evicted::add, () -> evicted.add("*"));
+    collection.add(invalidation(Instant.now().minus(Duration.ofHours(1)), null, List.of()));
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("a")));
+    bus.tail();
+    evicted.clear();
+
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("b")));
+    bus.tail();
+
+    // Invalidations within the overlap are applied again, which is harmless.
+    assertEquals(2, cursors);
+    assertEquals(List.of("a", "b"), evicted);
+  }
+
+  @Test
+  void appliesEveryInvalidationAfterTheResumePointWhateverItsTimestamp() {
+    MongoInvalidationBus bus = bus();
+    List<String> evicted = new ArrayList<>();
+    bus.subscribe(CacheRegion.PROFILE, evicted::add, () -> evicted.add("*"));
+    collection.add(invalidation(Instant.now().minus(Duration.ofHours(1)), "PROFILE", List.of("a")));
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("b")));
+    // Written later by a node whose clock is behind.
+    collection.add(
+        invalidation(Instant.now().minus(Duration.ofMinutes(1)), "PROFILE", List.of("c")));
+
+    bus.tail();
+
+    assertEquals(List.of("b", "c"), evicted);
+  }
+
+  @Test
+  void clearsTheCachesWhenTheLastInvalidationSeenWasOverwritten() {
+    MongoInvalidationBus bus = bus();
+    List<String> evicted = new ArrayList<>();
+    bus.subscribe(CacheRegion.PROFILE, evicted::add, () -> evicted.add("*"));
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("a")));
+    bus.tail();
+    evicted.clear();
+
+    collection.clear();
+    collection.add(invalidation(Instant.now(), "PROFILE", List.of("b")));
+    bus.tail();
+
+    assertEquals(List.of("*", "b"), evicted);
+  }
+
+  private static Document invalidation(Instant time, String region, List<String> keys) {
+    return new Document("_id", new ObjectId(Date.from(time)))
+        .append("origin", "other-node")
+        .append("region", region)
+        .append("keys", keys)
+        .append("all", false);
+  }
+
+  private MongoInvalidationBus bus() {
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+    converter.afterPropertiesSet();
+    MongoCollection<Document> mongoCollection = mongoCollection();
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(mongoTemplate.getCollectionName(CacheInvalidation.class)).thenReturn("cache_invalidation");
+    when(mongoTemplate.getCollection("cache_invalidation")).thenReturn(mongoCollection);
+    return new MongoInvalidationBus(
+        mongoTemplate,
+        new SimpleMeterRegistry(),
+        1 << 20,
+        500,
+        100,
+        Duration.ofMillis(10),
+        Duration.ofMillis(10),
+        OVERLAP);
+  }
+
+  private MongoCollection<Document> mongoCollection() {
+    MongoCollection<Document> mongoCollection = mock();
+    when(mongoCollection.find()).thenAnswer(invocation -> tailable());
+    when(mongoCollection.find(any(Bson.class)))
+        .thenAnswer(invocation -> lookup(invocation.getArgument(0)));
+    return mongoCollection;
+  }
+
+  /** Returns the documents matching an {@code _id} equality filter. */
+  private FindIterable<Document> lookup(Bson filter) {
+    ObjectId id = filter.toBsonDocument().getObjectId("_id").getValue();
+    FindIterable<Document> iterable = mock();
+    when(iterable.first())
+        .thenAnswer(
+            invocation ->
+                collection.stream()
+                    .filter(document -> id.equals(document.get("_id")))
+                    .findFirst()
+                    .orElse(null));
+    return iterable;
+  }
+
+  /**
+   * Returns an unfiltered tailable query, whose cursor returns the documents in natural order and
+   * is then closed by the server.
+   */
+  private FindIterable<Document> tailable() {
+    FindIterable<Document> iterable = mock();
+    when(iterable.cursorType(any(CursorType.class))).thenReturn(iterable);
+    when(iterable.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(iterable);
+    when(iterable.iterator())
+        .thenAnswer(
+            invocation -> {
+              cursors++;
+              return cursor(List.copyOf(collection).iterator());
+            });
+    return iterable;
+  }
+
+  private static MongoCursor<Document> cursor(Iterator<Document> documents) {
+    MongoCursor<Document> cursor = mock();
+    when(cursor.tryNext()).thenAnswer(invocation -> documents.hasNext() ? documents.next() : null);
+    return cursor;
+  }
+}
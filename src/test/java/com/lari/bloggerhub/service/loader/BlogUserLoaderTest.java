@@ -0,0 +1,139 @@
+package com.lari.bloggerhub.service.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.repository.BlogUserRepository;
+import com.lari.bloggerhub.util.resilience.DependencyUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BlogUserLoaderTest {
+
+  private final Set<String> existing = Set.of("a", "b", "c");
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile boolean hang;
+  private volatile RuntimeException failure;
+  private BlogUserLoader loader;
+
+  @AfterEach
+  void shutdown() {
+    release.countDown();
+    if (loader != null) {
+      loader.shutdown();
+    }
+  }
+
+  @Test
+  void mergesLoadsWithinTheWindowIntoOneQuery() {
+    loader = loader(Duration.ofMillis(50), 100, Duration.ofSeconds(5));
+    CompletableFuture<BlogUser> a = loader.load("a");
+    CompletableFuture<BlogUser> b = loader.load("b");
+    CompletableFuture<BlogUser> missing = loader.load("x");
+
+    assertEquals("a", loader.join(a).getId());
+    assertEquals("b", loader.join(b).getId());
+    assertNull(loader.join(missing));
+    assertEquals(List.of(List.of("a", "b", "x")), batches);
+  }
+
+  @Test
+  void coalescesConcurrentLoadsOfTheSameId() {
+    loader = loader(Duration.ofMillis(50), 100, Duration.ofSeconds(5));
+    CompletableFuture<BlogUser> first = loader.load("a");
+
+    assertSame(first, loader.load("a"));
+    loader.join(first);
+    assertEquals(List.of(List.of("a")), batches);
+  }
+
+  @Test
+  void dispatchesAFullBatchWithoutWaitingForTheWindow() {
+    loader = loader(Duration.ofHours(1), 2, Duration.ofSeconds(5));
+    CompletableFuture<BlogUser> a = loader.load("a");
+    CompletableFuture<BlogUser> b = loader.load("b");
+
+    assertEquals("a", loader.join(a).getId());
+    assertEquals("b", loader.join(b).getId());
+    assertEquals(List.of(List.of("a", "b")), batches);
+  }
+
+  @Test
+  void loadManyKeepsTheOrderAndSkipsMissingUsers() {
+    loader = loader(Duration.ofMillis(10), 100, Duration.ofSeconds(5));
+    Map<String, BlogUser> users = loader.loadMany(List.of("c", "x", "a", "c"));
+
+    assertEquals(List.of("c", "a"), new ArrayList<>(users.keySet()));
+    assertEquals(List.of(List.of("c", "x", "a")), batches);
+  }
+
+  @Test
+  void rethrowsTheFailureOfTheBatch() {
+    failure = new IllegalStateException("boom");
+    loader = loader(Duration.ZERO, 100, Duration.ofSeconds(5));
+
+    assertSame(failure, assertThrows(RuntimeException.class, () -> loader.join(loader.load("a"))));
+  }
+
+  @Test
+  void stopsWaitingForAHangingQueryAfterTheTimeout() throws InterruptedException {
+    hang = true;
+    loader = loader(Duration.ZERO, 100, Duration.ofMillis(50));
+    CompletableFuture<BlogUser> future = loader.load("a");
+
+    assertThrows(DependencyUnavailableException.class, () -> loader.join(future));
+    assertThrows(DependencyUnavailableException.class, () -> loader.loadMany(List.of("a", "b")));
+
+    // The lookup is still shared, and completes once the query returns.
+    release.countDown();
+    assertEquals("a", future.orTimeout(5, TimeUnit.SECONDS).join().getId());
+  }
+
+  private BlogUserLoader loader(Duration window, int maxBatchSize, Duration timeout) {
+    return new BlogUserLoader(repository(), window, maxBatchSize, timeout);
+  }
+
+  private BlogUserRepository repository() {
+    BlogUserRepository repository = mock(BlogUserRepository.class);
+    when(repository.findAllById(any()))
+        .thenAnswer(
+            invocation -> {
+              List<String> ids = new ArrayList<>();
+              invocation.<Iterable<String>>getArgument(0).forEach(ids::add);
+              batches.add(ids);
+              if (hang) {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+              }
+              if (failure != null) {
+                throw failure;
+              }
+              List<BlogUser> users = new ArrayList<>();
+              for (String id : ids) {
+                if (existing.contains(id)) {
+                  BlogUser user = new BlogUser();
+                  user.setId(id);
+                  users.add(user);
+                }
+              }
+              return users;
+            });
+    return repository;
+  }
+}
@@ -0,0 +1,46 @@
+package com.lari.bloggerhub.service.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.document.NotificationType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NotificationBufferTest {
+
+  @Test
+  void coalescesTheEventsOfOneSubjectUntilTheWindowCloses() {
+    NotificationBuffer buffer = new NotificationBuffer(100);
+    for (int i = 0; i < 58; i++) {
+      buffer.add("author", NotificationType.CLAP, "post", "user" + i, 2, 1_000 + i);
+    }
+    buffer.add("author", NotificationType.CLAP, "post", "user3", 1, 1_100);
+    buffer.add("author", NotificationType.CLAP, "other", "user1", 1, 1_200);
+    buffer.add("author", NotificationType.FOLLOW, null, "user1", 1, 1_200);
+    assertEquals(3, buffer.size());
+
+    List<NotificationBuffer.Pending> due = buffer.drain(1_000);
+    assertEquals(1, due.size());
+    NotificationBuffer.Pending claps = due.get(0);
+    assertEquals("post", claps.subjectId());
+    assertEquals(117, claps.events());
+    assertEquals(58, claps.actorCount());
+    assertEquals(List.of("user3", "user57", "user56"), claps.latestActors(3));
+
+    buffer.add("author", NotificationType.CLAP, "post", "user9", 1, 2_000);
+    assertEquals(3, buffer.size());
+    assertEquals(3, buffer.drain(Long.MAX_VALUE).size());
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  void refusesNewNotificationsWhenFull() {
+    NotificationBuffer buffer = new NotificationBuffer(2);
+    assertTrue(buffer.add("a", NotificationType.FOLLOW, null, "x", 1, 0));
+    assertTrue(buffer.add("b", NotificationType.FOLLOW, null, "x", 1, 0));
+    assertFalse(buffer.add("c", NotificationType.FOLLOW, null, "x", 1, 0));
+    assertTrue(buffer.add("a", NotificationType.FOLLOW, null, "y", 1, 0));
+  }
+}
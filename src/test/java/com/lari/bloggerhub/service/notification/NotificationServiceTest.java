@@ -0,0 +1,350 @@
+package com.lari.bloggerhub.service.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lari.bloggerhub.document.BlogUser;
+import com.lari.bloggerhub.document.Notification;
+import com.lari.bloggerhub.document.NotificationCounter;
+import com.lari.bloggerhub.dto.response.UnreadCountDto;
+import com.lari.bloggerhub.repository.NotificationCounterRepository;
+import com.lari.bloggerhub.repository.NotificationRepository;
+import com.lari.bloggerhub.response.DataResponse;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+class NotificationServiceTest {
+
+  private static final int DUPLICATE_KEY = 11000;
+  private static final int WRITE_CONFLICT = 112;
+
+  /** The documents written by each bulk insert of notifications. */
+  private final List<List<String>> inserts = new CopyOnWriteArrayList<>();
+
+  /** The filter and update of each counter upsert, in order. */
+  private final List<List<Document>> counterUpserts = new CopyOnWriteArrayList<>();
+
+  /** Updates of single counters, outside of the bulk writes. */
+  private final List<Document> counterUpdates = new CopyOnWriteArrayList<>();
+
+  /** The failures the next bulk writes throw, or null to succeed. */
+  private final Deque<RuntimeException> failures = new ConcurrentLinkedDeque<>();
+
+  private final Map<String, NotificationCounter> storedCounters = new ConcurrentHashMap<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private NotificationService service;
+
+  @AfterEach
+  void close() throws InterruptedException {
+    failures.clear();
+    if (service != null) {
+      service.close();
+    }
+  }
+
+  @Test
+  void sweepDeliversClosedNotificationsInBatches() {
+    service = service(2, 4);
+    service.notifyFollow("follower", "a");
+    service.notifyFollow("follower", "b");
+    service.notifyFollow("follower", "c");
+    service.notifyClaps("clapper", "a", "post", 5);
+    service.notifyClaps("other", "a", "post", 2);
+
+    service.sweep();
+
+    await(() -> inserts.stream().mapToInt(List::size).sum() == 4);
+    assertEquals(List.of(2, 2), inserts.stream().map(List::size).sorted().toList());
+    assertEquals(4, meterRegistry.counter("bloggerhub.notifications.written").count());
+  }
+
+  @Test
+  void retriesFailedInsertsWithTheSameIds() {
+    service = service(10, 4);
+    failures.add(bulkFailure(WRITE_CONFLICT, DUPLICATE_KEY));
+    service.notifyFollow("follower", "a");
+    service.notifyFollow("follower", "b");
+    service.notifyFollow("follower", "c");
+
+    service.sweep();
+    await(() -> inserts.size() == 1);
+    await(() -> meterRegistry.counter("bloggerhub.notifications.written").count() == 2);
+    service.sweep();
+    await(() -> inserts.size() == 2);
+
+    // Only the notification that failed without being written is inserted again.
+    assertEquals(List.of(inserts.get(0).get(0)), inserts.get(1));
+    assertEquals(1, meterRegistry.counter("bloggerhub.notifications.delivery_failures").count());
+  }
+
+  @Test
+  void dropsFailedBatchesWhenTheRetryQueueIsFull() {
+    service = service(1, 1);
+    failures.add(new DataAccessResourceFailureException("down"));
+    failures.add(new DataAccessResourceFailureException("down"));
+    service.notifyFollow("follower", "a");
+    service.notifyFollow("follower", "b");
+
+    service.sweep();
+
+    await(() -> meterRegistry.counter("bloggerhub.notifications.refused").count() == 1);
+    service.sweep();
+    await(() -> inserts.size() == 3);
+    // The first failed batch was queued for the retry, the second one was dropped.
+    assertEquals(inserts.get(0), inserts.get(2));
+  }
+
+  @Test
+  void flushesTheDeliveriesOfThisNodeAsIncrements() {
+    service = service(10, 4);
+    storedCounters.put("a", counter("a", 5));
+    service.notifyFollow("follower", "a");
+    service.notifyClaps("clapper", "a", "post", 3);
+    service.sweep();
+    await(() -> inserts.size() == 1);
+    await(() -> unread("a") == 7);
+
+    service.flushCounters();
+
+    assertEquals(1, counterUpserts.size());
+    assertEquals(new Document("$inc", new Document("unread", 2L)), counterUpserts.get(0).get(1));
+    assertEquals(7, unread("a"));
+    service.flushCounters();
+    assertEquals(1, counterUpserts.size());
+  }
+
+  @Test
+  void keepsTheIncrementsOfAFailedFlush() {
+    service = service(10, 4);
+    storedCounters.put("a", counter("a", 0));
+    service.notifyFollow("follower", "a");
+    service.sweep();
+    await(() -> unread("a") == 1);
+
+    failures.add(new DataAccessResourceFailureException("down"));
+    service.flushCounters();
+    assertEquals(1, unread("a"));
+    service.flushCounters();
+
+    assertEquals(2, counterUpserts.size());
+    assertEquals(counterUpserts.get(0), counterUpserts.get(1));
+    assertEquals(1, unread("a"));
+  }
+
+  @Test
+  void recountsWhenTheCountWasMarkedReadSinceTheDeliveries() {
+    service = service(10, 4);
+    storedCounters.put("a", counter("a", 0));
+    service.notifyFollow("follower", "a");
+    service.sweep();
+    await(() -> unread("a") == 1);
+
+    failures.add(bulkFailure(DUPLICATE_KEY));
+    service.flushCounters();
+
+    assertEquals(
+        List.of(new Document("$set", new Document("unread", 4L))),
+        counterUpdates.stream().map(update -> update.get("update", Document.class)).toList());
+  }
+
+  @Test
+  void markingAllReadDropsTheIncrementsOfThisNode() {
+    service = service(10, 4);
+    storedCounters.put("a", counter("a", 3));
+    service.notifyFollow("follower", "a");
+    service.sweep();
+    await(() -> unread("a") == 4);
+
+    service.markAllRead(user("a"));
+    service.flushCounters();
+
+    assertTrue(counterUpserts.isEmpty());
+    assertEquals(Set.of("unread", "readAt"), setFields(counterUpdates.getLast()));
+  }
+
+  @Test
+  void countsTheNotificationsOfUsersWithoutAStoredCount() {
+    service = service(10, 4);
+
+    assertEquals(4, unread("new"));
+    assertEquals(
+        new Document("$setOnInsert", new Document("unread", 4L)),
+        counterUpdates.getLast().get("update", Document.class));
+  }
+
+  private NotificationService service(int maxBatchSize, int retryCapacity) {
+    return new NotificationService(
+        mongoTemplate(),
+        notificationRepository(),
+        counterRepository(),
+        null,
+        meterRegistry,
+        Duration.ZERO,
+        100,
+        maxBatchSize,
+        1,
+        1,
+        retryCapacity,
+        20,
+        100);
+  }
+
+  private long unread(String userId) {
+    DataResponse<?> response = (DataResponse<?>) service.getUnreadCount(user(userId)).getBody();
+    return ((UnreadCountDto) response.getData()).getUnread();
+  }
+
+  private static Set<String> setFields(Document update) {
+    return update.get("update", Document.class).get("$set", Document.class).keySet();
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out");
+      Thread.onSpinWait();
+    }
+  }
+
+  private static BlogUser user(String id) {
+    BlogUser user = new BlogUser();
+    user.setId(id);
+    return user;
+  }
+
+  private static NotificationCounter counter(String id, long unread) {
+    NotificationCounter counter = new NotificationCounter();
+    counter.setId(id);
+    counter.setUnread(unread);
+    return counter;
+  }
+
+  /** A bulk write failure with one error per code, at the indexes of the codes. */
+  private static BulkOperationException bulkFailure(int... codes) {
+    List<BulkWriteError> errors = new ArrayList<>();
+    for (int i = 0; i < codes.length; i++) {
+      errors.add(new BulkWriteError(codes[i], "failed", new BsonDocument(), i));
+    }
+    return new BulkOperationException(
+        "failed",
+        new MongoBulkWriteException(
+            BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(), Set.of()));
+  }
+
+  private MongoTemplate mongoTemplate() {
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    Answer<UpdateResult> recordUpdate =
+        invocation -> recordUpdate(invocation.getArgument(0), invocation.getArgument(1));
+    when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class)))
+        .thenAnswer(invocation -> bulkOperations(invocation.getArgument(1)));
+    when(mongoTemplate.upsert(
+            any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class)))
+        .thenAnswer(recordUpdate);
+    when(mongoTemplate.updateFirst(
+            any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class)))
+        .thenAnswer(recordUpdate);
+    return mongoTemplate;
+  }
+
+  private UpdateResult recordUpdate(Query query, UpdateDefinition update) {
+    counterUpdates.add(
+        new Document("query", query.getQueryObject())
+            .append("update", update.getUpdateObject()));
+    return UpdateResult.unacknowledged();
+  }
+
+  private BulkOperations bulkOperations(Class<?> entityClass) {
+    List<String> insertedIds = new ArrayList<>();
+    List<List<Document>> upserts = new ArrayList<>();
+    BulkOperations bulk = mock(BulkOperations.class);
+    when(bulk.insert(anyList()))
+        .thenAnswer(
+            invocation -> {
+              for (Notification notification : invocation.<List<Notification>>getArgument(0)) {
+                insertedIds.add(notification.getId());
+              }
+              return bulk;
+            });
+    when(bulk.upsert(any(Query.class), any(Update.class)))
+        .thenAnswer(
+            invocation -> {
+              upserts.add(
+                  List.of(
+                      invocation.<Query>getArgument(0).getQueryObject(),
+                      invocation.<Update>getArgument(1).getUpdateObject()));
+              return bulk;
+            });
+    when(bulk.execute())
+        .thenAnswer(
+            invocation -> {
+              if (entityClass == Notification.class) {
+                inserts.add(List.copyOf(insertedIds));
+              } else {
+                counterUpserts.addAll(upserts);
+              }
+              RuntimeException failure = failures.poll();
+              if (failure != null) {
+                throw failure;
+              }
+              if (entityClass == NotificationCounter.class) {
+                for (List<Document> upsert : upserts) {
+                  String id = upsert.get(0).getString("id");
+                  long count = upsert.get(1).get("$inc", Document.class).getLong("unread");
+                  storedCounters
+                      .computeIfAbsent(id, missing -> counter(missing, 0))
+                      .setUnread(storedCounters.get(id).getUnread() + count);
+                }
+              }
+              return BulkWriteResult.unacknowledged();
+            });
+    return bulk;
+  }
+
+  private static NotificationRepository notificationRepository() {
+    NotificationRepository repository = mock(NotificationRepository.class);
+    when(repository.countByRecipientIdAndReadFalse(anyString())).thenReturn(4L);
+    return repository;
+  }
+
+  private NotificationCounterRepository counterRepository() {
+    NotificationCounterRepository repository = mock(NotificationCounterRepository.class);
+    when(repository.findById(anyString()))
+        .thenAnswer(
+            invocation ->
+                Optional.ofNullable(storedCounters.get(invocation.<String>getArgument(0))));
+    return repository;
+  }
+}
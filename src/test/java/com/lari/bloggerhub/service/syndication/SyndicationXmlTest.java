@@ -0,0 +1,40 @@
+package com.lari.bloggerhub.service.syndication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class SyndicationXmlTest {
+
+  @Test
+  void concatenatedMembersDecompressToTheWholeDocument() throws IOException {
+    Instant now = Instant.parse("2024-05-01T10:15:30Z");
+    String header = SyndicationXml.rssHeader("ada on Blogger Hub", "l", "s", "Posts", now);
+    String first = SyndicationXml.rssItem("Tips & <tricks>", "a", "Summary", List.of("java"), now);
+    String second = SyndicationXml.rssItem("Second", "b", null, null, now);
+
+    ByteArrayOutputStream feed = new ByteArrayOutputStream();
+    for (String fragment : List.of(header, first, second, SyndicationXml.RSS_FOOTER)) {
+      feed.write(SyndicationXml.gzip(fragment));
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(feed.toByteArray()))) {
+      assertEquals(
+          header + first + second + SyndicationXml.RSS_FOOTER,
+          new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void escapesMarkupAndDropsCharactersXmlDoesNotAllow() {
+    assertEquals(
+        "&lt;b&gt; &amp; &quot;q&quot; &apos;s&apos;\n",
+        SyndicationXml.escape("<b> & \"q\" 's'\u0000\u0007\n"));
+  }
+}
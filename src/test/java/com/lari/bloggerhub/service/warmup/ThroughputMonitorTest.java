@@ -0,0 +1,50 @@
+package com.lari.bloggerhub.service.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ThroughputMonitorTest {
+
+  @Test
+  void becomesStableAfterConsecutiveSteadyRounds() {
+    ThroughputMonitor monitor = new ThroughputMonitor(0.05, 2);
+    assertFalse(monitor.record(100));
+    assertFalse(monitor.record(400));
+    assertFalse(monitor.record(1_000));
+    assertFalse(monitor.record(1_030));
+    assertTrue(monitor.record(1_000));
+
+    assertEquals(5, monitor.rounds());
+    assertEquals(100, monitor.first());
+    assertEquals(1_000, monitor.last());
+    assertEquals(10, monitor.speedup(), 1e-9);
+  }
+
+  @Test
+  void slowRoundsDoNotRestartTheCount() {
+    ThroughputMonitor monitor = new ThroughputMonitor(0.05, 2);
+    monitor.record(1_000);
+    assertFalse(monitor.record(600));
+    assertTrue(monitor.record(1_040));
+  }
+
+  @Test
+  void aJumpInThroughputRestartsTheCount() {
+    ThroughputMonitor monitor = new ThroughputMonitor(0.05, 2);
+    monitor.record(1_000);
+    monitor.record(1_010);
+    assertFalse(monitor.record(2_000));
+    assertFalse(monitor.record(2_020));
+    assertTrue(monitor.record(2_000));
+  }
+
+  @Test
+  void reportsNoSpeedupBeforeTheFirstRound() {
+    ThroughputMonitor monitor = new ThroughputMonitor(0.05, 2);
+    assertEquals(0, monitor.speedup());
+    assertFalse(monitor.isStable());
+  }
+}
@@ -0,0 +1,68 @@
+package com.lari.bloggerhub.util.bitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RoaringBitmapTest {
+
+  @Test
+  void combinesSparseAndDenseChunksLikeBitSets() {
+    Random random = new Random(5);
+    // Chunk 0 is dense in both, chunk 1 dense in one and sparse in the other, chunk 3 sparse.
+    BitSet expectedA = new BitSet();
+    BitSet expectedB = new BitSet();
+    RoaringBitmap a = new RoaringBitmap();
+    RoaringBitmap b = new RoaringBitmap();
+    for (int i = 0; i < 30_000; i++) {
+      add(a, expectedA, random.nextInt(65536));
+      add(b, expectedB, random.nextInt(65536));
+    }
+    for (int i = 0; i < 20_000; i++) {
+      add(a, expectedA, 65536 + random.nextInt(65536));
+    }
+    for (int i = 0; i < 500; i++) {
+      add(b, expectedB, 65536 + random.nextInt(65536));
+      add(a, expectedA, 3 * 65536 + random.nextInt(65536));
+      add(b, expectedB, 3 * 65536 + random.nextInt(65536));
+    }
+    // Removing most of a dense chunk turns it back into an array.
+    for (int value = 65536; value < 2 * 65536 - 1000; value++) {
+      assertEquals(expectedA.get(value), a.remove(value));
+      expectedA.clear(value);
+    }
+
+    assertSame(expectedA, a);
+    BitSet and = (BitSet) expectedA.clone();
+    and.and(expectedB);
+    assertSame(and, RoaringBitmap.and(a, b));
+    BitSet or = (BitSet) expectedA.clone();
+    or.or(expectedB);
+    assertSame(or, RoaringBitmap.or(a, b));
+    BitSet andNot = (BitSet) expectedA.clone();
+    andNot.andNot(expectedB);
+    assertSame(andNot, RoaringBitmap.andNot(a, b));
+    assertSame(expectedB, b);
+  }
+
+  private static void add(RoaringBitmap bitmap, BitSet expected, int value) {
+    assertEquals(!expected.get(value), bitmap.add(value));
+    expected.set(value);
+  }
+
+  /** Compares the values, the cardinality and the descending walk used for paging. */
+  private static void assertSame(BitSet expected, RoaringBitmap actual) {
+    assertEquals(expected.cardinality(), actual.cardinality());
+    int value = actual.previousValue(Integer.MAX_VALUE);
+    for (int bit = expected.previousSetBit(expected.length()); bit >= 0; ) {
+      assertEquals(bit, value);
+      assertTrue(actual.contains(bit));
+      bit = expected.previousSetBit(bit - 1);
+      value = actual.previousValue(value - 1);
+    }
+    assertEquals(-1, value);
+  }
+}
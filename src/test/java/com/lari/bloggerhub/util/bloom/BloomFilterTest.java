@@ -0,0 +1,39 @@
+package com.lari.bloggerhub.util.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.hash.MurmurHash3;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  @Test
+  void murmurHashMatchesReferenceVectors() {
+    assertArrayEquals(
+        new long[] {0xcbd8a7b341bd9b02L, 0x5b1e906a48ae1d19L},
+        MurmurHash3.hash128("hello".getBytes(StandardCharsets.UTF_8)));
+    assertArrayEquals(
+        new long[] {0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L},
+        MurmurHash3.hash128(
+            "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void neverReportsAddedValuesAsAbsentAndKeepsTheFalsePositiveRate() {
+    BloomFilter filter = BloomFilter.create(100_000, 0.01);
+    for (int i = 0; i < 100_000; i++) {
+      filter.put("writer" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      assertTrue(filter.mightContain("writer" + i));
+      if (filter.mightContain("reader" + i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+  }
+}
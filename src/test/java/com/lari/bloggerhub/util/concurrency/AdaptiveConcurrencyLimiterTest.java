@@ -0,0 +1,81 @@
+package com.lari.bloggerhub.util.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void lowerPrioritiesGetASmallerShareOfTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+    for (int i = 0; i < 6; i++) {
+      assertTrue(limiter.tryAcquire(RequestPriority.BULK));
+    }
+    assertFalse(limiter.tryAcquire(RequestPriority.BULK));
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+    }
+    assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+    assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+    assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+    assertEquals(10, limiter.getInFlight());
+
+    limiter.release(1_000_000, false);
+    assertEquals(9, limiter.getInFlight());
+    assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+  }
+
+  @Test
+  void droppedRequestsShrinkTheLimitDownToTheMinimum() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 20, 400);
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire(RequestPriority.CRITICAL);
+      limiter.release(1_000_000, true);
+    }
+    assertEquals(20, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  void growsWhileBusyAndLatencyStaysAtTheBaseline() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 400);
+    for (int round = 0; round < 50; round++) {
+      int acquired = 0;
+      while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+        acquired++;
+      }
+      for (int i = 0; i < acquired; i++) {
+        limiter.release(1_000_000, false);
+      }
+    }
+    assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+  }
+
+  @Test
+  void backsOffWhenLatencyRisesAboveTheBaseline() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 400);
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire(RequestPriority.CRITICAL);
+    }
+    for (int i = 0; i < 20; i++) {
+      limiter.release(1_000_000, false);
+      limiter.tryAcquire(RequestPriority.CRITICAL);
+    }
+    int baseline = limiter.getLimit();
+    for (int i = 0; i < 40; i++) {
+      limiter.release(50_000_000, false);
+      limiter.tryAcquire(RequestPriority.CRITICAL);
+    }
+    assertTrue(limiter.getLimit() < baseline, limiter.getLimit() + " >= " + baseline);
+  }
+
+  @Test
+  void rejectsInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(10, 0, 5));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(10, 8, 5));
+  }
+}
@@ -0,0 +1,96 @@
+package com.lari.bloggerhub.util.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class SortedIntAdjacencyTest {
+
+  @Test
+  void mapsObjectIdsToDenseIdsAndBack() {
+    ObjectIdIndex index = new ObjectIdIndex(4);
+    String[] ids = new String[1_000];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = new ObjectId().toHexString();
+      assertEquals(i, index.getOrAdd(ids[i]));
+    }
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(i, index.get(ids[i]));
+      assertEquals(i, index.get(ids[i].toUpperCase()));
+      assertEquals(ids[i], index.objectId(i));
+    }
+    assertEquals(-1, index.get(new ObjectId().toHexString()));
+    assertEquals(-1, index.get("not an id"));
+  }
+
+  @Test
+  void answersMembershipAndIntersectionsLikeSets() {
+    Random random = new Random(3);
+    SortedIntAdjacency adjacency = new SortedIntAdjacency(4);
+    Set<Integer> first = new HashSet<>();
+    Set<Integer> second = new HashSet<>();
+    for (int i = 0; i < 5_000; i++) {
+      int value = random.nextInt(20_000);
+      assertEquals(first.add(value), adjacency.add(0, value));
+      if (i % 50 == 0) {
+        value = random.nextInt(20_000);
+        assertEquals(second.add(value), adjacency.add(1, value));
+      }
+    }
+    for (int value : new HashSet<>(first)) {
+      if (value % 3 == 0) {
+        assertTrue(adjacency.remove(0, value));
+        first.remove(value);
+      }
+    }
+    assertFalse(adjacency.remove(0, 3));
+    assertEquals(first.size(), adjacency.degree(0));
+
+    Set<Integer> expected = new HashSet<>(first);
+    expected.retainAll(second);
+    int[] out = new int[second.size()];
+    int count = adjacency.intersect(0, adjacency, 1, out);
+    assertEquals(expected.size(), count);
+    for (int i = 0; i < count; i++) {
+      assertTrue(expected.contains(out[i]));
+    }
+    assertEquals(count, adjacency.intersectionSize(1, adjacency, 0));
+  }
+
+  @Test
+  void lookupsDoNotAllocate() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    ObjectIdIndex index = new ObjectIdIndex(1_000);
+    SortedIntAdjacency adjacency = new SortedIntAdjacency(1_000);
+    String[] ids = new String[1_000];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = new ObjectId().toHexString();
+      index.getOrAdd(ids[i]);
+      adjacency.add(0, i);
+      adjacency.add(1, i * 2);
+    }
+
+    long hits = 0;
+    for (int round = 0; round < 2; round++) {
+      long before = threads.getCurrentThreadAllocatedBytes();
+      for (int i = 0; i < 100_000; i++) {
+        int node = index.get(ids[i % ids.length]);
+        hits += adjacency.contains(0, node) ? 1 : 0;
+        hits += adjacency.intersectionSize(0, adjacency, 1);
+      }
+      long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+      if (round == 1) {
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+      }
+    }
+    assertTrue(hits > 0);
+  }
+}
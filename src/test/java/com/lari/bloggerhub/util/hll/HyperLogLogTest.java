@@ -0,0 +1,48 @@
+package com.lari.bloggerhub.util.hll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.hash.MurmurHash3;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  @Test
+  void estimatesWithinTheExpectedErrorAndSurvivesSerialization() {
+    HyperLogLog small = new HyperLogLog(12);
+    for (int i = 0; i < 100; i++) {
+      small.offer(MurmurHash3.hash64("reader" + i));
+      small.offer(MurmurHash3.hash64("reader" + i));
+    }
+    assertEquals(100, small.estimate(), 2);
+    byte[] sparse = small.toBytes();
+    assertTrue(sparse.length < 400, "sparse size: " + sparse.length);
+    assertEquals(small.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+
+    HyperLogLog large = new HyperLogLog(12);
+    for (int i = 0; i < 1_000_000; i++) {
+      large.offer(MurmurHash3.hash64("reader" + i));
+    }
+    // Four standard errors of 1.6%.
+    assertEquals(1_000_000, large.estimate(), 65_000);
+    byte[] dense = large.toBytes();
+    assertEquals(2 + 4096 * 6 / 8, dense.length);
+    assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+  }
+
+  @Test
+  void mergeEstimatesTheUnionAndIsIdempotent() {
+    HyperLogLog monday = new HyperLogLog(12);
+    HyperLogLog tuesday = new HyperLogLog(12);
+    for (int i = 0; i < 60_000; i++) {
+      monday.offer(MurmurHash3.hash64("reader" + i));
+      tuesday.offer(MurmurHash3.hash64("reader" + (i + 30_000)));
+    }
+    HyperLogLog week = HyperLogLog.fromBytes(monday.toBytes());
+    assertTrue(week.merge(tuesday));
+    assertFalse(week.merge(tuesday));
+    assertEquals(90_000, week.estimate(), 6_000);
+  }
+}
@@ -0,0 +1,67 @@
+package com.lari.bloggerhub.util.image;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailerTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void cropsTheCenterSquareAndScalesIt() throws IOException {
+    // A wide image with red side bars around a blue center square.
+    BufferedImage image = new BufferedImage(3000, 1000, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.RED);
+    graphics.fillRect(0, 0, 3000, 1000);
+    graphics.setColor(Color.BLUE);
+    graphics.fillRect(1000, 0, 1000, 1000);
+    graphics.dispose();
+    Path source = directory.resolve("wide.png");
+    ImageIO.write(image, "png", source.toFile());
+
+    Map<Integer, byte[]> thumbnails =
+        Thumbnailer.createThumbnails(source, List.of(64, 256), 10_000_000, 0.85f);
+
+    assertEquals(List.of(64, 256), List.copyOf(thumbnails.keySet()));
+    for (Map.Entry<Integer, byte[]> thumbnail : thumbnails.entrySet()) {
+      BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.getValue()));
+      int size = thumbnail.getKey();
+      assertEquals(size, decoded.getWidth());
+      assertEquals(size, decoded.getHeight());
+      for (int[] point : new int[][] {{1, 1}, {size / 2, size / 2}, {size - 2, size - 2}}) {
+        Color color = new Color(decoded.getRGB(point[0], point[1]));
+        assertTrue(color.getBlue() > 200 && color.getRed() < 60, "not blue: " + color);
+      }
+    }
+  }
+
+  @Test
+  void rejectsOversizedAndUnreadableFiles() throws IOException {
+    Path source = directory.resolve("large.png");
+    BufferedImage large = new BufferedImage(2000, 2000, BufferedImage.TYPE_INT_RGB);
+    ImageIO.write(large, "png", source.toFile());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Thumbnailer.createThumbnails(source, List.of(64), 1_000_000, 0.85f));
+
+    Path text = Files.writeString(directory.resolve("text.png"), "not an image");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Thumbnailer.createThumbnails(text, List.of(64), 1_000_000, 0.85f));
+  }
+}
@@ -0,0 +1,82 @@
+package com.lari.bloggerhub.util.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StripedJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void replaysOnlyTheSegmentsLeftAfterACheckpointAndStopsAtATornRecord() throws IOException {
+    AtomicLong applied = new AtomicLong();
+    StripedJournal journal = StripedJournal.open(directory, "test", 4, false);
+    for (int i = 0; i < 100; i++) {
+      journal.append(record(i), applied::incrementAndGet);
+    }
+    AtomicLong drained = new AtomicLong();
+    List<Path> sealed = journal.checkpoint(() -> drained.set(applied.getAndSet(0)));
+    assertEquals(100, drained.get());
+    journal.delete(sealed);
+
+    for (int i = 100; i < 110; i++) {
+      journal.append(record(i), applied::incrementAndGet);
+    }
+    journal.close();
+
+    // A crash in the middle of a write leaves a partial frame at the end of a segment.
+    StripedJournal reopened = StripedJournal.open(directory, "test", 4, false);
+    List<Path> recovered = reopened.recoveredSegments();
+    Files.write(recovered.get(0), new byte[] {0, 0, 0, 8, 1}, StandardOpenOption.APPEND);
+
+    List<Integer> replayed = new ArrayList<>();
+    assertEquals(10, StripedJournal.replay(recovered, record -> replayed.add(record.getInt())));
+    assertEquals(110 * 109 / 2 - 100 * 99 / 2, replayed.stream().mapToInt(i -> i).sum());
+    reopened.close();
+  }
+
+  @Test
+  void syncedAppendsShareForcesAcrossWritersAndCheckpoints() throws Exception {
+    AtomicLong applied = new AtomicLong();
+    StripedJournal journal = StripedJournal.open(directory, "test", 2, true);
+    ExecutorService writers = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++) {
+      writers.execute(
+          () -> {
+            for (int i = 0; i < 100; i++) {
+              journal.append(record(i), applied::incrementAndGet);
+            }
+          });
+    }
+    for (int i = 0; i < 5; i++) {
+      journal.checkpoint(() -> {});
+    }
+    writers.shutdown();
+    assertTrue(writers.awaitTermination(30, TimeUnit.SECONDS));
+    journal.close();
+
+    assertEquals(800, applied.get());
+    assertTrue(journal.syncs() <= 800);
+    StripedJournal reopened = StripedJournal.open(directory, "test", 2, true);
+    assertEquals(800, StripedJournal.replay(reopened.recoveredSegments(), record -> {}));
+    reopened.close();
+  }
+
+  private static byte[] record(int value) {
+    return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+  }
+}
@@ -0,0 +1,81 @@
+package com.lari.bloggerhub.util.markdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class MarkdownRendererTest {
+
+  @Test
+  void rendersBlocksAndInlines() {
+    String markdown =
+        """
+        # Tuning *the* JVM ##
+
+        Start with `-Xlog:gc`, then read **[the guide](https://example.com/gc "GC")**.
+        Second line with a break\s\s
+        and ~~no~~ _more_.
+
+        > Measure first.
+        > > Nested.
+
+        - one
+        - two
+          1. inner
+        3) three
+        4) four
+
+        ```java
+        int x = a < b ? 1 : 2;
+        ```
+        ***
+        """;
+
+    assertEquals(
+        """
+        <h1>Tuning <em>the</em> JVM</h1>
+        <p>Start with <code>-Xlog:gc</code>, then read <strong><a href="https://example.com/gc" \
+        title="GC">the guide</a></strong>.
+        Second line with a break<br>
+        and <del>no</del> <em>more</em>.</p>
+        <blockquote>
+        <p>Measure first.</p>
+        <blockquote>
+        <p>Nested.</p>
+        </blockquote>
+        </blockquote>
+        <ul>
+        <li>one</li>
+        <li>two
+        <ol>
+        <li>inner</li>
+        </ol></li>
+        </ul>
+        <ol start="3">
+        <li>three</li>
+        <li>four</li>
+        </ol>
+        <pre><code class="language-java">int x = a &lt; b ? 1 : 2;
+        </code></pre>
+        <hr>
+        """,
+        MarkdownRenderer.render(markdown));
+  }
+
+  @Test
+  void escapesRawHtmlAndDropsUnsafeLinks() {
+    assertEquals(
+        "<p>&lt;script&gt;alert(1)&lt;/script&gt; <a href=\"/posts?a=1&amp;b=&quot;2&quot;\">ok"
+            + "</a> click me <img src=\"https://example.com/a.png\" alt=\"a &lt;b&gt;\"> x</p>\n",
+        MarkdownRenderer.render(
+            "<script>alert(1)</script> [ok](/posts?a=1&b=\"2\") [click me](javascript:alert(1))"
+                + " ![a <b>](https://example.com/a.png) ![x](data:text/html,x)"));
+  }
+
+  @Test
+  void leavesUnmatchedDelimitersLiteral() {
+    assertEquals(
+        "<p>2 * 3 = 6, snake_case_name, <em>a **b</em> and `open and \\ and *</p>\n",
+        MarkdownRenderer.render("2 * 3 = 6, snake_case_name, *a \\*\\*b* and `open and \\ and *"));
+  }
+}
@@ -0,0 +1,43 @@
+package com.lari.bloggerhub.util.prefix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.prefix.CompactPrefixIndex.Entry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class CompactPrefixIndexTest {
+
+  @Test
+  void returnsTheMostPopularMatchesOfAPrefix() {
+    Random random = new Random(42);
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      String username = (i % 3 == 0 ? "Writer" : "reader") + Integer.toString(i, 36);
+      entries.add(new Entry(new ObjectId().toHexString(), username, random.nextInt(1_000)));
+    }
+    CompactPrefixIndex index = CompactPrefixIndex.build(entries);
+
+    for (String prefix : List.of("w", "WRITER1", "reader", "readerz", "x", "")) {
+      List<Entry> expected =
+          entries.stream()
+              .filter(entry -> CompactPrefixIndex.hasPrefix(entry.username(), prefix))
+              .sorted(Comparator.comparingInt(Entry::score).reversed())
+              .limit(10)
+              .toList();
+      List<Entry> actual = index.topK(prefix, 10);
+      assertEquals(
+          expected.stream().map(Entry::score).toList(),
+          actual.stream().map(Entry::score).toList(),
+          prefix);
+      actual.forEach(entry -> assertTrue(CompactPrefixIndex.hasPrefix(entry.username(), prefix)));
+    }
+    assertEquals(entries.size(), index.size());
+    assertTrue(index.sizeInBytes() / index.size() < 48, "bytes: " + index.sizeInBytes());
+  }
+}
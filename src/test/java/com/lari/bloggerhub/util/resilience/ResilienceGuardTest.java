@@ -0,0 +1,62 @@
+package com.lari.bloggerhub.util.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ResilienceGuardTest {
+
+  @Test
+  void anInterruptedHalfOpenTrialReturnsItsPermit() throws Exception {
+    CircuitBreaker breaker = new CircuitBreaker(1, 1.0, Duration.ofMillis(1));
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      ResilienceGuard guard =
+          new ResilienceGuard("test", 4, Duration.ofSeconds(10), breaker, executor);
+      assertThrows(
+          RuntimeException.class,
+          () ->
+              guard.execute(
+                  () -> {
+                    throw new IllegalStateException("down");
+                  }));
+      assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+      Thread.sleep(5);
+
+      CountDownLatch started = new CountDownLatch(1);
+      AtomicReference<Throwable> thrown = new AtomicReference<>();
+      Thread caller =
+          Thread.ofVirtual()
+              .start(
+                  () -> {
+                    try {
+                      guard.execute(
+                          () -> {
+                            started.countDown();
+                            try {
+                              Thread.sleep(10_000);
+                            } catch (InterruptedException e) {
+                              Thread.currentThread().interrupt();
+                            }
+                            return null;
+                          });
+                    } catch (Throwable t) {
+                      thrown.set(t);
+                    }
+                  });
+      started.await();
+      caller.interrupt();
+      caller.join();
+      assertTrue(thrown.get() instanceof DependencyUnavailableException, "" + thrown.get());
+
+      assertEquals("ok", guard.execute(() -> "ok"));
+      assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+  }
+}
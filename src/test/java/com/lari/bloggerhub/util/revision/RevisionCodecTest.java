@@ -0,0 +1,56 @@
+package com.lari.bloggerhub.util.revision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.text.TextDiff;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RevisionCodecTest {
+
+  @Test
+  void rebuildsEveryRevisionFromItsKeyframe() {
+    List<String> revisions = new ArrayList<>();
+    StringBuilder draft = new StringBuilder("# Notes on caching\n\n");
+    for (int i = 0; i < 20; i++) {
+      draft.append("Paragraph ").append(i).append(" about caches, ünïcode and 🙂 emoji.\n");
+      if (i % 3 == 0) {
+        int at = draft.indexOf("caches");
+        draft.replace(at, at + 6, "buffers");
+      }
+      revisions.add(draft.toString());
+    }
+
+    List<byte[]> encoded = new ArrayList<>();
+    encoded.add(RevisionCodec.encodeKeyframe(revisions.get(0)));
+    for (int i = 1; i < revisions.size(); i++) {
+      String previous = revisions.get(i - 1);
+      encoded.add(
+          RevisionCodec.encodeDelta(previous, TextDiff.diff(previous, revisions.get(i))));
+    }
+
+    assertTrue(RevisionCodec.isKeyframe(encoded.get(0)));
+    StringBuilder text = new StringBuilder("stale");
+    RevisionCodec.decodeKeyframe(text, encoded.get(0));
+    assertEquals(revisions.get(0), text.toString());
+    for (int i = 1; i < revisions.size(); i++) {
+      assertFalse(RevisionCodec.isKeyframe(encoded.get(i)));
+      RevisionCodec.applyDelta(text, encoded.get(i));
+      assertEquals(revisions.get(i), text.toString());
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> RevisionCodec.applyDelta(new StringBuilder(), encoded.get(0)));
+  }
+
+  @Test
+  void decidesWhenToStartANewKeyframe() {
+    assertFalse(RevisionCodec.needsKeyframe(3, 16, 40, 1000));
+    assertTrue(RevisionCodec.needsKeyframe(16, 16, 40, 1000));
+    assertTrue(RevisionCodec.needsKeyframe(3, 16, 600, 1000));
+  }
+}
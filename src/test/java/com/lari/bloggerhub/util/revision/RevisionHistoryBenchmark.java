@@ -0,0 +1,177 @@
+package com.lari.bloggerhub.util.revision;
+
+import com.lari.bloggerhub.util.text.TextDiff;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the storage ratio and the restore latency of post histories encoded as keyframes and
+ * deltas by the {@link RevisionCodec}, with the keyframe policy of the revision service.
+ *
+ * <p>Each history starts from a synthetic Markdown article and applies a mix of the edits authors
+ * make between saves: fixing a word, adding or rewriting a sentence, appending or removing a
+ * paragraph and moving a paragraph. Storage is compared with keeping every revision as a full
+ * copy, raw and deflated; restore latency is measured for random revisions of every history.
+ *
+ * <p>Run with {@code ./mvnw test -Pbenchmark -Dtest=RevisionHistoryBenchmark}.
+ */
+@Tag("benchmark")
+class RevisionHistoryBenchmark {
+
+  private static final int POSTS = 50;
+  private static final int REVISIONS = 300;
+  private static final int PARAGRAPHS = 30;
+  private static final int VOCABULARY = 5_000;
+  private static final int MAX_DELTAS = 16;
+  private static final int RESTORES = 20_000;
+
+  @Test
+  void storageAndRestoreLatency() {
+    Random random = new Random(17);
+    String[] vocabulary = new String[VOCABULARY];
+    for (int i = 0; i < VOCABULARY; i++) {
+      StringBuilder word = new StringBuilder();
+      for (int length = 2 + random.nextInt(8); length > 0; length--) {
+        word.append((char) ('a' + random.nextInt(26)));
+      }
+      vocabulary[i] = word.toString();
+    }
+
+    long rawBytes = 0;
+    long fullCopyBytes = 0;
+    long storedBytes = 0;
+    long keyframes = 0;
+    long encodeNanos = 0;
+    List<List<byte[]>> histories = new ArrayList<>();
+    List<long[]> keyframeOf = new ArrayList<>();
+    List<List<String>> texts = new ArrayList<>();
+    for (int post = 0; post < POSTS; post++) {
+      List<String> paragraphs = new ArrayList<>();
+      paragraphs.add("# " + sentence(random, vocabulary) + "\n");
+      for (int i = 0; i < PARAGRAPHS; i++) {
+        paragraphs.add(paragraph(random, vocabulary));
+      }
+      List<byte[]> encoded = new ArrayList<>();
+      long[] keyframe = new long[REVISIONS];
+      List<String> revisions = new ArrayList<>();
+      String previous = null;
+      for (int revision = 0; revision < REVISIONS; revision++) {
+        if (revision > 0) {
+          edit(random, vocabulary, paragraphs);
+        }
+        String text = String.join("\n", paragraphs);
+        rawBytes += text.getBytes(StandardCharsets.UTF_8).length;
+        long start = System.nanoTime();
+        byte[] full = RevisionCodec.encodeKeyframe(text);
+        byte[] stored = full;
+        keyframe[revision] = revision;
+        if (previous != null) {
+          byte[] delta = RevisionCodec.encodeDelta(previous, TextDiff.diff(previous, text));
+          int sinceKeyframe = (int) (revision - 1 - keyframe[revision - 1]);
+          if (!RevisionCodec.needsKeyframe(sinceKeyframe, MAX_DELTAS, delta.length, full.length)) {
+            stored = delta;
+            keyframe[revision] = keyframe[revision - 1];
+          }
+        }
+        encodeNanos += System.nanoTime() - start;
+        fullCopyBytes += full.length;
+        storedBytes += stored.length;
+        keyframes += stored == full ? 1 : 0;
+        encoded.add(stored);
+        revisions.add(text);
+        previous = text;
+      }
+      histories.add(encoded);
+      keyframeOf.add(keyframe);
+      texts.add(revisions);
+    }
+
+    long[] latencies = new long[RESTORES];
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < RESTORES; i++) {
+      int post = random.nextInt(POSTS);
+      int revision = random.nextInt(REVISIONS);
+      List<byte[]> encoded = histories.get(post);
+      int keyframe = (int) keyframeOf.get(post)[revision];
+      long start = System.nanoTime();
+      RevisionCodec.decodeKeyframe(text, encoded.get(keyframe));
+      for (int delta = keyframe + 1; delta <= revision; delta++) {
+        RevisionCodec.applyDelta(text, encoded.get(delta));
+      }
+      latencies[i] = System.nanoTime() - start;
+      if (i % 1000 == 0 && !text.toString().equals(texts.get(post).get(revision))) {
+        throw new AssertionError("revision " + revision + " of post " + post + " differs");
+      }
+    }
+    Arrays.sort(latencies);
+
+    long revisions = (long) POSTS * REVISIONS;
+    System.out.printf(
+        "storage: %,d revisions, %,d KiB raw, %,d KiB as deflated copies, %,d KiB stored "
+            + "(%.1fx smaller than raw, %.1fx smaller than deflated copies), %.1f%% keyframes%n",
+        revisions,
+        rawBytes >> 10,
+        fullCopyBytes >> 10,
+        storedBytes >> 10,
+        (double) rawBytes / storedBytes,
+        (double) fullCopyBytes / storedBytes,
+        100.0 * keyframes / revisions);
+    System.out.printf(
+        "save: %.1f us per revision to diff and encode%n", encodeNanos / 1e3 / revisions);
+    System.out.printf(
+        "restore: p50 %.1f us, p99 %.1f us, max %.1f us (keyframe + at most %d deltas)%n",
+        latencies[RESTORES / 2] / 1e3,
+        latencies[RESTORES * 99 / 100] / 1e3,
+        latencies[RESTORES - 1] / 1e3,
+        MAX_DELTAS);
+  }
+
+  /** Applies one of the edits an author makes between two saves. */
+  private static void edit(Random random, String[] vocabulary, List<String> paragraphs) {
+    int at = 1 + random.nextInt(paragraphs.size() - 1);
+    int kind = random.nextInt(100);
+    if (kind < 45) {
+      String[] words = paragraphs.get(at).split(" ", -1);
+      int word = random.nextInt(words.length);
+      words[word] = zipf(random, vocabulary) + (words[word].endsWith(".\n") ? ".\n" : "");
+      paragraphs.set(at, String.join(" ", words));
+    } else if (kind < 70) {
+      String paragraph = paragraphs.get(at).stripTrailing();
+      paragraphs.set(at, paragraph + " " + sentence(random, vocabulary) + "\n");
+    } else if (kind < 80) {
+      paragraphs.set(at, paragraph(random, vocabulary));
+    } else if (kind < 90) {
+      paragraphs.add(paragraph(random, vocabulary));
+    } else if (kind < 95 && paragraphs.size() > 5) {
+      paragraphs.remove(at);
+    } else {
+      paragraphs.add(1 + random.nextInt(paragraphs.size() - 1), paragraphs.remove(at));
+    }
+  }
+
+  private static String paragraph(Random random, String[] vocabulary) {
+    StringBuilder paragraph = new StringBuilder();
+    for (int sentences = 3 + random.nextInt(5); sentences > 0; sentences--) {
+      paragraph.append(paragraph.isEmpty() ? "" : " ").append(sentence(random, vocabulary));
+    }
+    return paragraph.append('\n').toString();
+  }
+
+  private static String sentence(Random random, String[] vocabulary) {
+    StringBuilder sentence = new StringBuilder();
+    for (int words = 6 + random.nextInt(14); words > 0; words--) {
+      sentence.append(sentence.isEmpty() ? "" : " ").append(zipf(random, vocabulary));
+    }
+    return sentence.append('.').toString();
+  }
+
+  /** Draws a word with a frequency roughly inverse to its rank, like the words of prose. */
+  private static String zipf(Random random, String[] vocabulary) {
+    return vocabulary[(int) Math.pow(vocabulary.length, random.nextDouble()) - 1];
+  }
+}
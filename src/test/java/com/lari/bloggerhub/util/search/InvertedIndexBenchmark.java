@@ -0,0 +1,129 @@
+package com.lari.bloggerhub.util.search;
+
+import com.lari.bloggerhub.util.search.InvertedIndex.SearchDocument;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reports the indexing throughput, the merge time, the size on disk and the query latency of
+ * {@link InvertedIndex} for a synthetic corpus of several million documents whose words follow a
+ * Zipf distribution, like the words of natural language.
+ *
+ * <p>Queries of one to three words are drawn from the mid-frequency vocabulary, where most real
+ * queries fall; queries for the most frequent words, which have to score a large part of the
+ * corpus, are reported separately.
+ *
+ * <p>Run with {@code ./mvnw test -Pbenchmark -Dtest=InvertedIndexBenchmark}.
+ */
+@Tag("benchmark")
+class InvertedIndexBenchmark {
+
+  private static final int DOCUMENTS = 3_000_000;
+  private static final int BATCH = 250_000;
+  private static final int VOCABULARY = 200_000;
+  private static final double ZIPF_EXPONENT = 1.0;
+  private static final int MIN_LENGTH = 20;
+  private static final int MAX_LENGTH = 100;
+  private static final int QUERIES = 20_000;
+  private static final int LIMIT = 20;
+
+  @TempDir Path directory;
+
+  @Test
+  void queryLatency() throws IOException {
+    Random random = new Random(13);
+    String[] vocabulary = new String[VOCABULARY];
+    for (int i = 0; i < VOCABULARY; i++) {
+      vocabulary[i] = "w" + Integer.toString(i, 36);
+    }
+    double[] cumulative = new double[VOCABULARY];
+    double sum = 0;
+    for (int i = 0; i < VOCABULARY; i++) {
+      sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cumulative[i] = sum;
+    }
+
+    InvertedIndex index = InvertedIndex.open(directory, 4, Long.MAX_VALUE);
+    long indexNanos = 0;
+    long mergeNanos = 0;
+    for (int batch = 0; batch < DOCUMENTS / BATCH; batch++) {
+      for (int i = 0; i < BATCH; i++) {
+        int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH);
+        List<String> terms = new ArrayList<>(length);
+        for (int t = 0; t < length; t++) {
+          terms.add(vocabulary[zipf(cumulative, sum, random)]);
+        }
+        index.update(new SearchDocument(new ObjectId().toHexString(), (byte) 0, terms));
+      }
+      long start = System.nanoTime();
+      index.refresh(batch);
+      indexNanos += System.nanoTime() - start;
+      start = System.nanoTime();
+      while (index.needsMerge()) {
+        index.merge();
+      }
+      mergeNanos += System.nanoTime() - start;
+    }
+    System.out.printf(
+        "index: %,d documents in %d segments, %,d MiB on disk, %,.0f documents/s, "
+            + "%,d ms merging%n",
+        index.documentCount(),
+        index.segmentCount(),
+        index.sizeInBytes() >> 20,
+        DOCUMENTS * 1e9 / indexNanos,
+        mergeNanos / 1_000_000);
+
+    report(index, "mid-frequency", queries(vocabulary, random, 100, 20_000), QUERIES);
+    report(index, "frequent", queries(vocabulary, random, 0, 100), QUERIES / 20);
+    index.close();
+  }
+
+  private static List<List<String>> queries(
+      String[] vocabulary, Random random, int fromRank, int toRank) {
+    List<List<String>> queries = new ArrayList<>(QUERIES);
+    for (int q = 0; q < QUERIES; q++) {
+      List<String> terms = new ArrayList<>();
+      for (int t = random.nextInt(3); t >= 0; t--) {
+        terms.add(vocabulary[fromRank + random.nextInt(toRank - fromRank)]);
+      }
+      queries.add(terms);
+    }
+    return queries;
+  }
+
+  private static void report(
+      InvertedIndex index, String name, List<List<String>> queries, int count) {
+    // Warm up the JIT and the page cache on the same queries.
+    for (int q = 0; q < count; q++) {
+      index.search(queries.get(q), -1, LIMIT);
+    }
+    long[] latencies = new long[count];
+    for (int q = 0; q < count; q++) {
+      long start = System.nanoTime();
+      index.search(queries.get(q), -1, LIMIT);
+      latencies[q] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%s queries: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms over %,d queries%n",
+        name,
+        latencies[count / 2] / 1e6,
+        latencies[(int) (count * 0.99)] / 1e6,
+        latencies[(int) (count * 0.999)] / 1e6,
+        latencies[count - 1] / 1e6,
+        count);
+  }
+
+  private static int zipf(double[] cumulative, double sum, Random random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+    return Math.min(cumulative.length - 1, index < 0 ? -index - 1 : index);
+  }
+}
@@ -0,0 +1,153 @@
+package com.lari.bloggerhub.util.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lari.bloggerhub.util.search.InvertedIndex.Hit;
+import com.lari.bloggerhub.util.search.InvertedIndex.SearchDocument;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InvertedIndexTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void ranksByBm25AndAppliesUpdatesAndDeletesAcrossReopens() throws IOException {
+    InvertedIndex index = InvertedIndex.open(directory, 8, Long.MAX_VALUE);
+    index.update(document("a", 0, "Caching in Java: caching strategies for the JVM"));
+    index.update(document("b", 0, "A short note on Java records"));
+    index.update(document("c", 1, "caching enthusiast"));
+    index.refresh(42);
+
+    assertEquals(List.of("a", "c"), keys(index.search(Tokenizer.tokenize("caching"), -1, 10)));
+    assertEquals(List.of("c"), keys(index.search(List.of("caching"), 1, 10)));
+    assertEquals("a", index.search(Tokenizer.tokenize("java caching"), -1, 10).get(0).key());
+
+    index.update(document("b", 0, "Caching everything, everywhere, caching always"));
+    index.delete("c");
+    index.refresh(43);
+    index.close();
+
+    InvertedIndex reopened = InvertedIndex.open(directory, 8, Long.MAX_VALUE);
+    assertEquals(43, reopened.checkpoint());
+    assertEquals(2, reopened.documentCount());
+    assertEquals(List.of("b", "a"), keys(reopened.search(List.of("caching"), -1, 10)));
+    assertEquals(List.of("a"), keys(reopened.search(List.of("records", "jvm"), -1, 10)));
+  }
+
+  @Test
+  void mergesKeepTheLiveDocumentsOfRandomUpdatesAndDeletes() throws IOException {
+    Random random = new Random(7);
+    InvertedIndex index = InvertedIndex.open(directory, 3, Long.MAX_VALUE);
+    Map<String, Set<String>> expected = new HashMap<>();
+    for (int round = 0; round < 12; round++) {
+      for (int i = 0; i < 200; i++) {
+        String key = "doc-" + random.nextInt(500);
+        if (random.nextInt(10) == 0) {
+          index.delete(key);
+          expected.remove(key);
+        } else {
+          List<String> terms = new ArrayList<>();
+          for (int t = random.nextInt(20) + 1; t > 0; t--) {
+            terms.add("term" + (int) Math.sqrt(random.nextInt(400)));
+          }
+          index.update(new SearchDocument(key, (byte) 0, terms));
+          expected.put(key, new HashSet<>(terms));
+        }
+      }
+      index.refresh(round);
+      if (round % 4 == 3) {
+        while (index.needsMerge()) {
+          index.merge();
+        }
+        assertTrue(index.segmentCount() <= 3);
+      }
+    }
+    index.close();
+
+    InvertedIndex reopened = InvertedIndex.open(directory, 3, Long.MAX_VALUE);
+    assertEquals(expected.size(), reopened.documentCount());
+    for (int t = 0; t < 20; t++) {
+      String term = "term" + t;
+      Set<String> matching = new HashSet<>();
+      expected.forEach(
+          (key, terms) -> {
+            if (terms.contains(term)) {
+              matching.add(key);
+            }
+          });
+      assertEquals(
+          matching, new HashSet<>(keys(reopened.search(List.of(term), -1, 1000))), term);
+    }
+  }
+
+  @Test
+  void keepsTheBufferedChangesOfAFailedRefresh() throws IOException {
+    InvertedIndex index = InvertedIndex.open(directory, 8, Long.MAX_VALUE);
+    index.update(document("a", 0, "first post"));
+    index.refresh(1);
+
+    // A directory in place of the next segment file makes writing it fail.
+    Files.createDirectory(directory.resolve("seg-000000000002.seg"));
+    index.update(document("b", 0, "second post"));
+    index.delete("a");
+    assertThrows(IOException.class, () -> index.refresh(2));
+    assertEquals(1, index.checkpoint());
+    assertEquals(List.of("a"), keys(index.search(List.of("post"), -1, 10)));
+
+    index.update(document("c", 0, "third post"));
+    index.refresh(3);
+    assertEquals(List.of("b", "c"), sorted(keys(index.search(List.of("post"), -1, 10))));
+    index.close();
+
+    InvertedIndex reopened = InvertedIndex.open(directory, 8, Long.MAX_VALUE);
+    assertEquals(List.of("b", "c"), sorted(keys(reopened.search(List.of("post"), -1, 10))));
+  }
+
+  @Test
+  void keepsOnlyTheLatestDeletesFileOfASegment() throws IOException {
+    InvertedIndex index = InvertedIndex.open(directory, 8, Long.MAX_VALUE);
+    for (int i = 0; i < 10; i++) {
+      index.update(document("doc-" + i, 0, "post number " + i));
+    }
+    index.refresh(1);
+    for (int i = 0; i < 5; i++) {
+      index.delete("doc-" + i);
+      index.refresh(2 + i);
+    }
+
+    try (Stream<Path> files = Files.list(directory)) {
+      List<String> names = files.map(file -> file.getFileName().toString()).toList();
+      assertEquals(
+          List.of("seg-000000000001-5.del"),
+          names.stream().filter(name -> name.endsWith(".del")).toList());
+    }
+    index.close();
+    assertEquals(5, InvertedIndex.open(directory, 8, Long.MAX_VALUE).documentCount());
+  }
+
+  private static List<String> sorted(List<String> keys) {
+    return keys.stream().sorted().toList();
+  }
+
+  private static SearchDocument document(String key, int type, String text) {
+    return new SearchDocument(key, (byte) type, Tokenizer.tokenize(text));
+  }
+
+  private static List<String> keys(List<Hit> hits) {
+    return hits.stream().map(Hit::key).toList();
+  }
+}
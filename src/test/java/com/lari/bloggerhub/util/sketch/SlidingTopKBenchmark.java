@@ -0,0 +1,152 @@
+package com.lari.bloggerhub.util.sketch;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the ingest throughput of {@link SlidingTopK} on one core, the cost of handing events
+ * over from request threads through a {@link ConcurrentLinkedQueue}, and the accuracy of the
+ * top-K against exact counts, for a Zipf distributed stream of post reads.
+ *
+ * <p>Run with {@code ./mvnw test -Pbenchmark -Dtest=SlidingTopKBenchmark}.
+ */
+@Tag("benchmark")
+class SlidingTopKBenchmark {
+
+  private static final int POSTS = 1_000_000;
+  private static final int EVENTS = 20_000_000;
+  private static final double ZIPF_EXPONENT = 1.1;
+  private static final int TOP_K = 50;
+  private static final int PRODUCERS = 4;
+
+  @Test
+  void ingestThroughputAndAccuracy() throws InterruptedException {
+    String[] posts = new String[POSTS];
+    for (int i = 0; i < POSTS; i++) {
+      posts[i] = new ObjectId().toHexString();
+    }
+    int[] stream = zipfStream(new Random(11));
+
+    // Warm up on a separate tracker, then measure CPU time of the consuming thread.
+    SlidingTopK warmup = new SlidingTopK(3_600_000, 12, TOP_K * 4, 16384, 4, 0);
+    for (int i = 0; i < 2_000_000; i++) {
+      warmup.add(posts[stream[i]], 1, 0);
+    }
+    SlidingTopK tracker = new SlidingTopK(3_600_000, 12, TOP_K * 4, 16384, 4, 0);
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long cpuStart = threads.getCurrentThreadCpuTime();
+    for (int post : stream) {
+      tracker.add(posts[post], 1, 0);
+    }
+    long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+    System.out.printf(
+        "ingest: %,d events in %,d ms of CPU, %,.0f events/s per core, %,d KiB of sketches%n",
+        EVENTS, cpuNanos / 1_000_000, EVENTS * 1e9 / cpuNanos, tracker.sizeInBytes() / 1024);
+
+    reportHandOff(posts, stream);
+    reportAccuracy(posts, stream, tracker.top(TOP_K));
+  }
+
+  private static void reportHandOff(String[] posts, int[] stream) throws InterruptedException {
+    record Event(String postId, long weight) {}
+    Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> producers = new ArrayList<>();
+    int perProducer = EVENTS / PRODUCERS;
+    for (int p = 0; p < PRODUCERS; p++) {
+      int from = p * perProducer;
+      producers.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    try {
+                      start.await();
+                    } catch (InterruptedException e) {
+                      return;
+                    }
+                    for (int i = from; i < from + perProducer; i++) {
+                      queue.offer(new Event(posts[stream[i]], 1));
+                    }
+                  }));
+    }
+    SlidingTopK tracker = new SlidingTopK(3_600_000, 12, TOP_K * 4, 16384, 4, 0);
+    long begin = System.nanoTime();
+    start.countDown();
+    long consumed = 0;
+    while (consumed < (long) perProducer * PRODUCERS) {
+      Event event = queue.poll();
+      if (event == null) {
+        Thread.onSpinWait();
+        continue;
+      }
+      tracker.add(event.postId(), event.weight(), 0);
+      consumed++;
+    }
+    long elapsed = System.nanoTime() - begin;
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    System.out.printf(
+        "hand-off: %d producers, %,.0f events/s through the queue into one consumer%n",
+        PRODUCERS, consumed * 1e9 / elapsed);
+  }
+
+  private static void reportAccuracy(
+      String[] posts, int[] stream, List<SlidingTopK.Entry> estimated) {
+    Map<String, Long> exact = new HashMap<>();
+    for (int post : stream) {
+      exact.merge(posts[post], 1L, Long::sum);
+    }
+    List<Map.Entry<String, Long>> exactTop =
+        exact.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(TOP_K)
+            .toList();
+    Set<String> exactKeys = new HashSet<>();
+    exactTop.forEach(entry -> exactKeys.add(entry.getKey()));
+
+    int hits = 0;
+    double maxRelativeError = 0;
+    for (SlidingTopK.Entry entry : estimated) {
+      if (exactKeys.contains(entry.key())) {
+        hits++;
+      }
+      long truth = exact.getOrDefault(entry.key(), 0L);
+      double error = Math.abs(entry.weight() - truth) / (double) truth;
+      maxRelativeError = Math.max(maxRelativeError, error);
+    }
+    System.out.printf(
+        "accuracy: recall@%d %.2f, max relative weight error %.4f, k-th exact weight %,d%n",
+        TOP_K, hits / (double) TOP_K, maxRelativeError, exactTop.get(TOP_K - 1).getValue());
+  }
+
+  /** Samples post indexes with a Zipf distribution by inverting the cumulative weights. */
+  private static int[] zipfStream(Random random) {
+    double[] cumulative = new double[POSTS];
+    double sum = 0;
+    for (int i = 0; i < POSTS; i++) {
+      sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cumulative[i] = sum;
+    }
+    int[] stream = new int[EVENTS];
+    for (int i = 0; i < EVENTS; i++) {
+      int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      stream[i] = Math.min(POSTS - 1, index < 0 ? -index - 1 : index);
+    }
+    return stream;
+  }
+}
@@ -0,0 +1,35 @@
+package com.lari.bloggerhub.util.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SlidingTopKTest {
+
+  @Test
+  void ranksHeavyKeysAndForgetsThemOnceTheirBucketsExpire() {
+    SlidingTopK tracker = new SlidingTopK(60_000, 6, 8, 1024, 4, 0);
+    for (int i = 0; i < 1_000; i++) {
+      tracker.add("light" + i, 1, 0);
+    }
+    tracker.add("old", 500, 0);
+    tracker.add("new", 200, 30_000);
+    tracker.add("new", 100, 30_000);
+
+    List<SlidingTopK.Entry> top = tracker.top(2);
+    assertEquals("old", top.get(0).key());
+    assertEquals(500, top.get(0).weight());
+    assertEquals(new SlidingTopK.Entry("new", 300), top.get(1));
+
+    // After a full window the first bucket has been reused.
+    tracker.advance(65_000);
+    top = tracker.top(2);
+    assertEquals(new SlidingTopK.Entry("new", 300), top.get(0));
+    assertTrue(top.size() == 1 || top.get(1).weight() <= 2, "unexpected: " + top);
+
+    tracker.advance(200_000);
+    assertEquals(List.of(), tracker.top(2));
+  }
+}
@@ -0,0 +1,81 @@
+package com.lari.bloggerhub.util.text;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TextDiffTest {
+
+  @Test
+  void narrowsChangesToTheCharactersThatDiffer() {
+    String from = "# Title\n\nThe quick brown fox.\nJumps over the dog.\n";
+    String to = "# Title\n\nThe quick red fox.\nJumps over the lazy dog.\n";
+
+    List<TextEdit> edits = TextDiff.diff(from, to);
+
+    assertEquals(List.of(new TextEdit(19, 5, "red"), new TextEdit(43, 0, "lazy ")), edits);
+    assertEquals(List.of(), TextDiff.diff(to, to));
+  }
+
+  @Test
+  void editsRebuildTheTargetText() {
+    Random random = new Random(5);
+    for (int round = 0; round < 500; round++) {
+      List<String> lines = randomLines(random, random.nextInt(30));
+      String from = String.join("", lines);
+      for (int change = random.nextInt(6); change > 0; change--) {
+        int at = lines.isEmpty() ? 0 : random.nextInt(lines.size());
+        switch (random.nextInt(3)) {
+          case 0 -> lines.add(at, randomLines(random, 1).get(0));
+          case 1 -> {
+            if (!lines.isEmpty()) {
+              lines.remove(at);
+            }
+          }
+          default -> {
+            if (!lines.isEmpty()) {
+              lines.set(at, lines.get(at).replace('a', 'z'));
+            }
+          }
+        }
+      }
+      String to = String.join("", lines) + (random.nextBoolean() ? "tail" : "");
+
+      StringBuilder text = new StringBuilder(from);
+      TextEdit.apply(text, TextDiff.diff(from, to));
+      assertEquals(to, text.toString());
+    }
+  }
+
+  @Test
+  void rebuildsRewritesBeyondTheChangeLimit() {
+    StringBuilder from = new StringBuilder("head\n");
+    StringBuilder to = new StringBuilder("head\n");
+    for (int i = 0; i < TextDiff.MAX_CHANGED_LINES; i++) {
+      from.append("old ").append(i).append('\n');
+      to.append("new ").append(i).append('\n').append("added ").append(i).append('\n');
+    }
+
+    List<TextEdit> edits = TextDiff.diff(from.toString(), to.toString());
+
+    assertTrue(edits.size() <= TextDiff.MAX_CHANGED_LINES + 1, "edits: " + edits.size());
+    TextEdit.apply(from, edits);
+    assertEquals(to.toString(), from.toString());
+  }
+
+  private static List<String> randomLines(Random random, int count) {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      StringBuilder line = new StringBuilder();
+      for (int length = random.nextInt(12); length > 0; length--) {
+        line.append((char) ('a' + random.nextInt(4)));
+      }
+      lines.add(line.append('\n').toString());
+    }
+    return lines;
+  }
+}
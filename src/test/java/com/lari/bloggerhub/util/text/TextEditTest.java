@@ -0,0 +1,65 @@
+package com.lari.bloggerhub.util.text;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TextEditTest {
+
+  @Test
+  void appliesEditsInOrder() {
+    StringBuilder text = new StringBuilder("Hello world");
+    List<TextEdit> edits =
+        List.of(
+            new TextEdit(5, 0, ","), new TextEdit(7, 5, "there"), new TextEdit(12, 0, null));
+
+    assertEquals(12, TextEdit.apply(text.length(), edits));
+    TextEdit.apply(text, edits);
+    assertEquals("Hello, there", text.toString());
+  }
+
+  @Test
+  void rejectsEditsOutsideTheText() {
+    assertThrows(
+        IllegalArgumentException.class, () -> TextEdit.apply(5, List.of(new TextEdit(6, 0, "x"))));
+    assertThrows(
+        IllegalArgumentException.class, () -> TextEdit.apply(5, List.of(new TextEdit(3, 3, ""))));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> TextEdit.apply(5, List.of(new TextEdit(0, 5, ""), new TextEdit(1, 0, "x"))));
+    StringBuilder text = new StringBuilder("abc");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> TextEdit.apply(text, List.of(new TextEdit(0, 1, ""), new TextEdit(3, 0, "x"))));
+    assertEquals("abc", text.toString());
+  }
+
+  @Test
+  void replayedPatchesRebuildTheText() {
+    Random random = new Random(11);
+    StringBuilder expected = new StringBuilder();
+    List<List<TextEdit>> log = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      List<TextEdit> patch = new ArrayList<>();
+      StringBuilder scratch = new StringBuilder(expected);
+      for (int j = random.nextInt(3) + 1; j > 0; j--) {
+        int at = random.nextInt(scratch.length() + 1);
+        int delete = random.nextInt(Math.min(8, scratch.length() - at) + 1);
+        TextEdit edit = new TextEdit(at, delete, "x" + i);
+        scratch.replace(at, at + delete, edit.insert());
+        patch.add(edit);
+      }
+      assertEquals(scratch.length(), TextEdit.apply(expected.length(), patch));
+      expected = scratch;
+      log.add(patch);
+    }
+
+    StringBuilder replayed = new StringBuilder();
+    log.forEach(patch -> TextEdit.apply(replayed, patch));
+    assertEquals(expected.toString(), replayed.toString());
+  }
+}